@@ -0,0 +1,118 @@
+package com.ocado.basket.server;
+
+import com.ocado.basket.logic.ConfigLoader;
+import org.json.JSONArray;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * LoadTestClient class
+ * Closed loop load test of a {@link SplitServer}: every client thread sends its next basket as soon as the previous
+ * one is answered, cycling through the given baskets, until the requested number of requests is sent.
+ * Usage: {@code LoadTestClient <config.json> [url] [concurrency] [requests] [basketSize]}, the baskets are drawn with
+ * a fixed seed from the products of the config, and a tenth of the requests warm the server up before the measured run.
+ * Only requests answered with 200 are timed, rejected ones are counted apart.
+ *
+ * @version 1.0
+ */
+public class LoadTestClient {
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final URI uri;
+
+    public LoadTestClient(URI uri) {
+        this.uri = uri;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length < 1) {
+            System.err.println("Usage: LoadTestClient <config.json> [url] [concurrency] [requests] [basketSize]");
+            System.exit(1);
+        }
+        URI uri = URI.create(args.length > 1 ? args[1] : "http://localhost:8080/split");
+        int concurrency = args.length > 2 ? Integer.parseInt(args[2]) : 16;
+        int requests = args.length > 3 ? Integer.parseInt(args[3]) : 20_000;
+        int basketSize = args.length > 4 ? Integer.parseInt(args[4]) : 20;
+        List<String> products = new ArrayList<>(new ConfigLoader().loadDeliveryOptions(args[0]).keySet());
+        List<List<String>> baskets = randomBaskets(products, basketSize, 1_000, new Random(1));
+
+        LoadTestClient loadTest = new LoadTestClient(uri);
+        loadTest.run(baskets, concurrency, Math.max(1, requests / 10));
+        System.out.println(loadTest.run(baskets, concurrency, requests));
+    }
+
+    /**
+     * @return baskets of distinct products drawn uniformly from the given products
+     */
+    public static List<List<String>> randomBaskets(List<String> products, int basketSize, int count, Random random) {
+        List<List<String>> baskets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<String> basket = new ArrayList<>(basketSize);
+            while (basket.size() < Math.min(basketSize, products.size())) {
+                String product = products.get(random.nextInt(products.size()));
+                if (!basket.contains(product)) {
+                    basket.add(product);
+                }
+            }
+            baskets.add(basket);
+        }
+        return baskets;
+    }
+
+    /**
+     * Send the requests from the given number of client threads and wait for all answers
+     */
+    public LoadTestReport run(List<List<String>> baskets, int concurrency, int requests) throws InterruptedException {
+        List<String> bodies = baskets.stream().map(basket -> new JSONArray(basket).toString()).toList();
+        long[] latencies = new long[requests];
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger timed = new AtomicInteger();
+        LongAdder succeeded = new LongAdder();
+        LongAdder rejected = new LongAdder();
+        List<Thread> clients = new ArrayList<>(concurrency);
+        long start = System.nanoTime();
+        for (int i = 0; i < concurrency; i++) {
+            Thread thread = new Thread(() -> {
+                for (int request = next.getAndIncrement(); request < requests; request = next.getAndIncrement()) {
+                    HttpRequest httpRequest = HttpRequest.newBuilder(uri)
+                            .POST(HttpRequest.BodyPublishers.ofString(bodies.get(request % bodies.size())))
+                            .build();
+                    long sent = System.nanoTime();
+                    try {
+                        int status = client.send(httpRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+                        long latency = System.nanoTime() - sent;
+                        if (status == 200) {
+                            // a 503 is answered at once, timing it would lower the percentiles as the server saturates
+                            latencies[timed.getAndIncrement()] = latency;
+                            succeeded.increment();
+                        } else if (status == 503) {
+                            rejected.increment();
+                        }
+                    } catch (IOException e) {
+                        // counted as failed
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }, "load-test-client-" + i);
+            clients.add(thread);
+            thread.start();
+        }
+        for (Thread thread : clients) {
+            thread.join();
+        }
+        long elapsed = System.nanoTime() - start;
+        long[] succeededLatencies = Arrays.copyOf(latencies, timed.get());
+        return LoadTestReport.of(requests, succeeded.sum(), rejected.sum(), elapsed, succeededLatencies);
+    }
+}
@@ -0,0 +1,60 @@
+package com.ocado.basket.server;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * LoadTestReport class
+ * Outcome of a {@link LoadTestClient} run
+ * Contains
+ * - requests: number of requests sent
+ * - succeeded: requests answered with 200
+ * - rejected: requests answered with 503 because the split queue was full
+ * - failed: requests answered with another status or not answered
+ * - elapsedNanos: wall time of the run
+ * - p50Micros, p99Micros: latency percentiles of the requests answered with 200
+ *
+ * @version 1.0
+ */
+@Getter
+@AllArgsConstructor
+public class LoadTestReport {
+    private final long requests;
+    private final long succeeded;
+    private final long rejected;
+    private final long failed;
+    private final long elapsedNanos;
+    private final double p50Micros;
+    private final double p99Micros;
+
+    /**
+     * @param latencyNanos latencies of the requests answered with 200, sorted in place
+     */
+    static LoadTestReport of(long requests, long succeeded, long rejected, long elapsedNanos, long[] latencyNanos) {
+        Arrays.sort(latencyNanos);
+        return new LoadTestReport(requests, succeeded, rejected, requests - succeeded - rejected, elapsedNanos,
+                percentile(latencyNanos, 0.50) / 1_000.0, percentile(latencyNanos, 0.99) / 1_000.0);
+    }
+
+    /**
+     * @return requests answered with 200 per second
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : succeeded * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("requests=%d ok=%d rejected=%d failed=%d throughput=%.0f req/s p50=%.0f us p99=%.0f us",
+                requests, succeeded, rejected, failed, getThroughput(), p50Micros, p99Micros);
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)];
+    }
+}
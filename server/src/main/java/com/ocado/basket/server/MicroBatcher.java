@@ -0,0 +1,150 @@
+package com.ocado.basket.server;
+
+import com.ocado.basket.BasketSplitter;
+import com.ocado.basket.dto.BasketSplitResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * MicroBatcher class
+ * Coalesces baskets of concurrent requests into small batches split by a pool of worker threads.
+ * A worker blocks until a basket is queued, then drains without waiting its share of the queued baskets, the queue size
+ * divided by the number of workers, up to maxBatchSize - 1 more, so an idle server adds no latency, a loaded one wakes a worker
+ * once per batch instead of once per request, and one worker does not take the baskets the other workers could split.
+ * Every basket of a batch completes its own future as soon as it is split, a basket that fails does not fail the others.
+ * The queue is bounded: when it is full, {@link #submit} rejects the basket instead of letting the latency grow.
+ *
+ * @version 1.0
+ */
+public class MicroBatcher implements AutoCloseable {
+    private final Function<List<String>, Map<String, List<String>>> split;
+    private final int maxBatchSize;
+    private final int workerCount;
+    private final BlockingQueue<PendingSplit> queue;
+    private final List<Thread> workers = new ArrayList<>();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedBaskets = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private volatile boolean closed;
+
+    public MicroBatcher(BasketSplitter splitter, ServerOptions options) {
+        this(splitter::split, options);
+    }
+
+    MicroBatcher(Function<List<String>, Map<String, List<String>>> split, ServerOptions options) {
+        this.split = split;
+        this.maxBatchSize = options.getMaxBatchSize();
+        this.workerCount = options.getWorkers();
+        this.queue = new ArrayBlockingQueue<>(options.getQueueCapacity());
+        for (int i = 0; i < options.getWorkers(); i++) {
+            Thread worker = new Thread(this::work, "split-worker-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+    }
+
+    /**
+     * Queue a basket for splitting
+     * @return future completed with the result of the split, a split that throws gives a {@link BasketSplitResult#failure},
+     * completed with a {@link RejectedExecutionException} if the batcher is closed before the basket is split
+     * @throws RejectedExecutionException if the queue is full or the batcher is closed
+     */
+    public CompletableFuture<BasketSplitResult> submit(List<String> items) {
+        PendingSplit pending = new PendingSplit(items);
+        if (closed || !queue.offer(pending)) {
+            rejected.increment();
+            throw new RejectedExecutionException(closed ? "Batcher is closed" : "Split queue is full");
+        }
+        // close() may have drained the queue between the check and the offer, nothing would take the basket then
+        if (closed && queue.remove(pending)) {
+            rejected.increment();
+            throw new RejectedExecutionException("Batcher is closed");
+        }
+        return pending.result;
+    }
+
+    /**
+     * @return number of batches the workers took from the queue
+     */
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    /**
+     * @return number of baskets split in batches, divided by {@link #getBatches} it gives the average batch size
+     */
+    public long getBatchedBaskets() {
+        return batchedBaskets.sum();
+    }
+
+    /**
+     * @return number of baskets rejected because the queue was full
+     */
+    public long getRejected() {
+        return rejected.sum();
+    }
+
+    /**
+     * Stops the workers after their current batch, baskets still queued are completed with a {@link RejectedExecutionException}
+     */
+    @Override
+    public void close() {
+        closed = true;
+        workers.forEach(Thread::interrupt);
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        List<PendingSplit> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(pending -> pending.result.completeExceptionally(new RejectedExecutionException("Batcher is closed")));
+    }
+
+    private void work() {
+        List<PendingSplit> batch = new ArrayList<>(maxBatchSize);
+        while (!closed) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, Math.min(maxBatchSize - 1, queue.size() / workerCount));
+            batches.increment();
+            batchedBaskets.add(batch.size());
+            for (PendingSplit pending : batch) {
+                pending.result.complete(splitOne(pending.items));
+            }
+            batch.clear();
+        }
+    }
+
+    private BasketSplitResult splitOne(List<String> items) {
+        try {
+            return BasketSplitResult.success(split.apply(items));
+        } catch (RuntimeException e) {
+            return BasketSplitResult.failure(e);
+        }
+    }
+
+    private static final class PendingSplit {
+        private final List<String> items;
+        private final CompletableFuture<BasketSplitResult> result = new CompletableFuture<>();
+
+        PendingSplit(List<String> items) {
+            this.items = items;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.ocado.basket.server;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * ServerOptions class
+ * Contains
+ * - port: port the server listens on, 0 picks a free port
+ * - handlerThreads: threads parsing requests and queueing them, they never wait for a split
+ * - workers: threads splitting the queued baskets, they share the catalog of the splitter
+ * - maxBatchSize: most baskets a worker takes from the queue at once
+ * - queueCapacity: most baskets waiting for a worker, further requests are answered with 503
+ *
+ * @version 1.0
+ */
+@Getter
+@Builder
+public class ServerOptions {
+    @Builder.Default
+    private final int port = 8080;
+    @Builder.Default
+    private final int handlerThreads = 2;
+    @Builder.Default
+    private final int workers = Runtime.getRuntime().availableProcessors();
+    @Builder.Default
+    private final int maxBatchSize = 16;
+    @Builder.Default
+    private final int queueCapacity = 1024;
+
+    public static ServerOptions defaults() {
+        return builder().build();
+    }
+}
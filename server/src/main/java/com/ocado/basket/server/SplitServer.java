@@ -0,0 +1,182 @@
+package com.ocado.basket.server;
+
+import com.ocado.basket.BasketSplitter;
+import com.ocado.basket.dto.BasketSplitResult;
+import com.ocado.basket.exceptions.InvalidItemException;
+import com.ocado.basket.json.SplitJsonWriter;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * SplitServer class
+ * Serves {@link BasketSplitter#split} over HTTP with the JDK server, POST /split with a JSON array of items
+ * answers with the JSON object of delivery options and items, streamed by {@link SplitJsonWriter}:
+ * - 400 for malformed JSON or an item without delivery options, 405 for other methods
+ * - 503 with Retry-After when the split queue is full, so clients back off instead of queueing without limit
+ * - 500 for any other failure of the split
+ * Handler threads only parse and queue the basket; the {@link MicroBatcher} worker that splits it also writes the response,
+ * so a request waiting for its split holds no thread.
+ * Run the JVM with -Dsun.net.httpserver.nodelay=true, as {@link #main} and the application task do: without TCP_NODELAY
+ * the body written after the headers waits for the delayed ACK of the client, about 40 ms per response. The JDK server
+ * reads the property once, so it has to be set before the first server of the process is created.
+ * Usage: {@code SplitServer <config.json> [port]}
+ *
+ * @version 1.0
+ */
+public class SplitServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService handlers;
+    private final MicroBatcher batcher;
+
+    private SplitServer(HttpServer server, ExecutorService handlers, MicroBatcher batcher) {
+        this.server = server;
+        this.handlers = handlers;
+        this.batcher = batcher;
+    }
+
+    /**
+     * Start a server splitting the baskets with the given splitter
+     * @throws UncheckedIOException if the port cannot be bound
+     */
+    public static SplitServer start(BasketSplitter splitter, ServerOptions options) {
+        HttpServer server;
+        try {
+            server = HttpServer.create(new InetSocketAddress(options.getPort()), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to bind port " + options.getPort(), e);
+        }
+        AtomicInteger handlerIndex = new AtomicInteger();
+        ExecutorService handlers = Executors.newFixedThreadPool(options.getHandlerThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "split-handler-" + handlerIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        SplitServer splitServer = new SplitServer(server, handlers, new MicroBatcher(splitter, options));
+        server.createContext("/split", splitServer::handleSplit);
+        server.setExecutor(handlers);
+        server.start();
+        return splitServer;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public MicroBatcher getBatcher() {
+        return batcher;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        batcher.close();
+        handlers.shutdownNow();
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("Usage: SplitServer <config.json> [port]");
+            System.exit(1);
+        }
+        System.getProperties().putIfAbsent("sun.net.httpserver.nodelay", "true");
+        ServerOptions options = ServerOptions.builder().port(args.length > 1 ? Integer.parseInt(args[1]) : 8080).build();
+        SplitServer server = start(new BasketSplitter(args[0]), options);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        System.out.println("Splitting baskets on http://localhost:" + server.getPort() + "/split");
+    }
+
+    private void handleSplit(HttpExchange exchange) {
+        if (!"POST".equals(exchange.getRequestMethod())) {
+            respond(exchange, 405, error("Only POST is supported"));
+            return;
+        }
+        List<String> items;
+        try (InputStream body = exchange.getRequestBody()) {
+            items = parseItems(body);
+        } catch (JSONException | IOException e) {
+            respond(exchange, 400, error("Invalid request: " + e.getMessage()));
+            return;
+        }
+        try {
+            batcher.submit(items).whenComplete((result, failure) -> respondWithSplit(exchange, result, failure));
+        } catch (RejectedExecutionException e) {
+            exchange.getResponseHeaders().set("Retry-After", "1");
+            respond(exchange, 503, error(e.getMessage()));
+        }
+    }
+
+    private static List<String> parseItems(InputStream body) {
+        JSONArray array = new JSONArray(new JSONTokener(body));
+        List<String> items = new ArrayList<>(array.length());
+        for (int i = 0; i < array.length(); i++) {
+            items.add(array.getString(i));
+        }
+        return items;
+    }
+
+    private static void respondWithSplit(HttpExchange exchange, BasketSplitResult result, Throwable failure) {
+        if (failure != null) {
+            respond(exchange, 503, error(failure.getMessage()));
+        } else if (result.isSuccess()) {
+            respondWithDeliveries(exchange, result.getDeliveries());
+        } else if (result.getError() instanceof InvalidItemException) {
+            respond(exchange, 400, error(result.getError().getMessage()));
+        } else {
+            respond(exchange, 500, error(String.valueOf(result.getError().getMessage())));
+        }
+    }
+
+    /**
+     * Streams the deliveries as the chunked response body, without building the JSON string first
+     */
+    private static void respondWithDeliveries(HttpExchange exchange, Map<String, List<String>> deliveries) {
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream response = exchange.getResponseBody()) {
+                new SplitJsonWriter(response).write(deliveries);
+            }
+        } catch (IOException e) {
+            // the client closed the connection, there is nobody left to answer
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static String error(String message) {
+        return new JSONObject().put("error", message).toString();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream response = exchange.getResponseBody()) {
+                response.write(bytes);
+            }
+        } catch (IOException e) {
+            // the client closed the connection, there is nobody left to answer
+        } finally {
+            exchange.close();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.ocado.basket.server;
+
+import com.ocado.basket.dto.BasketSplitResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MicroBatcherTest {
+
+    @Test
+    void submit_whileWorkerIsBusy_coalescesQueuedBasketsIntoOneBatch() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        var options = ServerOptions.builder().workers(1).maxBatchSize(8).build();
+        try (var batcher = new MicroBatcher(items -> blockOn("blocking", items, started, release), options)) {
+            var first = batcher.submit(List.of("blocking"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            List<CompletableFuture<BasketSplitResult>> queued = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                queued.add(batcher.submit(List.of("item" + i)));
+            }
+            release.countDown();
+
+            assertTrue(first.get(5, TimeUnit.SECONDS).isSuccess());
+            for (int i = 0; i < 5; i++) {
+                assertEquals(Map.of("deliveryOption", List.of("item" + i)), queued.get(i).get(5, TimeUnit.SECONDS).getDeliveries());
+            }
+            assertEquals(2, batcher.getBatches());
+            assertEquals(6, batcher.getBatchedBaskets());
+        }
+    }
+
+    @Test
+    void submit_severalWorkers_drainOnlyTheirShareOfTheQueue() throws Exception {
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        var options = ServerOptions.builder().workers(2).maxBatchSize(16).build();
+        try (var batcher = new MicroBatcher(items -> blockOn("blocking", items, started, release), options)) {
+            var first = batcher.submit(List.of("blocking"));
+            var second = batcher.submit(List.of("blocking"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            List<CompletableFuture<BasketSplitResult>> queued = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                queued.add(batcher.submit(List.of("item" + i)));
+            }
+            release.countDown();
+
+            assertTrue(first.get(5, TimeUnit.SECONDS).isSuccess());
+            assertTrue(second.get(5, TimeUnit.SECONDS).isSuccess());
+            for (CompletableFuture<BasketSplitResult> result : queued) {
+                assertTrue(result.get(5, TimeUnit.SECONDS).isSuccess());
+            }
+            // at most half of the queued baskets per batch: 3, 2 and 1 of the 6
+            assertTrue(batcher.getBatches() >= 5);
+            assertEquals(8, batcher.getBatchedBaskets());
+        }
+    }
+
+    @Test
+    void submit_fullQueue_rejectsBasket() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        var options = ServerOptions.builder().workers(1).queueCapacity(2).build();
+        try (var batcher = new MicroBatcher(items -> blockOn("blocking", items, started, release), options)) {
+            batcher.submit(List.of("blocking"));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            batcher.submit(List.of("item1"));
+            batcher.submit(List.of("item2"));
+
+            assertThrows(RejectedExecutionException.class, () -> batcher.submit(List.of("item3")));
+            assertEquals(1, batcher.getRejected());
+            release.countDown();
+        }
+    }
+
+    @Test
+    void submit_failingBasket_failsOnlyItsOwnResult() throws ExecutionException, InterruptedException {
+        var options = ServerOptions.builder().workers(1).build();
+        try (var batcher = new MicroBatcher(items -> {
+            if (items.contains("invalid")) {
+                throw new IllegalArgumentException("invalid");
+            }
+            return Map.of("deliveryOption", items);
+        }, options)) {
+            var failed = batcher.submit(List.of("invalid"));
+            var succeeded = batcher.submit(List.of("item1"));
+
+            assertInstanceOf(IllegalArgumentException.class, failed.get().getError());
+            assertTrue(succeeded.get().isSuccess());
+        }
+    }
+
+    @Test
+    void close_withQueuedBaskets_completesThemExceptionally() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        var batcher = new MicroBatcher(items -> blockOn("blocking", items, started, release), ServerOptions.builder().workers(1).build());
+        batcher.submit(List.of("blocking"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        var queued = batcher.submit(List.of("item1"));
+        release.countDown();
+
+        batcher.close();
+
+        assertTrue(queued.isDone());
+        assertThrows(RejectedExecutionException.class, () -> batcher.submit(List.of("item2")));
+    }
+
+    @Test
+    void close_concurrentSubmits_completesEveryAcceptedBasket() throws InterruptedException {
+        for (int round = 0; round < 20; round++) {
+            var batcher = new MicroBatcher(items -> Map.of("deliveryOption", items), ServerOptions.builder().workers(2).build());
+            List<CompletableFuture<BasketSplitResult>> accepted = new CopyOnWriteArrayList<>();
+            Thread submitter = new Thread(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    try {
+                        accepted.add(batcher.submit(List.of("item" + i)));
+                    } catch (RejectedExecutionException e) {
+                        if (e.getMessage().equals("Batcher is closed")) {
+                            return;
+                        }
+                    }
+                }
+            });
+            submitter.start();
+            batcher.close();
+            submitter.join();
+
+            for (CompletableFuture<BasketSplitResult> result : accepted) {
+                assertTrue(result.isDone());
+            }
+        }
+    }
+
+    private static Map<String, List<String>> blockOn(String blockingItem, List<String> items, CountDownLatch started, CountDownLatch release) {
+        if (items.contains(blockingItem)) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return Map.of("deliveryOption", items);
+    }
+}
@@ -0,0 +1,94 @@
+package com.ocado.basket.server;
+
+import com.ocado.basket.BasketSplitter;
+import org.json.JSONObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SplitServerTest {
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private SplitServer server;
+    private URI uri;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        var config = tempDir.resolve("config.json");
+        try (var writer = new PrintWriter(config.toFile())) {
+            writer.println("{\"item1\": [\"deliveryOption1\", \"deliveryOption2\"], \"item2\": [\"deliveryOption1\", \"deliveryOption2\"], \"item3\": [\"deliveryOption1\", \"deliveryOption3\"], \"item4\": [\"deliveryOption1\", \"deliveryOption3\"], \"item5\": [\"deliveryOption3\"], \"item6\": [\"deliveryOption2\"]}");
+        }
+        server = SplitServer.start(new BasketSplitter(config.toString()), ServerOptions.builder().port(0).workers(2).build());
+        uri = URI.create("http://localhost:" + server.getPort() + "/split");
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.close();
+    }
+
+    @Test
+    void split_validBasket_returnsDeliveries() throws Exception {
+        var response = post("[\"item1\", \"item2\", \"item3\", \"item4\", \"item5\", \"item6\"]");
+
+        assertEquals(200, response.statusCode());
+        var deliveries = new JSONObject(response.body());
+        assertEquals(2, deliveries.length());
+        assertThat(deliveries.getJSONArray("deliveryOption2").toList()).containsExactlyInAnyOrder("item1", "item2", "item6");
+        assertThat(deliveries.getJSONArray("deliveryOption3").toList()).containsExactlyInAnyOrder("item3", "item4", "item5");
+    }
+
+    @Test
+    void split_invalidItem_returnsBadRequest() throws Exception {
+        var response = post("[\"item1\", \"itemWithoutDeliveryOption\"]");
+
+        assertEquals(400, response.statusCode());
+        assertThat(new JSONObject(response.body()).getString("error")).contains("itemWithoutDeliveryOption");
+    }
+
+    @Test
+    void split_malformedJson_returnsBadRequest() throws Exception {
+        assertEquals(400, post("{\"item1\"").statusCode());
+    }
+
+    @Test
+    void split_get_returnsMethodNotAllowed() throws Exception {
+        var response = client.send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofString());
+
+        assertEquals(405, response.statusCode());
+    }
+
+    @Test
+    void loadTestClient_concurrentRequests_answersAllAndReportsLatency() throws InterruptedException {
+        var baskets = LoadTestClient.randomBaskets(List.of("item1", "item2", "item3", "item4", "item5", "item6"), 4, 20, new Random(1));
+
+        LoadTestReport report = new LoadTestClient(uri).run(baskets, 4, 200);
+
+        assertEquals(200, report.getSucceeded());
+        assertEquals(0, report.getFailed());
+        assertTrue(report.getP50Micros() > 0);
+        assertTrue(report.getP99Micros() >= report.getP50Micros());
+        assertTrue(report.getThroughput() > 0);
+        assertEquals(200, server.getBatcher().getBatchedBaskets());
+    }
+
+    private HttpResponse<String> post(String body) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri).POST(HttpRequest.BodyPublishers.ofString(body)).build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
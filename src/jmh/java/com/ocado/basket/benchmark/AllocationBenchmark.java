@@ -0,0 +1,59 @@
+package com.ocado.basket.benchmark;
+
+import com.ocado.basket.BasketSplitter;
+import com.ocado.basket.BasketSplitterOptions;
+import com.ocado.basket.logic.DeliveryCountMinimizer.DeliveryCountMinimizerType;
+import com.ocado.basket.logic.SplitPipeline;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AllocationBenchmark class
+ * Time and, through the gc profiler, bytes allocated per {@link BasketSplitter#split} (gc.alloc.rate.norm):
+ * - DYNAMIC, BRANCH_AND_BOUND: TWO_STAGE pipeline with that minimizer and {@link com.ocado.basket.logic.ItemsCountMaximizer}
+ * - LOW_ALLOCATION: the same branch and bound and greedy assignment on per-thread scratch arrays
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AllocationBenchmark {
+
+    @Param({"DYNAMIC", "BRANCH_AND_BOUND", "LOW_ALLOCATION"})
+    String path;
+
+    @Param({"10", "20"})
+    int basketSize;
+
+    private Path config;
+    private BasketSplitter splitter;
+    private BasketPool baskets;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        config = Files.createTempFile("allocation", ".json");
+        new CatalogGenerator(1, 20_000, 20, 1, 4, 1.0).writeJson(config);
+        var options = path.equals("LOW_ALLOCATION")
+                ? BasketSplitterOptions.builder().pipeline(SplitPipeline.LOW_ALLOCATION).build()
+                : BasketSplitterOptions.builder().minimizer(DeliveryCountMinimizerType.valueOf(path)).build();
+        splitter = new BasketSplitter(config.toString(), options);
+        baskets = new BasketPool(new BasketGenerator(2, 20_000, basketSize, 0.3, 1.0).generate(BasketPool.SIZE));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(config);
+    }
+
+    @Benchmark
+    public Map<String, List<String>> split() {
+        return splitter.split(baskets.next());
+    }
+}
@@ -0,0 +1,69 @@
+package com.ocado.basket.benchmark;
+
+import java.util.*;
+
+/**
+ * BasketGenerator class
+ * Seeded generator of baskets over a catalog made by {@link CatalogGenerator}
+ * - size: number of distinct products per basket
+ * - overlap: share of each basket drawn from a small set of popular products shared by all baskets
+ * - skew: exponent of the Zipf-like popularity of the remaining products, 0 picks them uniformly
+ *
+ * @version 1.0
+ */
+public final class BasketGenerator {
+    private static final int POPULAR_PRODUCTS = 50;
+
+    private final Random random;
+    private final int catalogProducts;
+    private final int size;
+    private final double overlap;
+    private final double skew;
+
+    public BasketGenerator(long seed, int catalogProducts, int size, double overlap, double skew) {
+        this.random = new Random(seed);
+        this.catalogProducts = catalogProducts;
+        this.size = Math.min(size, catalogProducts);
+        this.overlap = overlap;
+        this.skew = skew;
+    }
+
+    public List<List<String>> generate(int baskets) {
+        List<List<String>> generated = new ArrayList<>(baskets);
+        for (int i = 0; i < baskets; i++) {
+            generated.add(next());
+        }
+        return generated;
+    }
+
+    public List<String> next() {
+        Set<Integer> products = new LinkedHashSet<>();
+        int popular = Math.min((int) Math.round(size * overlap), Math.min(POPULAR_PRODUCTS, catalogProducts));
+        while (products.size() < popular) {
+            products.add(random.nextInt(Math.min(POPULAR_PRODUCTS, catalogProducts)));
+        }
+        while (products.size() < size) {
+            products.add(skewedProduct());
+        }
+        List<String> basket = new ArrayList<>(size);
+        for (int product : products) {
+            basket.add(CatalogGenerator.productName(product));
+        }
+        return basket;
+    }
+
+    /**
+     * Inverse transform sampling of a continuous power law over the product ids
+     */
+    private int skewedProduct() {
+        if (skew == 0) {
+            return random.nextInt(catalogProducts);
+        }
+        double u = random.nextDouble();
+        double exponent = 1 - skew;
+        double value = Math.abs(exponent) < 1e-9
+                ? Math.pow(catalogProducts, u)
+                : Math.pow(1 + u * (Math.pow(catalogProducts, exponent) - 1), 1 / exponent);
+        return Math.min(catalogProducts - 1, Math.max(0, (int) value - 1));
+    }
+}
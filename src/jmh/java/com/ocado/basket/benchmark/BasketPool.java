@@ -0,0 +1,30 @@
+package com.ocado.basket.benchmark;
+
+import java.util.List;
+
+/**
+ * BasketPool class
+ * Fixed set of generated baskets handed out round robin, so a benchmark does not solve the same basket every time
+ *
+ * @version 1.0
+ */
+final class BasketPool {
+    static final int SIZE = 64;
+
+    private final List<List<String>> baskets;
+    private int next;
+
+    BasketPool(List<List<String>> baskets) {
+        this.baskets = baskets;
+    }
+
+    List<String> next() {
+        List<String> basket = baskets.get(next);
+        next = (next + 1) % baskets.size();
+        return basket;
+    }
+
+    List<List<String>> all() {
+        return baskets;
+    }
+}
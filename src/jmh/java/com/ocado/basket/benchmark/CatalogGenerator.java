@@ -0,0 +1,104 @@
+package com.ocado.basket.benchmark;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * CatalogGenerator class
+ * Seeded generator of synthetic configs
+ * - products: number of products
+ * - options: number of delivery options
+ * - minOptionsPerProduct, maxOptionsPerProduct: uniform range of the option list length
+ * - optionSkew: exponent of the Zipf-like option popularity, 0 picks every option equally often
+ * The same seed always produces the same config.
+ *
+ * @version 1.0
+ */
+public final class CatalogGenerator {
+    private final long seed;
+    private final int products;
+    private final int options;
+    private final int minOptionsPerProduct;
+    private final int maxOptionsPerProduct;
+    private final double optionSkew;
+
+    public CatalogGenerator(long seed, int products, int options, int minOptionsPerProduct, int maxOptionsPerProduct, double optionSkew) {
+        this.seed = seed;
+        this.products = products;
+        this.options = options;
+        this.minOptionsPerProduct = minOptionsPerProduct;
+        this.maxOptionsPerProduct = Math.min(maxOptionsPerProduct, options);
+        this.optionSkew = optionSkew;
+    }
+
+    public static String productName(int product) {
+        return "Product " + product;
+    }
+
+    public static String optionName(int option) {
+        return "Delivery option " + option;
+    }
+
+    public Map<String, List<String>> generate() {
+        Map<String, List<String>> config = new LinkedHashMap<>();
+        Random random = new Random(seed);
+        double[] cumulativeWeights = cumulativeWeights();
+        for (int product = 0; product < products; product++) {
+            int count = minOptionsPerProduct + random.nextInt(maxOptionsPerProduct - minOptionsPerProduct + 1);
+            Set<String> productOptions = new LinkedHashSet<>();
+            while (productOptions.size() < count) {
+                productOptions.add(optionName(pick(random, cumulativeWeights)));
+            }
+            config.put(productName(product), new ArrayList<>(productOptions));
+        }
+        return config;
+    }
+
+    public void writeJson(Path path) throws IOException {
+        writeJson(generate(), path);
+    }
+
+    /**
+     * Writes the config in the config file format
+     */
+    public static void writeJson(Map<String, List<String>> config, Path path) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            writer.write('{');
+            boolean firstProduct = true;
+            for (Map.Entry<String, List<String>> entry : config.entrySet()) {
+                writer.write(firstProduct ? "\n\"" : ",\n\"");
+                writer.write(entry.getKey());
+                writer.write("\": [");
+                for (int i = 0; i < entry.getValue().size(); i++) {
+                    writer.write(i == 0 ? "\"" : ", \"");
+                    writer.write(entry.getValue().get(i));
+                    writer.write('"');
+                }
+                writer.write(']');
+                firstProduct = false;
+            }
+            writer.write("\n}\n");
+        }
+    }
+
+    private double[] cumulativeWeights() {
+        double[] cumulative = new double[options];
+        double total = 0;
+        for (int option = 0; option < options; option++) {
+            total += 1 / Math.pow(option + 1, optionSkew);
+            cumulative[option] = total;
+        }
+        for (int option = 0; option < options; option++) {
+            cumulative[option] /= total;
+        }
+        return cumulative;
+    }
+
+    private static int pick(Random random, double[] cumulativeWeights) {
+        int index = Arrays.binarySearch(cumulativeWeights, random.nextDouble());
+        return Math.min(index < 0 ? -index - 1 : index, cumulativeWeights.length - 1);
+    }
+}
@@ -0,0 +1,72 @@
+package com.ocado.basket.benchmark;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.logic.DeliveryCountMinimizer.AbstractDeliveryCountMinimizer;
+import com.ocado.basket.logic.DeliveryCountMinimizer.ComponentDecomposingDeliveryCountMinimizer;
+import com.ocado.basket.logic.DeliveryCountMinimizer.DeliveryCountMinimizerType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ComponentBenchmark class
+ * Time of the minimizers with and without component decomposition on baskets made of independent groups:
+ * every group has its own delivery options (for example frozen, grocery and marketplace products), the basket takes
+ * basketSize / components products of each group.
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ComponentBenchmark {
+    private static final int GROUP_PRODUCTS = 2_000;
+    private static final int GROUP_OPTIONS = 10;
+
+    @Param({"DYNAMIC", "BITMASK", "BRANCH_AND_BOUND"})
+    String engine;
+
+    @Param({"1", "4"})
+    int components;
+
+    @Param({"false", "true"})
+    boolean decompose;
+
+    @Param({"16"})
+    int basketSize;
+
+    private AbstractDeliveryCountMinimizer minimizer;
+    private BasketPool baskets;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, List<String>> config = new LinkedHashMap<>();
+        List<List<List<String>>> groupBaskets = new ArrayList<>();
+        for (int group = 0; group < components; group++) {
+            String prefix = "Group " + group + " ";
+            new CatalogGenerator(group, GROUP_PRODUCTS, GROUP_OPTIONS, 1, 3, 1.0).generate().forEach((product, options) ->
+                    config.put(prefix + product, options.stream().map(option -> prefix + option).toList()));
+            groupBaskets.add(new BasketGenerator(group, GROUP_PRODUCTS, basketSize / components, 0.3, 1.0).generate(BasketPool.SIZE).stream()
+                    .map(basket -> basket.stream().map(product -> prefix + product).toList())
+                    .toList());
+        }
+        List<List<String>> generated = new ArrayList<>();
+        for (int i = 0; i < BasketPool.SIZE; i++) {
+            List<String> basket = new ArrayList<>();
+            for (List<List<String>> group : groupBaskets) {
+                basket.addAll(group.get(i));
+            }
+            generated.add(basket);
+        }
+        DeliveryCatalog catalog = DeliveryCatalog.of(config);
+        AbstractDeliveryCountMinimizer engineMinimizer = DeliveryCountMinimizerType.valueOf(engine).create(catalog);
+        minimizer = decompose ? new ComponentDecomposingDeliveryCountMinimizer(catalog, engineMinimizer) : engineMinimizer;
+        baskets = new BasketPool(generated);
+    }
+
+    @Benchmark
+    public Set<String> optimizeBasket() {
+        return minimizer.optimizeBasket(baskets.next());
+    }
+}
@@ -0,0 +1,67 @@
+package com.ocado.basket.benchmark;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.logic.CatalogSnapshotLoader;
+import com.ocado.basket.logic.ConfigLoader;
+import com.ocado.basket.logic.StreamingConfigLoader;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConfigLoadingBenchmark class
+ * Time to turn a config file into a {@link DeliveryCatalog} with each loader
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ConfigLoadingBenchmark {
+
+    @Param({"10000", "200000"})
+    int products;
+
+    @Param({"JSON", "STREAMING", "SNAPSHOT"})
+    String loader;
+
+    private Path directory;
+    private String path;
+    private ConfigLoader configLoader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("config-loading");
+        Path json = directory.resolve("config.json");
+        new CatalogGenerator(1, products, 50, 1, 6, 1.0).writeJson(json);
+        path = json.toString();
+        switch (loader) {
+            case "JSON" -> configLoader = new ConfigLoader();
+            case "STREAMING" -> configLoader = new StreamingConfigLoader();
+            case "SNAPSHOT" -> {
+                path = directory.resolve("catalog.snapshot").toString();
+                CatalogSnapshotLoader.writeSnapshot(json.toString(), path);
+                configLoader = new CatalogSnapshotLoader();
+            }
+            default -> throw new IllegalArgumentException("Unknown loader: " + loader);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    @Benchmark
+    public DeliveryCatalog loadCatalog() {
+        return configLoader.loadCatalog(path);
+    }
+}
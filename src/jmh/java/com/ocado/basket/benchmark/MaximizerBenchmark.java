@@ -0,0 +1,80 @@
+package com.ocado.basket.benchmark;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.dto.DeliveryInfoDto;
+import com.ocado.basket.logic.BasketModel;
+import com.ocado.basket.logic.DeliveryCountMinimizer.BranchAndBoundDeliveryCountMinimizer;
+import com.ocado.basket.logic.ItemsCountMaximizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * MaximizerBenchmark class
+ * Time of {@link ItemsCountMaximizer} assigning the items of a basket to a set of delivery options:
+ * - MINIMAL: the minimum cover, as chosen by the splitter
+ * - ALL_REACHABLE: every delivery option of the basket products, many more options than the cover needs
+ * The step by step rounds implementation, built from the public round methods, is measured next to the incremental one
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MaximizerBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int basketSize;
+
+    @Param({"MINIMAL", "ALL_REACHABLE"})
+    String selection;
+
+    @Param({"INCREMENTAL", "ROUNDS"})
+    String implementation;
+
+    private ItemsCountMaximizer maximizer;
+    private BasketPool baskets;
+    private List<Set<String>> covers;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DeliveryCatalog catalog = DeliveryCatalog.of(new CatalogGenerator(1, 20_000, 20, 1, 4, 1.0).generate());
+        maximizer = new ItemsCountMaximizer(catalog);
+        baskets = new BasketPool(new BasketGenerator(2, 20_000, basketSize, 0.3, 1.0).generate(BasketPool.SIZE));
+        var minimizer = new BranchAndBoundDeliveryCountMinimizer(catalog);
+        covers = new ArrayList<>();
+        for (List<String> basket : baskets.all()) {
+            if (selection.equals("MINIMAL")) {
+                covers.add(minimizer.optimizeBasket(basket));
+            } else {
+                BasketModel model = BasketModel.of(catalog, basket);
+                covers.add(model.optionNames(IntStream.range(0, model.optionCount()).toArray()));
+            }
+        }
+    }
+
+    @Benchmark
+    public Map<String, List<String>> optimizeDeliveryItems() {
+        Set<String> cover = covers.get(next);
+        next = (next + 1) % covers.size();
+        return implementation.equals("INCREMENTAL")
+                ? maximizer.optimizeDeliveryItems(baskets.next(), cover)
+                : optimizeDeliveryItemsByRounds(baskets.next(), cover);
+    }
+
+    private Map<String, List<String>> optimizeDeliveryItemsByRounds(List<String> itemSet, Set<String> optimalDeliveries) {
+        Set<String> remainingItems = new HashSet<>(itemSet);
+        Map<String, List<String>> splitDeliveries = new HashMap<>();
+        Map<String, Long> deliveryCounts = maximizer.countDeliveryOptions(remainingItems, optimalDeliveries);
+        while (!deliveryCounts.isEmpty()) {
+            DeliveryInfoDto maxDeliveryOption = maximizer.computeMaxDeliveryOption(deliveryCounts, remainingItems);
+            splitDeliveries.put(maxDeliveryOption.getDeliveryName(), maxDeliveryOption.getDeliveryItems());
+            maxDeliveryOption.getDeliveryItems().forEach(remainingItems::remove);
+            deliveryCounts = maximizer.updateDeliveryCounts(deliveryCounts, maxDeliveryOption, optimalDeliveries);
+        }
+        return splitDeliveries;
+    }
+}
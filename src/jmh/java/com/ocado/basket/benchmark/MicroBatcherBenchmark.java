@@ -0,0 +1,67 @@
+package com.ocado.basket.benchmark;
+
+import com.ocado.basket.BasketSplitter;
+import com.ocado.basket.BasketSplitterOptions;
+import com.ocado.basket.dto.BasketSplitResult;
+import com.ocado.basket.logic.DeliveryCountMinimizer.DeliveryCountMinimizerType;
+import com.ocado.basket.server.MicroBatcher;
+import com.ocado.basket.server.ServerOptions;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MicroBatcherBenchmark class
+ * Baskets submitted to a {@link MicroBatcher} by 16 concurrent callers, each waiting for its result as a request handler
+ * of the split server does, with one or several workers and the ADAPTIVE minimizer; reports the time per basket and the average batch size
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(16)
+public class MicroBatcherBenchmark {
+
+    @Param({"1", "4"})
+    int workers;
+
+    @Param({"20"})
+    int basketSize;
+
+    private Path config;
+    private MicroBatcher batcher;
+    private List<List<String>> baskets;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        config = Files.createTempFile("batcher", ".json");
+        new CatalogGenerator(1, 20_000, 20, 1, 4, 1.0).writeJson(config);
+        var splitter = new BasketSplitter(config.toString(), BasketSplitterOptions.builder().minimizer(DeliveryCountMinimizerType.ADAPTIVE).build());
+        batcher = new MicroBatcher(splitter, ServerOptions.builder().workers(workers).build());
+        baskets = new BasketGenerator(2, 20_000, basketSize, 0.3, 1.0).generate(BasketPool.SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.out.printf("%n%d workers: %.1f baskets per batch%n", workers, (double) batcher.getBatchedBaskets() / batcher.getBatches());
+        batcher.close();
+        Files.deleteIfExists(config);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+    }
+
+    @Benchmark
+    public BasketSplitResult submit(Cursor cursor) {
+        List<String> basket = baskets.get(cursor.next);
+        cursor.next = (cursor.next + 1) % BasketPool.SIZE;
+        return batcher.submit(basket).join();
+    }
+}
@@ -0,0 +1,42 @@
+package com.ocado.basket.benchmark;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.logic.DeliveryCountMinimizer.AbstractDeliveryCountMinimizer;
+import com.ocado.basket.logic.DeliveryCountMinimizer.DeliveryCountMinimizerType;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MinimizerBenchmark class
+ * Time of every delivery count minimizer on generated baskets of growing size
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MinimizerBenchmark {
+
+    @Param({"DYNAMIC", "BITMASK", "BRANCH_AND_BOUND", "LINEAR_SET_COVER", "ADAPTIVE"})
+    String engine;
+
+    @Param({"8", "16", "32"})
+    int basketSize;
+
+    private AbstractDeliveryCountMinimizer minimizer;
+    private BasketPool baskets;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        DeliveryCatalog catalog = DeliveryCatalog.of(new CatalogGenerator(1, 20_000, 20, 1, 4, 1.0).generate());
+        minimizer = DeliveryCountMinimizerType.valueOf(engine).create(catalog);
+        baskets = new BasketPool(new BasketGenerator(2, 20_000, basketSize, 0.3, 1.0).generate(BasketPool.SIZE));
+    }
+
+    @Benchmark
+    public Set<String> optimizeBasket() {
+        return minimizer.optimizeBasket(baskets.next());
+    }
+}
@@ -0,0 +1,55 @@
+package com.ocado.basket.benchmark;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.logic.BasketModel;
+import com.ocado.basket.logic.DeliveryCountMinimizer.BranchAndBoundSolver;
+import com.ocado.basket.logic.DeliveryCountMinimizer.ParallelBranchAndBoundSolver;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ParallelSearchBenchmark class
+ * Scaling of the parallel branch and bound with the number of threads of its pool on one large basket
+ * (every product of a generated config of 200 products and 60 delivery options, about 30 deliveries).
+ * Parallelism 0 is the sequential {@link BranchAndBoundSolver}, the speedup is bounded by the cores of the machine.
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ParallelSearchBenchmark {
+
+    @Param({"0", "1", "2", "4", "8"})
+    int parallelism;
+
+    private BasketModel basket;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Map<String, List<String>> config = new CatalogGenerator(5, 200, 60, 2, 4, 0.0).generate();
+        basket = BasketModel.of(DeliveryCatalog.of(config), new ArrayList<>(config.keySet()));
+        pool = parallelism == 0 ? null : new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public int[] solve() {
+        if (pool == null) {
+            return new BranchAndBoundSolver(basket).solve();
+        }
+        return new ParallelBranchAndBoundSolver(basket, pool).solve();
+    }
+}
@@ -0,0 +1,62 @@
+package com.ocado.basket.benchmark;
+
+import com.ocado.basket.catalog.ProductNameIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProductIndexBenchmark class
+ * Product name to id lookup latency, 1 in 10 lookups misses:
+ * - HASH_MAP: {@code HashMap<String, Integer>}, the product index of the catalog before {@link ProductNameIndex}
+ * - INDEX: {@link ProductNameIndex}
+ * Retained heap of both is reported by {@link ProductIndexFootprint}.
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProductIndexBenchmark {
+    private static final int QUERIES = 1 << 12;
+
+    @Param({"100000", "2000000"})
+    int products;
+
+    @Param({"HASH_MAP", "INDEX"})
+    String index;
+
+    private Map<String, Integer> map;
+    private ProductNameIndex productIndex;
+    private String[] queries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if (index.equals("HASH_MAP")) {
+            map = ProductIndexFootprint.hashMap(products);
+        } else {
+            productIndex = ProductIndexFootprint.productNameIndex(products);
+        }
+        Random random = new Random(1);
+        queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            // new strings, as parsed from a request, whose hash code is computed on the first lookup only
+            int product = random.nextInt(10) == 0 ? products + i : random.nextInt(products);
+            queries[i] = new String(CatalogGenerator.productName(product).toCharArray());
+        }
+    }
+
+    @Benchmark
+    public int lookup() {
+        String query = queries[next];
+        next = (next + 1) & (QUERIES - 1);
+        if (map != null) {
+            Integer id = map.get(query);
+            return id == null ? -1 : id;
+        }
+        return productIndex.id(query);
+    }
+}
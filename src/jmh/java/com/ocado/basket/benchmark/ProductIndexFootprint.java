@@ -0,0 +1,73 @@
+package com.ocado.basket.benchmark;
+
+import com.ocado.basket.catalog.ProductNameIndex;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+/**
+ * ProductIndexFootprint class
+ * Prints the heap retained by a product name to id index with {@link CatalogGenerator} product names:
+ * - HASH_MAP: {@code HashMap<String, Integer>} plus the {@code String[]} of names, as the catalog kept them
+ * - INDEX: {@link ProductNameIndex}
+ * Usage: {@code ./gradlew productIndexFootprint [--args='1000000 4000000']}
+ *
+ * @version 1.0
+ */
+public final class ProductIndexFootprint {
+
+    private ProductIndexFootprint() {
+    }
+
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0 ? new int[]{100_000, 1_000_000} : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        for (int products : sizes) {
+            long map = retainedBytes(products, ProductIndexFootprint::namesAndHashMap);
+            long index = retainedBytes(products, ProductIndexFootprint::productNameIndex);
+            System.out.printf("%,d products: HASH_MAP %,d B (%.1f B/product), INDEX %,d B (%.1f B/product), %.1fx smaller%n",
+                    products, map, (double) map / products, index, (double) index / products, (double) map / index);
+        }
+    }
+
+    static Map<String, Integer> hashMap(int products) {
+        Map<String, Integer> map = new HashMap<>();
+        for (int product = 0; product < products; product++) {
+            map.put(CatalogGenerator.productName(product), product);
+        }
+        return map;
+    }
+
+    static ProductNameIndex productNameIndex(int products) {
+        ProductNameIndex index = new ProductNameIndex();
+        for (int product = 0; product < products; product++) {
+            index.add(CatalogGenerator.productName(product));
+        }
+        return index.trim();
+    }
+
+    private static Object namesAndHashMap(int products) {
+        Map<String, Integer> map = hashMap(products);
+        String[] names = new String[products];
+        map.forEach((name, id) -> names[id] = name);
+        return new Object[]{map, names};
+    }
+
+    private static long retainedBytes(int products, IntFunction<Object> build) {
+        long before = usedHeap();
+        Object built = build.apply(products);
+        long after = usedHeap();
+        Reference.reachabilityFence(built);
+        return after - before;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
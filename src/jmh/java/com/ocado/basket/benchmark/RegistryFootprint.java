@@ -0,0 +1,105 @@
+package com.ocado.basket.benchmark;
+
+import com.ocado.basket.BasketSplitter;
+import com.ocado.basket.BasketSplitterOptions;
+import com.ocado.basket.CatalogRegistry;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * RegistryFootprint class
+ * Prints the heap retained by the splitters of N tenants:
+ * - INDEPENDENT: one {@link BasketSplitter} per tenant config
+ * - REGISTRY: every tenant loaded through one {@link CatalogRegistry}
+ * Tenants pick about 5 in 6 products of one {@link CatalogGenerator} catalog with 20 options, so their product lists
+ * mostly overlap, and give 1 in 20 of their products options of their own.
+ * Usage: {@code ./gradlew registryFootprint [--args='<tenants> <products per tenant>']}
+ *
+ * @version 1.0
+ */
+public final class RegistryFootprint {
+
+    private RegistryFootprint() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int tenants = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        int products = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+        Path directory = Files.createTempDirectory("registry-footprint");
+        try {
+            List<String> configs = writeConfigs(directory, tenants, products);
+
+            long before = usedHeap();
+            List<BasketSplitter> independent = new ArrayList<>();
+            for (String config : configs) {
+                independent.add(new BasketSplitter(config));
+            }
+            long independentBytes = usedHeap() - before;
+            Reference.reachabilityFence(independent);
+            independent = null;
+
+            before = usedHeap();
+            CatalogRegistry registry = new CatalogRegistry(BasketSplitterOptions.defaults(), Duration.ofMinutes(10));
+            for (int tenant = 0; tenant < tenants; tenant++) {
+                registry.register("tenant-" + tenant, configs.get(tenant));
+                registry.splitter("tenant-" + tenant);
+            }
+            long registryBytes = usedHeap() - before;
+            Reference.reachabilityFence(registry);
+
+            System.out.printf("%d tenants of %,d products (%,d distinct): INDEPENDENT %,d B (%,d B/tenant), REGISTRY %,d B (%,d B/tenant), %.1fx smaller%n",
+                    tenants, products, registry.getPool().productCount(), independentBytes, independentBytes / tenants,
+                    registryBytes, registryBytes / tenants, (double) independentBytes / registryBytes);
+        } finally {
+            try (var files = Files.list(directory)) {
+                for (Path file : files.toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    private static List<String> writeConfigs(Path directory, int tenants, int products) throws IOException {
+        int universe = products * 6 / 5;
+        Map<String, List<String>> catalog = new CatalogGenerator(1, universe, 20, 1, 4, 1.0).generate();
+        List<String> optionNames = new ArrayList<>();
+        for (int option = 0; option < 20; option++) {
+            optionNames.add(CatalogGenerator.optionName(option));
+        }
+        List<String> configs = new ArrayList<>();
+        for (int tenant = 0; tenant < tenants; tenant++) {
+            Random random = new Random(tenant);
+            Map<String, List<String>> config = new LinkedHashMap<>();
+            for (Map.Entry<String, List<String>> entry : catalog.entrySet()) {
+                if (random.nextInt(6) == 0) {
+                    continue;
+                }
+                config.put(entry.getKey(), random.nextInt(20) == 0
+                        ? List.of(optionNames.get(random.nextInt(20)))
+                        : entry.getValue());
+            }
+            Path file = directory.resolve("tenant-" + tenant + ".json");
+            CatalogGenerator.writeJson(config, file);
+            configs.add(file.toString());
+        }
+        return configs;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,96 @@
+package com.ocado.basket.benchmark;
+
+import com.ocado.basket.BasketSplitter;
+import com.ocado.basket.BasketSplitterOptions;
+import com.ocado.basket.dto.CompactSplitResult;
+import com.ocado.basket.json.SplitJsonWriter;
+import com.ocado.basket.logic.SplitPipeline;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ResultBenchmark class
+ * Time and bytes allocated (gc profiler) to turn a split of the LOW_ALLOCATION pipeline into JSON bytes:
+ * - orgJsonMap: {@code new JSONObject(map).toString()} encoded as UTF-8, what a caller of {@link BasketSplitter#split} does
+ * - streamingMap: the map streamed by {@link SplitJsonWriter}
+ * - streamingCompact: a {@link CompactSplitResult} streamed by {@link SplitJsonWriter}
+ * - endToEnd*: the split of the basket followed by the serialization
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ResultBenchmark {
+
+    @Param({"20", "100"})
+    int basketSize;
+
+    private Path config;
+    private BasketSplitter splitter;
+    private BasketPool baskets;
+    private List<Map<String, List<String>>> maps;
+    private CompactSplitResult[] compacts;
+    private int next;
+    private final OutputStream sink = OutputStream.nullOutputStream();
+    private final SplitJsonWriter writer = new SplitJsonWriter(sink);
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        config = Files.createTempFile("result", ".json");
+        new CatalogGenerator(1, 20_000, 20, 1, 4, 1.0).writeJson(config);
+        splitter = new BasketSplitter(config.toString(), BasketSplitterOptions.builder().pipeline(SplitPipeline.LOW_ALLOCATION).build());
+        baskets = new BasketPool(new BasketGenerator(2, 20_000, basketSize, 0.3, 1.0).generate(BasketPool.SIZE));
+        maps = new ArrayList<>(BasketPool.SIZE);
+        compacts = new CompactSplitResult[BasketPool.SIZE];
+        for (int i = 0; i < BasketPool.SIZE; i++) {
+            maps.add(splitter.split(baskets.all().get(i)));
+            compacts[i] = splitter.splitCompact(baskets.all().get(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(config);
+    }
+
+    @Benchmark
+    public void orgJsonMap() throws IOException {
+        sink.write(new JSONObject(maps.get(nextIndex())).toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public void streamingMap() throws IOException {
+        writer.write(maps.get(nextIndex()));
+    }
+
+    @Benchmark
+    public void streamingCompact() throws IOException {
+        writer.write(compacts[nextIndex()]);
+    }
+
+    @Benchmark
+    public void endToEndOrgJson() throws IOException {
+        sink.write(new JSONObject(splitter.split(baskets.next())).toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public void endToEndStreamingCompact() throws IOException {
+        writer.write(splitter.splitCompact(baskets.next()));
+    }
+
+    private int nextIndex() {
+        next = (next + 1) % BasketPool.SIZE;
+        return next;
+    }
+}
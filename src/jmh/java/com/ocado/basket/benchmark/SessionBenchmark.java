@@ -0,0 +1,70 @@
+package com.ocado.basket.benchmark;
+
+import com.ocado.basket.BasketSession;
+import com.ocado.basket.BasketSplitter;
+import com.ocado.basket.BasketSplitterOptions;
+import com.ocado.basket.logic.DeliveryCountMinimizer.DeliveryCountMinimizerType;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SessionBenchmark class
+ * Time to fill a basket one item at a time, as during shopping, keeping its split up to date after every item:
+ * {@link BasketSession#add} against calling {@link BasketSplitter#split} again with the whole basket,
+ * both with the ADAPTIVE minimizer
+ *
+ * @version 1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SessionBenchmark {
+
+    @Param({"20", "60"})
+    int basketSize;
+
+    private Path config;
+    private BasketSplitter splitter;
+    private BasketPool baskets;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        config = Files.createTempFile("session", ".json");
+        new CatalogGenerator(1, 20_000, 20, 1, 4, 1.0).writeJson(config);
+        splitter = new BasketSplitter(config.toString(), BasketSplitterOptions.builder().minimizer(DeliveryCountMinimizerType.ADAPTIVE).build());
+        baskets = new BasketPool(new BasketGenerator(2, 20_000, basketSize, 0.3, 1.0).generate(BasketPool.SIZE));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(config);
+    }
+
+    @Benchmark
+    public Map<String, List<String>> sessionAdd() {
+        BasketSession session = splitter.openSession(List.of());
+        Map<String, List<String>> deliveries = null;
+        for (String item : baskets.next()) {
+            deliveries = session.add(item);
+        }
+        return deliveries;
+    }
+
+    @Benchmark
+    public Map<String, List<String>> splitAfterEveryAdd() {
+        List<String> current = new ArrayList<>();
+        Map<String, List<String>> deliveries = null;
+        for (String item : baskets.next()) {
+            current.add(item);
+            deliveries = splitter.split(current);
+        }
+        return deliveries;
+    }
+}
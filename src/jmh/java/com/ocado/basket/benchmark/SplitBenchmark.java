@@ -0,0 +1,80 @@
+package com.ocado.basket.benchmark;
+
+import com.ocado.basket.BasketSplitter;
+import com.ocado.basket.BasketSplitterOptions;
+import com.ocado.basket.dto.BasketSplitResult;
+import com.ocado.basket.logic.DeliveryCountMinimizer.DeliveryCountMinimizerType;
+import com.ocado.basket.logic.SplitPipeline;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SplitBenchmark class
+ * End-to-end {@link BasketSplitter#split} and {@link BasketSplitter#splitAll} over a generated config file,
+ * the minimizer is only used by the TWO_STAGE pipeline
+ *
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SplitBenchmark {
+
+    @Param({"TWO_STAGE", "LEXICOGRAPHIC"})
+    String pipeline;
+
+    @Param({"BITMASK", "ADAPTIVE"})
+    String minimizer;
+
+    @Param({"false", "true"})
+    boolean collapseSignatures;
+
+    @Param({"20", "100"})
+    int basketSize;
+
+    private Path config;
+    private BasketSplitter splitter;
+    private BasketPool baskets;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        config = Files.createTempFile("split", ".json");
+        new CatalogGenerator(1, 20_000, 20, 1, 4, 1.0).writeJson(config);
+        var options = BasketSplitterOptions.builder()
+                .pipeline(SplitPipeline.valueOf(pipeline))
+                .minimizer(DeliveryCountMinimizerType.valueOf(minimizer))
+                .collapseSignatures(collapseSignatures)
+                .build();
+        splitter = new BasketSplitter(config.toString(), options);
+        baskets = new BasketPool(new BasketGenerator(2, 20_000, basketSize, 0.3, 1.0).generate(BasketPool.SIZE));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(config);
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+    }
+
+    @Benchmark
+    public Map<String, List<String>> split(Cursor cursor) {
+        List<String> basket = baskets.all().get(cursor.next);
+        cursor.next = (cursor.next + 1) % BasketPool.SIZE;
+        return splitter.split(basket);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BasketPool.SIZE)
+    public List<BasketSplitResult> splitAll() {
+        return splitter.splitAll(baskets.all());
+    }
+}
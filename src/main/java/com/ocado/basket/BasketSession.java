@@ -0,0 +1,175 @@
+package com.ocado.basket;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.exceptions.InvalidItemException;
+import com.ocado.basket.logic.BasketModel;
+import com.ocado.basket.logic.DeliveryCountMinimizer.BranchAndBoundSolver;
+
+import java.util.*;
+
+/**
+ * BasketSession class
+ * Split of a basket that changes one item at a time, for example while the customer is shopping.
+ * The session keeps the current cover and assignment and repairs them on every change instead of splitting again:
+ * - adding an item that is already in the basket, or that a delivery of the cover already offers, keeps the cover,
+ *   which stays minimal because a bigger basket never needs fewer deliveries
+ * - adding an item no delivery of the cover offers adds its delivery option covering the most items of the basket,
+ *   then branch and bound, seeded with the repaired cover, only looks for a cover with one delivery less
+ * - removing the last item of a delivery drops it, the basket then needs at most one delivery less
+ * - removing another item keeps the cover unless the seeded search finds a smaller one
+ * The items are assigned again, as by {@link BasketSplitter#split}, only when the search finds a smaller cover.
+ * Otherwise an added item joins the biggest delivery offering it.
+ * A session uses the catalog version active when it was opened, and is not thread-safe.
+ *
+ * @version 1.0
+ */
+public class BasketSession {
+    private final CatalogVersion catalogVersion;
+    private final DeliveryCatalog catalog;
+    private final Map<String, Integer> itemCounts = new LinkedHashMap<>();
+    private final Map<String, List<String>> deliveries = new HashMap<>();
+    private final Map<String, String> itemDeliveries = new HashMap<>();
+    private long coverImprovements;
+
+    BasketSession(CatalogVersion catalogVersion, List<String> items, Map<String, List<String>> split) {
+        this.catalogVersion = catalogVersion;
+        this.catalog = catalogVersion.getCatalog();
+        items.forEach(item -> itemCounts.merge(item, 1, Integer::sum));
+        assign(split);
+    }
+
+    /**
+     * Add one item to the basket
+     * @return current split of the basket
+     * @throws InvalidItemException if the item has no delivery options, the basket is then unchanged
+     */
+    public Map<String, List<String>> add(String item) {
+        int product = catalog.productId(item);
+        if (product < 0 || catalog.productOptionCount(product) == 0) {
+            throw new InvalidItemException("Invalid item: " + item + " not found in delivery options");
+        }
+        if (itemCounts.merge(item, 1, Integer::sum) > 1) {
+            return getDeliveries();
+        }
+        String delivery = biggestCoveringDelivery(product);
+        if (delivery != null) {
+            addToDelivery(delivery, item);
+            return getDeliveries();
+        }
+        addToDelivery(catalog.optionName(mostCoveringOption(product)), item);
+        improveCover();
+        return getDeliveries();
+    }
+
+    /**
+     * Remove one occurrence of an item from the basket
+     * @return current split of the basket
+     * @throws InvalidItemException if the item is not in the basket
+     */
+    public Map<String, List<String>> remove(String item) {
+        Integer count = itemCounts.get(item);
+        if (count == null) {
+            throw new InvalidItemException("Invalid item: " + item + " not found in the basket");
+        }
+        if (count > 1) {
+            itemCounts.put(item, count - 1);
+            return getDeliveries();
+        }
+        itemCounts.remove(item);
+        String delivery = itemDeliveries.remove(item);
+        List<String> deliveryItems = deliveries.get(delivery);
+        deliveryItems.remove(item);
+        if (deliveryItems.isEmpty()) {
+            deliveries.remove(delivery);
+        } else {
+            improveCover();
+        }
+        return getDeliveries();
+    }
+
+    /**
+     * @return copy of the current split of the basket
+     */
+    public Map<String, List<String>> getDeliveries() {
+        Map<String, List<String>> copy = new HashMap<>();
+        deliveries.forEach((delivery, items) -> copy.put(delivery, List.copyOf(items)));
+        return copy;
+    }
+
+    /**
+     * @return items of the basket, an item added several times is listed once
+     */
+    public Set<String> getItems() {
+        return Collections.unmodifiableSet(itemCounts.keySet());
+    }
+
+    /**
+     * Changes that run the search without finding a smaller cover are not counted
+     * @return number of changes after which a smaller cover was found and the items were assigned again
+     */
+    public long getCoverImprovements() {
+        return coverImprovements;
+    }
+
+    private String biggestCoveringDelivery(int product) {
+        String biggest = null;
+        for (int i = 0; i < catalog.productOptionCount(product); i++) {
+            String delivery = catalog.optionName(catalog.productOption(product, i));
+            List<String> deliveryItems = deliveries.get(delivery);
+            if (deliveryItems != null && (biggest == null || deliveryItems.size() > deliveries.get(biggest).size())) {
+                biggest = delivery;
+            }
+        }
+        return biggest;
+    }
+
+    private int mostCoveringOption(int product) {
+        int best = catalog.productOption(product, 0);
+        int bestCovered = -1;
+        for (int i = 0; i < catalog.productOptionCount(product); i++) {
+            int option = catalog.productOption(product, i);
+            int covered = 0;
+            for (String item : itemCounts.keySet()) {
+                if (catalog.covers(option, catalog.productId(item))) {
+                    covered++;
+                }
+            }
+            if (covered > bestCovered) {
+                bestCovered = covered;
+                best = option;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Looks for a cover with one delivery less than the current one, and assigns the items again if there is one
+     */
+    private void improveCover() {
+        BasketModel model = BasketModel.of(catalog, new ArrayList<>(itemCounts.keySet()));
+        BranchAndBoundSolver solver = new BranchAndBoundSolver(model);
+        if (solver.lowerBound(model.allProducts()) >= deliveries.size()) {
+            return;
+        }
+        int[] cover = solver.solve(localOptions(model));
+        if (cover.length < deliveries.size()) {
+            coverImprovements++;
+            assign(catalogVersion.getOptimizer().optimizeDeliveryItems(new ArrayList<>(itemCounts.keySet()), model.optionNames(cover)));
+        }
+    }
+
+    private int[] localOptions(BasketModel model) {
+        return deliveries.keySet().stream().mapToInt(delivery -> model.localOptionId(catalog.optionId(delivery))).toArray();
+    }
+
+    private void assign(Map<String, List<String>> split) {
+        deliveries.clear();
+        itemDeliveries.clear();
+        split.forEach((delivery, items) -> items.forEach(item -> addToDelivery(delivery, item)));
+    }
+
+    private void addToDelivery(String delivery, String item) {
+        deliveries.computeIfAbsent(delivery, key -> new ArrayList<>()).add(item);
+        itemDeliveries.put(item, delivery);
+    }
+}
@@ -1,12 +1,35 @@
 package com.ocado.basket;
 
-import com.ocado.basket.logic.*;
-import com.ocado.basket.logic.DeliveryCountMinimizer.AbstractDeliveryCountMinimizer;
-import com.ocado.basket.logic.DeliveryCountMinimizer.DynamicDeliveryCountMinimizer;
+import com.ocado.basket.cache.BasketFingerprint;
+import com.ocado.basket.cache.CacheCounters;
+import com.ocado.basket.cache.SplitResultCache;
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.diagnostics.MaximizationEvent;
+import com.ocado.basket.diagnostics.MinimizationEvent;
+import com.ocado.basket.diagnostics.SlowBasketCapture;
+import com.ocado.basket.diagnostics.SplitEvent;
+import com.ocado.basket.dto.BasketSplitResult;
+import com.ocado.basket.dto.BoundedSplitResult;
+import com.ocado.basket.dto.CacheStatsDto;
+import com.ocado.basket.dto.CompactSplitResult;
+import com.ocado.basket.dto.DeliveryCover;
+import com.ocado.basket.exceptions.InvalidItemException;
+import com.ocado.basket.logic.Deadline;
+import com.ocado.basket.logic.DeliveryCountMinimizer.DeliveryCountMinimizerType;
+import com.ocado.basket.logic.DeliveryCountMinimizer.EngineCounters;
+import com.ocado.basket.logic.LowAllocationSplitter;
+import com.ocado.basket.metrics.SplitMetrics;
 
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * BasketSplitter class
@@ -14,20 +37,31 @@ import java.util.Set;
  *
  * @version 1.0
  */
-public class BasketSplitter {
+public class BasketSplitter implements AutoCloseable {
 
-    private final ItemsCountMaximizer optimizer;
-    private final AbstractDeliveryCountMinimizer deliveryCountMinimizer;
+    private final BasketSplitterOptions options;
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicReference<CatalogVersion> active = new AtomicReference<>();
+    private final CacheCounters cacheCounters = new CacheCounters();
+    private final EngineCounters engineCounters = new EngineCounters();
+    private volatile boolean closed;
 
     /**
      * Constructor
      * @param absolutePathToConfigFile path to the config file
      */
     public BasketSplitter(String absolutePathToConfigFile) {
-        var loader = new ConfigLoader();
-        Map<String, List<String>> productToDeliveryOptions = loader.loadDeliveryOptions(absolutePathToConfigFile);
-        optimizer = new ItemsCountMaximizer(productToDeliveryOptions);
-        deliveryCountMinimizer = new DynamicDeliveryCountMinimizer(productToDeliveryOptions);
+        this(absolutePathToConfigFile, BasketSplitterOptions.defaults());
+    }
+
+    /**
+     * Constructor
+     * @param absolutePathToConfigFile path to the config file
+     * @param options options selecting the algorithms used for splitting
+     */
+    public BasketSplitter(String absolutePathToConfigFile, BasketSplitterOptions options) {
+        this.options = options;
+        active.set(load(absolutePathToConfigFile, versions.incrementAndGet()));
     }
 
 
@@ -35,13 +69,340 @@ public class BasketSplitter {
      * Split the items into delivery options
      * Minimal number of delivery options is used
      * Then Maximize the number of items in the biggest delivery option
+     * The LEXICOGRAPHIC pipeline guarantees the biggest delivery is maximal among all minimal splits,
+     * the default TWO_STAGE pipeline maximizes it greedily for the cover picked by the minimizer
+     * With the result cache enabled, the returned map is immutable
      * @param items list of items
      * @return map of delivery options and items
      */
     public Map<String, List<String>> split(List<String> items) {
-        Set<String> minimalDeliverySet = deliveryCountMinimizer.optimizeBasket(items);
-        return optimizer.optimizeDeliveryItems(items, minimalDeliverySet);
+        return split(active.get(), items);
+    }
+
+    /**
+     * Split the items within a time budget
+     * The minimizer starts from a greedy cover and improves it until the budget is spent,
+     * the items are then assigned to the best cover found
+     * Only results proven optimal are stored in the result cache
+     * @param items list of items
+     * @param budget time the minimizer may spend on the basket
+     * @return deliveries with a flag telling whether their number is proven minimal, and a lower bound for it
+     */
+    public BoundedSplitResult split(List<String> items, Duration budget) {
+        CatalogVersion current = active.get();
+        SplitEvent event = startSplit(current, items);
+        long start = System.nanoTime();
+        BoundedSplitResult result = null;
+        try {
+            result = split(current, items, Deadline.after(budget), event);
+            return result;
+        } catch (InvalidItemException e) {
+            current.getMetrics().recordInvalidItems();
+            throw e;
+        } finally {
+            finishSplit(current, items, start, event, result == null ? 0 : result.getDeliveries().size());
+        }
+    }
+
+    /**
+     * Split the items into the same deliveries as {@link #split(List)}, kept as catalog ids
+     * Names are resolved only when the result is read, {@link com.ocado.basket.json.SplitJsonWriter} streams it as JSON
+     * The LOW_ALLOCATION pipeline without the result cache builds the result directly, without the map
+     * @param items list of items
+     * @return compact split of the items
+     */
+    public CompactSplitResult splitCompact(List<String> items) {
+        CatalogVersion current = active.get();
+        if (!(current.getSinglePassSplitter() instanceof LowAllocationSplitter splitter) || current.getResultCache() != null) {
+            return CompactSplitResult.of(current.getCatalog(), split(current, items));
+        }
+        SplitEvent event = startSplit(current, items);
+        long start = System.nanoTime();
+        CompactSplitResult result = null;
+        try {
+            MinimizationEvent minimization = new MinimizationEvent();
+            minimization.begin();
+            result = splitter.splitCompact(items);
+            current.getMetrics().recordMinimization(System.nanoTime() - start);
+            finishMinimization(minimization, current, items, result.deliveryCount());
+            return result;
+        } catch (InvalidItemException e) {
+            current.getMetrics().recordInvalidItems();
+            throw e;
+        } finally {
+            finishSplit(current, items, start, event, result == null ? 0 : result.deliveryCount());
+        }
+    }
+
+    private static BoundedSplitResult split(CatalogVersion current, List<String> items, Deadline deadline, SplitEvent event) {
+        SplitMetrics metrics = current.getMetrics();
+        SplitResultCache cache = current.getResultCache();
+        BasketFingerprint fingerprint = cache == null ? null : BasketFingerprint.of(current.getCatalog(), items);
+        if (fingerprint != null) {
+            Map<String, List<String>> cached = cache.get(fingerprint);
+            if (cached != null) {
+                event.cached = true;
+                return new BoundedSplitResult(cached, true, cached.size());
+            }
+        }
+        MinimizationEvent minimization = new MinimizationEvent();
+        minimization.begin();
+        long start = System.nanoTime();
+        if (current.getSinglePassSplitter() != null) {
+            BoundedSplitResult result = current.getSinglePassSplitter().split(items, deadline);
+            metrics.recordMinimization(System.nanoTime() - start);
+            finishMinimization(minimization, current, items, result.getDeliveries().size());
+            if (fingerprint != null && result.isOptimal()) {
+                return new BoundedSplitResult(cache.put(fingerprint, result.getDeliveries()), true, result.getLowerBound());
+            }
+            return result;
+        }
+        DeliveryCover cover = current.getDeliveryCountMinimizer().optimizeBasket(items, deadline);
+        long minimized = System.nanoTime();
+        metrics.recordMinimization(minimized - start);
+        finishMinimization(minimization, current, items, cover.getDeliveryOptions().size());
+        Map<String, List<String>> deliveries = maximize(current, items, cover.getDeliveryOptions(), minimized);
+        if (fingerprint != null && cover.isOptimal()) {
+            deliveries = cache.put(fingerprint, deliveries);
+        }
+        return new BoundedSplitResult(deliveries, cover.isOptimal(), cover.getLowerBound());
+    }
+
+    /**
+     * Open a session for a basket that changes one item at a time
+     * The session keeps the minimal number of deliveries and repairs its split on every change
+     * @param items initial items of the basket, may be empty
+     * @return session using the active catalog version
+     */
+    public BasketSession openSession(List<String> items) {
+        CatalogVersion current = active.get();
+        return new BasketSession(current, items, split(current, items));
+    }
+
+    /**
+     * Split many baskets in parallel on the configured batch pool
+     * All baskets of the batch use the same catalog version
+     * @param baskets list of baskets
+     * @return results in the order of the baskets, a basket that fails does not fail the others
+     */
+    public List<BasketSplitResult> splitAll(List<List<String>> baskets) {
+        return splitAll(baskets, options.getBatchPool());
+    }
+
+    /**
+     * Split many baskets in parallel on the given pool
+     * @param baskets list of baskets
+     * @param pool pool running the splits
+     * @return results in the order of the baskets, a basket that fails does not fail the others
+     */
+    public List<BasketSplitResult> splitAll(List<List<String>> baskets, ForkJoinPool pool) {
+        BasketSplitResult[] results = new BasketSplitResult[baskets.size()];
+        int batchSize = Math.max(1, baskets.size() / (pool.getParallelism() * 4));
+        pool.invoke(new SplitAllTask(active.get(), baskets, results, 0, baskets.size(), batchSize));
+        return Arrays.asList(results);
+    }
+
+    /**
+     * @return hit, miss and eviction counts of the result cache across all catalog versions
+     */
+    public CacheStatsDto getCacheStats() {
+        return cacheCounters.snapshot();
+    }
+
+    /**
+     * @return number of baskets each engine solved, across all catalog versions, recorded by the ADAPTIVE minimizer
+     */
+    public Map<DeliveryCountMinimizerType, Long> getEngineStats() {
+        return engineCounters.snapshot();
     }
 
+    private static Map<String, List<String>> split(CatalogVersion current, List<String> items) {
+        SplitEvent event = startSplit(current, items);
+        long start = System.nanoTime();
+        Map<String, List<String>> deliveries = null;
+        try {
+            deliveries = splitOrCached(current, items, event);
+            return deliveries;
+        } catch (InvalidItemException e) {
+            current.getMetrics().recordInvalidItems();
+            throw e;
+        } finally {
+            finishSplit(current, items, start, event, deliveries == null ? 0 : deliveries.size());
+        }
+    }
+
+    private static Map<String, List<String>> splitOrCached(CatalogVersion current, List<String> items, SplitEvent event) {
+        SplitResultCache cache = current.getResultCache();
+        BasketFingerprint fingerprint = cache == null ? null : BasketFingerprint.of(current.getCatalog(), items);
+        if (fingerprint == null) {
+            return solve(current, items);
+        }
+        Map<String, List<String>> cached = cache.get(fingerprint);
+        if (cached != null) {
+            event.cached = true;
+            return cached;
+        }
+        return cache.put(fingerprint, solve(current, items));
+    }
+
+    private static Map<String, List<String>> solve(CatalogVersion current, List<String> items) {
+        SplitMetrics metrics = current.getMetrics();
+        MinimizationEvent minimization = new MinimizationEvent();
+        minimization.begin();
+        long start = System.nanoTime();
+        if (current.getSinglePassSplitter() != null) {
+            Map<String, List<String>> deliveries = current.getSinglePassSplitter().split(items);
+            metrics.recordMinimization(System.nanoTime() - start);
+            finishMinimization(minimization, current, items, deliveries.size());
+            return deliveries;
+        }
+        Set<String> minimalDeliverySet = current.getDeliveryCountMinimizer().optimizeBasket(items);
+        long minimized = System.nanoTime();
+        metrics.recordMinimization(minimized - start);
+        finishMinimization(minimization, current, items, minimalDeliverySet.size());
+        return maximize(current, items, minimalDeliverySet, minimized);
+    }
+
+    private static Map<String, List<String>> maximize(CatalogVersion current, List<String> items, Set<String> deliveryOptions, long start) {
+        MaximizationEvent maximization = new MaximizationEvent();
+        maximization.begin();
+        Map<String, List<String>> deliveries = current.getOptimizer().optimizeDeliveryItems(items, deliveryOptions);
+        current.getMetrics().recordMaximization(System.nanoTime() - start);
+        if (maximization.shouldCommit()) {
+            maximization.basketSize = items.size();
+            maximization.deliveries = deliveries.size();
+            maximization.commit();
+        }
+        return deliveries;
+    }
+
+    private static void finishMinimization(MinimizationEvent minimization, CatalogVersion current, List<String> items, int deliveries) {
+        if (minimization.shouldCommit()) {
+            minimization.basketSize = items.size();
+            minimization.engine = current.getEngineName();
+            minimization.deliveries = deliveries;
+            minimization.commit();
+        }
+    }
+
+    private static SplitEvent startSplit(CatalogVersion current, List<String> items) {
+        current.getMetrics().recordBasketSize(items.size());
+        SplitEvent event = new SplitEvent();
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Captures the basket if it was slow and commits the split event if it is recorded
+     * @param deliveries number of deliveries of the split, 0 if it failed
+     */
+    private static void finishSplit(CatalogVersion current, List<String> items, long start, SplitEvent event, int deliveries) {
+        SlowBasketCapture capture = current.getSlowBasketCapture();
+        if (capture != null) {
+            capture.captureIfSlow(current.getCatalog(), current.getVersion(), current.getEngineName(), items, System.nanoTime() - start);
+        }
+        if (event.shouldCommit()) {
+            event.basketSize = items.size();
+            event.catalogVersion = current.getVersion();
+            event.pipeline = current.getPipeline().name();
+            event.deliveries = deliveries;
+            event.commit();
+        }
+    }
+
+    /**
+     * Load a new config in the background and publish it once it is fully built
+     * Calls already running finish on the previous version, calls started after publishing use the new one
+     * If several reloads overlap, the one started last wins
+     * @param absolutePathToConfigFile path to the config file
+     * @return future completed with the published version, or exceptionally if the config could not be loaded
+     */
+    public CompletableFuture<Long> reload(String absolutePathToConfigFile) {
+        long version = versions.incrementAndGet();
+        return CompletableFuture.supplyAsync(() -> load(absolutePathToConfigFile, version), options.getReloadExecutor())
+                .thenApply(this::publish);
+    }
+
+    /**
+     * Makes the loaded version active unless a newer one already is, and retires the version that lost
+     * @return version of the catalog active after publishing
+     */
+    private long publish(CatalogVersion loaded) {
+        CatalogVersion current;
+        do {
+            current = active.get();
+            if (current.getVersion() > loaded.getVersion()) {
+                loaded.retire();
+                return current.getVersion();
+            }
+        } while (!active.compareAndSet(current, loaded));
+        current.retire();
+        // close() may have retired the previous version before the swap, nothing would retire this one then
+        if (closed) {
+            loaded.retire();
+        }
+        return loaded.getVersion();
+    }
 
+    /**
+     * Retires the active catalog version, which releases the native solvers of its minimizer, and the versions reloads publish later
+     * Calls still running finish normally, later calls still split but no longer reuse solvers
+     */
+    @Override
+    public void close() {
+        closed = true;
+        active.get().retire();
+    }
+
+    /**
+     * @return version of the catalog used by new split calls, the catalog loaded by the constructor is version 1
+     */
+    public long getCatalogVersion() {
+        return active.get().getVersion();
+    }
+
+    private CatalogVersion load(String absolutePathToConfigFile, long version) {
+        DeliveryCatalog catalog = options.getConfigLoader().loadCatalog(absolutePathToConfigFile);
+        return new CatalogVersion(version, catalog, options, cacheCounters, engineCounters);
+    }
+
+    @SuppressWarnings("serial")
+    private static class SplitAllTask extends RecursiveAction {
+        private final CatalogVersion catalogVersion;
+        private final List<List<String>> baskets;
+        private final BasketSplitResult[] results;
+        private final int from;
+        private final int to;
+        private final int batchSize;
+
+        SplitAllTask(CatalogVersion catalogVersion, List<List<String>> baskets, BasketSplitResult[] results, int from, int to, int batchSize) {
+            this.catalogVersion = catalogVersion;
+            this.baskets = baskets;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+            this.batchSize = batchSize;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= batchSize) {
+                for (int i = from; i < to; i++) {
+                    results[i] = splitOne(baskets.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SplitAllTask(catalogVersion, baskets, results, from, middle, batchSize),
+                    new SplitAllTask(catalogVersion, baskets, results, middle, to, batchSize));
+        }
+
+        private BasketSplitResult splitOne(List<String> basket) {
+            try {
+                return BasketSplitResult.success(split(catalogVersion, basket));
+            } catch (RuntimeException e) {
+                return BasketSplitResult.failure(e);
+            }
+        }
+    }
 }
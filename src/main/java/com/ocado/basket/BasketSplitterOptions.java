@@ -0,0 +1,69 @@
+package com.ocado.basket;
+
+import com.ocado.basket.diagnostics.SlowBasketCapture;
+import com.ocado.basket.logic.ConfigLoader;
+import com.ocado.basket.logic.DeliveryCountMinimizer.AdaptiveThresholds;
+import com.ocado.basket.logic.DeliveryCountMinimizer.DeliveryCountMinimizerType;
+import com.ocado.basket.logic.SplitPipeline;
+import com.ocado.basket.metrics.SplitMetrics;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * BasketSplitterOptions class
+ * Contains
+ * - pipeline: how a basket is split, TWO_STAGE uses the minimizer and then assigns the items, LEXICOGRAPHIC searches
+ *   for the fewest deliveries and the biggest largest delivery at once, LOW_ALLOCATION splits on per-thread scratch arrays
+ * - minimizer: algorithm used to find the minimal set of delivery options
+ * - adaptiveThresholds: routing rules of the ADAPTIVE minimizer, for example loaded from a calibrated properties file
+ * - collapseSignatures: solve the set cover over distinct option signatures instead of single products
+ * - decomposeComponents: solve the groups of products that share no delivery option with the rest of the basket one by one
+ * - parallelComponents: solve those groups in parallel on the batch pool
+ * - configLoader: loader used to read the config file, {@link com.ocado.basket.logic.StreamingConfigLoader} for very large configs
+ *   or {@link com.ocado.basket.logic.CatalogSnapshotLoader} for binary snapshots
+ * - reloadExecutor: executor building new catalog versions in the background
+ * - batchPool: fork join pool splitting the baskets of {@link BasketSplitter#splitAll}, also searched in parallel by the
+ *   PARALLEL_BRANCH_AND_BOUND minimizer and by parallel components
+ * - resultCacheMaxWeight: total number of cached result items, 0 disables the result cache
+ * - metrics: receives stage latencies, basket sizes, invalid baskets and engine measurements,
+ *   {@link com.ocado.basket.metrics.InMemorySplitMetrics} keeps them in memory, nothing is recorded by default
+ * - slowBasketCapture: writes the baskets whose split takes longer than its threshold to files for offline replay,
+ *   null disables the capture
+ *
+ * @version 1.0
+ */
+@Getter
+@Builder(toBuilder = true)
+public class BasketSplitterOptions {
+    @Builder.Default
+    private final SplitPipeline pipeline = SplitPipeline.TWO_STAGE;
+    @Builder.Default
+    private final DeliveryCountMinimizerType minimizer = DeliveryCountMinimizerType.DYNAMIC;
+    @Builder.Default
+    private final AdaptiveThresholds adaptiveThresholds = AdaptiveThresholds.defaults();
+    @Builder.Default
+    private final boolean collapseSignatures = false;
+    @Builder.Default
+    private final boolean decomposeComponents = false;
+    @Builder.Default
+    private final boolean parallelComponents = false;
+    @Builder.Default
+    private final ConfigLoader configLoader = new ConfigLoader();
+    @Builder.Default
+    private final Executor reloadExecutor = ForkJoinPool.commonPool();
+    @Builder.Default
+    private final ForkJoinPool batchPool = ForkJoinPool.commonPool();
+    @Builder.Default
+    private final long resultCacheMaxWeight = 0;
+    @Builder.Default
+    private final SplitMetrics metrics = SplitMetrics.noOp();
+    @Builder.Default
+    private final SlowBasketCapture slowBasketCapture = null;
+
+    public static BasketSplitterOptions defaults() {
+        return builder().build();
+    }
+}
@@ -0,0 +1,136 @@
+package com.ocado.basket;
+
+import com.ocado.basket.catalog.SharedCatalogPool;
+import com.ocado.basket.logic.SharedCatalogLoader;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * CatalogRegistry class
+ * Splitters of many tenants, each with its own config, in one JVM.
+ * - configs are read with the config loader of the options and built in one {@link SharedCatalogPool}, so the catalogs
+ *   share delivery option names, per-product option lists and product names
+ * - a tenant's splitter is loaded on its first use and closed and dropped by {@link #evictIdle()} once it was not used
+ *   for the idle timeout, the next use loads it again
+ * - {@link BasketSplitter#reload} of a tenant's splitter also builds the new catalog in the pool
+ * {@link #evictIdle()} is meant to be called periodically, for example from a scheduled executor.
+ *
+ * @version 1.0
+ */
+public class CatalogRegistry {
+    private final SharedCatalogPool pool = new SharedCatalogPool();
+    private final BasketSplitterOptions options;
+    private final long idleTimeoutNanos;
+    private final LongSupplier clock;
+    private final Map<String, Tenant> tenants = new ConcurrentHashMap<>();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param options options of every tenant's splitter, its config loader reads the config files
+     * @param idleTimeout time after its last use after which a tenant's splitter is evicted
+     */
+    public CatalogRegistry(BasketSplitterOptions options, Duration idleTimeout) {
+        this(options, idleTimeout, System::nanoTime);
+    }
+
+    CatalogRegistry(BasketSplitterOptions options, Duration idleTimeout, LongSupplier clock) {
+        this.options = options.toBuilder().configLoader(new SharedCatalogLoader(pool, options.getConfigLoader())).build();
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.clock = clock;
+    }
+
+    /**
+     * Register a tenant, nothing is loaded until its splitter is first requested
+     * A tenant registered again is loaded from the new config on its next use, use {@link BasketSplitter#reload}
+     * to switch a loaded splitter to a new config in the background instead
+     * @param absolutePathToConfigFile path to the config file of the tenant
+     */
+    public void register(String tenant, String absolutePathToConfigFile) {
+        tenants.put(tenant, new Tenant(absolutePathToConfigFile));
+    }
+
+    /**
+     * @return splitter of the tenant, loaded if it is not loaded yet
+     * @throws IllegalArgumentException if the tenant is not registered
+     * @throws com.ocado.basket.exceptions.ConfigLoadException if the config of the tenant cannot be loaded
+     */
+    public BasketSplitter splitter(String tenant) {
+        Tenant entry = tenants.get(tenant);
+        if (entry == null) {
+            throw new IllegalArgumentException("Unknown tenant: " + tenant);
+        }
+        entry.lastUsed = clock.getAsLong();
+        BasketSplitter splitter = entry.splitter;
+        if (splitter != null) {
+            return splitter;
+        }
+        synchronized (entry) {
+            if (entry.splitter == null) {
+                entry.splitter = new BasketSplitter(entry.path, options);
+                loads.increment();
+            }
+            return entry.splitter;
+        }
+    }
+
+    /**
+     * Close and drop the splitters not used for the idle timeout, callers still holding one can keep using it
+     * Product names of evicted tenants stay in the pool
+     * @return number of evicted splitters
+     */
+    public int evictIdle() {
+        long now = clock.getAsLong();
+        int evicted = 0;
+        for (Tenant entry : tenants.values()) {
+            if (entry.splitter == null || now - entry.lastUsed < idleTimeoutNanos) {
+                continue;
+            }
+            synchronized (entry) {
+                if (entry.splitter != null && now - entry.lastUsed >= idleTimeoutNanos) {
+                    entry.splitter.close();
+                    entry.splitter = null;
+                    evicted++;
+                }
+            }
+        }
+        evictions.add(evicted);
+        return evicted;
+    }
+
+    /**
+     * @return number of tenants whose splitter is loaded
+     */
+    public int getLoadedCount() {
+        return (int) tenants.values().stream().filter(entry -> entry.splitter != null).count();
+    }
+
+    /**
+     * @return number of splitters loaded so far, a tenant loaded again after an eviction counts again
+     */
+    public long getLoads() {
+        return loads.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public SharedCatalogPool getPool() {
+        return pool;
+    }
+
+    private static final class Tenant {
+        private final String path;
+        private volatile BasketSplitter splitter;
+        private volatile long lastUsed;
+
+        Tenant(String path) {
+            this.path = path;
+        }
+    }
+}
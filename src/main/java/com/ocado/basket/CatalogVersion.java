@@ -0,0 +1,100 @@
+package com.ocado.basket;
+
+import com.ocado.basket.cache.CacheCounters;
+import com.ocado.basket.cache.SplitResultCache;
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.diagnostics.SlowBasketCapture;
+import com.ocado.basket.logic.DeliveryCountMinimizer.AbstractDeliveryCountMinimizer;
+import com.ocado.basket.logic.DeliveryCountMinimizer.AdaptiveDeliveryCountMinimizer;
+import com.ocado.basket.logic.DeliveryCountMinimizer.ComponentDecomposingDeliveryCountMinimizer;
+import com.ocado.basket.logic.DeliveryCountMinimizer.EngineCounters;
+import com.ocado.basket.logic.DeliveryCountMinimizer.ParallelDeliveryCountMinimizer;
+import com.ocado.basket.logic.DeliveryCountMinimizer.SignatureCollapsingDeliveryCountMinimizer;
+import com.ocado.basket.logic.ItemsCountMaximizer;
+import com.ocado.basket.logic.LexicographicSplitter;
+import com.ocado.basket.logic.LowAllocationSplitter;
+import com.ocado.basket.logic.SinglePassSplitter;
+import com.ocado.basket.logic.SplitPipeline;
+import com.ocado.basket.metrics.SplitMetrics;
+import lombok.Getter;
+
+/**
+ * CatalogVersion class
+ * One published version of the catalog together with everything derived from it.
+ * A split call reads the active version once and uses it until it returns, so a reload never changes
+ * the catalog under a running call. State scoped to a version lives here and is dropped with it.
+ *
+ * @version 1.0
+ */
+@Getter
+class CatalogVersion {
+    private final long version;
+    private final DeliveryCatalog catalog;
+    private final AbstractDeliveryCountMinimizer deliveryCountMinimizer;
+    private final ItemsCountMaximizer optimizer;
+    private final SinglePassSplitter singlePassSplitter;
+    private final SplitResultCache resultCache;
+    private final SplitMetrics metrics;
+    private final SplitPipeline pipeline;
+    private final String engineName;
+    private final SlowBasketCapture slowBasketCapture;
+
+    CatalogVersion(long version, DeliveryCatalog catalog, BasketSplitterOptions options, CacheCounters cacheCounters, EngineCounters engineCounters) {
+        this.version = version;
+        this.catalog = catalog;
+        this.deliveryCountMinimizer = createMinimizer(catalog, options, engineCounters);
+        this.optimizer = new ItemsCountMaximizer(catalog);
+        this.singlePassSplitter = createSinglePassSplitter(catalog, options.getPipeline());
+        this.resultCache = options.getResultCacheMaxWeight() > 0 ? new SplitResultCache(options.getResultCacheMaxWeight(), cacheCounters) : null;
+        this.metrics = options.getMetrics();
+        this.pipeline = options.getPipeline();
+        this.engineName = engineName(options);
+        this.slowBasketCapture = options.getSlowBasketCapture();
+    }
+
+    /**
+     * Called once a newer version is published, releases the native solvers of the minimizer
+     * Calls still running on this version finish normally
+     */
+    void retire() {
+        deliveryCountMinimizer.close();
+    }
+
+    /**
+     * @return null for the TWO_STAGE pipeline, which uses the minimizer and the optimizer
+     */
+    private static SinglePassSplitter createSinglePassSplitter(DeliveryCatalog catalog, SplitPipeline pipeline) {
+        return switch (pipeline) {
+            case TWO_STAGE -> null;
+            case LEXICOGRAPHIC -> new LexicographicSplitter(catalog);
+            case LOW_ALLOCATION -> new LowAllocationSplitter(catalog);
+        };
+    }
+
+    /**
+     * @return name of the single pass pipeline, otherwise the minimizer type, followed by +SIGNATURES if signatures are collapsed
+     * and +COMPONENTS if baskets are decomposed
+     */
+    private static String engineName(BasketSplitterOptions options) {
+        if (options.getPipeline() != SplitPipeline.TWO_STAGE) {
+            return options.getPipeline().name();
+        }
+        return options.getMinimizer().name() + (options.isCollapseSignatures() ? "+SIGNATURES" : "")
+                + (options.isDecomposeComponents() ? "+COMPONENTS" : "");
+    }
+
+    private static AbstractDeliveryCountMinimizer createMinimizer(DeliveryCatalog catalog, BasketSplitterOptions options, EngineCounters engineCounters) {
+        AbstractDeliveryCountMinimizer minimizer = switch (options.getMinimizer()) {
+            case ADAPTIVE -> new AdaptiveDeliveryCountMinimizer(catalog, options.getAdaptiveThresholds(), engineCounters, options.getMetrics());
+            case PARALLEL_BRANCH_AND_BOUND -> new ParallelDeliveryCountMinimizer(catalog, options.getBatchPool());
+            default -> options.getMinimizer().create(catalog, options.getMetrics());
+        };
+        if (options.isCollapseSignatures()) {
+            minimizer = new SignatureCollapsingDeliveryCountMinimizer(catalog, minimizer);
+        }
+        if (options.isDecomposeComponents()) {
+            minimizer = new ComponentDecomposingDeliveryCountMinimizer(catalog, minimizer, options.isParallelComponents() ? options.getBatchPool() : null);
+        }
+        return minimizer;
+    }
+}
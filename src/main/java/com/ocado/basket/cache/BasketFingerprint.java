@@ -0,0 +1,58 @@
+package com.ocado.basket.cache;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * BasketFingerprint class
+ * Canonical, order-independent key of a basket: the sorted distinct catalog ids of its products.
+ * Baskets with the same products in a different order or with repeated products share a fingerprint.
+ *
+ * @version 1.0
+ */
+public final class BasketFingerprint {
+    private final int[] productIds;
+    private final int hash;
+
+    private BasketFingerprint(int[] productIds) {
+        this.productIds = productIds;
+        this.hash = Arrays.hashCode(productIds);
+    }
+
+    /**
+     * @return fingerprint of the basket or null if a product is not in the catalog
+     */
+    public static BasketFingerprint of(DeliveryCatalog catalog, List<String> products) {
+        int[] productIds = new int[products.size()];
+        for (int i = 0; i < productIds.length; i++) {
+            productIds[i] = catalog.productId(products.get(i));
+            if (productIds[i] < 0) {
+                return null;
+            }
+        }
+        Arrays.sort(productIds);
+        int distinct = 0;
+        for (int i = 0; i < productIds.length; i++) {
+            if (i == 0 || productIds[i] != productIds[i - 1]) {
+                productIds[distinct++] = productIds[i];
+            }
+        }
+        return new BasketFingerprint(distinct == productIds.length ? productIds : Arrays.copyOf(productIds, distinct));
+    }
+
+    public int size() {
+        return productIds.length;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof BasketFingerprint fingerprint && hash == fingerprint.hash && Arrays.equals(productIds, fingerprint.productIds);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,33 @@
+package com.ocado.basket.cache;
+
+import com.ocado.basket.dto.CacheStatsDto;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * CacheCounters class
+ * Hit, miss and eviction counters shared by the result caches of all catalog versions
+ *
+ * @version 1.0
+ */
+public class CacheCounters {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordEviction() {
+        evictions.increment();
+    }
+
+    public CacheStatsDto snapshot() {
+        return new CacheStatsDto(hits.sum(), misses.sum(), evictions.sum());
+    }
+}
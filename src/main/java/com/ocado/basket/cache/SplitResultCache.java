@@ -0,0 +1,124 @@
+package com.ocado.basket.cache;
+
+import java.util.*;
+
+/**
+ * SplitResultCache class
+ * Bounded cache of split results keyed by {@link BasketFingerprint}.
+ * The cache is split into segments, each an access-ordered LRU map guarded by its own lock,
+ * so concurrent splits of different baskets rarely contend. Every segment evicts its least recently
+ * used results once their total weight (number of items plus one per result) exceeds its share of the budget.
+ * A small budget gets fewer segments, down to one, so that every share still holds a few results.
+ * Results are stored and returned as immutable copies.
+ * One cache belongs to one catalog version, so results of an older catalog are never returned.
+ *
+ * @version 1.0
+ */
+public class SplitResultCache {
+    private static final int MAX_SEGMENTS = 16;
+    private static final long MIN_SEGMENT_WEIGHT = 64;
+
+    private final Segment[] segments;
+    private final CacheCounters counters;
+
+    /**
+     * @param maxWeight total weight of the cached results, at least 1
+     */
+    public SplitResultCache(long maxWeight, CacheCounters counters) {
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("maxWeight must be positive: " + maxWeight);
+        }
+        this.counters = counters;
+        int segmentCount = (int) Math.min(MAX_SEGMENTS, Long.highestOneBit(Math.max(1, maxWeight / MIN_SEGMENT_WEIGHT)));
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(maxWeight / segmentCount);
+        }
+    }
+
+    /**
+     * @return cached result or null
+     */
+    public Map<String, List<String>> get(BasketFingerprint fingerprint) {
+        Map<String, List<String>> result = segmentFor(fingerprint).get(fingerprint);
+        if (result == null) {
+            counters.recordMiss();
+        } else {
+            counters.recordHit();
+        }
+        return result;
+    }
+
+    /**
+     * @return immutable copy of the result, as it will be returned by later hits
+     */
+    public Map<String, List<String>> put(BasketFingerprint fingerprint, Map<String, List<String>> result) {
+        Map<String, List<String>> copy = immutableCopy(result);
+        segmentFor(fingerprint).put(fingerprint, copy, weigh(copy));
+        return copy;
+    }
+
+    public long weight() {
+        long weight = 0;
+        for (Segment segment : segments) {
+            weight += segment.weight();
+        }
+        return weight;
+    }
+
+    private Segment segmentFor(BasketFingerprint fingerprint) {
+        int hash = fingerprint.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (segments.length - 1)];
+    }
+
+    private static Map<String, List<String>> immutableCopy(Map<String, List<String>> result) {
+        Map<String, List<String>> copy = new HashMap<>();
+        result.forEach((deliveryOption, items) -> copy.put(deliveryOption, List.copyOf(items)));
+        return Collections.unmodifiableMap(copy);
+    }
+
+    private static long weigh(Map<String, List<String>> result) {
+        long weight = 1;
+        for (List<String> items : result.values()) {
+            weight += items.size();
+        }
+        return weight;
+    }
+
+    private class Segment {
+        private final long maxWeight;
+        private final LinkedHashMap<BasketFingerprint, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private long weight;
+
+        Segment(long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+
+        synchronized Map<String, List<String>> get(BasketFingerprint fingerprint) {
+            Entry entry = entries.get(fingerprint);
+            return entry == null ? null : entry.result;
+        }
+
+        synchronized void put(BasketFingerprint fingerprint, Map<String, List<String>> result, long resultWeight) {
+            if (resultWeight > maxWeight) {
+                return;
+            }
+            Entry previous = entries.put(fingerprint, new Entry(result, resultWeight));
+            weight += resultWeight - (previous == null ? 0 : previous.weight);
+            Iterator<Entry> eldest = entries.values().iterator();
+            while (weight > maxWeight) {
+                Entry evicted = eldest.next();
+                eldest.remove();
+                weight -= evicted.weight;
+                counters.recordEviction();
+            }
+        }
+
+        synchronized long weight() {
+            return weight;
+        }
+    }
+
+    private record Entry(Map<String, List<String>> result, long weight) {
+    }
+}
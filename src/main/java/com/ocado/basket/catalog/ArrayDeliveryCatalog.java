@@ -0,0 +1,125 @@
+package com.ocado.basket.catalog;
+
+import java.util.Map;
+
+/**
+ * ArrayDeliveryCatalog class
+ * Heap implementation of {@link DeliveryCatalog} backed by plain arrays, created through {@link DeliveryCatalog.Builder}.
+ * Product names and ids are kept in a {@link ProductNameIndex}.
+ *
+ * @version 1.0
+ */
+final class ArrayDeliveryCatalog implements DeliveryCatalog {
+    private final ProductNameIndex products;
+    private final String[] optionNames;
+    private final Map<String, Integer> optionIds;
+    private final int[][] productOptions;
+    private final int[][] optionProducts;
+    private final long[][] optionCoverage;
+
+    ArrayDeliveryCatalog(ProductNameIndex products, String[] optionNames, Map<String, Integer> optionIds, int[][] productOptions) {
+        this.products = products;
+        this.optionNames = optionNames;
+        this.optionIds = optionIds;
+        this.productOptions = productOptions;
+        this.optionProducts = invert(productOptions, optionNames.length);
+        this.optionCoverage = coverage(optionProducts, products.size());
+    }
+
+    @Override
+    public int productCount() {
+        return products.size();
+    }
+
+    @Override
+    public int optionCount() {
+        return optionNames.length;
+    }
+
+    @Override
+    public int productId(String product) {
+        return products.id(product);
+    }
+
+    @Override
+    public int optionId(String option) {
+        Integer id = optionIds.get(option);
+        return id == null ? -1 : id;
+    }
+
+    @Override
+    public String productName(int product) {
+        return products.name(product);
+    }
+
+    @Override
+    public int copyProductName(int product, int from, byte[] target, int offset, int length) {
+        return products.copyName(product, from, target, offset, length);
+    }
+
+    @Override
+    public String optionName(int option) {
+        return optionNames[option];
+    }
+
+    @Override
+    public int productOptionCount(int product) {
+        return productOptions[product].length;
+    }
+
+    @Override
+    public int productOption(int product, int index) {
+        return productOptions[product][index];
+    }
+
+    @Override
+    public int optionProductCount(int option) {
+        return optionProducts[option].length;
+    }
+
+    @Override
+    public int optionProduct(int option, int index) {
+        return optionProducts[option][index];
+    }
+
+    @Override
+    public boolean covers(int option, int product) {
+        return (optionCoverage[option][product >>> 6] & (1L << product)) != 0;
+    }
+
+    static int[][] invert(int[][] productOptions, int optionCount) {
+        int[] sizes = new int[optionCount];
+        for (int[] options : productOptions) {
+            for (int option : options) {
+                sizes[option]++;
+            }
+        }
+        int[][] optionProducts = new int[optionCount][];
+        for (int option = 0; option < optionCount; option++) {
+            optionProducts[option] = new int[sizes[option]];
+            sizes[option] = 0;
+        }
+        for (int product = 0; product < productOptions.length; product++) {
+            for (int option : productOptions[product]) {
+                optionProducts[option][sizes[option]++] = product;
+            }
+        }
+        return optionProducts;
+    }
+
+    /**
+     * Options without products, which only a {@link SharedDeliveryCatalog} has, share one empty bitset
+     */
+    static long[][] coverage(int[][] optionProducts, int productCount) {
+        int words = (productCount + 63) >>> 6;
+        long[] empty = new long[words];
+        long[][] coverage = new long[optionProducts.length][];
+        for (int option = 0; option < optionProducts.length; option++) {
+            coverage[option] = optionProducts[option].length == 0 ? empty : new long[words];
+            for (int product : optionProducts[option]) {
+                coverage[option][product >>> 6] |= 1L << product;
+            }
+        }
+        return coverage;
+    }
+}
@@ -0,0 +1,187 @@
+package com.ocado.basket.catalog;
+
+import com.ocado.basket.exceptions.ConfigLoadException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * CatalogSnapshot class
+ * Writes a {@link DeliveryCatalog} to a compact binary file and opens such files as a {@link MappedDeliveryCatalog}.
+ * Layout (little endian, all offsets are absolute byte positions):
+ * - header: magic, format version, counts and the offset of every section
+ * - option name table and product name table: offsets followed by UTF-8 bytes
+ * - product name hash index: precomputed name hashes and open addressing slots holding product ids
+ * - product options and option products: offsets followed by ids
+ * - coverage bitsets: one row of words per option, 8-byte aligned
+ *
+ * @version 1.0
+ */
+public final class CatalogSnapshot {
+    static final int MAGIC = 0x424B5453;
+    static final int FORMAT_VERSION = 1;
+
+    static final int PRODUCT_COUNT = 8;
+    static final int OPTION_COUNT = 12;
+    static final int COVERAGE_WORDS = 16;
+    static final int HASH_CAPACITY = 20;
+    static final int OPTION_NAME_OFFSETS = 24;
+    static final int PRODUCT_NAME_OFFSETS = 28;
+    static final int PRODUCT_HASHES = 32;
+    static final int HASH_SLOTS = 36;
+    static final int PRODUCT_OPTION_OFFSETS = 40;
+    static final int OPTION_PRODUCT_OFFSETS = 44;
+    static final int COVERAGE = 48;
+    static final int FILE_LENGTH = 52;
+    static final int HEADER_SIZE = 56;
+
+    private CatalogSnapshot() {
+    }
+
+    public static void write(DeliveryCatalog catalog, Path snapshotFile) throws IOException {
+        int productCount = catalog.productCount();
+        int optionCount = catalog.optionCount();
+        int words = (productCount + 63) >>> 6;
+        int hashCapacity = Integer.highestOneBit(Math.max(2, productCount * 2 - 1)) << 1;
+        byte[][] optionNames = new byte[optionCount][];
+        for (int option = 0; option < optionCount; option++) {
+            optionNames[option] = catalog.optionName(option).getBytes(StandardCharsets.UTF_8);
+        }
+        byte[][] productNames = new byte[productCount][];
+        long productOptionTotal = 0;
+        for (int product = 0; product < productCount; product++) {
+            productNames[product] = catalog.productName(product).getBytes(StandardCharsets.UTF_8);
+            productOptionTotal += catalog.productOptionCount(product);
+        }
+
+        long optionNameOffsets = HEADER_SIZE;
+        long productNameOffsets = optionNameOffsets + stringTableSize(optionNames);
+        long productHashes = productNameOffsets + stringTableSize(productNames);
+        long hashSlots = productHashes + 4L * productCount;
+        long productOptionOffsets = hashSlots + 4L * hashCapacity;
+        long optionProductOffsets = productOptionOffsets + 4L * (productCount + 1) + 4L * productOptionTotal;
+        long coverage = align8(optionProductOffsets + 4L * (optionCount + 1) + 4L * productOptionTotal);
+        long fileLength = coverage + 8L * optionCount * words;
+        if (fileLength > Integer.MAX_VALUE) {
+            throw new IOException("Catalog too large for a snapshot: " + fileLength + " bytes");
+        }
+
+        try (var channel = FileChannel.open(snapshotFile, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileLength);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(0, MAGIC).putInt(4, FORMAT_VERSION)
+                    .putInt(PRODUCT_COUNT, productCount).putInt(OPTION_COUNT, optionCount)
+                    .putInt(COVERAGE_WORDS, words).putInt(HASH_CAPACITY, hashCapacity)
+                    .putInt(OPTION_NAME_OFFSETS, (int) optionNameOffsets).putInt(PRODUCT_NAME_OFFSETS, (int) productNameOffsets)
+                    .putInt(PRODUCT_HASHES, (int) productHashes).putInt(HASH_SLOTS, (int) hashSlots)
+                    .putInt(PRODUCT_OPTION_OFFSETS, (int) productOptionOffsets).putInt(OPTION_PRODUCT_OFFSETS, (int) optionProductOffsets)
+                    .putInt(COVERAGE, (int) coverage).putInt(FILE_LENGTH, (int) fileLength);
+            writeStringTable(buffer, (int) optionNameOffsets, optionNames);
+            writeStringTable(buffer, (int) productNameOffsets, productNames);
+            writeHashIndex(buffer, catalog, (int) productHashes, (int) hashSlots, hashCapacity);
+            writeProductOptions(buffer, catalog, (int) productOptionOffsets);
+            writeOptionProducts(buffer, catalog, (int) optionProductOffsets);
+            writeCoverage(buffer, catalog, (int) coverage, words);
+            buffer.force();
+        }
+    }
+
+    public static MappedDeliveryCatalog open(Path snapshotFile) {
+        try (var channel = FileChannel.open(snapshotFile, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE) {
+                throw new ConfigLoadException("Invalid catalog snapshot", new IOException("Unexpected snapshot size " + size));
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.LITTLE_ENDIAN);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION || buffer.getInt(FILE_LENGTH) != size) {
+                throw new ConfigLoadException("Invalid catalog snapshot", new IOException("Unsupported snapshot header"));
+            }
+            return new MappedDeliveryCatalog(buffer);
+        } catch (IOException e) {
+            throw new ConfigLoadException("Failed to load config file", e);
+        }
+    }
+
+    static int hash(String name) {
+        int hash = name.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static long stringTableSize(byte[][] strings) {
+        long size = 4L * (strings.length + 1);
+        for (byte[] string : strings) {
+            size += string.length;
+        }
+        return size;
+    }
+
+    private static long align8(long position) {
+        return (position + 7) & ~7L;
+    }
+
+    private static void writeStringTable(ByteBuffer buffer, int start, byte[][] strings) {
+        int bytes = start + 4 * (strings.length + 1);
+        buffer.position(bytes);
+        for (int i = 0; i < strings.length; i++) {
+            buffer.putInt(start + 4 * i, buffer.position());
+            buffer.put(strings[i]);
+        }
+        buffer.putInt(start + 4 * strings.length, buffer.position());
+    }
+
+    private static void writeHashIndex(ByteBuffer buffer, DeliveryCatalog catalog, int hashes, int slots, int capacity) {
+        for (int slot = 0; slot < capacity; slot++) {
+            buffer.putInt(slots + 4 * slot, -1);
+        }
+        for (int product = 0; product < catalog.productCount(); product++) {
+            int hash = hash(catalog.productName(product));
+            buffer.putInt(hashes + 4 * product, hash);
+            int slot = hash & (capacity - 1);
+            while (buffer.getInt(slots + 4 * slot) >= 0) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            buffer.putInt(slots + 4 * slot, product);
+        }
+    }
+
+    private static void writeProductOptions(ByteBuffer buffer, DeliveryCatalog catalog, int start) {
+        int position = start + 4 * (catalog.productCount() + 1);
+        for (int product = 0; product < catalog.productCount(); product++) {
+            buffer.putInt(start + 4 * product, position);
+            for (int i = 0; i < catalog.productOptionCount(product); i++, position += 4) {
+                buffer.putInt(position, catalog.productOption(product, i));
+            }
+        }
+        buffer.putInt(start + 4 * catalog.productCount(), position);
+    }
+
+    private static void writeOptionProducts(ByteBuffer buffer, DeliveryCatalog catalog, int start) {
+        int position = start + 4 * (catalog.optionCount() + 1);
+        for (int option = 0; option < catalog.optionCount(); option++) {
+            buffer.putInt(start + 4 * option, position);
+            for (int i = 0; i < catalog.optionProductCount(option); i++, position += 4) {
+                buffer.putInt(position, catalog.optionProduct(option, i));
+            }
+        }
+        buffer.putInt(start + 4 * catalog.optionCount(), position);
+    }
+
+    private static void writeCoverage(ByteBuffer buffer, DeliveryCatalog catalog, int start, int words) {
+        for (int option = 0; option < catalog.optionCount(); option++) {
+            int row = start + 8 * option * words;
+            for (int i = 0; i < catalog.optionProductCount(option); i++) {
+                int product = catalog.optionProduct(option, i);
+                int word = row + 8 * (product >>> 6);
+                buffer.putLong(word, buffer.getLong(word) | (1L << product));
+            }
+        }
+    }
+}
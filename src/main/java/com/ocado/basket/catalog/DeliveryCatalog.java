@@ -0,0 +1,133 @@
+package com.ocado.basket.catalog;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * DeliveryCatalog interface
+ * Immutable, indexed form of the delivery options config, built once and shared by all stages.
+ * Contains
+ * - dense product and delivery option ids
+ * - per-product delivery option ids, in config order
+ * - inverted delivery option to products index
+ * - per-option coverage bitsets over product ids, so membership checks are a single bit test
+ *
+ * @version 1.0
+ */
+public interface DeliveryCatalog {
+
+    static DeliveryCatalog of(Map<String, List<String>> productToDeliveryOptions) {
+        Builder builder = new Builder();
+        for (Map.Entry<String, List<String>> entry : productToDeliveryOptions.entrySet()) {
+            builder.addProduct(entry.getKey(), entry.getValue().stream().mapToInt(builder::internOption).toArray());
+        }
+        return builder.build();
+    }
+
+    int productCount();
+
+    int optionCount();
+
+    /**
+     * @return id of the product or -1 if the product is not in the catalog
+     */
+    int productId(String product);
+
+    /**
+     * @return id of the delivery option or -1 if no product uses it
+     */
+    int optionId(String option);
+
+    String productName(int product);
+
+    /**
+     * Copies part of the UTF-8 encoded product name, so it can be written out without building a String.
+     * The default encodes {@link #productName}, catalogs keeping the names as UTF-8 copy them as they are
+     * @param from first byte of the name to copy
+     * @return number of bytes copied, at most length, 0 once the end of the name is reached
+     */
+    default int copyProductName(int product, int from, byte[] target, int offset, int length) {
+        byte[] name = productName(product).getBytes(StandardCharsets.UTF_8);
+        int copied = Math.max(0, Math.min(length, name.length - from));
+        System.arraycopy(name, from, target, offset, copied);
+        return copied;
+    }
+
+    String optionName(int option);
+
+    int productOptionCount(int product);
+
+    int productOption(int product, int index);
+
+    int optionProductCount(int option);
+
+    int optionProduct(int option, int index);
+
+    boolean covers(int option, int product);
+
+    /**
+     * Builder class
+     * Collects products one by one, so loaders can fill the catalog without an intermediate map.
+     * Delivery option names are interned into a {@link StringPool}, product names are added to a {@link ProductNameIndex}
+     * and identical option lists share one array.
+     */
+    class Builder {
+        private final StringPool options;
+        private final ProductNameIndex products = new ProductNameIndex();
+        private final List<int[]> productOptions = new ArrayList<>();
+        private final Map<OptionList, int[]> sharedOptionLists = new HashMap<>();
+
+        public Builder() {
+            this(new StringPool());
+        }
+
+        public Builder(StringPool options) {
+            this.options = options;
+        }
+
+        public int internOption(String option) {
+            return options.intern(option);
+        }
+
+        public int internOption(char[] chars, int offset, int length) {
+            return options.intern(chars, offset, length);
+        }
+
+        /**
+         * @param optionIds ids returned by {@link #internOption}, duplicates are dropped
+         * @throws IllegalArgumentException if the product was already added
+         */
+        public Builder addProduct(String product, int[] optionIds) {
+            if (products.add(product) < 0) {
+                throw new IllegalArgumentException("Duplicate product: " + product);
+            }
+            int[] distinctOptionIds = Arrays.stream(optionIds).distinct().toArray();
+            productOptions.add(sharedOptionLists.computeIfAbsent(new OptionList(distinctOptionIds), OptionList::ids));
+            return this;
+        }
+
+        /**
+         * Builds the catalog, the builder must not be used afterwards
+         */
+        public DeliveryCatalog build() {
+            String[] optionNames = options.toArray();
+            Map<String, Integer> optionIds = new HashMap<>(optionNames.length * 4 / 3 + 1);
+            for (int option = 0; option < optionNames.length; option++) {
+                optionIds.put(optionNames[option], option);
+            }
+            return new ArrayDeliveryCatalog(products.trim(), optionNames, optionIds, productOptions.toArray(int[][]::new));
+        }
+
+        record OptionList(int[] ids) {
+            @Override
+            public boolean equals(Object other) {
+                return other instanceof OptionList list && Arrays.equals(ids, list.ids);
+            }
+
+            @Override
+            public int hashCode() {
+                return Arrays.hashCode(ids);
+            }
+        }
+    }
+}
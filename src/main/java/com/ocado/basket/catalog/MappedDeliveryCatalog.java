@@ -0,0 +1,171 @@
+package com.ocado.basket.catalog;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.ocado.basket.catalog.CatalogSnapshot.*;
+
+/**
+ * MappedDeliveryCatalog class
+ * {@link DeliveryCatalog} reading straight from a memory-mapped {@link CatalogSnapshot} file.
+ * Opening it allocates nothing per product, only the (few) delivery option names are decoded up front.
+ * All reads use absolute buffer access, so the catalog is safe to share between threads.
+ *
+ * @version 1.0
+ */
+public final class MappedDeliveryCatalog implements DeliveryCatalog {
+    private final ByteBuffer buffer;
+    private final int productCount;
+    private final int coverageWords;
+    private final int hashCapacity;
+    private final int productNameOffsets;
+    private final int productHashes;
+    private final int hashSlots;
+    private final int productOptionOffsets;
+    private final int optionProductOffsets;
+    private final int coverage;
+    private final String[] optionNames;
+    private final Map<String, Integer> optionIds;
+
+    MappedDeliveryCatalog(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.productCount = buffer.getInt(PRODUCT_COUNT);
+        this.coverageWords = buffer.getInt(COVERAGE_WORDS);
+        this.hashCapacity = buffer.getInt(HASH_CAPACITY);
+        this.productNameOffsets = buffer.getInt(PRODUCT_NAME_OFFSETS);
+        this.productHashes = buffer.getInt(PRODUCT_HASHES);
+        this.hashSlots = buffer.getInt(HASH_SLOTS);
+        this.productOptionOffsets = buffer.getInt(PRODUCT_OPTION_OFFSETS);
+        this.optionProductOffsets = buffer.getInt(OPTION_PRODUCT_OFFSETS);
+        this.coverage = buffer.getInt(COVERAGE);
+
+        int optionNameOffsets = buffer.getInt(OPTION_NAME_OFFSETS);
+        this.optionNames = new String[buffer.getInt(OPTION_COUNT)];
+        this.optionIds = new HashMap<>();
+        for (int option = 0; option < optionNames.length; option++) {
+            optionNames[option] = decode(optionNameOffsets, option);
+            optionIds.put(optionNames[option], option);
+        }
+    }
+
+    @Override
+    public int productCount() {
+        return productCount;
+    }
+
+    @Override
+    public int optionCount() {
+        return optionNames.length;
+    }
+
+    @Override
+    public int productId(String product) {
+        int hash = CatalogSnapshot.hash(product);
+        int slotMask = hashCapacity - 1;
+        for (int slot = hash & slotMask; ; slot = (slot + 1) & slotMask) {
+            int candidate = buffer.getInt(hashSlots + 4 * slot);
+            if (candidate < 0) {
+                return -1;
+            }
+            if (buffer.getInt(productHashes + 4 * candidate) == hash && nameEquals(candidate, product)) {
+                return candidate;
+            }
+        }
+    }
+
+    @Override
+    public int optionId(String option) {
+        Integer id = optionIds.get(option);
+        return id == null ? -1 : id;
+    }
+
+    @Override
+    public String productName(int product) {
+        return decode(productNameOffsets, product);
+    }
+
+    @Override
+    public int copyProductName(int product, int from, byte[] target, int offset, int length) {
+        int start = buffer.getInt(productNameOffsets + 4 * product) + from;
+        int copied = Math.max(0, Math.min(length, buffer.getInt(productNameOffsets + 4 * (product + 1)) - start));
+        buffer.get(start, target, offset, copied);
+        return copied;
+    }
+
+    @Override
+    public String optionName(int option) {
+        return optionNames[option];
+    }
+
+    @Override
+    public int productOptionCount(int product) {
+        return rangeSize(productOptionOffsets, product);
+    }
+
+    @Override
+    public int productOption(int product, int index) {
+        return buffer.getInt(buffer.getInt(productOptionOffsets + 4 * product) + 4 * index);
+    }
+
+    @Override
+    public int optionProductCount(int option) {
+        return rangeSize(optionProductOffsets, option);
+    }
+
+    @Override
+    public int optionProduct(int option, int index) {
+        return buffer.getInt(buffer.getInt(optionProductOffsets + 4 * option) + 4 * index);
+    }
+
+    @Override
+    public boolean covers(int option, int product) {
+        long word = buffer.getLong(coverage + 8 * (option * coverageWords + (product >>> 6)));
+        return (word & (1L << product)) != 0;
+    }
+
+    private int rangeSize(int offsets, int index) {
+        return (buffer.getInt(offsets + 4 * (index + 1)) - buffer.getInt(offsets + 4 * index)) >>> 2;
+    }
+
+    private String decode(int offsets, int index) {
+        int start = buffer.getInt(offsets + 4 * index);
+        byte[] bytes = new byte[buffer.getInt(offsets + 4 * (index + 1)) - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compares the stored UTF-8 name with the string by encoding it on the fly, without allocating
+     */
+    private boolean nameEquals(int product, String name) {
+        int position = buffer.getInt(productNameOffsets + 4 * product);
+        int end = buffer.getInt(productNameOffsets + 4 * (product + 1));
+        for (int i = 0; i < name.length(); ) {
+            int codePoint = name.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (codePoint < 0x80) {
+                if (position >= end || buffer.get(position++) != (byte) codePoint) {
+                    return false;
+                }
+                continue;
+            }
+            int length = codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (position + length > end) {
+                return false;
+            }
+            int shift = 6 * (length - 1);
+            int lead = (0xF00 >>> length) & 0xFF;
+            if (buffer.get(position++) != (byte) (lead | (codePoint >>> shift))) {
+                return false;
+            }
+            for (shift -= 6; shift >= 0; shift -= 6) {
+                if (buffer.get(position++) != (byte) (0x80 | ((codePoint >>> shift) & 0x3F))) {
+                    return false;
+                }
+            }
+        }
+        return position == end;
+    }
+}
@@ -0,0 +1,277 @@
+package com.ocado.basket.catalog;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * ProductNameIndex class
+ * Product name to dense id index on primitive arrays, replacing a {@code HashMap<String, Integer>} plus a name array:
+ * - entries: one byte array holding, for every name, its id (4 bytes), its UTF-8 length (1 byte, or 3 from 128 bytes)
+ *   and its UTF-8 bytes
+ * - slots: open addressing table with linear probing, at most 3/4 full, each slot holds the precomputed hash of a name
+ *   in its high half and the offset of its entry + 1 in its low half, 0 for an empty slot
+ * - entryOffsets: offset of the entry of every id, for {@link #name}
+ * A lookup hashes the string (its hash code is cached by {@link String}), compares the hashes in the table and only
+ * reads the entry of a name whose hash matches, comparing the bytes by encoding the string on the fly. A hit reads
+ * two places in memory and allocates nothing; growing the table needs no name at all.
+ * Names are decoded on every {@link #name} call.
+ * Ids are dense and assigned in insertion order. Unpaired surrogates are stored as '?', as {@link String#getBytes} does.
+ *
+ * @version 1.0
+ */
+public final class ProductNameIndex {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int ID_BYTES = 4;
+    private static final int LONG_LENGTH = 0x80;
+    private static final int MAX_NAME_BYTES = (1 << 23) - 1;
+
+    private byte[] entries = new byte[INITIAL_CAPACITY * 8];
+    private int[] entryOffsets = new int[INITIAL_CAPACITY / 2];
+    private long[] slots = new long[INITIAL_CAPACITY];
+    private int entriesLength;
+    private int size;
+
+    /**
+     * @return id of the added name, or -1 if the name is already in the index
+     * @throws IllegalArgumentException if the name is longer than 8 MB in UTF-8
+     * @throws IllegalStateException if the names would take more than 2 GB
+     */
+    public int add(String name) {
+        int hash = CatalogSnapshot.hash(name);
+        int slot = find(hash, name);
+        if (slots[slot] != 0) {
+            return -1;
+        }
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("Product name longer than " + MAX_NAME_BYTES + " bytes");
+        }
+        int start = entriesLength;
+        int lengthBytes = bytes.length < LONG_LENGTH ? 1 : 3;
+        long end = (long) start + ID_BYTES + lengthBytes + bytes.length;
+        if (end >= Integer.MAX_VALUE - 8) {
+            throw new IllegalStateException("Product names exceed 2 GB");
+        }
+        if (end > entries.length) {
+            entries = Arrays.copyOf(entries, (int) Math.max(end, Math.min(Integer.MAX_VALUE - 8, entries.length * 2L)));
+        }
+        writeInt(start, size);
+        if (lengthBytes == 1) {
+            entries[start + ID_BYTES] = (byte) bytes.length;
+        } else {
+            entries[start + ID_BYTES] = (byte) (LONG_LENGTH | bytes.length >>> 16);
+            entries[start + ID_BYTES + 1] = (byte) (bytes.length >>> 8);
+            entries[start + ID_BYTES + 2] = (byte) bytes.length;
+        }
+        System.arraycopy(bytes, 0, entries, start + ID_BYTES + lengthBytes, bytes.length);
+        entriesLength = (int) end;
+        if (size == entryOffsets.length) {
+            entryOffsets = Arrays.copyOf(entryOffsets, Math.max(1, size * 2));
+        }
+        entryOffsets[size] = start;
+        slots[slot] = (long) hash << 32 | (start + 1);
+        if (++size > maxSize(slots.length)) {
+            rehash(slots.length * 2);
+        }
+        return size - 1;
+    }
+
+    /**
+     * @return id of the name or -1 if it is not in the index
+     */
+    public int id(String name) {
+        long entry = slots[find(CatalogSnapshot.hash(name), name)];
+        return entry == 0 ? -1 : readInt(offset(entry));
+    }
+
+    public String name(int id) {
+        int position = entryOffsets[id] + ID_BYTES;
+        return new String(entries, position + lengthBytes(position), length(position), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Copies part of the stored UTF-8 bytes of the name, without decoding it
+     * @param from first byte of the name to copy
+     * @return number of bytes copied, at most length, 0 once the end of the name is reached
+     */
+    public int copyName(int id, int from, byte[] target, int offset, int length) {
+        int position = entryOffsets[id] + ID_BYTES;
+        int copied = Math.max(0, Math.min(length, length(position) - from));
+        System.arraycopy(entries, position + lengthBytes(position) + from, target, offset, copied);
+        return copied;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return independent index with the same names and ids, which can be added to
+     */
+    public ProductNameIndex copy() {
+        ProductNameIndex copy = new ProductNameIndex();
+        copy.entries = Arrays.copyOf(entries, entriesLength);
+        copy.entryOffsets = Arrays.copyOf(entryOffsets, size);
+        copy.slots = slots.clone();
+        copy.entriesLength = entriesLength;
+        copy.size = size;
+        return copy;
+    }
+
+    /**
+     * Releases the spare capacity left by growing, the index must not be added to afterwards
+     * @return this index
+     */
+    public ProductNameIndex trim() {
+        entries = Arrays.copyOf(entries, entriesLength);
+        entryOffsets = Arrays.copyOf(entryOffsets, size);
+        int capacity = slots.length;
+        while (capacity > 2 && size <= maxSize(capacity / 2)) {
+            capacity /= 2;
+        }
+        if (capacity < slots.length) {
+            rehash(capacity);
+        }
+        return this;
+    }
+
+    /**
+     * @return slot holding the entry of the name, or the empty slot it would be stored in
+     */
+    private int find(int hash, String name) {
+        int slotMask = slots.length - 1;
+        int slot = home(hash, slotMask);
+        for (long entry = slots[slot]; entry != 0; entry = slots[slot]) {
+            if (hash(entry) == hash && nameEquals(offset(entry) + ID_BYTES, name)) {
+                return slot;
+            }
+            slot = (slot + 1) & slotMask;
+        }
+        return slot;
+    }
+
+    /**
+     * Probe chains stay short at 3/4 load because the table compares hashes held in the slots and probes are scrambled
+     */
+    private static int maxSize(int capacity) {
+        return capacity - (capacity >>> 2) - 1;
+    }
+
+    private static int hash(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    private static int offset(long entry) {
+        return (int) entry - 1;
+    }
+
+    /**
+     * First slot probed for the hash. Names like SKU codes differing in their last characters have nearly consecutive
+     * hash codes, which linear probing would pack into long runs, so the hash is scrambled first
+     */
+    private static int home(int hash, int slotMask) {
+        int scrambled = hash * 0x9E3779B9;
+        return (scrambled ^ (scrambled >>> 16)) & slotMask;
+    }
+
+    private void rehash(int capacity) {
+        long[] previous = slots;
+        slots = new long[capacity];
+        int slotMask = capacity - 1;
+        for (long entry : previous) {
+            if (entry == 0) {
+                continue;
+            }
+            int slot = home(hash(entry), slotMask);
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & slotMask;
+            }
+            slots[slot] = entry;
+        }
+    }
+
+    private int length(int position) {
+        int first = entries[position] & 0xFF;
+        if (first < LONG_LENGTH) {
+            return first;
+        }
+        return (first & ~LONG_LENGTH) << 16 | (entries[position + 1] & 0xFF) << 8 | entries[position + 2] & 0xFF;
+    }
+
+    private int lengthBytes(int position) {
+        return (entries[position] & 0xFF) < LONG_LENGTH ? 1 : 3;
+    }
+
+    private void writeInt(int position, int value) {
+        entries[position] = (byte) value;
+        entries[position + 1] = (byte) (value >>> 8);
+        entries[position + 2] = (byte) (value >>> 16);
+        entries[position + 3] = (byte) (value >>> 24);
+    }
+
+    private int readInt(int position) {
+        return entries[position] & 0xFF | (entries[position + 1] & 0xFF) << 8
+                | (entries[position + 2] & 0xFF) << 16 | (entries[position + 3] & 0xFF) << 24;
+    }
+
+    /**
+     * Compares the stored UTF-8 name, whose length starts at the position, with the string without allocating.
+     * The ASCII prefix is compared byte for byte here, small enough to be inlined into the probe loop,
+     * the rest by {@link #encodedEquals}.
+     */
+    private boolean nameEquals(int position, String name) {
+        int byteLength = length(position);
+        position += lengthBytes(position);
+        int chars = name.length();
+        if (chars > byteLength) {
+            return false;
+        }
+        for (int i = 0; i < chars; i++) {
+            char c = name.charAt(i);
+            if (c >= 0x80) {
+                return encodedEquals(position + i, position + byteLength, name, i);
+            }
+            if (entries[position + i] != (byte) c) {
+                return false;
+            }
+        }
+        return chars == byteLength;
+    }
+
+    /**
+     * Compares {@code entries[position ... end)} with the chars of the string from the given index
+     * by encoding them on the fly
+     */
+    private boolean encodedEquals(int position, int end, String name, int from) {
+        for (int i = from; i < name.length(); i++) {
+            char c = name.charAt(i);
+            int codePoint = c;
+            if (Character.isHighSurrogate(c) && i + 1 < name.length() && Character.isLowSurrogate(name.charAt(i + 1))) {
+                codePoint = Character.toCodePoint(c, name.charAt(++i));
+            } else if (Character.isSurrogate(c)) {
+                codePoint = '?';
+            }
+            int length = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (position + length > end) {
+                return false;
+            }
+            if (length == 1) {
+                if (entries[position++] != (byte) codePoint) {
+                    return false;
+                }
+                continue;
+            }
+            int shift = 6 * (length - 1);
+            int lead = (0xF00 >>> length) & 0xFF;
+            if (entries[position++] != (byte) (lead | (codePoint >>> shift))) {
+                return false;
+            }
+            for (shift -= 6; shift >= 0; shift -= 6) {
+                if (entries[position++] != (byte) (0x80 | ((codePoint >>> shift) & 0x3F))) {
+                    return false;
+                }
+            }
+        }
+        return position == end;
+    }
+}
@@ -0,0 +1,95 @@
+package com.ocado.basket.catalog;
+
+import com.ocado.basket.catalog.DeliveryCatalog.Builder.OptionList;
+
+import java.util.*;
+
+/**
+ * SharedCatalogPool class
+ * Structure shared by the catalogs of many tenants whose configs use the same delivery options and mostly the same products.
+ * Contains
+ * - options: delivery option names interned once, option ids are the same in every catalog of the pool
+ * - optionLists: identical per-product option lists, stored once across all catalogs
+ * - products: names of the products of all catalogs in one {@link ProductNameIndex}, a catalog keeps only the
+ *   mapping between its dense product ids and the ids of the pool, its products are numbered in the order of its config
+ * Catalogs are built one at a time. The product index is copied on write and published whole, only when a catalog
+ * brings products the pool does not know yet, so lookups of the catalogs already built never wait for a build.
+ * Names stay in the pool when a catalog is dropped.
+ *
+ * @version 1.0
+ */
+public class SharedCatalogPool {
+    private final StringPool options = new StringPool();
+    private final Map<OptionList, int[]> optionLists = new HashMap<>();
+    private volatile ProductNameIndex products = new ProductNameIndex().trim();
+
+    /**
+     * @param productToDeliveryOptions delivery options of every product of the catalog
+     * @return catalog sharing option names, option lists and product names with the other catalogs of the pool
+     */
+    public synchronized DeliveryCatalog build(Map<String, List<String>> productToDeliveryOptions) {
+        ProductNameIndex current = products;
+        ProductNameIndex next = null;
+        int[] localToPool = new int[productToDeliveryOptions.size()];
+        int[][] productOptions = new int[productToDeliveryOptions.size()][];
+        Map<String, Integer> optionIds = new HashMap<>();
+        int product = 0;
+        for (Map.Entry<String, List<String>> entry : productToDeliveryOptions.entrySet()) {
+            int id = (next == null ? current : next).id(entry.getKey());
+            if (id < 0) {
+                if (next == null) {
+                    next = current.copy();
+                }
+                id = next.add(entry.getKey());
+            }
+            localToPool[product] = id;
+            int[] ids = entry.getValue().stream().mapToInt(options::intern).distinct().toArray();
+            for (int option : ids) {
+                optionIds.putIfAbsent(options.get(option), option);
+            }
+            productOptions[product++] = optionLists.computeIfAbsent(new OptionList(ids), OptionList::ids);
+        }
+        if (next != null) {
+            products = next.trim();
+        }
+        return new SharedDeliveryCatalog(this, localToPool, byPoolId(localToPool), options.toArray(), optionIds, productOptions);
+    }
+
+    /**
+     * @return product ids of the catalog in the order of their pool ids
+     */
+    private static int[] byPoolId(int[] localToPool) {
+        long[] order = new long[localToPool.length];
+        for (int product = 0; product < order.length; product++) {
+            order[product] = (long) localToPool[product] << 32 | product;
+        }
+        Arrays.sort(order);
+        int[] products = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            products[i] = (int) order[i];
+        }
+        return products;
+    }
+
+    /**
+     * @return number of distinct products over all catalogs built so far
+     */
+    public int productCount() {
+        return products.size();
+    }
+
+    public synchronized int optionCount() {
+        return options.size();
+    }
+
+    /**
+     * @return number of distinct per-product option lists over all catalogs built so far
+     */
+    public synchronized int optionListCount() {
+        return optionLists.size();
+    }
+
+    ProductNameIndex products() {
+        return products;
+    }
+}
@@ -0,0 +1,119 @@
+package com.ocado.basket.catalog;
+
+import java.util.Map;
+
+/**
+ * SharedDeliveryCatalog class
+ * {@link DeliveryCatalog} of one tenant built by a {@link SharedCatalogPool}.
+ * Product names are looked up in the index of the pool, the catalog only keeps the mapping between its dense product ids
+ * and the ids of the pool. Product ids follow the order of the config, as in a catalog built alone, whatever the pool ids
+ * the other tenants gave the products. A pool id is mapped back by a binary search over the product ids sorted by pool id,
+ * so the catalog holds no array sized to all the products of the pool. Option ids are the ids of the pool, so options of other tenants are counted by
+ * {@link #optionCount()} but have no products and an id of -1 in this catalog.
+ *
+ * @version 1.0
+ */
+final class SharedDeliveryCatalog implements DeliveryCatalog {
+    private final SharedCatalogPool pool;
+    private final int[] localToPool;
+    private final int[] productsByPoolId;
+    private final String[] optionNames;
+    private final Map<String, Integer> optionIds;
+    private final int[][] productOptions;
+    private final int[][] optionProducts;
+    private final long[][] optionCoverage;
+
+    /**
+     * @param localToPool pool id of every product
+     * @param productsByPoolId product ids in ascending order of their pool ids
+     */
+    SharedDeliveryCatalog(SharedCatalogPool pool, int[] localToPool, int[] productsByPoolId, String[] optionNames,
+                          Map<String, Integer> optionIds, int[][] productOptions) {
+        this.pool = pool;
+        this.localToPool = localToPool;
+        this.productsByPoolId = productsByPoolId;
+        this.optionNames = optionNames;
+        this.optionIds = optionIds;
+        this.productOptions = productOptions;
+        this.optionProducts = ArrayDeliveryCatalog.invert(productOptions, optionNames.length);
+        this.optionCoverage = ArrayDeliveryCatalog.coverage(optionProducts, localToPool.length);
+    }
+
+    @Override
+    public int productCount() {
+        return localToPool.length;
+    }
+
+    @Override
+    public int optionCount() {
+        return optionNames.length;
+    }
+
+    /**
+     * Products added to the pool after this catalog was built are not in it
+     */
+    @Override
+    public int productId(String product) {
+        int id = pool.products().id(product);
+        int low = 0;
+        int high = productsByPoolId.length - 1;
+        while (id >= 0 && low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleId = localToPool[productsByPoolId[middle]];
+            if (middleId < id) {
+                low = middle + 1;
+            } else if (middleId > id) {
+                high = middle - 1;
+            } else {
+                return productsByPoolId[middle];
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int optionId(String option) {
+        Integer id = optionIds.get(option);
+        return id == null ? -1 : id;
+    }
+
+    @Override
+    public String productName(int product) {
+        return pool.products().name(localToPool[product]);
+    }
+
+    @Override
+    public int copyProductName(int product, int from, byte[] target, int offset, int length) {
+        return pool.products().copyName(localToPool[product], from, target, offset, length);
+    }
+
+    @Override
+    public String optionName(int option) {
+        return optionNames[option];
+    }
+
+    @Override
+    public int productOptionCount(int product) {
+        return productOptions[product].length;
+    }
+
+    @Override
+    public int productOption(int product, int index) {
+        return productOptions[product][index];
+    }
+
+    @Override
+    public int optionProductCount(int option) {
+        return optionProducts[option].length;
+    }
+
+    @Override
+    public int optionProduct(int option, int index) {
+        return optionProducts[option][index];
+    }
+
+    @Override
+    public boolean covers(int option, int product) {
+        return (optionCoverage[option][product >>> 6] & (1L << product)) != 0;
+    }
+}
@@ -0,0 +1,122 @@
+package com.ocado.basket.catalog;
+
+import java.util.Arrays;
+
+/**
+ * StringPool class
+ * Interns strings straight from a char buffer, so a name that is already pooled costs no allocation.
+ * Ids are dense and assigned in first-seen order.
+ *
+ * @version 1.0
+ */
+public class StringPool {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private String[] strings = new String[INITIAL_CAPACITY / 2];
+    private int[] slots = new int[INITIAL_CAPACITY];
+    private int size;
+
+    public StringPool() {
+        Arrays.fill(slots, -1);
+    }
+
+    public int intern(String value) {
+        return intern(value.toCharArray(), 0, value.length());
+    }
+
+    /**
+     * @return id of the pooled string equal to {@code chars[offset, offset + length)}
+     */
+    public int intern(char[] chars, int offset, int length) {
+        int hash = hash(chars, offset, length);
+        int slotMask = slots.length - 1;
+        int slot = hash & slotMask;
+        while (slots[slot] >= 0) {
+            String candidate = strings[slots[slot]];
+            if (contentEquals(candidate, chars, offset, length)) {
+                return slots[slot];
+            }
+            slot = (slot + 1) & slotMask;
+        }
+        return add(new String(chars, offset, length), slot);
+    }
+
+    /**
+     * @return id of the pooled string or -1 if it has not been interned
+     */
+    public int find(String value) {
+        int slotMask = slots.length - 1;
+        for (int slot = hash(value) & slotMask; slots[slot] >= 0; slot = (slot + 1) & slotMask) {
+            if (strings[slots[slot]].equals(value)) {
+                return slots[slot];
+            }
+        }
+        return -1;
+    }
+
+    public String get(int id) {
+        return strings[id];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String[] toArray() {
+        return Arrays.copyOf(strings, size);
+    }
+
+    private int add(String value, int slot) {
+        if (size == strings.length) {
+            strings = Arrays.copyOf(strings, size * 2);
+        }
+        strings[size] = value;
+        slots[slot] = size;
+        size++;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return size - 1;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        Arrays.fill(slots, -1);
+        int slotMask = slots.length - 1;
+        for (int id = 0; id < size; id++) {
+            int slot = hash(strings[id]) & slotMask;
+            while (slots[slot] >= 0) {
+                slot = (slot + 1) & slotMask;
+            }
+            slots[slot] = id;
+        }
+    }
+
+    private static boolean contentEquals(String candidate, char[] chars, int offset, int length) {
+        if (candidate.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (candidate.charAt(i) != chars[offset + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(char[] chars, int offset, int length) {
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        return spread(hash);
+    }
+
+    private static int hash(String value) {
+        return spread(value.hashCode());
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+}
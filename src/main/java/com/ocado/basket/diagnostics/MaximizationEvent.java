@@ -0,0 +1,20 @@
+package com.ocado.basket.diagnostics;
+
+import jdk.jfr.*;
+
+/**
+ * MaximizationEvent class
+ * Flight recorder event around the assignment of the items of a basket to its delivery options
+ *
+ * @version 1.0
+ */
+@Name("com.ocado.basket.Maximization")
+@Label("Items Count Maximization")
+@Category({"BasketSplitter"})
+public class MaximizationEvent extends Event {
+    @Label("Basket Size")
+    public int basketSize;
+
+    @Label("Deliveries")
+    public int deliveries;
+}
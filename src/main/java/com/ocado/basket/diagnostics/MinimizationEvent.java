@@ -0,0 +1,24 @@
+package com.ocado.basket.diagnostics;
+
+import jdk.jfr.*;
+
+/**
+ * MinimizationEvent class
+ * Flight recorder event around the search for the delivery options of a basket
+ *
+ * @version 1.0
+ */
+@Name("com.ocado.basket.Minimization")
+@Label("Delivery Count Minimization")
+@Category({"BasketSplitter"})
+public class MinimizationEvent extends Event {
+    @Label("Basket Size")
+    public int basketSize;
+
+    @Label("Engine")
+    @Description("Configured minimizer, or LEXICOGRAPHIC for the single pass pipeline")
+    public String engine;
+
+    @Label("Deliveries")
+    public int deliveries;
+}
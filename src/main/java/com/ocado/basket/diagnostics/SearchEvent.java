@@ -0,0 +1,48 @@
+package com.ocado.basket.diagnostics;
+
+import jdk.jfr.*;
+
+/**
+ * SearchEvent class
+ * Flight recorder event emitted by an engine for every basket it solves, nested in a {@link MinimizationEvent},
+ * so it also tells which engine the ADAPTIVE minimizer picked. The meaning of the explored states depends on the engine:
+ * item sets visited by the dynamic programming, memo entries of the bitmask DP, nodes of branch and bound and of CBC.
+ * Usage: {@code SearchEvent event = SearchEvent.start("BITMASK"); ... event.finish(products, options, states);}
+ * Fields are only set when the event is recorded, so a disabled event costs about one branch.
+ *
+ * @version 1.0
+ */
+@Name("com.ocado.basket.Search")
+@Label("Engine Search")
+@Category({"BasketSplitter"})
+public class SearchEvent extends Event {
+    @Label("Engine")
+    public String engine;
+
+    @Label("Products")
+    @Description("Distinct products of the basket")
+    public int products;
+
+    @Label("Options")
+    @Description("Delivery options reachable from the basket")
+    public int options;
+
+    @Label("States Explored")
+    public long statesExplored;
+
+    public static SearchEvent start(String engine) {
+        SearchEvent event = new SearchEvent();
+        event.engine = engine;
+        event.begin();
+        return event;
+    }
+
+    public void finish(int products, int options, long statesExplored) {
+        if (shouldCommit()) {
+            this.products = products;
+            this.options = options;
+            this.statesExplored = statesExplored;
+            commit();
+        }
+    }
+}
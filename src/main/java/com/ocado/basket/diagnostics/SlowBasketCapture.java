@@ -0,0 +1,146 @@
+package com.ocado.basket.diagnostics;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * SlowBasketCapture class
+ * Writes every basket whose split takes longer than a threshold to a directory, for offline replay:
+ * - basket-N.config.json: the delivery options of the products of the basket, in the config file format,
+ *   which is all the split of the basket depends on
+ * - basket-N.basket.json: the items, the catalog version, the engine and the time the split took
+ * Replay: {@code new BasketSplitter(config.toString(), options).split(SlowBasketCapture.readItems(basket))}.
+ * Writing the files never fails the split, failures are only counted.
+ * At most maxCaptures baskets are written, 100 by default, so a slow period does not fill the disk or slow every split
+ * down with file writes; the slow baskets after that are only counted as skipped.
+ *
+ * @version 1.0
+ */
+public class SlowBasketCapture {
+    private static final long DEFAULT_MAX_CAPTURES = 100;
+
+    private final long thresholdNanos;
+    private final Path directory;
+    private final long maxCaptures;
+    private final AtomicLong sequence = new AtomicLong();
+    private final LongAdder captured = new LongAdder();
+    private final LongAdder writeFailures = new LongAdder();
+    private final LongAdder skipped = new LongAdder();
+
+    /**
+     * @param threshold splits taking longer than this are captured
+     * @param directory directory the files are written to, created if missing
+     */
+    public SlowBasketCapture(Duration threshold, Path directory) {
+        this(threshold, directory, DEFAULT_MAX_CAPTURES);
+    }
+
+    /**
+     * @param threshold splits taking longer than this are captured
+     * @param directory directory the files are written to, created if missing
+     * @param maxCaptures number of baskets written at most, failed writes included
+     */
+    public SlowBasketCapture(Duration threshold, Path directory, long maxCaptures) {
+        if (maxCaptures < 0) {
+            throw new IllegalArgumentException("maxCaptures must not be negative: " + maxCaptures);
+        }
+        this.thresholdNanos = threshold.toNanos();
+        this.directory = directory;
+        this.maxCaptures = maxCaptures;
+    }
+
+    /**
+     * Captures the basket if the split took longer than the threshold and fewer than maxCaptures baskets were captured
+     * @param catalogVersion version of the catalog the basket was split with
+     * @param engine engine the basket was split with
+     * @param elapsedNanos time the split took
+     */
+    public void captureIfSlow(DeliveryCatalog catalog, long catalogVersion, String engine, List<String> items, long elapsedNanos) {
+        if (elapsedNanos < thresholdNanos) {
+            return;
+        }
+        long number = sequence.incrementAndGet();
+        if (number > maxCaptures) {
+            skipped.increment();
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            String prefix = "basket-" + number;
+            Files.writeString(directory.resolve(prefix + ".config.json"), config(catalog, items).toString(), StandardCharsets.UTF_8);
+            JSONObject basket = new JSONObject()
+                    .put("catalogVersion", catalogVersion)
+                    .put("engine", engine)
+                    .put("elapsedMillis", elapsedNanos / 1_000_000.0)
+                    .put("items", new JSONArray(items));
+            Files.writeString(directory.resolve(prefix + ".basket.json"), basket.toString(), StandardCharsets.UTF_8);
+            captured.increment();
+        } catch (IOException | RuntimeException e) {
+            writeFailures.increment();
+        }
+    }
+
+    /**
+     * @return items of a basket written by {@link #captureIfSlow}
+     */
+    public static List<String> readItems(Path basket) {
+        try (Reader reader = Files.newBufferedReader(basket, StandardCharsets.UTF_8)) {
+            JSONArray items = new JSONObject(new JSONTokener(reader)).getJSONArray("items");
+            List<String> result = new ArrayList<>(items.length());
+            for (int i = 0; i < items.length(); i++) {
+                result.add(items.getString(i));
+            }
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public long getCaptured() {
+        return captured.sum();
+    }
+
+    public long getWriteFailures() {
+        return writeFailures.sum();
+    }
+
+    /**
+     * @return number of slow baskets not written because maxCaptures baskets already were
+     */
+    public long getSkipped() {
+        return skipped.sum();
+    }
+
+    /**
+     * @return delivery options of the known items of the basket, in catalog order, unknown items are left out
+     */
+    private static JSONObject config(DeliveryCatalog catalog, List<String> items) {
+        JSONObject config = new JSONObject();
+        for (String item : items) {
+            int product = catalog.productId(item);
+            if (product < 0 || config.has(item)) {
+                continue;
+            }
+            JSONArray options = new JSONArray();
+            for (int i = 0; i < catalog.productOptionCount(product); i++) {
+                options.put(catalog.optionName(catalog.productOption(product, i)));
+            }
+            config.put(item, options);
+        }
+        return config;
+    }
+}
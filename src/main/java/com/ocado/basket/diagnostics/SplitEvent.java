@@ -0,0 +1,32 @@
+package com.ocado.basket.diagnostics;
+
+import jdk.jfr.*;
+
+/**
+ * SplitEvent class
+ * Flight recorder event around one basket split, cache hits included
+ *
+ * @version 1.0
+ */
+@Name("com.ocado.basket.Split")
+@Label("Basket Split")
+@Category({"BasketSplitter"})
+@Description("Split of one basket into deliveries")
+public class SplitEvent extends Event {
+    @Label("Basket Size")
+    @Description("Number of items passed to split, duplicates included")
+    public int basketSize;
+
+    @Label("Catalog Version")
+    public long catalogVersion;
+
+    @Label("Pipeline")
+    public String pipeline;
+
+    @Label("Deliveries")
+    @Description("Number of deliveries of the result, 0 if the split failed")
+    public int deliveries;
+
+    @Label("Cached")
+    public boolean cached;
+}
@@ -0,0 +1,35 @@
+package com.ocado.basket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BasketSplitResult class
+ * Outcome of splitting one basket of a batch
+ * Contains
+ * - deliveries: map of delivery options and items, null if the basket failed
+ * - error: exception thrown while splitting the basket, null if the basket succeeded
+ *
+ * @version 1.0
+ */
+@Getter
+@AllArgsConstructor
+public class BasketSplitResult {
+    private final Map<String, List<String>> deliveries;
+    private final RuntimeException error;
+
+    public static BasketSplitResult success(Map<String, List<String>> deliveries) {
+        return new BasketSplitResult(deliveries, null);
+    }
+
+    public static BasketSplitResult failure(RuntimeException error) {
+        return new BasketSplitResult(null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.ocado.basket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BoundedSplitResult class
+ * Best split found within a time budget
+ * Contains
+ * - deliveries: map of delivery options and items
+ * - optimal: true if the number of deliveries is proven to be minimal
+ * - lowerBound: proven minimal number of deliveries, equal to the number of deliveries when optimal
+ *
+ * @version 1.0
+ */
+@Getter
+@AllArgsConstructor
+public class BoundedSplitResult {
+    private final Map<String, List<String>> deliveries;
+    private final boolean optimal;
+    private final int lowerBound;
+}
@@ -0,0 +1,21 @@
+package com.ocado.basket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * CacheStatsDto class
+ * Contains
+ * - hitCount: number of splits answered from the result cache
+ * - missCount: number of splits that had to be solved
+ * - evictionCount: number of results evicted to stay within the weight budget
+ *
+ * @version 1.0
+ */
+@Data
+@AllArgsConstructor
+public class CacheStatsDto {
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+}
@@ -0,0 +1,170 @@
+package com.ocado.basket.dto;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+
+import java.util.*;
+
+/**
+ * CompactSplitResult class
+ * Split of a basket stored as catalog ids instead of a map of strings
+ * Contains
+ * - optionIds: catalog id of the delivery option of every delivery
+ * - deliveryStarts: the items of delivery d are {@code productIds[deliveryStarts[d] ... deliveryStarts[d + 1])}
+ * - productIds: catalog ids of the items, grouped by delivery
+ * Names are only looked up in the catalog when they are read: {@link #asMap()} is a read-only view that resolves
+ * them on access, and {@link com.ocado.basket.json.SplitJsonWriter} writes them without building the map.
+ *
+ * @version 1.0
+ */
+public final class CompactSplitResult {
+    private final DeliveryCatalog catalog;
+    private final int[] optionIds;
+    private final int[] deliveryStarts;
+    private final int[] productIds;
+    private Map<String, List<String>> view;
+
+    public CompactSplitResult(DeliveryCatalog catalog, int[] optionIds, int[] deliveryStarts, int[] productIds) {
+        this.catalog = catalog;
+        this.optionIds = optionIds;
+        this.deliveryStarts = deliveryStarts;
+        this.productIds = productIds;
+    }
+
+    /**
+     * @param split map of delivery options and items whose names are all in the catalog
+     */
+    public static CompactSplitResult of(DeliveryCatalog catalog, Map<String, List<String>> split) {
+        int[] optionIds = new int[split.size()];
+        int[] deliveryStarts = new int[split.size() + 1];
+        int[] productIds = new int[split.values().stream().mapToInt(List::size).sum()];
+        int delivery = 0;
+        int item = 0;
+        for (Map.Entry<String, List<String>> entry : split.entrySet()) {
+            optionIds[delivery] = catalogId(catalog.optionId(entry.getKey()), entry.getKey());
+            for (String product : entry.getValue()) {
+                productIds[item++] = catalogId(catalog.productId(product), product);
+            }
+            deliveryStarts[++delivery] = item;
+        }
+        return new CompactSplitResult(catalog, optionIds, deliveryStarts, productIds);
+    }
+
+    private static int catalogId(int id, String name) {
+        if (id < 0) {
+            throw new IllegalArgumentException(name + " is not in the catalog");
+        }
+        return id;
+    }
+
+    public int deliveryCount() {
+        return optionIds.length;
+    }
+
+    public String optionName(int delivery) {
+        return catalog.optionName(optionIds[delivery]);
+    }
+
+    public int itemCount(int delivery) {
+        return deliveryStarts[delivery + 1] - deliveryStarts[delivery];
+    }
+
+    public String item(int delivery, int index) {
+        return catalog.productName(productIds[deliveryStarts[delivery] + index]);
+    }
+
+    /**
+     * Copies part of the UTF-8 encoded name of the item, see {@link DeliveryCatalog#copyProductName}
+     * @return number of bytes copied, 0 once the end of the name is reached
+     */
+    public int copyItem(int delivery, int index, int from, byte[] target, int offset, int length) {
+        return catalog.copyProductName(productIds[deliveryStarts[delivery] + index], from, target, offset, length);
+    }
+
+    /**
+     * @return read-only map view of the split, equal to the map {@link com.ocado.basket.BasketSplitter#split} returns
+     */
+    public Map<String, List<String>> asMap() {
+        if (view == null) {
+            view = new MapView();
+        }
+        return view;
+    }
+
+    @Override
+    public String toString() {
+        return asMap().toString();
+    }
+
+    private final class MapView extends AbstractMap<String, List<String>> {
+
+        @Override
+        public List<String> get(Object key) {
+            for (int delivery = 0; delivery < optionIds.length; delivery++) {
+                if (optionName(delivery).equals(key)) {
+                    return new Items(delivery);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public int size() {
+            return optionIds.length;
+        }
+
+        @Override
+        public Set<Entry<String, List<String>>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, List<String>>> iterator() {
+                    return new Iterator<>() {
+                        private int delivery;
+
+                        @Override
+                        public boolean hasNext() {
+                            return delivery < optionIds.length;
+                        }
+
+                        @Override
+                        public Entry<String, List<String>> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            int current = delivery++;
+                            return new SimpleImmutableEntry<>(optionName(current), new Items(current));
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return optionIds.length;
+                }
+            };
+        }
+    }
+
+    private final class Items extends AbstractList<String> implements RandomAccess {
+        private final int delivery;
+
+        Items(int delivery) {
+            this.delivery = delivery;
+        }
+
+        @Override
+        public String get(int index) {
+            Objects.checkIndex(index, itemCount(delivery));
+            return item(delivery, index);
+        }
+
+        @Override
+        public int size() {
+            return itemCount(delivery);
+        }
+    }
+}
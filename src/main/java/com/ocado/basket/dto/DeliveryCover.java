@@ -0,0 +1,35 @@
+package com.ocado.basket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Set;
+
+/**
+ * DeliveryCover class
+ * Set of delivery options covering a basket, as returned by a minimizer running against a deadline
+ * Contains
+ * - deliveryOptions: delivery options covering every product of the basket
+ * - optimal: true if no smaller cover exists
+ * - lowerBound: proven minimal number of delivery options, equal to the cover size when optimal
+ *
+ * @version 1.0
+ */
+@Getter
+@AllArgsConstructor
+public class DeliveryCover {
+    private final Set<String> deliveryOptions;
+    private final boolean optimal;
+    private final int lowerBound;
+
+    public static DeliveryCover optimal(Set<String> deliveryOptions) {
+        return new DeliveryCover(deliveryOptions, true, deliveryOptions.size());
+    }
+
+    /**
+     * @return cover that is optimal exactly when its size reaches the lower bound
+     */
+    public static DeliveryCover bounded(Set<String> deliveryOptions, int lowerBound) {
+        return new DeliveryCover(deliveryOptions, deliveryOptions.size() <= lowerBound, Math.min(lowerBound, deliveryOptions.size()));
+    }
+}
@@ -0,0 +1,29 @@
+package com.ocado.basket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * HistogramDto class
+ * Contains
+ * - count: number of recorded values
+ * - sum: sum of the recorded values
+ * - max: largest recorded value
+ * - p50, p90, p99: percentiles, rounded up to the power of two bucket they fall in and capped by max
+ *
+ * @version 1.0
+ */
+@Data
+@AllArgsConstructor
+public class HistogramDto {
+    private long count;
+    private long sum;
+    private long max;
+    private long p50;
+    private long p90;
+    private long p99;
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+}
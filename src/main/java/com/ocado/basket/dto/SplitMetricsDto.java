@@ -0,0 +1,37 @@
+package com.ocado.basket.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * SplitMetricsDto class
+ * Snapshot of an {@code InMemorySplitMetrics}
+ * Contains
+ * - basketSize: items per split basket
+ * - minimizationNanos, maximizationNanos: time of the two stages of a split
+ * - invalidItemBaskets: number of baskets rejected because of an item without delivery options
+ * - dynamicMemoSize, dynamicVisitedStates: memo entries and visited item sets of the dynamic programming minimizer
+ * - linearVariables, linearConstraints, linearSolveNanos: model size and solver time of the linear minimizer
+ *
+ * @version 1.0
+ */
+@Data
+@AllArgsConstructor
+public class SplitMetricsDto {
+    private HistogramDto basketSize;
+    private HistogramDto minimizationNanos;
+    private HistogramDto maximizationNanos;
+    private long invalidItemBaskets;
+    private HistogramDto dynamicMemoSize;
+    private HistogramDto dynamicVisitedStates;
+    private HistogramDto linearVariables;
+    private HistogramDto linearConstraints;
+    private HistogramDto linearSolveNanos;
+
+    /**
+     * @return share of the split baskets rejected because of invalid items
+     */
+    public double getInvalidItemRate() {
+        return basketSize.getCount() == 0 ? 0 : (double) invalidItemBaskets / basketSize.getCount();
+    }
+}
@@ -0,0 +1,206 @@
+package com.ocado.basket.json;
+
+import com.ocado.basket.dto.CompactSplitResult;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SplitJsonWriter class
+ * Streams a split as a JSON object of delivery options and item arrays, {@code {"option":["item",...],...}},
+ * straight to an {@link OutputStream} or a {@link WritableByteChannel}. Names are escaped and encoded as UTF-8
+ * char by char into one reusable buffer, so neither a JSON tree nor intermediate strings or byte arrays are built.
+ * Items of a {@link CompactSplitResult} are copied from the UTF-8 names kept by the catalog and only escaped.
+ * Unpaired surrogates are written as '?', as {@link String#getBytes} does.
+ * A writer can be reused for any number of splits and is not thread-safe.
+ *
+ * @version 1.0
+ */
+public final class SplitJsonWriter implements Flushable {
+    private static final int BUFFER_SIZE = 8192;
+    /**
+     * Longest output of one char: an escape sequence of six bytes
+     */
+    private static final int MAX_CHAR_BYTES = 6;
+    private static final byte[] HEX = "0123456789abcdef".getBytes();
+    private static final int NAME_CHUNK_SIZE = 256;
+
+    private final OutputStream out;
+    private final WritableByteChannel channel;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final ByteBuffer channelView = ByteBuffer.wrap(buffer);
+    private final byte[] nameChunk = new byte[NAME_CHUNK_SIZE];
+    private int position;
+
+    public SplitJsonWriter(OutputStream out) {
+        this.out = out;
+        this.channel = null;
+    }
+
+    public SplitJsonWriter(WritableByteChannel channel) {
+        this.out = null;
+        this.channel = channel;
+    }
+
+    /**
+     * Write the split and flush it to the target
+     */
+    public void write(CompactSplitResult split) throws IOException {
+        writeByte('{');
+        for (int delivery = 0; delivery < split.deliveryCount(); delivery++) {
+            if (delivery > 0) {
+                writeByte(',');
+            }
+            writeString(split.optionName(delivery));
+            writeByte(':');
+            writeByte('[');
+            for (int item = 0; item < split.itemCount(delivery); item++) {
+                if (item > 0) {
+                    writeByte(',');
+                }
+                writeItem(split, delivery, item);
+            }
+            writeByte(']');
+        }
+        writeByte('}');
+        flush();
+    }
+
+    /**
+     * Write the split and flush it to the target
+     */
+    public void write(Map<String, List<String>> split) throws IOException {
+        writeByte('{');
+        boolean first = true;
+        for (Map.Entry<String, List<String>> delivery : split.entrySet()) {
+            if (!first) {
+                writeByte(',');
+            }
+            first = false;
+            writeString(delivery.getKey());
+            writeByte(':');
+            writeByte('[');
+            List<String> items = delivery.getValue();
+            for (int item = 0; item < items.size(); item++) {
+                if (item > 0) {
+                    writeByte(',');
+                }
+                writeString(items.get(item));
+            }
+            writeByte(']');
+        }
+        writeByte('}');
+        flush();
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        if (out != null) {
+            out.flush();
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        writeByte('"');
+        for (int i = 0; i < value.length(); i++) {
+            if (position > BUFFER_SIZE - MAX_CHAR_BYTES) {
+                drain();
+            }
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                writeAscii(c);
+            } else if (c < 0x800) {
+                buffer[position++] = (byte) (0xC0 | c >> 6);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < value.length() && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+                buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+            } else if (Character.isSurrogate(c)) {
+                buffer[position++] = '?';
+            } else {
+                buffer[position++] = (byte) (0xE0 | c >> 12);
+                buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+                buffer[position++] = (byte) (0x80 | c & 0x3F);
+            }
+        }
+        writeByte('"');
+    }
+
+    /**
+     * Writes the UTF-8 name of the item as a JSON string, only its ASCII bytes can need escaping
+     */
+    private void writeItem(CompactSplitResult split, int delivery, int item) throws IOException {
+        writeByte('"');
+        int from = 0;
+        for (int copied; (copied = split.copyItem(delivery, item, from, nameChunk, 0, NAME_CHUNK_SIZE)) > 0; from += copied) {
+            for (int i = 0; i < copied; i++) {
+                if (position > BUFFER_SIZE - MAX_CHAR_BYTES) {
+                    drain();
+                }
+                byte b = nameChunk[i];
+                if (b >= 0) {
+                    writeAscii((char) b);
+                } else {
+                    buffer[position++] = b;
+                }
+            }
+        }
+        writeByte('"');
+    }
+
+    private void writeAscii(char c) {
+        if (c == '"' || c == '\\') {
+            buffer[position++] = '\\';
+            buffer[position++] = (byte) c;
+        } else if (c >= 0x20) {
+            buffer[position++] = (byte) c;
+        } else {
+            buffer[position++] = '\\';
+            switch (c) {
+                case '\n' -> buffer[position++] = 'n';
+                case '\r' -> buffer[position++] = 'r';
+                case '\t' -> buffer[position++] = 't';
+                case '\b' -> buffer[position++] = 'b';
+                case '\f' -> buffer[position++] = 'f';
+                default -> {
+                    buffer[position++] = 'u';
+                    buffer[position++] = '0';
+                    buffer[position++] = '0';
+                    buffer[position++] = HEX[c >> 4];
+                    buffer[position++] = HEX[c & 0xF];
+                }
+            }
+        }
+    }
+
+    private void writeByte(char c) throws IOException {
+        if (position == BUFFER_SIZE) {
+            drain();
+        }
+        buffer[position++] = (byte) c;
+    }
+
+    private void drain() throws IOException {
+        if (position == 0) {
+            return;
+        }
+        if (out != null) {
+            out.write(buffer, 0, position);
+        } else {
+            channelView.clear().limit(position);
+            while (channelView.hasRemaining()) {
+                channel.write(channelView);
+            }
+        }
+        position = 0;
+    }
+}
@@ -0,0 +1,148 @@
+package com.ocado.basket.logic;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.exceptions.InvalidItemException;
+
+import java.util.*;
+
+/**
+ * BasketModel class
+ * Set cover instance of a single basket, shared by the bitset based engines.
+ * Distinct basket products and the delivery options reachable from them get dense local ids,
+ * and every option has a coverage bitset over the local product ids ({@link #words()} longs per set).
+ * Local option ids are assigned through an array over the catalog option ids, which also maps them back.
+ *
+ * @version 1.0
+ */
+public final class BasketModel {
+    private final DeliveryCatalog catalog;
+    private final int[] productIds;
+    private final int[] optionIds;
+    private final int[] localOptionIds;
+    private final int[][] productOptions;
+    private final long[][] coverage;
+    private final int words;
+
+    private BasketModel(DeliveryCatalog catalog, int[] productIds, int[] optionIds, int[] localOptionIds, int[][] productOptions) {
+        this.catalog = catalog;
+        this.productIds = productIds;
+        this.optionIds = optionIds;
+        this.localOptionIds = localOptionIds;
+        this.productOptions = productOptions;
+        this.words = Math.max(1, (productIds.length + 63) >>> 6);
+        this.coverage = new long[optionIds.length][words];
+        for (int product = 0; product < productOptions.length; product++) {
+            for (int option : productOptions[product]) {
+                coverage[option][product >>> 6] |= 1L << product;
+            }
+        }
+    }
+
+    /**
+     * @throws InvalidItemException if a product is not in the catalog or has no delivery options
+     */
+    public static BasketModel of(DeliveryCatalog catalog, List<String> products) {
+        int[] productIds = products.stream().distinct().mapToInt(product -> validateProduct(catalog, product)).toArray();
+        return of(catalog, productIds);
+    }
+
+    /**
+     * @param productIds distinct catalog ids of products that have at least one delivery option
+     */
+    public static BasketModel of(DeliveryCatalog catalog, int[] productIds) {
+        int[] localOptionIds = new int[catalog.optionCount()];
+        Arrays.fill(localOptionIds, -1);
+        int[] optionIds = new int[Math.min(catalog.optionCount(), 16)];
+        int optionCount = 0;
+        int[][] productOptions = new int[productIds.length][];
+        for (int product = 0; product < productIds.length; product++) {
+            int productOptionCount = catalog.productOptionCount(productIds[product]);
+            productOptions[product] = new int[productOptionCount];
+            for (int i = 0; i < productOptionCount; i++) {
+                int option = catalog.productOption(productIds[product], i);
+                if (localOptionIds[option] < 0) {
+                    if (optionCount == optionIds.length) {
+                        optionIds = Arrays.copyOf(optionIds, optionCount * 2);
+                    }
+                    localOptionIds[option] = optionCount;
+                    optionIds[optionCount++] = option;
+                }
+                productOptions[product][i] = localOptionIds[option];
+            }
+        }
+        return new BasketModel(catalog, productIds, Arrays.copyOf(optionIds, optionCount), localOptionIds, productOptions);
+    }
+
+    private static int validateProduct(DeliveryCatalog catalog, String product) {
+        int productId = catalog.productId(product);
+        if (productId < 0 || catalog.productOptionCount(productId) == 0) {
+            throw new InvalidItemException("Invalid item: " + product + " not found in delivery options");
+        }
+        return productId;
+    }
+
+    public int productCount() {
+        return productIds.length;
+    }
+
+    public int optionCount() {
+        return optionIds.length;
+    }
+
+    public int words() {
+        return words;
+    }
+
+    public int productId(int product) {
+        return productIds[product];
+    }
+
+    public int optionId(int option) {
+        return optionIds[option];
+    }
+
+    /**
+     * @param optionId catalog id of a delivery option
+     * @return local id of the delivery option, -1 if no product of the basket offers it
+     */
+    public int localOptionId(int optionId) {
+        return optionId < 0 ? -1 : localOptionIds[optionId];
+    }
+
+    public String optionName(int option) {
+        return catalog.optionName(optionIds[option]);
+    }
+
+    /**
+     * @return local ids of the delivery options of a product, must not be modified
+     */
+    public int[] productOptions(int product) {
+        return productOptions[product];
+    }
+
+    /**
+     * @return coverage bitset of a delivery option over local product ids, must not be modified
+     */
+    public long[] coverage(int option) {
+        return coverage[option];
+    }
+
+    /**
+     * @return new bitset with every product of the basket
+     */
+    public long[] allProducts() {
+        long[] all = new long[words];
+        for (int product = 0; product < productIds.length; product++) {
+            all[product >>> 6] |= 1L << product;
+        }
+        return all;
+    }
+
+    public Set<String> optionNames(int[] options) {
+        Set<String> names = new HashSet<>();
+        for (int option : options) {
+            names.add(optionName(option));
+        }
+        return names;
+    }
+}
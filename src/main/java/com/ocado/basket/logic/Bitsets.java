@@ -0,0 +1,84 @@
+package com.ocado.basket.logic;
+
+/**
+ * Bitsets class
+ * Helpers for bitsets stored as {@code long[]} words of equal length
+ *
+ * @version 1.0
+ */
+public final class Bitsets {
+
+    private Bitsets() {
+    }
+
+    public static boolean isEmpty(long[] set) {
+        for (long word : set) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static int cardinality(long[] set) {
+        int count = 0;
+        for (long word : set) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * @return size of the intersection of both sets
+     */
+    public static int intersectionSize(long[] first, long[] second) {
+        int count = 0;
+        for (int i = 0; i < first.length; i++) {
+            count += Long.bitCount(first[i] & second[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Stores {@code set \ removed} in target, target may be the same array as set
+     */
+    public static void andNot(long[] set, long[] removed, long[] target) {
+        for (int i = 0; i < set.length; i++) {
+            target[i] = set[i] & ~removed[i];
+        }
+    }
+
+    /**
+     * @return lowest element of the set or -1 if the set is empty
+     */
+    public static int first(long[] set) {
+        for (int i = 0; i < set.length; i++) {
+            if (set[i] != 0) {
+                return (i << 6) + Long.numberOfTrailingZeros(set[i]);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return lowest element of the set greater than or equal to from, or -1 if there is none
+     */
+    public static int next(long[] set, int from) {
+        int i = from >>> 6;
+        if (i >= set.length) {
+            return -1;
+        }
+        long word = set[i] & (-1L << from);
+        while (word == 0) {
+            if (++i == set.length) {
+                return -1;
+            }
+            word = set[i];
+        }
+        return (i << 6) + Long.numberOfTrailingZeros(word);
+    }
+
+    public static boolean contains(long[] set, int element) {
+        return (set[element >>> 6] & (1L << element)) != 0;
+    }
+}
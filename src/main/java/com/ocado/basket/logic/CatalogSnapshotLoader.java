@@ -0,0 +1,60 @@
+package com.ocado.basket.logic;
+
+import com.ocado.basket.catalog.CatalogSnapshot;
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.exceptions.ConfigLoadException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * CatalogSnapshotLoader class
+ * Loads the delivery options from a binary {@link CatalogSnapshot} instead of a JSON config.
+ * The snapshot is memory-mapped, so startup time does not depend on the catalog size.
+ * A snapshot is written once from a JSON config with {@link #writeSnapshot} or by running this class:
+ * {@code java com.ocado.basket.logic.CatalogSnapshotLoader config.json catalog.snapshot}
+ *
+ * @version 1.0
+ */
+public class CatalogSnapshotLoader extends ConfigLoader {
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: CatalogSnapshotLoader <config.json> <catalog.snapshot>");
+            System.exit(1);
+        }
+        writeSnapshot(args[0], args[1]);
+    }
+
+    public static void writeSnapshot(String absolutePathToConfigFile, String absolutePathToSnapshotFile) {
+        DeliveryCatalog catalog = new StreamingConfigLoader().loadCatalog(absolutePathToConfigFile);
+        try {
+            CatalogSnapshot.write(catalog, Path.of(absolutePathToSnapshotFile));
+        } catch (IOException e) {
+            throw new ConfigLoadException("Failed to write catalog snapshot", e);
+        }
+    }
+
+    /**
+     * Materializes the whole snapshot into a map, prefer {@link #loadCatalog} which does not allocate per product
+     */
+    @Override
+    public Map<String, List<String>> loadDeliveryOptions(String absolutePathToSnapshotFile) {
+        DeliveryCatalog catalog = loadCatalog(absolutePathToSnapshotFile);
+        Map<String, List<String>> deliveryOptions = new HashMap<>();
+        for (int product = 0; product < catalog.productCount(); product++) {
+            List<String> options = new ArrayList<>(catalog.productOptionCount(product));
+            for (int i = 0; i < catalog.productOptionCount(product); i++) {
+                options.add(catalog.optionName(catalog.productOption(product, i)));
+            }
+            deliveryOptions.put(catalog.productName(product), List.copyOf(options));
+        }
+        return deliveryOptions;
+    }
+
+    @Override
+    public DeliveryCatalog loadCatalog(String absolutePathToSnapshotFile) {
+        return CatalogSnapshot.open(Path.of(absolutePathToSnapshotFile));
+    }
+}
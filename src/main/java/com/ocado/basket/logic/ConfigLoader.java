@@ -1,5 +1,6 @@
 package com.ocado.basket.logic;
 
+import com.ocado.basket.catalog.DeliveryCatalog;
 import com.ocado.basket.exceptions.ConfigLoadException;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -31,4 +32,8 @@ public class ConfigLoader {
         }
         return deliveryOptions;
     }
+
+    public DeliveryCatalog loadCatalog(String absolutePathToConfigFile) {
+        return DeliveryCatalog.of(loadDeliveryOptions(absolutePathToConfigFile));
+    }
 }
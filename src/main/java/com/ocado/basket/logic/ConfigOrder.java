@@ -0,0 +1,42 @@
+package com.ocado.basket.logic;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+
+/**
+ * ConfigOrder class
+ * Order in which the {@code HashMap} returned by {@link ConfigLoader#loadDeliveryOptions} iterates the products of a catalog.
+ * The map is filled with {@code put} from a {@code JSONObject}, itself a {@code HashMap} filled in file order, so both end
+ * with the same capacity and the map iterates its products by bucket, then in file order inside a bucket.
+ * Catalog product ids follow the file order or the order of that map, either way the same order inside a bucket, so the
+ * order does not depend on the loader that built the catalog.
+ * The greedy assignment counts the delivery options of the products in this order, as the original config map did.
+ *
+ * @version 1.0
+ */
+final class ConfigOrder {
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final DeliveryCatalog catalog;
+    private final int mask;
+
+    ConfigOrder(DeliveryCatalog catalog) {
+        this.catalog = catalog;
+        int capacity = DEFAULT_CAPACITY;
+        while (catalog.productCount() > capacity / 4 * 3) {
+            capacity *= 2;
+        }
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * @return key sorting the product at its position in the config map, -1 if the product is not in the catalog
+     */
+    long rank(String product) {
+        int productId = catalog.productId(product);
+        if (productId < 0) {
+            return -1;
+        }
+        int hash = product.hashCode();
+        return (long) ((hash ^ hash >>> 16) & mask) << 32 | productId;
+    }
+}
@@ -0,0 +1,60 @@
+package com.ocado.basket.logic;
+
+import java.time.Duration;
+
+/**
+ * Deadline class
+ * Point in time after which an anytime computation should stop improving its answer and return it.
+ * Based on {@link System#nanoTime()}, so it is not affected by wall clock changes.
+ *
+ * @version 1.0
+ */
+public final class Deadline {
+    private static final Deadline NONE = new Deadline(0, false);
+
+    private final long expiresAtNanos;
+    private final boolean bounded;
+
+    private Deadline(long expiresAtNanos, boolean bounded) {
+        this.expiresAtNanos = expiresAtNanos;
+        this.bounded = bounded;
+    }
+
+    /**
+     * @param budget time left from now, zero or negative budgets are already expired
+     */
+    public static Deadline after(Duration budget) {
+        long budgetNanos;
+        try {
+            budgetNanos = budget.toNanos();
+        } catch (ArithmeticException e) {
+            return NONE;
+        }
+        return new Deadline(System.nanoTime() + budgetNanos, true);
+    }
+
+    /**
+     * @return deadline that never expires
+     */
+    public static Deadline none() {
+        return NONE;
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    public boolean isExpired() {
+        return bounded && System.nanoTime() - expiresAtNanos >= 0;
+    }
+
+    /**
+     * @return milliseconds left, at least 0, or {@link Long#MAX_VALUE} for a deadline that never expires
+     */
+    public long remainingMillis() {
+        if (!bounded) {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, (expiresAtNanos - System.nanoTime()) / 1_000_000);
+    }
+}
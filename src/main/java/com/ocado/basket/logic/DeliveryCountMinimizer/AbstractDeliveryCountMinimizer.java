@@ -1,5 +1,8 @@
 package com.ocado.basket.logic.DeliveryCountMinimizer;
 
+import com.ocado.basket.dto.DeliveryCover;
+import com.ocado.basket.logic.Deadline;
+
 import java.util.List;
 import java.util.Set;
 
@@ -11,4 +14,19 @@ import java.util.Set;
  */
 public interface AbstractDeliveryCountMinimizer {
     Set<String> optimizeBasket(List<String> products);
+
+    /**
+     * Anytime variant: returns the best cover found when the deadline expires
+     * The default ignores the deadline and always returns an optimal cover
+     */
+    default DeliveryCover optimizeBasket(List<String> products, Deadline deadline) {
+        return DeliveryCover.optimal(optimizeBasket(products));
+    }
+
+    /**
+     * Releases the resources held by the minimizer when its catalog version is retired
+     * Calls still running on the minimizer must keep working, the default holds nothing to release
+     */
+    default void close() {
+    }
 }
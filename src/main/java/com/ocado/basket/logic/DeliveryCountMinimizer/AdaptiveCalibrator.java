@@ -0,0 +1,145 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.logic.Deadline;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+
+/**
+ * AdaptiveCalibrator class
+ * Micro-benchmark measuring where the engines of {@link AdaptiveDeliveryCountMinimizer} overtake each other
+ * on the current machine. It solves seeded random baskets of growing size with each pair of neighbouring engines:
+ * - bitmask DP against branch and bound, for the largest basket the DP still wins
+ * - branch and bound against the linear set cover formulation, for the smallest basket the linear solver wins
+ * An engine that does not prove optimality within the time limit loses the round.
+ * The density rule of the linear solver is not measured, the calibrated thresholds keep its default value.
+ * The result can be stored as a properties file and loaded with {@link AdaptiveThresholds#load}:
+ * <pre>
+ * java -cp &lt;classpath&gt; com.ocado.basket.logic.DeliveryCountMinimizer.AdaptiveCalibrator thresholds.properties
+ * </pre>
+ *
+ * @version 1.0
+ */
+public final class AdaptiveCalibrator {
+    private static final int[] BITMASK_SIZES = {8, 12, 16, 20, 24, 28};
+    private static final int[] LINEAR_SIZES = {50, 100, 200, 400, 800, 1600};
+    private static final int LINEAR_OPTIONS = 60;
+    private static final int TIMED_RUNS = 3;
+
+    private final long seed;
+    private final int repetitions;
+    private final Duration timeLimit;
+
+    public AdaptiveCalibrator(long seed, int repetitions, Duration timeLimit) {
+        this.seed = seed;
+        this.repetitions = repetitions;
+        this.timeLimit = timeLimit;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: AdaptiveCalibrator <thresholds.properties>");
+            System.exit(1);
+        }
+        AdaptiveThresholds thresholds = new AdaptiveCalibrator(42, 5, Duration.ofSeconds(2)).calibrate();
+        thresholds.store(Path.of(args[0]));
+        System.out.println(thresholds.toProperties());
+    }
+
+    /**
+     * @return measured bitmaskMaxStateBits and linearMinSignatures, with the default linearMinDensity
+     */
+    public AdaptiveThresholds calibrate() {
+        return AdaptiveThresholds.builder()
+                .bitmaskMaxStateBits(bitmaskCrossover())
+                .linearMinSignatures(linearCrossover())
+                .build();
+    }
+
+    /**
+     * @return largest number of signatures for which the bitmask DP is at least as fast as branch and bound
+     */
+    int bitmaskCrossover() {
+        int crossover = BITMASK_SIZES[0];
+        for (int size : BITMASK_SIZES) {
+            List<Instance> instances = instances(size, size, 2, 4);
+            if (totalNanos(DeliveryCountMinimizerType.BITMASK, instances) > totalNanos(DeliveryCountMinimizerType.BRANCH_AND_BOUND, instances)) {
+                return crossover;
+            }
+            crossover = size;
+        }
+        return crossover;
+    }
+
+    /**
+     * @return smallest number of signatures for which the linear solver is faster than branch and bound,
+     * or {@link Integer#MAX_VALUE} if it never is or cannot be loaded
+     */
+    int linearCrossover() {
+        for (int size : LINEAR_SIZES) {
+            List<Instance> instances = instances(size, LINEAR_OPTIONS, 2, 6);
+            long linearNanos;
+            try {
+                linearNanos = totalNanos(DeliveryCountMinimizerType.LINEAR_SET_COVER, instances);
+            } catch (LinkageError e) {
+                return Integer.MAX_VALUE;
+            }
+            if (linearNanos < totalNanos(DeliveryCountMinimizerType.BRANCH_AND_BOUND, instances)) {
+                return size;
+            }
+        }
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return sum over the instances of the fastest of a few runs, after one warm-up run per instance
+     */
+    private long totalNanos(DeliveryCountMinimizerType type, List<Instance> instances) {
+        long total = 0;
+        for (Instance instance : instances) {
+            AbstractDeliveryCountMinimizer minimizer = type.create(instance.catalog());
+            try {
+                minimizer.optimizeBasket(instance.products(), Deadline.after(timeLimit));
+                long fastest = timeLimit.toNanos();
+                for (int run = 0; run < TIMED_RUNS; run++) {
+                    long start = System.nanoTime();
+                    boolean optimal = minimizer.optimizeBasket(instance.products(), Deadline.after(timeLimit)).isOptimal();
+                    if (!optimal) {
+                        break;
+                    }
+                    fastest = Math.min(fastest, System.nanoTime() - start);
+                }
+                total += fastest;
+            } finally {
+                minimizer.close();
+            }
+        }
+        return total;
+    }
+
+    private List<Instance> instances(int products, int options, int minOptionsPerProduct, int maxOptionsPerProduct) {
+        Random random = new Random(seed + 31L * products + options);
+        List<Instance> instances = new ArrayList<>();
+        for (int round = 0; round < repetitions; round++) {
+            Map<String, List<String>> productToDeliveryOptions = new HashMap<>();
+            List<String> basket = new ArrayList<>();
+            for (int product = 0; product < products; product++) {
+                int count = minOptionsPerProduct + random.nextInt(maxOptionsPerProduct - minOptionsPerProduct + 1);
+                Set<String> productOptions = new LinkedHashSet<>();
+                while (productOptions.size() < Math.min(count, options)) {
+                    productOptions.add("deliveryOption" + random.nextInt(options));
+                }
+                productToDeliveryOptions.put("product" + product, new ArrayList<>(productOptions));
+                basket.add("product" + product);
+            }
+            instances.add(new Instance(DeliveryCatalog.of(productToDeliveryOptions), basket));
+        }
+        return instances;
+    }
+
+    private record Instance(DeliveryCatalog catalog, List<String> products) {
+    }
+}
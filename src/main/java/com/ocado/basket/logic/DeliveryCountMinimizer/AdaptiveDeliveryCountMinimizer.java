@@ -0,0 +1,113 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.dto.DeliveryCover;
+import com.ocado.basket.logic.BasketModel;
+import com.ocado.basket.logic.Deadline;
+import com.ocado.basket.metrics.SplitMetrics;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class routes every basket to the engine expected to solve it fastest.
+ * It looks at the {@link BasketShape} of the basket and applies the {@link AdaptiveThresholds}:
+ * - small instances go to the bitmask DP, whose memo stays small
+ * - large and dense instances go to the set cover formulation of the linear solver
+ * - everything in between goes to branch and bound
+ * The model of the basket built to measure its shape is passed on to the engine, so it is built once.
+ * Every call is recorded in the {@link EngineCounters}. Engines are created on first use, so the
+ * OR-Tools native libraries are only loaded if a basket is routed to the linear solver.
+ *
+ * @version 1.0
+ */
+public class AdaptiveDeliveryCountMinimizer implements AbstractDeliveryCountMinimizer {
+    private final DeliveryCatalog catalog;
+    private final AdaptiveThresholds thresholds;
+    private final EngineCounters counters;
+    private final SplitMetrics metrics;
+    private final BitmaskDeliveryCountMinimizer bitmask;
+    private final BranchAndBoundDeliveryCountMinimizer branchAndBound;
+    private volatile LinearDeliveryCountMinimizer linear;
+
+    public AdaptiveDeliveryCountMinimizer(DeliveryCatalog catalog) {
+        this(catalog, AdaptiveThresholds.defaults(), new EngineCounters());
+    }
+
+    public AdaptiveDeliveryCountMinimizer(DeliveryCatalog catalog, AdaptiveThresholds thresholds, EngineCounters counters) {
+        this(catalog, thresholds, counters, SplitMetrics.noOp());
+    }
+
+    public AdaptiveDeliveryCountMinimizer(DeliveryCatalog catalog, AdaptiveThresholds thresholds, EngineCounters counters, SplitMetrics metrics) {
+        this.catalog = catalog;
+        this.thresholds = thresholds;
+        this.counters = counters;
+        this.metrics = metrics;
+        this.bitmask = new BitmaskDeliveryCountMinimizer(catalog);
+        this.branchAndBound = new BranchAndBoundDeliveryCountMinimizer(catalog);
+    }
+
+    @Override
+    public Set<String> optimizeBasket(List<String> products) {
+        BasketModel basket = BasketModel.of(catalog, products);
+        return switch (engineFor(basket)) {
+            case BITMASK -> bitmask.optimizeBasket(basket);
+            case LINEAR_SET_COVER -> linear().solveSetCover(basket, Deadline.none()).getDeliveryOptions();
+            default -> branchAndBound.optimizeBasket(basket);
+        };
+    }
+
+    @Override
+    public DeliveryCover optimizeBasket(List<String> products, Deadline deadline) {
+        BasketModel basket = BasketModel.of(catalog, products);
+        return switch (engineFor(basket)) {
+            case BITMASK -> bitmask.optimizeBasket(basket, deadline);
+            case LINEAR_SET_COVER -> linear().solveSetCover(basket, deadline);
+            default -> branchAndBound.optimizeBasket(basket, deadline);
+        };
+    }
+
+    @Override
+    public void close() {
+        bitmask.close();
+        branchAndBound.close();
+        synchronized (this) {
+            if (linear != null) {
+                linear.close();
+            }
+        }
+    }
+
+    /**
+     * @return engine the thresholds pick for a basket of the given shape
+     */
+    public DeliveryCountMinimizerType select(BasketShape shape) {
+        if (Math.min(shape.getSignatureCount(), shape.getDistinctOptions()) <= thresholds.getBitmaskMaxStateBits()) {
+            return DeliveryCountMinimizerType.BITMASK;
+        }
+        if (shape.getSignatureCount() >= thresholds.getLinearMinSignatures() && shape.getDensity() >= thresholds.getLinearMinDensity()) {
+            return DeliveryCountMinimizerType.LINEAR_SET_COVER;
+        }
+        return DeliveryCountMinimizerType.BRANCH_AND_BOUND;
+    }
+
+    private DeliveryCountMinimizerType engineFor(BasketModel basket) {
+        DeliveryCountMinimizerType type = select(BasketShape.of(basket));
+        counters.record(type);
+        return type;
+    }
+
+    private LinearDeliveryCountMinimizer linear() {
+        LinearDeliveryCountMinimizer engine = linear;
+        if (engine == null) {
+            synchronized (this) {
+                engine = linear;
+                if (engine == null) {
+                    engine = new LinearDeliveryCountMinimizer(catalog, LinearDeliveryCountMinimizer.Formulation.SET_COVER, metrics);
+                    linear = engine;
+                }
+            }
+        }
+        return engine;
+    }
+}
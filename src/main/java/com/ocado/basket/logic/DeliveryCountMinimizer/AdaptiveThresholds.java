@@ -0,0 +1,84 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import com.ocado.basket.exceptions.ConfigLoadException;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+/**
+ * AdaptiveThresholds class
+ * Routing rules of {@link AdaptiveDeliveryCountMinimizer}, measured on the target machine by {@link AdaptiveCalibrator}
+ * Contains
+ * - bitmaskMaxStateBits: bitmask DP is used while min(signatures, options) of the basket is at most this,
+ *   its number of memoized subsets is bounded by 2 to that power
+ * - linearMinSignatures: the linear solver is used from this number of signatures on, if the basket is dense enough
+ * - linearMinDensity: minimal density of a basket routed to the linear solver
+ * Baskets matching neither rule go to branch and bound.
+ *
+ * @version 1.0
+ */
+@Getter
+@Builder
+public class AdaptiveThresholds {
+    static final String BITMASK_MAX_STATE_BITS = "adaptive.bitmaskMaxStateBits";
+    static final String LINEAR_MIN_SIGNATURES = "adaptive.linearMinSignatures";
+    static final String LINEAR_MIN_DENSITY = "adaptive.linearMinDensity";
+
+    @Builder.Default
+    private final int bitmaskMaxStateBits = 10;
+    @Builder.Default
+    private final int linearMinSignatures = 400;
+    @Builder.Default
+    private final double linearMinDensity = 0.03;
+
+    public static AdaptiveThresholds defaults() {
+        return builder().build();
+    }
+
+    /**
+     * Missing keys keep their default value
+     */
+    public static AdaptiveThresholds fromProperties(Properties properties) {
+        AdaptiveThresholds defaults = defaults();
+        return builder()
+                .bitmaskMaxStateBits(Integer.parseInt(properties.getProperty(BITMASK_MAX_STATE_BITS, String.valueOf(defaults.bitmaskMaxStateBits))))
+                .linearMinSignatures(Integer.parseInt(properties.getProperty(LINEAR_MIN_SIGNATURES, String.valueOf(defaults.linearMinSignatures))))
+                .linearMinDensity(Double.parseDouble(properties.getProperty(LINEAR_MIN_DENSITY, String.valueOf(defaults.linearMinDensity))))
+                .build();
+    }
+
+    /**
+     * @param path properties file, for example one written by {@link AdaptiveCalibrator}
+     */
+    public static AdaptiveThresholds load(Path path) {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path)) {
+            properties.load(reader);
+            return fromProperties(properties);
+        } catch (IOException e) {
+            throw new ConfigLoadException("Failed to load config file", e);
+        } catch (NumberFormatException e) {
+            throw new ConfigLoadException("Invalid adaptive thresholds", e);
+        }
+    }
+
+    public Properties toProperties() {
+        Properties properties = new Properties();
+        properties.setProperty(BITMASK_MAX_STATE_BITS, String.valueOf(bitmaskMaxStateBits));
+        properties.setProperty(LINEAR_MIN_SIGNATURES, String.valueOf(linearMinSignatures));
+        properties.setProperty(LINEAR_MIN_DENSITY, String.valueOf(linearMinDensity));
+        return properties;
+    }
+
+    public void store(Path path) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            toProperties().store(writer, "Adaptive minimizer thresholds");
+        }
+    }
+}
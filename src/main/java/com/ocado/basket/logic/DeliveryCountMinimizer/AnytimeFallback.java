@@ -0,0 +1,42 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import com.ocado.basket.dto.DeliveryCover;
+import com.ocado.basket.logic.BasketModel;
+import com.ocado.basket.logic.Deadline;
+
+/**
+ * AnytimeFallback class
+ * Shared pieces of the deadline-aware minimizers: the greedy cover they start from
+ * and the stackless exception that unwinds an exact search once the deadline expires
+ *
+ * @version 1.0
+ */
+final class AnytimeFallback {
+    private static final DeadlineExpired EXPIRED = new DeadlineExpired();
+
+    private AnytimeFallback() {
+    }
+
+    /**
+     * @return greedy cover of the basket with the lower bound of the branch-and-bound solver
+     */
+    static DeliveryCover greedy(BasketModel basket) {
+        BranchAndBoundSolver solver = new BranchAndBoundSolver(basket);
+        long[] all = basket.allProducts();
+        return DeliveryCover.bounded(basket.optionNames(solver.greedyCover(all)), solver.lowerBound(all));
+    }
+
+    static void checkDeadline(Deadline deadline) {
+        if (deadline.isExpired()) {
+            throw EXPIRED;
+        }
+    }
+
+    static final class DeadlineExpired extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        private DeadlineExpired() {
+            super("Deadline expired", null, false, false);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import com.ocado.basket.logic.BasketModel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * BasketShape class
+ * Size and density of the set cover instance of a basket, used to pick the engine solving it
+ * Contains
+ * - distinctProducts: number of distinct products
+ * - distinctOptions: number of delivery options reachable from the products
+ * - signatureCount: number of distinct option sets among the products
+ * - density: share of (product, reachable option) pairs where the option delivers the product
+ *
+ * @version 1.0
+ */
+@Getter
+@AllArgsConstructor
+public class BasketShape {
+    private final int distinctProducts;
+    private final int distinctOptions;
+    private final int signatureCount;
+    private final double density;
+
+    public static BasketShape of(BasketModel basket) {
+        Set<Signature> signatures = new HashSet<>();
+        long pairs = 0;
+        for (int product = 0; product < basket.productCount(); product++) {
+            int[] options = basket.productOptions(product).clone();
+            Arrays.sort(options);
+            signatures.add(new Signature(options));
+            pairs += options.length;
+        }
+        double cells = (double) basket.productCount() * basket.optionCount();
+        return new BasketShape(basket.productCount(), basket.optionCount(), signatures.size(), cells == 0 ? 0 : pairs / cells);
+    }
+}
@@ -0,0 +1,218 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.diagnostics.SearchEvent;
+import com.ocado.basket.dto.DeliveryCover;
+import com.ocado.basket.logic.BasketModel;
+import com.ocado.basket.logic.Bitsets;
+import com.ocado.basket.logic.Deadline;
+
+import java.util.*;
+
+/**
+ * This class is responsible for finding the optimal delivery options for a given basket of products.
+ * It uses the same dynamic programming as {@link DynamicDeliveryCountMinimizer}, but interns products and
+ * delivery options to dense int ids and represents subsets of products as bit masks.
+ * Baskets of up to 64 products use a single {@code long} mask, bigger baskets fall back to {@code long[]} words.
+ * Against a deadline it starts from the greedy cover and only replaces it if the recursion finishes in time.
+ *
+ * @version 1.0
+ */
+public class BitmaskDeliveryCountMinimizer implements AbstractDeliveryCountMinimizer {
+    private static final int MAX_RETAINED_MEMO_SIZE = 1 << 16;
+    private static final int DEADLINE_CHECK_INTERVAL = 1 << 10;
+
+    private final DeliveryCatalog catalog;
+    private final ThreadLocal<LongMaskMemo> scratchMemo = ThreadLocal.withInitial(LongMaskMemo::new);
+
+    public BitmaskDeliveryCountMinimizer(DeliveryCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    @Override
+    public Set<String> optimizeBasket(List<String> products) {
+        return optimizeBasket(BasketModel.of(catalog, products));
+    }
+
+    @Override
+    public DeliveryCover optimizeBasket(List<String> products, Deadline deadline) {
+        return optimizeBasket(BasketModel.of(catalog, products), deadline);
+    }
+
+    Set<String> optimizeBasket(BasketModel basket) {
+        if (basket.productCount() == 0) {
+            return new HashSet<>();
+        }
+        return basket.optionNames(solve(basket, Deadline.none()));
+    }
+
+    DeliveryCover optimizeBasket(BasketModel basket, Deadline deadline) {
+        DeliveryCover greedy = AnytimeFallback.greedy(basket);
+        if (greedy.isOptimal()) {
+            return greedy;
+        }
+        try {
+            return DeliveryCover.optimal(basket.optionNames(solve(basket, deadline)));
+        } catch (AnytimeFallback.DeadlineExpired e) {
+            return greedy;
+        }
+    }
+
+    private int[] solve(BasketModel basket, Deadline deadline) {
+        return basket.words() == 1 ? solveSingleWord(basket, deadline) : solveMultiWord(basket, deadline);
+    }
+
+    private int[] solveSingleWord(BasketModel basket, Deadline deadline) {
+        LongMaskMemo memo = scratchMemo.get();
+        memo.clear();
+        SearchEvent event = SearchEvent.start(DeliveryCountMinimizerType.BITMASK.name());
+        try {
+            return new SingleWordSolver(basket, memo, deadline).solve();
+        } finally {
+            event.finish(basket.productCount(), basket.optionCount(), memo.size());
+            if (memo.size() > MAX_RETAINED_MEMO_SIZE) {
+                scratchMemo.remove();
+            }
+        }
+    }
+
+    private int[] solveMultiWord(BasketModel basket, Deadline deadline) {
+        MultiWordSolver solver = new MultiWordSolver(basket, deadline);
+        SearchEvent event = SearchEvent.start(DeliveryCountMinimizerType.BITMASK.name());
+        try {
+            return solver.solve();
+        } finally {
+            event.finish(basket.productCount(), basket.optionCount(), solver.memo.size());
+        }
+    }
+
+    private static long pack(int count, int option) {
+        return ((long) count << 32) | (option & 0xFFFFFFFFL);
+    }
+
+    private static int countOf(long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    private static int optionOf(long packed) {
+        return (int) packed;
+    }
+
+    /**
+     * Memoized recursion over single-word masks.
+     * For every remaining set the first uncovered product has to be delivered somehow,
+     * so only its delivery options are branched on.
+     */
+    private static class SingleWordSolver {
+        private final BasketModel basket;
+        private final long[] coverage;
+        private final LongMaskMemo memo;
+        private final Deadline deadline;
+        private int calls;
+
+        SingleWordSolver(BasketModel basket, LongMaskMemo memo, Deadline deadline) {
+            this.basket = basket;
+            this.memo = memo;
+            this.deadline = deadline;
+            this.coverage = new long[basket.optionCount()];
+            for (int option = 0; option < coverage.length; option++) {
+                coverage[option] = basket.coverage(option)[0];
+            }
+        }
+
+        int[] solve() {
+            long all = basket.allProducts()[0];
+            int[] chosen = new int[minimalCount(all)];
+            long remaining = all;
+            for (int i = 0; i < chosen.length; i++) {
+                chosen[i] = optionOf(memo.get(remaining));
+                remaining &= ~coverage[chosen[i]];
+            }
+            return chosen;
+        }
+
+        private int minimalCount(long remaining) {
+            if (remaining == 0) {
+                return 0;
+            }
+            long cached = memo.get(remaining);
+            if (cached != LongMaskMemo.MISSING) {
+                return countOf(cached);
+            }
+            if (++calls % DEADLINE_CHECK_INTERVAL == 0) {
+                AnytimeFallback.checkDeadline(deadline);
+            }
+            int product = Long.numberOfTrailingZeros(remaining);
+            int bestCount = Integer.MAX_VALUE;
+            int bestOption = -1;
+            for (int option : basket.productOptions(product)) {
+                int count = 1 + minimalCount(remaining & ~coverage[option]);
+                if (count < bestCount) {
+                    bestCount = count;
+                    bestOption = option;
+                    if (bestCount == 1) {
+                        break;
+                    }
+                }
+            }
+            memo.put(remaining, pack(bestCount, bestOption));
+            return bestCount;
+        }
+    }
+
+    /**
+     * Same recursion as {@link SingleWordSolver} for baskets that do not fit into one long.
+     */
+    private static class MultiWordSolver {
+        private final BasketModel basket;
+        private final WordMaskMemo memo;
+        private final Deadline deadline;
+        private int calls;
+
+        MultiWordSolver(BasketModel basket, Deadline deadline) {
+            this.basket = basket;
+            this.memo = new WordMaskMemo(basket.words());
+            this.deadline = deadline;
+        }
+
+        int[] solve() {
+            long[] remaining = basket.allProducts();
+            int[] chosen = new int[minimalCount(remaining.clone())];
+            for (int i = 0; i < chosen.length; i++) {
+                chosen[i] = optionOf(memo.get(remaining));
+                Bitsets.andNot(remaining, basket.coverage(chosen[i]), remaining);
+            }
+            return chosen;
+        }
+
+        private int minimalCount(long[] remaining) {
+            int product = Bitsets.first(remaining);
+            if (product < 0) {
+                return 0;
+            }
+            long cached = memo.get(remaining);
+            if (cached != WordMaskMemo.MISSING) {
+                return countOf(cached);
+            }
+            if (++calls % DEADLINE_CHECK_INTERVAL == 0) {
+                AnytimeFallback.checkDeadline(deadline);
+            }
+            int bestCount = Integer.MAX_VALUE;
+            int bestOption = -1;
+            long[] next = new long[remaining.length];
+            for (int option : basket.productOptions(product)) {
+                Bitsets.andNot(remaining, basket.coverage(option), next);
+                int count = 1 + minimalCount(next);
+                if (count < bestCount) {
+                    bestCount = count;
+                    bestOption = option;
+                    if (bestCount == 1) {
+                        break;
+                    }
+                }
+            }
+            memo.put(remaining, pack(bestCount, bestOption));
+            return bestCount;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.diagnostics.SearchEvent;
+import com.ocado.basket.dto.DeliveryCover;
+import com.ocado.basket.logic.BasketModel;
+import com.ocado.basket.logic.Deadline;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * This class is responsible for finding the optimal delivery options for a given basket of products.
+ * It runs a {@link BranchAndBoundSolver} on the bitset model of the basket. Unlike the dynamic programming
+ * engines it keeps no memo, so its memory use does not grow with the number of reachable subsets.
+ * Against a deadline it returns the best cover found so far, starting from the greedy one.
+ *
+ * @version 1.0
+ */
+public class BranchAndBoundDeliveryCountMinimizer implements AbstractDeliveryCountMinimizer {
+    private final DeliveryCatalog catalog;
+
+    public BranchAndBoundDeliveryCountMinimizer(DeliveryCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    @Override
+    public Set<String> optimizeBasket(List<String> products) {
+        return optimizeBasket(BasketModel.of(catalog, products));
+    }
+
+    @Override
+    public DeliveryCover optimizeBasket(List<String> products, Deadline deadline) {
+        return optimizeBasket(BasketModel.of(catalog, products), deadline);
+    }
+
+    Set<String> optimizeBasket(BasketModel basket) {
+        if (basket.productCount() == 0) {
+            return new HashSet<>();
+        }
+        BranchAndBoundSolver solver = new BranchAndBoundSolver(basket);
+        SearchEvent event = SearchEvent.start(DeliveryCountMinimizerType.BRANCH_AND_BOUND.name());
+        int[] cover = solver.solve();
+        event.finish(basket.productCount(), basket.optionCount(), solver.visitedNodes());
+        return basket.optionNames(cover);
+    }
+
+    DeliveryCover optimizeBasket(BasketModel basket, Deadline deadline) {
+        BranchAndBoundSolver solver = new BranchAndBoundSolver(basket);
+        long[] all = basket.allProducts();
+        SearchEvent event = SearchEvent.start(DeliveryCountMinimizerType.BRANCH_AND_BOUND.name());
+        int[] cover = solver.solve(solver.greedyCover(all), deadline);
+        event.finish(basket.productCount(), basket.optionCount(), solver.visitedNodes());
+        Set<String> deliveryOptions = basket.optionNames(cover);
+        return solver.isOptimal() ? DeliveryCover.optimal(deliveryOptions) : DeliveryCover.bounded(deliveryOptions, solver.lowerBound(all));
+    }
+}
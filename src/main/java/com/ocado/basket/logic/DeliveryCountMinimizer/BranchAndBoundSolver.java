@@ -0,0 +1,228 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import com.ocado.basket.logic.BasketModel;
+import com.ocado.basket.logic.Bitsets;
+import com.ocado.basket.logic.Deadline;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * BranchAndBoundSolver class
+ * Exact minimum set cover of a {@link BasketModel} by depth-first branch and bound:
+ * - the greedy cover (most newly covered products first) is the first incumbent
+ * - a node is pruned when its depth plus a lower bound for the uncovered products reaches the incumbent
+ * - the lower bound is the larger of ceil(uncovered / best single option coverage) and the number of
+ *   uncovered products with pairwise disjoint option sets, each of which needs its own option
+ * - the branching product is the uncovered one with the fewest options, its options are tried
+ *   in order of how many uncovered products they cover
+ * The search is anytime: the incumbent only improves, and against a deadline the best cover found so far
+ * is returned once it expires, with {@link #isOptimal()} telling whether the search was completed.
+ * A solver instance is single-threaded and holds its scratch buffers, one depth level per chosen option.
+ *
+ * @version 1.0
+ */
+public final class BranchAndBoundSolver {
+    private static final int DEADLINE_CHECK_INTERVAL = 1 << 8;
+
+    private final BasketModel model;
+    private final int[] productsByConstraint;
+    private final long[][] productOptionMasks;
+    private final int optionWords;
+
+    private long[][] uncoveredAtDepth;
+    private int[][] branchOptions;
+    private int[] chosen;
+    private int[] best;
+    private long visitedNodes;
+    private Deadline deadline;
+    private boolean expired;
+
+    public BranchAndBoundSolver(BasketModel model) {
+        this.model = model;
+        this.productsByConstraint = IntStream.range(0, model.productCount()).boxed()
+                .sorted(Comparator.comparingInt(product -> model.productOptions(product).length))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        this.optionWords = Math.max(1, (model.optionCount() + 63) >>> 6);
+        this.productOptionMasks = new long[model.productCount()][optionWords];
+        for (int product = 0; product < model.productCount(); product++) {
+            for (int option : model.productOptions(product)) {
+                productOptionMasks[product][option >>> 6] |= 1L << option;
+            }
+        }
+    }
+
+    /**
+     * @return local ids of the options of a minimum cover
+     */
+    public int[] solve() {
+        return solve(greedyCover(model.allProducts()));
+    }
+
+    /**
+     * @param incumbent local ids of the options of any cover of the basket, the search only looks for smaller ones
+     * @return local ids of the options of a minimum cover
+     */
+    public int[] solve(int[] incumbent) {
+        return solve(incumbent, Deadline.none());
+    }
+
+    /**
+     * @param incumbent local ids of the options of any cover of the basket, the search only looks for smaller ones
+     * @param deadline the search stops when it expires
+     * @return local ids of the options of the best cover found, minimum if {@link #isOptimal()}
+     */
+    public int[] solve(int[] incumbent, Deadline deadline) {
+        best = incumbent.clone();
+        visitedNodes = 0;
+        this.deadline = deadline;
+        expired = false;
+        int maxDepth = Math.max(1, best.length);
+        uncoveredAtDepth = new long[maxDepth + 1][model.words()];
+        branchOptions = new int[maxDepth][];
+        chosen = new int[maxDepth];
+        uncoveredAtDepth[0] = model.allProducts();
+        search(0);
+        return best;
+    }
+
+    /**
+     * @return true if the last solve completed the search, so its cover is minimum
+     */
+    public boolean isOptimal() {
+        return !expired;
+    }
+
+    /**
+     * @return number of search nodes visited by the last solve
+     */
+    public long visitedNodes() {
+        return visitedNodes;
+    }
+
+    /**
+     * @return local ids of the options chosen by the greedy heuristic to cover the given products
+     */
+    public int[] greedyCover(long[] products) {
+        long[] uncovered = products.clone();
+        int[] cover = new int[0];
+        while (!Bitsets.isEmpty(uncovered)) {
+            int bestOption = -1;
+            int bestGain = 0;
+            for (int option = 0; option < model.optionCount(); option++) {
+                int gain = Bitsets.intersectionSize(model.coverage(option), uncovered);
+                if (gain > bestGain) {
+                    bestGain = gain;
+                    bestOption = option;
+                }
+            }
+            cover = Arrays.copyOf(cover, cover.length + 1);
+            cover[cover.length - 1] = bestOption;
+            Bitsets.andNot(uncovered, model.coverage(bestOption), uncovered);
+        }
+        return cover;
+    }
+
+    /**
+     * @return lower bound for the number of options needed to cover the given products
+     */
+    public int lowerBound(long[] uncovered) {
+        int uncoveredCount = Bitsets.cardinality(uncovered);
+        if (uncoveredCount == 0) {
+            return 0;
+        }
+        int maxGain = 0;
+        for (int option = 0; option < model.optionCount(); option++) {
+            maxGain = Math.max(maxGain, Bitsets.intersectionSize(model.coverage(option), uncovered));
+        }
+        int coverageBound = (uncoveredCount + maxGain - 1) / maxGain;
+        return Math.max(coverageBound, disjointProducts(uncovered));
+    }
+
+    private int disjointProducts(long[] uncovered) {
+        long[] usedOptions = new long[optionWords];
+        int count = 0;
+        for (int product : productsByConstraint) {
+            if (Bitsets.contains(uncovered, product) && Bitsets.intersectionSize(productOptionMasks[product], usedOptions) == 0) {
+                count++;
+                for (int word = 0; word < optionWords; word++) {
+                    usedOptions[word] |= productOptionMasks[product][word];
+                }
+            }
+        }
+        return count;
+    }
+
+    private void search(int depth) {
+        if (++visitedNodes % DEADLINE_CHECK_INTERVAL == 0 && deadline.isExpired()) {
+            expired = true;
+        }
+        if (expired) {
+            return;
+        }
+        long[] uncovered = uncoveredAtDepth[depth];
+        if (Bitsets.isEmpty(uncovered)) {
+            if (depth < best.length) {
+                best = Arrays.copyOf(chosen, depth);
+            }
+            return;
+        }
+        if (depth + 1 >= best.length || depth + lowerBound(uncovered) >= best.length) {
+            return;
+        }
+        int[] options = orderedBranchOptions(depth, mostConstrainedProduct(uncovered), uncovered);
+        for (int option : options) {
+            chosen[depth] = option;
+            Bitsets.andNot(uncovered, model.coverage(option), uncoveredAtDepth[depth + 1]);
+            search(depth + 1);
+            if (expired || depth + lowerBound(uncovered) >= best.length) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the uncovered product with the fewest options, the one the search branches on
+     */
+    int mostConstrainedProduct(long[] uncovered) {
+        for (int product : productsByConstraint) {
+            if (Bitsets.contains(uncovered, product)) {
+                return product;
+            }
+        }
+        throw new IllegalStateException("No uncovered product");
+    }
+
+    private int[] orderedBranchOptions(int depth, int product, long[] uncovered) {
+        int optionCount = model.productOptions(product).length;
+        int[] options = branchOptions[depth];
+        if (options == null || options.length < optionCount) {
+            options = new int[optionCount];
+            branchOptions[depth] = options;
+        }
+        orderBranchOptions(product, uncovered, options);
+        return optionCount == options.length ? options : Arrays.copyOf(options, optionCount);
+    }
+
+    /**
+     * Writes the options of the product to the start of the array, the ones covering the most uncovered products first.
+     * The order only depends on the product and the uncovered products, so every search visits the children of a node in the same order
+     */
+    void orderBranchOptions(int product, long[] uncovered, int[] options) {
+        int[] productOptions = model.productOptions(product);
+        int[] gains = new int[productOptions.length];
+        for (int i = 0; i < productOptions.length; i++) {
+            int gain = Bitsets.intersectionSize(model.coverage(productOptions[i]), uncovered);
+            int position = i;
+            while (position > 0 && gains[position - 1] < gain) {
+                gains[position] = gains[position - 1];
+                options[position] = options[position - 1];
+                position--;
+            }
+            gains[position] = gain;
+            options[position] = productOptions[i];
+        }
+    }
+}
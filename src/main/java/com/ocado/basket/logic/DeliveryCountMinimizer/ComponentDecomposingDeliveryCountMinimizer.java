@@ -0,0 +1,154 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.dto.DeliveryCover;
+import com.ocado.basket.logic.Deadline;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+/**
+ * This class splits the basket into independent parts before it is passed to another minimizer.
+ * Products and their delivery options form a bipartite graph; products in different connected components share
+ * no delivery option, so a minimum cover of the basket is the union of minimum covers of its components.
+ * The components are found with union-find over the products, joining every product with the first product
+ * of each of its options, and each one is solved by the wrapped minimizer, on the given pool if there is one.
+ * Baskets with a single component or with unknown products are passed through unchanged, so the delegate reports them.
+ * The merged cover covers every product, so {@code ItemsCountMaximizer} still assigns the full basket.
+ *
+ * @version 1.0
+ */
+public class ComponentDecomposingDeliveryCountMinimizer implements AbstractDeliveryCountMinimizer {
+
+    private final DeliveryCatalog catalog;
+    private final AbstractDeliveryCountMinimizer delegate;
+    private final ForkJoinPool pool;
+
+    public ComponentDecomposingDeliveryCountMinimizer(DeliveryCatalog catalog, AbstractDeliveryCountMinimizer delegate) {
+        this(catalog, delegate, null);
+    }
+
+    /**
+     * @param pool pool solving the components in parallel, null solves them one after another on the calling thread
+     */
+    public ComponentDecomposingDeliveryCountMinimizer(DeliveryCatalog catalog, AbstractDeliveryCountMinimizer delegate, ForkJoinPool pool) {
+        this.catalog = catalog;
+        this.delegate = delegate;
+        this.pool = pool;
+    }
+
+    @Override
+    public Set<String> optimizeBasket(List<String> products) {
+        List<List<String>> components = components(products);
+        if (components.size() <= 1) {
+            return delegate.optimizeBasket(products);
+        }
+        Set<String> deliveryOptions = new HashSet<>();
+        solveAll(components, delegate::optimizeBasket).forEach(deliveryOptions::addAll);
+        return deliveryOptions;
+    }
+
+    @Override
+    public DeliveryCover optimizeBasket(List<String> products, Deadline deadline) {
+        List<List<String>> components = components(products);
+        if (components.size() <= 1) {
+            return delegate.optimizeBasket(products, deadline);
+        }
+        Set<String> deliveryOptions = new HashSet<>();
+        boolean optimal = true;
+        int lowerBound = 0;
+        for (DeliveryCover cover : solveAll(components, component -> delegate.optimizeBasket(component, deadline))) {
+            deliveryOptions.addAll(cover.getDeliveryOptions());
+            optimal &= cover.isOptimal();
+            lowerBound += cover.getLowerBound();
+        }
+        return new DeliveryCover(deliveryOptions, optimal, lowerBound);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    /**
+     * @return products of the basket grouped by connected component, the biggest component first,
+     * or the whole basket as one component if it is connected or a product is unknown or has no delivery options
+     */
+    List<List<String>> components(List<String> products) {
+        int[] parents = new int[products.size()];
+        int[] firstProductOfOption = new int[catalog.optionCount()];
+        Arrays.fill(firstProductOfOption, -1);
+        for (int product = 0; product < products.size(); product++) {
+            int productId = catalog.productId(products.get(product));
+            if (productId < 0 || catalog.productOptionCount(productId) == 0) {
+                return List.of(products);
+            }
+            parents[product] = product;
+            for (int i = 0; i < catalog.productOptionCount(productId); i++) {
+                int option = catalog.productOption(productId, i);
+                if (firstProductOfOption[option] < 0) {
+                    firstProductOfOption[option] = product;
+                } else {
+                    union(parents, firstProductOfOption[option], product);
+                }
+            }
+        }
+        int[] componentSizes = new int[products.size()];
+        int componentCount = 0;
+        for (int product = 0; product < products.size(); product++) {
+            parents[product] = find(parents, product);
+            if (componentSizes[parents[product]]++ == 0) {
+                componentCount++;
+            }
+        }
+        if (componentCount <= 1) {
+            return List.of(products);
+        }
+        List<List<String>> components = new ArrayList<>(componentCount);
+        int[] componentOfRoot = new int[products.size()];
+        for (int product = 0; product < products.size(); product++) {
+            int root = parents[product];
+            if (root == product) {
+                componentOfRoot[root] = components.size();
+                components.add(new ArrayList<>(componentSizes[root]));
+            }
+            components.get(componentOfRoot[root]).add(products.get(product));
+        }
+        components.sort(Comparator.comparingInt(List<String>::size).reversed());
+        return components;
+    }
+
+    private <T> List<T> solveAll(List<List<String>> components, Function<List<String>, T> solver) {
+        if (pool == null) {
+            return components.stream().map(solver).toList();
+        }
+        List<ForkJoinTask<T>> tasks = components.stream()
+                .map(component -> ForkJoinTask.adapt(() -> solver.apply(component)))
+                .toList();
+        return pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks))).stream()
+                .map(ForkJoinTask::join)
+                .toList();
+    }
+
+    private static int find(int[] parents, int product) {
+        while (parents[product] != product) {
+            parents[product] = parents[parents[product]];
+            product = parents[product];
+        }
+        return product;
+    }
+
+    /**
+     * Joins the roots by index instead of by size, baskets are small enough for path halving alone.
+     * The root of a component is its first product, so it is met before the other products of the component
+     */
+    private static void union(int[] parents, int first, int second) {
+        int firstRoot = find(parents, first);
+        int secondRoot = find(parents, second);
+        if (firstRoot != secondRoot) {
+            parents[Math.max(firstRoot, secondRoot)] = Math.min(firstRoot, secondRoot);
+        }
+    }
+}
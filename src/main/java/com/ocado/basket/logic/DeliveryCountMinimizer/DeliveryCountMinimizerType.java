@@ -0,0 +1,39 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.metrics.SplitMetrics;
+
+import java.util.function.BiFunction;
+
+/**
+ * DeliveryCountMinimizerType enum
+ * Lists the available delivery count minimizers and creates them for a given config
+ *
+ * @version 1.0
+ */
+public enum DeliveryCountMinimizerType {
+    DYNAMIC(DynamicDeliveryCountMinimizer::new),
+    BITMASK((catalog, metrics) -> new BitmaskDeliveryCountMinimizer(catalog)),
+    LINEAR((catalog, metrics) -> new LinearDeliveryCountMinimizer(catalog, LinearDeliveryCountMinimizer.Formulation.PRODUCT_ASSIGNMENT, metrics)),
+    LINEAR_SET_COVER((catalog, metrics) -> new LinearDeliveryCountMinimizer(catalog, LinearDeliveryCountMinimizer.Formulation.SET_COVER, metrics)),
+    BRANCH_AND_BOUND((catalog, metrics) -> new BranchAndBoundDeliveryCountMinimizer(catalog)),
+    PARALLEL_BRANCH_AND_BOUND((catalog, metrics) -> new ParallelDeliveryCountMinimizer(catalog)),
+    ADAPTIVE((catalog, metrics) -> new AdaptiveDeliveryCountMinimizer(catalog, AdaptiveThresholds.defaults(), new EngineCounters(), metrics));
+
+    private final BiFunction<DeliveryCatalog, SplitMetrics, AbstractDeliveryCountMinimizer> factory;
+
+    DeliveryCountMinimizerType(BiFunction<DeliveryCatalog, SplitMetrics, AbstractDeliveryCountMinimizer> factory) {
+        this.factory = factory;
+    }
+
+    public AbstractDeliveryCountMinimizer create(DeliveryCatalog catalog) {
+        return create(catalog, SplitMetrics.noOp());
+    }
+
+    /**
+     * @param metrics receives the engine specific measurements of the minimizers that report any
+     */
+    public AbstractDeliveryCountMinimizer create(DeliveryCatalog catalog, SplitMetrics metrics) {
+        return factory.apply(catalog, metrics);
+    }
+}
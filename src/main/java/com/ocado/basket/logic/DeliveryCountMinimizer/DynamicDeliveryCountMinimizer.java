@@ -1,33 +1,80 @@
 package com.ocado.basket.logic.DeliveryCountMinimizer;
 
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.diagnostics.SearchEvent;
+import com.ocado.basket.dto.DeliveryCover;
 import com.ocado.basket.exceptions.InvalidItemException;
+import com.ocado.basket.logic.BasketModel;
+import com.ocado.basket.logic.Deadline;
+import com.ocado.basket.metrics.SplitMetrics;
 
 import java.util.*;
 
 /**
  * This class is responsible for finding the optimal delivery options for a given basket of products.
  * It uses dynamic programming to find the optimal delivery options.
+ * Against a deadline it starts from the greedy cover and replaces it with the optimal one if the recursion
+ * finishes in time, the recursion checks the deadline on every call and is abandoned once it expires.
+ * The memo size and the number of visited item sets of every finished search are reported to the {@link SplitMetrics}.
  *
  * @version 1.0
  */
 public class DynamicDeliveryCountMinimizer implements AbstractDeliveryCountMinimizer {
 
-    private final Map<String, List<String>> productToDeliveryOptions;
+    private final DeliveryCatalog catalog;
+    private final SplitMetrics metrics;
 
-    public DynamicDeliveryCountMinimizer(Map<String, List<String>> productToDeliveryOptions) {
-        this.productToDeliveryOptions = productToDeliveryOptions;
+    public DynamicDeliveryCountMinimizer(DeliveryCatalog catalog) {
+        this(catalog, SplitMetrics.noOp());
+    }
+
+    public DynamicDeliveryCountMinimizer(DeliveryCatalog catalog, SplitMetrics metrics) {
+        this.catalog = catalog;
+        this.metrics = metrics;
     }
 
     // dp find optimal delivery options
     public Set<String> optimizeBasket(List<String> products) {
-        Map<Set<String>, Set<String>> cache = new HashMap<>();
-        return findOptimalDeliveryOptions(new HashSet<>(products), cache);
+        Memo memo = new Memo();
+        SearchEvent event = SearchEvent.start(DeliveryCountMinimizerType.DYNAMIC.name());
+        Set<String> optimal = findOptimalDeliveryOptions(new HashSet<>(products), memo, Deadline.none());
+        finishSearch(event, products, memo);
+        return optimal;
+    }
+
+    @Override
+    public DeliveryCover optimizeBasket(List<String> products, Deadline deadline) {
+        DeliveryCover greedy = AnytimeFallback.greedy(BasketModel.of(catalog, products));
+        if (greedy.isOptimal()) {
+            return greedy;
+        }
+        try {
+            Memo memo = new Memo();
+            SearchEvent event = SearchEvent.start(DeliveryCountMinimizerType.DYNAMIC.name());
+            Set<String> optimal = findOptimalDeliveryOptions(new HashSet<>(products), memo, deadline);
+            finishSearch(event, products, memo);
+            return DeliveryCover.optimal(optimal);
+        } catch (AnytimeFallback.DeadlineExpired e) {
+            return greedy;
+        }
     }
 
-    private Set<String> findOptimalDeliveryOptions(Set<String> items, Map<Set<String>, Set<String>> cache) {
+    private void finishSearch(SearchEvent event, List<String> products, Memo memo) {
+        metrics.recordDynamicSearch(memo.cache.size(), memo.visited);
+        if (event.shouldCommit()) {
+            // the recursion works on names, the model is only built to report the basket shape
+            BasketModel basket = BasketModel.of(catalog, products);
+            event.finish(basket.productCount(), basket.optionCount(), memo.visited);
+        }
+    }
+
+    private Set<String> findOptimalDeliveryOptions(Set<String> items, Memo memo, Deadline deadline) {
         if (items.isEmpty()) {
             return new HashSet<>();
         }
+        AnytimeFallback.checkDeadline(deadline);
+        memo.visited++;
+        Map<Set<String>, Set<String>> cache = memo.cache;
         if (cache.containsKey(items)) {
             return cache.get(items);
         }
@@ -36,7 +83,7 @@ public class DynamicDeliveryCountMinimizer implements AbstractDeliveryCountMinim
 
         for (String product : items) {
             validateProduct(product);
-            minimalDeliveryOptions = findMinimalDeliveryOptionsForProduct(items, product, minimalDeliveryOptions, cache);
+            minimalDeliveryOptions = findMinimalDeliveryOptionsForProduct(items, product, minimalDeliveryOptions, memo, deadline);
         }
 
         cache.put(items, minimalDeliveryOptions);
@@ -44,27 +91,31 @@ public class DynamicDeliveryCountMinimizer implements AbstractDeliveryCountMinim
     }
 
     private void validateProduct(String product) {
-        if(!productToDeliveryOptions.containsKey(product)){
+        if(catalog.productId(product) < 0){
             throw new InvalidItemException("Invalid item: " + product + " not found in delivery options");
         }
     }
 
-    private Set<String> findMinimalDeliveryOptionsForProduct(Set<String> items, String product, Set<String> minimalDeliveryOptions, Map<Set<String>, Set<String>> cache) {
-        for (String deliveryOption : productToDeliveryOptions.get(product)) {
-            Set<String> coveredProducts = findCoveredProducts(items, deliveryOption);
+    private Set<String> findMinimalDeliveryOptionsForProduct(Set<String> items, String product, Set<String> minimalDeliveryOptions, Memo memo, Deadline deadline) {
+        int productId = catalog.productId(product);
+        for (int i = 0; i < catalog.productOptionCount(productId); i++) {
+            int optionId = catalog.productOption(productId, i);
+            String deliveryOption = catalog.optionName(optionId);
+            Set<String> coveredProducts = findCoveredProducts(items, optionId);
             Set<String> remainingProducts = new HashSet<>(items);
             remainingProducts.removeAll(coveredProducts);
-            Set<String> deliveryOptionsForRemaining = findOptimalDeliveryOptions(remainingProducts, cache);
+            Set<String> deliveryOptionsForRemaining = findOptimalDeliveryOptions(remainingProducts, memo, deadline);
 
             minimalDeliveryOptions = updateMinimalDeliveryOptions(deliveryOption, deliveryOptionsForRemaining, minimalDeliveryOptions);
         }
         return minimalDeliveryOptions;
     }
 
-    private Set<String> findCoveredProducts(Set<String> items, String deliveryOption) {
+    private Set<String> findCoveredProducts(Set<String> items, int optionId) {
         Set<String> coveredProducts = new HashSet<>();
         for (String product : items) {
-            if (productToDeliveryOptions.containsKey(product) && productToDeliveryOptions.get(product).contains(deliveryOption)) {
+            int productId = catalog.productId(product);
+            if (productId >= 0 && catalog.covers(optionId, productId)) {
                 coveredProducts.add(product);
             }
         }
@@ -78,4 +129,12 @@ public class DynamicDeliveryCountMinimizer implements AbstractDeliveryCountMinim
         }
         return minimalDeliveryOptions;
     }
+
+    /**
+     * Memo of one basket, with the number of item sets visited by the recursion
+     */
+    private static final class Memo {
+        private final Map<Set<String>, Set<String>> cache = new HashMap<>();
+        private long visited;
+    }
 }
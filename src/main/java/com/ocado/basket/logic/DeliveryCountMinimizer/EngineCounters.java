@@ -0,0 +1,39 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * EngineCounters class
+ * Number of baskets each engine solved for {@link AdaptiveDeliveryCountMinimizer},
+ * shared by the minimizers of all catalog versions
+ *
+ * @version 1.0
+ */
+public class EngineCounters {
+    private final Map<DeliveryCountMinimizerType, LongAdder> calls = new EnumMap<>(DeliveryCountMinimizerType.class);
+
+    public EngineCounters() {
+        for (DeliveryCountMinimizerType type : DeliveryCountMinimizerType.values()) {
+            calls.put(type, new LongAdder());
+        }
+    }
+
+    void record(DeliveryCountMinimizerType type) {
+        calls.get(type).increment();
+    }
+
+    /**
+     * @return number of calls per engine, engines that never ran are left out
+     */
+    public Map<DeliveryCountMinimizerType, Long> snapshot() {
+        Map<DeliveryCountMinimizerType, Long> snapshot = new EnumMap<>(DeliveryCountMinimizerType.class);
+        calls.forEach((type, count) -> {
+            if (count.sum() > 0) {
+                snapshot.put(type, count.sum());
+            }
+        });
+        return snapshot;
+    }
+}
@@ -5,16 +5,31 @@ import com.google.ortools.linearsolver.MPConstraint;
 import com.google.ortools.linearsolver.MPObjective;
 import com.google.ortools.linearsolver.MPSolver;
 import com.google.ortools.linearsolver.MPVariable;
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.diagnostics.SearchEvent;
+import com.ocado.basket.dto.DeliveryCover;
 import com.ocado.basket.exceptions.InvalidItemException;
 import com.ocado.basket.exceptions.NoSolutionFoundException;
+import com.ocado.basket.logic.BasketModel;
+import com.ocado.basket.logic.Deadline;
+import com.ocado.basket.metrics.SplitMetrics;
 
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentLinkedDeque;
 
 /**
  * This class is responsible for finding the optimal delivery options for a given basket of products.
  * It uses linear programming to find the optimal delivery options.
  * It uses Google OR-Tools to solve the linear programming problem.
+ * Against a deadline the remaining time is passed to CBC as its time limit. A feasible but unproven
+ * solution is returned with the solver's best objective bound, the greedy cover is used if CBC found none.
+ * Two formulations are available:
+ * - PRODUCT_ASSIGNMENT: a variable for every delivery option of the catalog and for every product and option pair
+ * - SET_COVER: a variable for every option reachable from the basket and one covering constraint per product,
+ *   with the greedy cover as the solver hint and as an upper bound on the number of options.
+ *   Solvers are kept in a pool of idle solvers and cleared between baskets, {@link #close()} deletes them.
+ * PRODUCT_ASSIGNMENT builds a new solver for every basket and deletes it once the cover is read.
+ * The model size and the time of every solver run are reported to the {@link SplitMetrics}.
  *
  * @version 1.0
  */
@@ -23,38 +38,224 @@ public class LinearDeliveryCountMinimizer implements AbstractDeliveryCountMinimi
         Loader.loadNativeLibraries();
     }
 
-    private final Map<String, List<String>> deliveryOptions;
+    public enum Formulation {
+        PRODUCT_ASSIGNMENT,
+        SET_COVER
+    }
+
+    private final DeliveryCatalog catalog;
+    private final Formulation formulation;
+    private final SplitMetrics metrics;
+    private final List<String> allMethods;
+    private final Deque<MPSolver> idleSolvers = new ConcurrentLinkedDeque<>();
+    private volatile boolean closed;
+
+    public LinearDeliveryCountMinimizer(DeliveryCatalog catalog) {
+        this(catalog, Formulation.PRODUCT_ASSIGNMENT);
+    }
 
-    public LinearDeliveryCountMinimizer(Map<String, List<String>> deliveryOptions) {
-        this.deliveryOptions = deliveryOptions;
+    public LinearDeliveryCountMinimizer(DeliveryCatalog catalog, Formulation formulation) {
+        this(catalog, formulation, SplitMetrics.noOp());
+    }
+
+    public LinearDeliveryCountMinimizer(DeliveryCatalog catalog, Formulation formulation, SplitMetrics metrics) {
+        this.catalog = catalog;
+        this.formulation = formulation;
+        this.metrics = metrics;
+        this.allMethods = formulation == Formulation.PRODUCT_ASSIGNMENT ? getAllMethods() : List.of();
     }
 
     @Override
     public Set<String> optimizeBasket(List<String> products) {
+        if (formulation == Formulation.SET_COVER) {
+            return solveSetCover(BasketModel.of(catalog, products), Deadline.none()).getDeliveryOptions();
+        }
+        validateProducts(products);
+        return solveBasketDelivery(products.stream().distinct().toList(), allMethods);
+    }
+
+    @Override
+    public DeliveryCover optimizeBasket(List<String> products, Deadline deadline) {
+        if (formulation == Formulation.SET_COVER) {
+            return solveSetCover(BasketModel.of(catalog, products), deadline);
+        }
         validateProducts(products);
-        List<String> allMethods = getAllMethods();
-        return solveBasketDelivery(products, allMethods);
+        List<String> distinctProducts = products.stream().distinct().toList();
+        MPSolver solver = createSolver();
+        try {
+            if (deadline.isBounded()) {
+                solver.setTimeLimit(Math.max(1, deadline.remainingMillis()));
+            }
+            Map<String, MPVariable> decisionVariables = buildModel(distinctProducts, allMethods, solver);
+            MPSolver.ResultStatus resultStatus = solve(solver, distinctProducts.size(), allMethods.size());
+            if (resultStatus == MPSolver.ResultStatus.OPTIMAL) {
+                return DeliveryCover.optimal(getUsedMethods(allMethods, decisionVariables));
+            }
+            if (resultStatus == MPSolver.ResultStatus.FEASIBLE) {
+                int lowerBound = (int) Math.ceil(solver.objective().bestBound() - 1e-6);
+                return DeliveryCover.bounded(getUsedMethods(allMethods, decisionVariables), lowerBound);
+            }
+            if (resultStatus == MPSolver.ResultStatus.NOT_SOLVED || deadline.isExpired()) {
+                return AnytimeFallback.greedy(BasketModel.of(catalog, products));
+            }
+            throw new NoSolutionFoundException("No optimal solution found for the basket delivery optimization problem");
+        } finally {
+            solver.delete();
+        }
+    }
+
+    /**
+     * Deletes the idle solvers, solvers still in use are deleted when their basket is solved
+     * The minimizer keeps working afterwards, with a new solver for every basket
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (MPSolver solver = idleSolvers.poll(); solver != null; solver = idleSolvers.poll()) {
+            solver.delete();
+        }
+    }
+
+    /**
+     * Solves the SET_COVER formulation whatever the formulation of the minimizer
+     */
+    DeliveryCover solveSetCover(BasketModel basket, Deadline deadline) {
+        BranchAndBoundSolver bounds = new BranchAndBoundSolver(basket);
+        long[] all = basket.allProducts();
+        int[] greedy = bounds.greedyCover(all);
+        int lowerBound = bounds.lowerBound(all);
+        if (greedy.length <= lowerBound || deadline.isExpired()) {
+            return DeliveryCover.bounded(basket.optionNames(greedy), lowerBound);
+        }
+        MPSolver solver = acquireSolver();
+        try {
+            solver.setTimeLimit(deadline.isBounded() ? Math.max(1, deadline.remainingMillis()) : Long.MAX_VALUE);
+            MPVariable[] optionVariables = buildSetCoverModel(basket, solver, lowerBound, greedy.length);
+            solver.setHint(optionVariables, greedyHint(basket, greedy));
+            MPSolver.ResultStatus resultStatus = solve(solver, basket.productCount(), basket.optionCount());
+            if (resultStatus == MPSolver.ResultStatus.OPTIMAL) {
+                return DeliveryCover.optimal(getUsedOptions(basket, optionVariables));
+            }
+            if (resultStatus == MPSolver.ResultStatus.FEASIBLE) {
+                int solverBound = (int) Math.ceil(solver.objective().bestBound() - 1e-6);
+                return DeliveryCover.bounded(getUsedOptions(basket, optionVariables), Math.max(lowerBound, solverBound));
+            }
+            if (resultStatus == MPSolver.ResultStatus.NOT_SOLVED || deadline.isExpired()) {
+                return DeliveryCover.bounded(basket.optionNames(greedy), lowerBound);
+            }
+            throw new NoSolutionFoundException("No optimal solution found for the basket delivery optimization problem");
+        } finally {
+            releaseSolver(solver);
+        }
+    }
+
+    private MPSolver acquireSolver() {
+        MPSolver solver = idleSolvers.poll();
+        if (solver == null) {
+            return createSolver();
+        }
+        solver.clear();
+        return solver;
+    }
+
+    private void releaseSolver(MPSolver solver) {
+        idleSolvers.push(solver);
+        // close() may have drained the pool before the push, nothing would delete the solver then
+        if (closed && idleSolvers.remove(solver)) {
+            solver.delete();
+        }
+    }
+
+    private MPVariable[] buildSetCoverModel(BasketModel basket, MPSolver solver, int lowerBound, int upperBound) {
+        MPVariable[] optionVariables = new MPVariable[basket.optionCount()];
+        MPObjective objective = solver.objective();
+        MPConstraint optionCount = solver.makeConstraint(lowerBound, upperBound);
+        for (int option = 0; option < optionVariables.length; option++) {
+            optionVariables[option] = solver.makeBoolVar("x[" + option + "]");
+            objective.setCoefficient(optionVariables[option], 1);
+            optionCount.setCoefficient(optionVariables[option], 1);
+        }
+        objective.setMinimization();
+        for (int product = 0; product < basket.productCount(); product++) {
+            MPConstraint covered = solver.makeConstraint(1, Double.POSITIVE_INFINITY);
+            for (int option : basket.productOptions(product)) {
+                covered.setCoefficient(optionVariables[option], 1);
+            }
+        }
+        return optionVariables;
+    }
+
+    private static double[] greedyHint(BasketModel basket, int[] greedy) {
+        double[] hint = new double[basket.optionCount()];
+        for (int option : greedy) {
+            hint[option] = 1;
+        }
+        return hint;
+    }
+
+    private static Set<String> getUsedOptions(BasketModel basket, MPVariable[] optionVariables) {
+        Set<String> usedOptions = new HashSet<>();
+        for (int option = 0; option < optionVariables.length; option++) {
+            if (optionVariables[option].solutionValue() > 0.5) {
+                usedOptions.add(basket.optionName(option));
+            }
+        }
+        return usedOptions;
     }
 
     private void validateProducts(List<String> products) {
         for (String product : products) {
-            if (!deliveryOptions.containsKey(product)) {
+            if (catalog.productId(product) < 0) {
                 throw new InvalidItemException("Invalid item: " + product + " not found in delivery options");
             }
         }
     }
 
     private List<String> getAllMethods() {
-        return deliveryOptions.values().stream().flatMap(List::stream).distinct().collect(Collectors.toList());
+        List<String> allMethods = new ArrayList<>(catalog.optionCount());
+        for (int option = 0; option < catalog.optionCount(); option++) {
+            allMethods.add(catalog.optionName(option));
+        }
+        return allMethods;
+    }
+
+    private List<String> getProductMethods(String product) {
+        int productId = catalog.productId(product);
+        List<String> productMethods = new ArrayList<>(catalog.productOptionCount(productId));
+        for (int i = 0; i < catalog.productOptionCount(productId); i++) {
+            productMethods.add(catalog.optionName(catalog.productOption(productId, i)));
+        }
+        return productMethods;
     }
 
     private Set<String> solveBasketDelivery(List<String> allProducts, List<String> allMethods) {
         MPSolver solver = createSolver();
+        try {
+            Map<String, MPVariable> decisionVariables = buildModel(allProducts, allMethods, solver);
+            return solveProblem(allProducts, allMethods, solver, decisionVariables);
+        } finally {
+            solver.delete();
+        }
+    }
+
+    private Map<String, MPVariable> buildModel(List<String> allProducts, List<String> allMethods, MPSolver solver) {
         Map<String, MPVariable> decisionVariables = createDecisionVariables(allMethods, solver);
         Map<String, Map<String, MPVariable>> productMethodVariables = createProductMethodVariables(allProducts, solver);
         addConstraints(allProducts, solver, decisionVariables, productMethodVariables);
         setObjective(allMethods, solver, decisionVariables);
-        return solveProblem(allMethods, solver, decisionVariables);
+        return decisionVariables;
+    }
+
+    /**
+     * @param products products of the basket, reported with the options and the branch and bound nodes of the solver to the flight recorder
+     */
+    private MPSolver.ResultStatus solve(MPSolver solver, int products, int options) {
+        SearchEvent event = SearchEvent.start(DeliveryCountMinimizerType.LINEAR.name());
+        long start = System.nanoTime();
+        MPSolver.ResultStatus resultStatus = solver.solve();
+        metrics.recordLinearSolve(solver.numVariables(), solver.numConstraints(), System.nanoTime() - start);
+        event.finish(products, options, solver.nodes());
+        return resultStatus;
     }
 
     private MPSolver createSolver() {
@@ -73,7 +274,7 @@ public class LinearDeliveryCountMinimizer implements AbstractDeliveryCountMinimi
         Map<String, Map<String, MPVariable>> productMethodVariables = new HashMap<>();
         for (String product : allProducts) {
             productMethodVariables.put(product, new HashMap<>());
-            for (String method : deliveryOptions.getOrDefault(product, List.of())) {
+            for (String method : getProductMethods(product)) {
                 productMethodVariables.get(product).put(method, solver.makeIntVar(0, 1, "y[" + product + "][" + method + "]"));
             }
         }
@@ -89,13 +290,13 @@ public class LinearDeliveryCountMinimizer implements AbstractDeliveryCountMinimi
 
     private void addProductConstraint(MPSolver solver, Map<String, Map<String, MPVariable>> productMethodVariables, String product) {
         MPConstraint constraint = solver.makeConstraint(1, Double.POSITIVE_INFINITY);
-        for (String method : deliveryOptions.getOrDefault(product, List.of())) {
+        for (String method : getProductMethods(product)) {
             constraint.setCoefficient(productMethodVariables.get(product).get(method), 1);
         }
     }
 
     private void addMethodConstraint(MPSolver solver, Map<String, Map<String, MPVariable>> productMethodVariables, Map<String, MPVariable> decisionVariables, String product) {
-        for (String method : deliveryOptions.getOrDefault(product, List.of())) {
+        for (String method : getProductMethods(product)) {
             MPConstraint constraint = solver.makeConstraint(-1, 0);
             constraint.setCoefficient(productMethodVariables.get(product).get(method), 1);
             constraint.setCoefficient(decisionVariables.get(method), -1);
@@ -110,8 +311,8 @@ public class LinearDeliveryCountMinimizer implements AbstractDeliveryCountMinimi
         objective.setMinimization();
     }
 
-    private Set<String> solveProblem(List<String> allMethods, MPSolver solver, Map<String, MPVariable> decisionVariables) {
-        MPSolver.ResultStatus resultStatus = solver.solve();
+    private Set<String> solveProblem(List<String> allProducts, List<String> allMethods, MPSolver solver, Map<String, MPVariable> decisionVariables) {
+        MPSolver.ResultStatus resultStatus = solve(solver, allProducts.size(), allMethods.size());
         if (resultStatus == MPSolver.ResultStatus.OPTIMAL) {
             return getUsedMethods(allMethods, decisionVariables);
         } else {
@@ -0,0 +1,79 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import java.util.Arrays;
+
+/**
+ * LongMaskMemo class
+ * Open addressing memo table keyed by a single-word product mask.
+ * The empty mask is never stored (it is the recursion base case), so 0 marks a free slot.
+ *
+ * @version 1.0
+ */
+class LongMaskMemo {
+    static final long MISSING = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private long[] keys;
+    private long[] values;
+    private int size;
+
+    LongMaskMemo() {
+        keys = new long[INITIAL_CAPACITY];
+        values = new long[INITIAL_CAPACITY];
+    }
+
+    long get(long mask) {
+        int slotMask = keys.length - 1;
+        for (int slot = hash(mask) & slotMask; ; slot = (slot + 1) & slotMask) {
+            if (keys[slot] == mask) {
+                return values[slot];
+            }
+            if (keys[slot] == 0) {
+                return MISSING;
+            }
+        }
+    }
+
+    void put(long mask, long value) {
+        if ((size + 1) * 2 > keys.length) {
+            grow();
+        }
+        int slotMask = keys.length - 1;
+        int slot = hash(mask) & slotMask;
+        while (keys[slot] != 0 && keys[slot] != mask) {
+            slot = (slot + 1) & slotMask;
+        }
+        if (keys[slot] == 0) {
+            size++;
+        }
+        keys[slot] = mask;
+        values[slot] = value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new long[oldValues.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int hash(long mask) {
+        long mixed = mask * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+}
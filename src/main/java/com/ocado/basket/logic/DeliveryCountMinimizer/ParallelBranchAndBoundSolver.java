@@ -0,0 +1,345 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import com.ocado.basket.logic.BasketModel;
+import com.ocado.basket.logic.Bitsets;
+import com.ocado.basket.logic.Deadline;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ParallelBranchAndBoundSolver class
+ * The search of {@link BranchAndBoundSolver} split into fork-join tasks, for single large baskets:
+ * - a node of the top forkDepth levels with at least sequentialThreshold uncovered products forks one task per branch option,
+ *   below them a task searches its subtree by sequential recursion on its own scratch buffers
+ * - the incumbent is shared, a cover found by one worker prunes the branches of all the others
+ * - the sets of uncovered products already searched are shared in a memo, a set reached again at the same depth
+ *   later in the search order, or deeper, is skipped; the memo stops growing at {@link #MEMO_CAPACITY} sets
+ * Covers of the same size are ranked by the order in which the sequential search visits them (the indexes of the chosen
+ * branches), and a branch is only cut on a tie when it comes after the incumbent. So whatever the scheduling, the result
+ * is the cover {@link BranchAndBoundSolver} returns: the first incumbent if it is minimum, otherwise the first minimum cover
+ * in depth first order.
+ * Runs one solve at a time.
+ *
+ * @version 1.0
+ */
+public final class ParallelBranchAndBoundSolver {
+    public static final int DEFAULT_FORK_DEPTH = 3;
+    public static final int DEFAULT_SEQUENTIAL_THRESHOLD = 24;
+    private static final int MEMO_CAPACITY = 1 << 18;
+    private static final int DEADLINE_CHECK_INTERVAL = 1 << 8;
+
+    private final BasketModel model;
+    private final BranchAndBoundSolver bounds;
+    private final ForkJoinPool pool;
+    private final int forkDepth;
+    private final int sequentialThreshold;
+
+    private final AtomicReference<Incumbent> best = new AtomicReference<>();
+    private final Map<Key, Visit> memo = new ConcurrentHashMap<>();
+    private final LongAdder visitedNodes = new LongAdder();
+    private int maxDepth;
+    private Deadline deadline;
+    private volatile boolean expired;
+
+    public ParallelBranchAndBoundSolver(BasketModel model, ForkJoinPool pool) {
+        this(model, pool, DEFAULT_FORK_DEPTH, DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+    /**
+     * @param forkDepth number of top levels of the search tree whose nodes fork a task per branch
+     * @param sequentialThreshold nodes with fewer uncovered products are searched sequentially
+     */
+    public ParallelBranchAndBoundSolver(BasketModel model, ForkJoinPool pool, int forkDepth, int sequentialThreshold) {
+        if (forkDepth < 0 || sequentialThreshold < 0) {
+            throw new IllegalArgumentException("Fork depth and sequential threshold must not be negative");
+        }
+        this.model = model;
+        this.bounds = new BranchAndBoundSolver(model);
+        this.pool = pool;
+        this.forkDepth = forkDepth;
+        this.sequentialThreshold = sequentialThreshold;
+    }
+
+    /**
+     * @return local ids of the options of a minimum cover, the one {@link BranchAndBoundSolver#solve()} returns
+     */
+    public int[] solve() {
+        return solve(greedyCover(model.allProducts()), Deadline.none());
+    }
+
+    /**
+     * @param incumbent local ids of the options of any cover of the basket, the search only looks for smaller ones
+     * @param deadline the search stops when it expires
+     * @return local ids of the options of the best cover found, minimum if {@link #isOptimal()}
+     */
+    public int[] solve(int[] incumbent, Deadline deadline) {
+        best.set(new Incumbent(incumbent.clone(), null));
+        memo.clear();
+        visitedNodes.reset();
+        maxDepth = Math.max(1, incumbent.length);
+        this.deadline = deadline;
+        expired = false;
+        long[] all = model.allProducts();
+        if (forks(0, all)) {
+            pool.invoke(new Branch(all, new int[0], new int[0]));
+        } else {
+            new Worker(all, new int[0], new int[0]).search(0);
+        }
+        return best.get().options;
+    }
+
+    /**
+     * @return true if the last solve completed the search, so its cover is minimum
+     */
+    public boolean isOptimal() {
+        return !expired;
+    }
+
+    /**
+     * @return number of search nodes visited by the last solve, over all workers
+     */
+    public long visitedNodes() {
+        return visitedNodes.sum();
+    }
+
+    /**
+     * @return number of uncovered product sets in the memo of the last solve
+     */
+    public int memoSize() {
+        return memo.size();
+    }
+
+    public int[] greedyCover(long[] products) {
+        return bounds.greedyCover(products);
+    }
+
+    public int lowerBound(long[] uncovered) {
+        return bounds.lowerBound(uncovered);
+    }
+
+    private boolean forks(int depth, long[] uncovered) {
+        return depth < forkDepth && Bitsets.cardinality(uncovered) >= sequentialThreshold;
+    }
+
+    /**
+     * @return true if the node has to be expanded: it is not a cover, its branches can still beat the incumbent
+     * and no other worker has searched or is searching the same uncovered products ahead of it
+     */
+    private boolean visit(long[] uncovered, int depth, int[] chosen, int[] path) {
+        if (expired) {
+            return false;
+        }
+        if (Bitsets.isEmpty(uncovered)) {
+            offer(chosen, path, depth);
+            return false;
+        }
+        Incumbent incumbent = best.get();
+        if (!incumbent.canBeBeaten(depth + 1, path, depth)
+                || !incumbent.canBeBeaten(depth + bounds.lowerBound(uncovered), path, depth)) {
+            return false;
+        }
+        return depth == 0 || claim(uncovered, depth, path);
+    }
+
+    private void offer(int[] chosen, int[] path, int size) {
+        Incumbent candidate = null;
+        for (Incumbent current = best.get(); current.canBeBeaten(size, path, size); current = best.get()) {
+            if (candidate == null) {
+                candidate = new Incumbent(Arrays.copyOf(chosen, size), Arrays.copyOf(path, size));
+            }
+            if (best.compareAndSet(current, candidate)) {
+                return;
+            }
+        }
+    }
+
+    private boolean claim(long[] uncovered, int depth, int[] path) {
+        if (memo.size() >= MEMO_CAPACITY) {
+            Visit stored = memo.get(new Key(uncovered));
+            return stored == null || !stored.isAhead(depth, path);
+        }
+        Visit visit = new Visit(depth, Arrays.copyOf(path, depth));
+        return memo.merge(new Key(uncovered.clone()), visit, (stored, next) -> stored.isAhead(next.depth, next.path) ? stored : next) == visit;
+    }
+
+    /**
+     * @return negative, zero or positive as the first length branch indexes of the first path come before, are equal to
+     * or come after those of the second
+     */
+    private static int compare(int[] first, int[] second, int length) {
+        return Arrays.compare(first, 0, length, second, 0, length);
+    }
+
+    private static int[] append(int[] array, int value) {
+        int[] appended = Arrays.copyOf(array, array.length + 1);
+        appended[array.length] = value;
+        return appended;
+    }
+
+    /**
+     * Node of the top levels, forking a task per branch
+     */
+    @SuppressWarnings("serial")
+    private final class Branch extends RecursiveAction {
+        private final long[] uncovered;
+        private final int[] chosen;
+        private final int[] path;
+
+        Branch(long[] uncovered, int[] chosen, int[] path) {
+            this.uncovered = uncovered;
+            this.chosen = chosen;
+            this.path = path;
+        }
+
+        @Override
+        protected void compute() {
+            int depth = chosen.length;
+            visitedNodes.increment();
+            if (deadline.isExpired()) {
+                expired = true;
+            }
+            if (!visit(uncovered, depth, chosen, path)) {
+                return;
+            }
+            if (!forks(depth, uncovered)) {
+                new Worker(uncovered, chosen, path).expand(depth);
+                return;
+            }
+            int product = bounds.mostConstrainedProduct(uncovered);
+            int[] options = new int[model.productOptions(product).length];
+            bounds.orderBranchOptions(product, uncovered, options);
+            List<Branch> children = new ArrayList<>(options.length);
+            for (int i = 0; i < options.length; i++) {
+                long[] remaining = new long[model.words()];
+                Bitsets.andNot(uncovered, model.coverage(options[i]), remaining);
+                children.add(new Branch(remaining, append(chosen, options[i]), append(path, i)));
+            }
+            invokeAll(children);
+        }
+    }
+
+    /**
+     * Sequential recursion below a node, with its own scratch buffers, one depth level per chosen option
+     */
+    private final class Worker {
+        private final long[][] uncoveredAtDepth = new long[maxDepth + 1][];
+        private final int[][] branchOptions = new int[maxDepth][];
+        private final int[] chosen;
+        private final int[] path;
+        private long nodes;
+
+        Worker(long[] uncovered, int[] chosenPrefix, int[] pathPrefix) {
+            int depth = chosenPrefix.length;
+            this.chosen = Arrays.copyOf(chosenPrefix, maxDepth);
+            this.path = Arrays.copyOf(pathPrefix, maxDepth);
+            uncoveredAtDepth[depth] = uncovered;
+            for (int level = depth + 1; level <= maxDepth; level++) {
+                uncoveredAtDepth[level] = new long[model.words()];
+            }
+        }
+
+        void search(int depth) {
+            searchNode(depth);
+            visitedNodes.add(nodes);
+        }
+
+        void expand(int depth) {
+            expandNode(depth);
+            visitedNodes.add(nodes);
+        }
+
+        private void searchNode(int depth) {
+            if (++nodes % DEADLINE_CHECK_INTERVAL == 0 && deadline.isExpired()) {
+                expired = true;
+            }
+            if (visit(uncoveredAtDepth[depth], depth, chosen, path)) {
+                expandNode(depth);
+            }
+        }
+
+        private void expandNode(int depth) {
+            long[] uncovered = uncoveredAtDepth[depth];
+            int product = bounds.mostConstrainedProduct(uncovered);
+            int optionCount = model.productOptions(product).length;
+            int[] options = branchOptions[depth];
+            if (options == null || options.length < optionCount) {
+                options = new int[optionCount];
+                branchOptions[depth] = options;
+            }
+            bounds.orderBranchOptions(product, uncovered, options);
+            for (int i = 0; i < optionCount; i++) {
+                chosen[depth] = options[i];
+                path[depth] = i;
+                Bitsets.andNot(uncovered, model.coverage(options[i]), uncoveredAtDepth[depth + 1]);
+                searchNode(depth + 1);
+                if (expired || !best.get().canBeBeaten(depth + bounds.lowerBound(uncovered), path, depth)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Best cover found so far, with the branch indexes leading to it, null for the first incumbent which wins every tie
+     */
+    private record Incumbent(int[] options, int[] path) {
+
+        /**
+         * @return true if a cover of the given size, reached through the first depth branches of the path,
+         * can be better than this one: smaller, or of the same size and earlier in the search order
+         */
+        boolean canBeBeaten(int size, int[] branches, int depth) {
+            if (size != options.length) {
+                return size < options.length;
+            }
+            if (path == null) {
+                return false;
+            }
+            int common = Math.min(depth, path.length);
+            int order = compare(branches, path, common);
+            return order < 0 || order == 0 && depth < path.length;
+        }
+    }
+
+    /**
+     * Earliest node that reached a set of uncovered products
+     */
+    private record Visit(int depth, int[] path) {
+
+        /**
+         * @return true if this node comes before a node reaching the same products at the given depth through the given path,
+         * so searching that one again cannot find an earlier cover
+         */
+        boolean isAhead(int otherDepth, int[] otherPath) {
+            return depth < otherDepth || depth == otherDepth && compare(path, otherPath, depth) <= 0;
+        }
+    }
+
+    private static final class Key {
+        private final long[] products;
+        private final int hash;
+
+        Key(long[] products) {
+            this.products = products;
+            this.hash = Arrays.hashCode(products);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key && hash == key.hash && Arrays.equals(products, key.products);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
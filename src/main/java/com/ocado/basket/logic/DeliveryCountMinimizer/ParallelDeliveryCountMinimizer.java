@@ -0,0 +1,76 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.diagnostics.SearchEvent;
+import com.ocado.basket.dto.DeliveryCover;
+import com.ocado.basket.logic.BasketModel;
+import com.ocado.basket.logic.Deadline;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * This class is responsible for finding the optimal delivery options for a given basket of products.
+ * It runs a {@link ParallelBranchAndBoundSolver} on the bitset model of the basket, so the search of a single large basket
+ * is spread over the threads of a fork-join pool. It returns the same covers as {@link BranchAndBoundDeliveryCountMinimizer},
+ * baskets with fewer products than the sequential threshold are searched on the calling thread.
+ * Against a deadline it returns the best cover found so far, starting from the greedy one.
+ *
+ * @version 1.0
+ */
+public class ParallelDeliveryCountMinimizer implements AbstractDeliveryCountMinimizer {
+    private final DeliveryCatalog catalog;
+    private final ForkJoinPool pool;
+    private final int forkDepth;
+    private final int sequentialThreshold;
+
+    public ParallelDeliveryCountMinimizer(DeliveryCatalog catalog) {
+        this(catalog, ForkJoinPool.commonPool());
+    }
+
+    public ParallelDeliveryCountMinimizer(DeliveryCatalog catalog, ForkJoinPool pool) {
+        this(catalog, pool, ParallelBranchAndBoundSolver.DEFAULT_FORK_DEPTH, ParallelBranchAndBoundSolver.DEFAULT_SEQUENTIAL_THRESHOLD);
+    }
+
+    /**
+     * @param forkDepth number of top levels of the search tree whose nodes fork a task per branch
+     * @param sequentialThreshold nodes with fewer uncovered products are searched sequentially
+     */
+    public ParallelDeliveryCountMinimizer(DeliveryCatalog catalog, ForkJoinPool pool, int forkDepth, int sequentialThreshold) {
+        this.catalog = catalog;
+        this.pool = pool;
+        this.forkDepth = forkDepth;
+        this.sequentialThreshold = sequentialThreshold;
+    }
+
+    @Override
+    public Set<String> optimizeBasket(List<String> products) {
+        BasketModel basket = BasketModel.of(catalog, products);
+        if (basket.productCount() == 0) {
+            return new HashSet<>();
+        }
+        ParallelBranchAndBoundSolver solver = solver(basket);
+        SearchEvent event = SearchEvent.start(DeliveryCountMinimizerType.PARALLEL_BRANCH_AND_BOUND.name());
+        int[] cover = solver.solve();
+        event.finish(basket.productCount(), basket.optionCount(), solver.visitedNodes());
+        return basket.optionNames(cover);
+    }
+
+    @Override
+    public DeliveryCover optimizeBasket(List<String> products, Deadline deadline) {
+        BasketModel basket = BasketModel.of(catalog, products);
+        ParallelBranchAndBoundSolver solver = solver(basket);
+        long[] all = basket.allProducts();
+        SearchEvent event = SearchEvent.start(DeliveryCountMinimizerType.PARALLEL_BRANCH_AND_BOUND.name());
+        int[] cover = solver.solve(solver.greedyCover(all), deadline);
+        event.finish(basket.productCount(), basket.optionCount(), solver.visitedNodes());
+        Set<String> deliveryOptions = basket.optionNames(cover);
+        return solver.isOptimal() ? DeliveryCover.optimal(deliveryOptions) : DeliveryCover.bounded(deliveryOptions, solver.lowerBound(all));
+    }
+
+    private ParallelBranchAndBoundSolver solver(BasketModel basket) {
+        return new ParallelBranchAndBoundSolver(basket, pool, forkDepth, sequentialThreshold);
+    }
+}
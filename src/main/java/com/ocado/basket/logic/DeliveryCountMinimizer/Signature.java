@@ -0,0 +1,22 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import java.util.Arrays;
+
+/**
+ * Signature record
+ * Sorted delivery option ids of a product, products with equal signatures are interchangeable for the set cover
+ * Equality and hash code compare the ids, not the array instance
+ *
+ * @version 1.0
+ */
+record Signature(int[] options) {
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Signature signature && Arrays.equals(options, signature.options);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(options);
+    }
+}
@@ -0,0 +1,69 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.dto.DeliveryCover;
+import com.ocado.basket.logic.Deadline;
+
+import java.util.*;
+
+/**
+ * This class collapses the basket before it is passed to another minimizer.
+ * Products with exactly the same set of delivery options are interchangeable for the set cover:
+ * an option covers either all of them or none. Only one representative per option signature is kept,
+ * so the wrapped minimizer works on the (often much smaller) set of signatures.
+ * The cover found for the representatives covers every product, so {@code ItemsCountMaximizer}
+ * still assigns the full basket.
+ *
+ * @version 1.0
+ */
+public class SignatureCollapsingDeliveryCountMinimizer implements AbstractDeliveryCountMinimizer {
+
+    private final DeliveryCatalog catalog;
+    private final AbstractDeliveryCountMinimizer delegate;
+
+    public SignatureCollapsingDeliveryCountMinimizer(DeliveryCatalog catalog, AbstractDeliveryCountMinimizer delegate) {
+        this.catalog = catalog;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Set<String> optimizeBasket(List<String> products) {
+        return delegate.optimizeBasket(collapse(products));
+    }
+
+    @Override
+    public DeliveryCover optimizeBasket(List<String> products, Deadline deadline) {
+        return delegate.optimizeBasket(collapse(products), deadline);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    /**
+     * @return one product per distinct option signature, unknown products are kept so the delegate reports them
+     */
+    List<String> collapse(List<String> products) {
+        Map<Signature, String> representatives = new LinkedHashMap<>();
+        List<String> collapsed = new ArrayList<>();
+        for (String product : products) {
+            int productId = catalog.productId(product);
+            if (productId < 0) {
+                collapsed.add(product);
+            } else if (representatives.putIfAbsent(signatureOf(productId), product) == null) {
+                collapsed.add(product);
+            }
+        }
+        return collapsed;
+    }
+
+    private Signature signatureOf(int productId) {
+        int[] options = new int[catalog.productOptionCount(productId)];
+        for (int i = 0; i < options.length; i++) {
+            options[i] = catalog.productOption(productId, i);
+        }
+        Arrays.sort(options);
+        return new Signature(options);
+    }
+}
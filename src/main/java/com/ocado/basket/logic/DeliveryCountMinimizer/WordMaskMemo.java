@@ -0,0 +1,104 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import java.util.Arrays;
+
+/**
+ * WordMaskMemo class
+ * Open addressing memo table keyed by a multi-word product mask, used when a basket has more than 64 products.
+ * Keys are stored flat in a single long array; an all-zero key marks a free slot.
+ *
+ * @version 1.0
+ */
+class WordMaskMemo {
+    static final long MISSING = Long.MIN_VALUE;
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final int words;
+    private long[] keys;
+    private long[] values;
+    private int size;
+
+    WordMaskMemo(int words) {
+        this.words = words;
+        keys = new long[INITIAL_CAPACITY * words];
+        values = new long[INITIAL_CAPACITY];
+    }
+
+    long get(long[] mask) {
+        int slotMask = values.length - 1;
+        for (int slot = hash(mask, 0, words) & slotMask; ; slot = (slot + 1) & slotMask) {
+            if (isFree(keys, slot)) {
+                return MISSING;
+            }
+            if (keyEquals(slot, mask)) {
+                return values[slot];
+            }
+        }
+    }
+
+    void put(long[] mask, long value) {
+        if ((size + 1) * 2 > values.length) {
+            grow();
+        }
+        int slot = findSlot(keys, values.length, mask, 0);
+        if (isFree(keys, slot)) {
+            System.arraycopy(mask, 0, keys, slot * words, words);
+            size++;
+        }
+        values[slot] = value;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(keys, 0);
+        size = 0;
+    }
+
+    private int findSlot(long[] table, int capacity, long[] key, int keyOffset) {
+        int slotMask = capacity - 1;
+        int slot = hash(key, keyOffset, words) & slotMask;
+        while (!isFree(table, slot) && !Arrays.equals(table, slot * words, slot * words + words, key, keyOffset, keyOffset + words)) {
+            slot = (slot + 1) & slotMask;
+        }
+        return slot;
+    }
+
+    private boolean keyEquals(int slot, long[] mask) {
+        return Arrays.equals(keys, slot * words, slot * words + words, mask, 0, words);
+    }
+
+    private boolean isFree(long[] table, int slot) {
+        for (int i = slot * words, end = i + words; i < end; i++) {
+            if (table[i] != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        int capacity = oldValues.length * 2;
+        keys = new long[capacity * words];
+        values = new long[capacity];
+        for (int i = 0; i < oldValues.length; i++) {
+            if (!isFree(oldKeys, i)) {
+                int slot = findSlot(keys, capacity, oldKeys, i * words);
+                System.arraycopy(oldKeys, i * words, keys, slot * words, words);
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int hash(long[] mask, int offset, int words) {
+        long mixed = 0;
+        for (int i = offset; i < offset + words; i++) {
+            mixed = (mixed ^ mask[i]) * 0x9E3779B97F4A7C15L;
+        }
+        return (int) (mixed ^ (mixed >>> 32));
+    }
+}
@@ -0,0 +1,270 @@
+package com.ocado.basket.logic;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.exceptions.InvalidItemException;
+
+import java.util.*;
+
+/**
+ * GreedyAssignment class
+ * Incremental engine behind {@link ItemsCountMaximizer#optimizeDeliveryItems}.
+ * Every (item, selected option) pair is stored once in flat arrays, in both directions, and visited at most
+ * three times: when it is indexed, when its option is picked and when its item is assigned. Remaining item
+ * counts are primitive ints kept in an indexed max-heap, so picking the next option never rescans the items.
+ *
+ * The step by step implementation picks the first option with the maximal count in the iteration order of its
+ * {@code HashMap<String, Long>}, filled while reading the products in {@link ConfigOrder} and copied once per round.
+ * To return exactly the same split on every JDK, a tie between options covering as many remaining items is decided
+ * by building that map: the first tie replays the counting calls, later ties only replay the copies of the rounds
+ * since the previous one. Baskets without ties never build it.
+ *
+ * @version 1.0
+ */
+final class GreedyAssignment {
+    private final String[] items;
+    private final List<String> optionNames = new ArrayList<>();
+    private final Map<String, Integer> localIds = new HashMap<>();
+    private final ConfigOrder configOrder;
+    private final int[] itemOptionStarts;
+    private int[] itemOptions;
+    private int[] optionItemStarts;
+    private int[] optionItems;
+    private int[] counts;
+    private final boolean[] assigned;
+
+    private int[] heap;
+    private int[] heapPosition;
+    private int heapSize;
+    private boolean[] tied;
+    private final List<String> picks = new ArrayList<>();
+    private Map<String, Long> replayedCounts;
+    private int replayedRounds;
+
+    private GreedyAssignment(DeliveryCatalog catalog, List<String> itemSet, Set<String> optimalDeliveries) {
+        this.items = new HashSet<>(itemSet).toArray(new String[0]);
+        this.itemOptionStarts = new int[items.length + 1];
+        this.assigned = new boolean[items.length];
+        this.configOrder = new ConfigOrder(catalog);
+        index(catalog, optimalDeliveries);
+    }
+
+    static Map<String, List<String>> assign(DeliveryCatalog catalog, List<String> itemSet, Set<String> optimalDeliveries) {
+        return new GreedyAssignment(catalog, itemSet, optimalDeliveries).run();
+    }
+
+    private void index(DeliveryCatalog catalog, Set<String> optimalDeliveries) {
+        itemOptions = new int[Math.max(4, items.length)];
+        int pairs = 0;
+        for (int item = 0; item < items.length; item++) {
+            itemOptionStarts[item] = pairs;
+            int product = catalog.productId(items[item]);
+            int optionCount = product < 0 ? 0 : catalog.productOptionCount(product);
+            for (int i = 0; i < optionCount; i++) {
+                String deliveryOption = catalog.optionName(catalog.productOption(product, i));
+                if (optimalDeliveries.contains(deliveryOption)) {
+                    Integer local = localIds.get(deliveryOption);
+                    if (local == null) {
+                        local = optionNames.size();
+                        localIds.put(deliveryOption, local);
+                        optionNames.add(deliveryOption);
+                    }
+                    if (pairs == itemOptions.length) {
+                        itemOptions = Arrays.copyOf(itemOptions, pairs * 2);
+                    }
+                    itemOptions[pairs++] = local;
+                }
+            }
+        }
+        itemOptionStarts[items.length] = pairs;
+
+        counts = new int[optionNames.size()];
+        for (int pair = 0; pair < pairs; pair++) {
+            counts[itemOptions[pair]]++;
+        }
+        optionItemStarts = new int[optionNames.size() + 1];
+        for (int option = 0; option < counts.length; option++) {
+            optionItemStarts[option + 1] = optionItemStarts[option] + counts[option];
+        }
+        optionItems = new int[pairs];
+        int[] fill = Arrays.copyOf(optionItemStarts, counts.length);
+        for (int item = 0; item < items.length; item++) {
+            for (int pair = itemOptionStarts[item]; pair < itemOptionStarts[item + 1]; pair++) {
+                optionItems[fill[itemOptions[pair]]++] = item;
+            }
+        }
+    }
+
+    private Map<String, List<String>> run() {
+        Map<String, List<String>> splitDeliveries = new HashMap<>();
+        buildHeap();
+        while (heapSize > 0) {
+            int option = nextOption();
+            remove(heapPosition[option]);
+            picks.add(optionNames.get(option));
+            splitDeliveries.put(optionNames.get(option), assignItems(option));
+        }
+        validateAssigned();
+        return splitDeliveries;
+    }
+
+    private List<String> assignItems(int option) {
+        List<String> deliveryItems = new ArrayList<>();
+        for (int pair = optionItemStarts[option]; pair < optionItemStarts[option + 1]; pair++) {
+            int item = optionItems[pair];
+            if (assigned[item]) {
+                continue;
+            }
+            assigned[item] = true;
+            deliveryItems.add(items[item]);
+            for (int itemPair = itemOptionStarts[item]; itemPair < itemOptionStarts[item + 1]; itemPair++) {
+                decrement(itemOptions[itemPair]);
+            }
+        }
+        return Collections.unmodifiableList(deliveryItems);
+    }
+
+    private void validateAssigned() {
+        List<String> remainingItems = new ArrayList<>();
+        for (int item = 0; item < items.length; item++) {
+            if (!assigned[item]) {
+                remainingItems.add(items[item]);
+            }
+        }
+        if (!remainingItems.isEmpty()) {
+            throw new InvalidItemException("Invalid items: " + remainingItems + " not found in delivery options");
+        }
+    }
+
+    /**
+     * @return option with the most remaining items, the first one in the order of the step by step map on a tie
+     */
+    private int nextOption() {
+        int top = heap[0];
+        if (!hasTiedChild(0)) {
+            return top;
+        }
+        markTied(0, counts[top]);
+        int next = top;
+        for (String deliveryOption : replayCounts().keySet()) {
+            int option = localIds.get(deliveryOption);
+            if (tied[option]) {
+                next = option;
+                break;
+            }
+        }
+        Arrays.fill(tied, false);
+        return next;
+    }
+
+    private boolean hasTiedChild(int position) {
+        int left = 2 * position + 1;
+        return left < heapSize && counts[heap[left]] == counts[heap[position]]
+                || left + 1 < heapSize && counts[heap[left + 1]] == counts[heap[position]];
+    }
+
+    /**
+     * Marks the options of the subtree holding the given count, the heap keeps every other option below them
+     */
+    private void markTied(int position, int count) {
+        if (position >= heapSize || counts[heap[position]] != count) {
+            return;
+        }
+        tied[heap[position]] = true;
+        markTied(2 * position + 1, count);
+        markTied(2 * position + 2, count);
+    }
+
+    /**
+     * @return step by step map of the current round, only its keys and their order are kept
+     */
+    private Map<String, Long> replayCounts() {
+        if (replayedCounts == null) {
+            replayedCounts = new HashMap<>();
+            Integer[] order = new Integer[items.length];
+            long[] ranks = new long[items.length];
+            for (int item = 0; item < items.length; item++) {
+                order[item] = item;
+                ranks[item] = configOrder.rank(items[item]);
+            }
+            Arrays.sort(order, Comparator.comparingLong(item -> ranks[item]));
+            for (int item : order) {
+                for (int pair = itemOptionStarts[item]; pair < itemOptionStarts[item + 1]; pair++) {
+                    // the counting collector calls computeIfAbsent for every pair, which may grow the table
+                    replayedCounts.computeIfAbsent(optionNames.get(itemOptions[pair]), key -> 0L);
+                }
+            }
+        }
+        for (; replayedRounds < picks.size(); replayedRounds++) {
+            replayedCounts = new HashMap<>(replayedCounts);
+            replayedCounts.remove(picks.get(replayedRounds));
+        }
+        return replayedCounts;
+    }
+
+    private void buildHeap() {
+        int size = optionNames.size();
+        tied = new boolean[size];
+        heap = new int[size];
+        heapPosition = new int[size];
+        for (int option = 0; option < size; option++) {
+            heap[option] = option;
+            heapPosition[option] = option;
+        }
+        heapSize = size;
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    private void decrement(int option) {
+        counts[option]--;
+        int position = heapPosition[option];
+        if (position >= 0) {
+            siftDown(position);
+        }
+    }
+
+    /**
+     * Removes the option at the given position, options are only removed when they hold the maximal count,
+     * so the last option moved there never needs to go up
+     */
+    private void remove(int position) {
+        heapPosition[heap[position]] = -1;
+        heapSize--;
+        if (position < heapSize) {
+            heap[position] = heap[heapSize];
+            heapPosition[heap[position]] = position;
+            siftDown(position);
+        }
+    }
+
+    /**
+     * @return true if the first option is picked before the second, ties are decided by {@link #nextOption}
+     */
+    private boolean before(int first, int second) {
+        return counts[first] > counts[second];
+    }
+
+    private void siftDown(int position) {
+        while (true) {
+            int left = 2 * position + 1;
+            if (left >= heapSize) {
+                return;
+            }
+            int best = left + 1 < heapSize && before(heap[left + 1], heap[left]) ? left + 1 : left;
+            if (!before(heap[best], heap[position])) {
+                return;
+            }
+            swap(position, best);
+            position = best;
+        }
+    }
+
+    private void swap(int first, int second) {
+        int option = heap[first];
+        heap[first] = heap[second];
+        heap[second] = option;
+        heapPosition[heap[first]] = first;
+        heapPosition[heap[second]] = second;
+    }
+}
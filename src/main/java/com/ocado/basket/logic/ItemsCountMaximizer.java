@@ -1,11 +1,12 @@
 package com.ocado.basket.logic;
 
+import com.ocado.basket.catalog.DeliveryCatalog;
 import com.ocado.basket.dto.DeliveryInfoDto;
-import com.ocado.basket.exceptions.InvalidItemException;
 
 import java.util.*;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * This class is responsible for maximizing the number of items in the biggest delivery option
@@ -14,41 +15,37 @@ import java.util.stream.Collectors;
  * @version 1.0
  */
 public class ItemsCountMaximizer {
-    private final Map<String, List<String>> deliveryOptions;
+    private final DeliveryCatalog catalog;
 
-    public ItemsCountMaximizer(Map<String, List<String>> deliveryOptions) {
-        this.deliveryOptions = deliveryOptions;
+    public ItemsCountMaximizer(DeliveryCatalog catalog) {
+        this.catalog = catalog;
     }
 
     // greedy maximize number of items in single delivery
     public Map<String, List<String>> optimizeDeliveryItems(List<String> itemSet, Set<String> optimalDeliveries) {
-        Set<String> remainingItems = new HashSet<>(itemSet);
-        Map<String, List<String>> splitDeliveries = new HashMap<>();
-        Map<String, Long> deliveryCounts = countDeliveryOptions(remainingItems, optimalDeliveries);
-        while(!deliveryCounts.isEmpty()){
-            DeliveryInfoDto maxDeliveryOption = computeMaxDeliveryOption(deliveryCounts, remainingItems);
-            splitDeliveries.put(maxDeliveryOption.getDeliveryName(), maxDeliveryOption.getDeliveryItems());
-            maxDeliveryOption.getDeliveryItems().forEach(remainingItems::remove);
-            deliveryCounts = updateDeliveryCounts(deliveryCounts, maxDeliveryOption, optimalDeliveries);
-        }
-        validateRemainingItems(remainingItems);
-        return splitDeliveries;
-    }
-
-    private static void validateRemainingItems(Set<String> remainingItems) {
-        if(!remainingItems.isEmpty()){
-            throw new InvalidItemException("Invalid items: " + remainingItems + " not found in delivery options");
-        }
+        return GreedyAssignment.assign(catalog, itemSet, optimalDeliveries);
     }
 
+    /**
+     * Products are read in the order of the config map, see {@link ConfigOrder}
+     */
     public Map<String, Long> countDeliveryOptions(Set<String> itemSet, Set<String> optimalDeliveries) {
-        return deliveryOptions.entrySet().stream()
-                .filter(entry -> itemSet.contains(entry.getKey()))
-                .flatMap(entry -> entry.getValue().stream())
+        ConfigOrder configOrder = new ConfigOrder(catalog);
+        return itemSet.stream()
+                .filter(item -> catalog.productId(item) >= 0)
+                .sorted(Comparator.comparingLong(configOrder::rank))
+                .flatMap(item -> {
+                    int product = catalog.productId(item);
+                    return IntStream.range(0, catalog.productOptionCount(product))
+                            .mapToObj(i -> catalog.optionName(catalog.productOption(product, i)));
+                })
                 .filter(optimalDeliveries::contains)
                 .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
     }
 
+    /**
+     * @return delivery option with the most items among the counted ones, the first one in the iteration order of the map on a tie
+     */
     public DeliveryInfoDto computeMaxDeliveryOption(Map<String, Long> deliveryCounts, Set<String> itemSet){
         Map.Entry<String, Long> maxDeliveryOptionEntry = getMaxDeliveryOption(deliveryCounts);
         String maxDeliveryOption = maxDeliveryOptionEntry.getKey();
@@ -61,17 +58,26 @@ public class ItemsCountMaximizer {
     }
 
     private List<String> getItemsWithMaxDeliveryOption(Set<String> itemSet, String maxDeliveryOption) {
+        int option = catalog.optionId(maxDeliveryOption);
         return itemSet.stream()
-                .filter(deliveryOptions::containsKey)
-                .filter(item -> deliveryOptions.get(item).contains(maxDeliveryOption))
+                .filter(item -> {
+                    int product = catalog.productId(item);
+                    return product >= 0 && catalog.covers(option, product);
+                })
                 .toList();
     }
 
     public Map<String, Long> updateDeliveryCounts(Map<String, Long> deliveryCounts, DeliveryInfoDto maxDelivery, Set<String> optimalDeliveries) {
         Map<String, Long> newDeliveryCounts = new HashMap<>(deliveryCounts);
-        maxDelivery.getDeliveryItems().forEach(
-                item -> deliveryOptions.get(item).stream().filter(optimalDeliveries::contains).forEach(
-                        deliveryOption -> newDeliveryCounts.put(deliveryOption, newDeliveryCounts.get(deliveryOption) - 1)));
+        for (String item : maxDelivery.getDeliveryItems()) {
+            int product = catalog.productId(item);
+            for (int i = 0; i < catalog.productOptionCount(product); i++) {
+                String deliveryOption = catalog.optionName(catalog.productOption(product, i));
+                if (optimalDeliveries.contains(deliveryOption)) {
+                    newDeliveryCounts.put(deliveryOption, newDeliveryCounts.get(deliveryOption) - 1);
+                }
+            }
+        }
         newDeliveryCounts.remove(maxDelivery.getDeliveryName());
         return newDeliveryCounts;
     }
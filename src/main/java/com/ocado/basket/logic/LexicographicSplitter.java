@@ -0,0 +1,234 @@
+package com.ocado.basket.logic;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.diagnostics.SearchEvent;
+import com.ocado.basket.dto.BoundedSplitResult;
+import com.ocado.basket.logic.DeliveryCountMinimizer.BranchAndBoundSolver;
+
+import java.util.*;
+import java.util.stream.IntStream;
+
+/**
+ * LexicographicSplitter class
+ * Finds the best split of a basket in lexicographic order: fewest deliveries first, then the biggest largest delivery.
+ * In a minimum cover the largest delivery can take every item its option covers, because each other option of the
+ * cover still keeps at least one item, or the cover would not be minimum. The search is therefore a depth-first
+ * branch and bound over covers ranked by (number of options, most items covered by one option), on the bitsets of
+ * a {@link BasketModel}:
+ * - the greedy cover is the first incumbent, its first option covers the most items of the whole basket
+ * - a node is pruned when its depth plus the lower bound exceeds the incumbent size, or equals it and neither the
+ *   chosen options nor the options still covering an uncovered product cover more items than the incumbent's largest
+ * - the search stops early once a cover has the size of the root lower bound and the best possible largest delivery
+ * The items are then assigned within the found cover, the option covering most unassigned items first.
+ *
+ * @version 1.0
+ */
+public class LexicographicSplitter implements SinglePassSplitter {
+    private static final int DEADLINE_CHECK_INTERVAL = 1 << 8;
+
+    private final DeliveryCatalog catalog;
+
+    public LexicographicSplitter(DeliveryCatalog catalog) {
+        this.catalog = catalog;
+    }
+
+    /**
+     * @return map of delivery options and items, with the fewest deliveries and then the biggest largest delivery
+     * @throws com.ocado.basket.exceptions.InvalidItemException if an item has no delivery options
+     */
+    @Override
+    public Map<String, List<String>> split(List<String> items) {
+        return split(items, Deadline.none()).getDeliveries();
+    }
+
+    /**
+     * @param deadline the search stops when it expires and the best split found so far is returned
+     * @return split with a flag telling whether it is proven lexicographically best, and a lower bound for the number of deliveries
+     */
+    @Override
+    public BoundedSplitResult split(List<String> items, Deadline deadline) {
+        BasketModel model = BasketModel.of(catalog, items);
+        if (model.productCount() == 0) {
+            return new BoundedSplitResult(Map.of(), true, 0);
+        }
+        Search search = new Search(model, deadline);
+        SearchEvent event = SearchEvent.start(SplitPipeline.LEXICOGRAPHIC.name());
+        int[] cover = search.run();
+        event.finish(model.productCount(), model.optionCount(), search.visitedNodes);
+        int lowerBound = search.isOptimal() ? cover.length : search.rootLowerBound;
+        return new BoundedSplitResult(assign(model, items.stream().distinct().toList(), cover), search.isOptimal(), lowerBound);
+    }
+
+    /**
+     * @param names item of every product of the model, the items of the basket are returned instead of names decoded from the catalog
+     */
+    private Map<String, List<String>> assign(BasketModel model, List<String> names, int[] cover) {
+        Map<String, List<String>> splitDeliveries = new HashMap<>();
+        long[] unassigned = model.allProducts();
+        boolean[] used = new boolean[cover.length];
+        for (int round = 0; round < cover.length; round++) {
+            int bestIndex = -1;
+            int bestGain = -1;
+            for (int i = 0; i < cover.length; i++) {
+                int gain = used[i] ? -1 : Bitsets.intersectionSize(model.coverage(cover[i]), unassigned);
+                if (gain > bestGain) {
+                    bestGain = gain;
+                    bestIndex = i;
+                }
+            }
+            used[bestIndex] = true;
+            long[] coverage = model.coverage(cover[bestIndex]);
+            List<String> deliveryItems = new ArrayList<>(bestGain);
+            for (int product = 0; product < model.productCount(); product++) {
+                if (Bitsets.contains(unassigned, product) && Bitsets.contains(coverage, product)) {
+                    deliveryItems.add(names.get(product));
+                }
+            }
+            Bitsets.andNot(unassigned, coverage, unassigned);
+            splitDeliveries.put(model.optionName(cover[bestIndex]), Collections.unmodifiableList(deliveryItems));
+        }
+        return splitDeliveries;
+    }
+
+    /**
+     * State of the search over one basket, single-threaded, one scratch level per chosen option
+     */
+    private static final class Search {
+        private final BasketModel model;
+        private final BranchAndBoundSolver bounds;
+        private final Deadline deadline;
+        private final int[] productsByConstraint;
+        private final int[] coverageSize;
+        private final int maxCoverage;
+        private final int rootLowerBound;
+
+        private long[][] uncoveredAtDepth;
+        private int[] chosen;
+        private int[] best;
+        private int bestLargest;
+        private long visitedNodes;
+        private boolean expired;
+        private boolean done;
+
+        Search(BasketModel model, Deadline deadline) {
+            this.model = model;
+            this.bounds = new BranchAndBoundSolver(model);
+            this.deadline = deadline;
+            this.productsByConstraint = IntStream.range(0, model.productCount()).boxed()
+                    .sorted(Comparator.comparingInt(product -> model.productOptions(product).length))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            this.coverageSize = new int[model.optionCount()];
+            int max = 0;
+            for (int option = 0; option < model.optionCount(); option++) {
+                coverageSize[option] = Bitsets.cardinality(model.coverage(option));
+                max = Math.max(max, coverageSize[option]);
+            }
+            this.maxCoverage = max;
+            this.rootLowerBound = bounds.lowerBound(model.allProducts());
+        }
+
+        int[] run() {
+            best = bounds.greedyCover(model.allProducts());
+            bestLargest = largest(best);
+            done = best.length == rootLowerBound && bestLargest == maxCoverage;
+            uncoveredAtDepth = new long[best.length + 1][model.words()];
+            chosen = new int[best.length];
+            uncoveredAtDepth[0] = model.allProducts();
+            search(0, 0);
+            return best;
+        }
+
+        boolean isOptimal() {
+            return !expired;
+        }
+
+        private int largest(int[] cover) {
+            int largest = 0;
+            for (int option : cover) {
+                largest = Math.max(largest, coverageSize[option]);
+            }
+            return largest;
+        }
+
+        private void search(int depth, int largest) {
+            if (++visitedNodes % DEADLINE_CHECK_INTERVAL == 0 && deadline.isExpired()) {
+                expired = true;
+            }
+            if (expired || done) {
+                return;
+            }
+            long[] uncovered = uncoveredAtDepth[depth];
+            if (Bitsets.isEmpty(uncovered)) {
+                if (depth < best.length || largest > bestLargest) {
+                    best = Arrays.copyOf(chosen, depth);
+                    bestLargest = largest;
+                    done = depth == rootLowerBound && largest == maxCoverage;
+                }
+                return;
+            }
+            if (!promising(depth, largest, uncovered)) {
+                return;
+            }
+            for (int option : orderedBranchOptions(mostConstrainedProduct(uncovered), uncovered)) {
+                chosen[depth] = option;
+                Bitsets.andNot(uncovered, model.coverage(option), uncoveredAtDepth[depth + 1]);
+                search(depth + 1, Math.max(largest, coverageSize[option]));
+                if (expired || done || !promising(depth, largest, uncovered)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * @return true if a cover below this node can still beat the incumbent in (size, largest delivery) order
+         */
+        private boolean promising(int depth, int largest, long[] uncovered) {
+            int size = depth + bounds.lowerBound(uncovered);
+            if (size != best.length) {
+                return size < best.length;
+            }
+            if (largest > bestLargest) {
+                return true;
+            }
+            for (int option = 0; option < model.optionCount(); option++) {
+                if (coverageSize[option] > bestLargest && Bitsets.intersectionSize(model.coverage(option), uncovered) > 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int mostConstrainedProduct(long[] uncovered) {
+            for (int product : productsByConstraint) {
+                if (Bitsets.contains(uncovered, product)) {
+                    return product;
+                }
+            }
+            throw new IllegalStateException("No uncovered product");
+        }
+
+        /**
+         * @return options of the product, most newly covered products first, then most covered items
+         */
+        private int[] orderedBranchOptions(int product, long[] uncovered) {
+            int[] productOptions = model.productOptions(product);
+            int[] options = new int[productOptions.length];
+            int[] gains = new int[productOptions.length];
+            for (int i = 0; i < productOptions.length; i++) {
+                int option = productOptions[i];
+                int gain = Bitsets.intersectionSize(model.coverage(option), uncovered);
+                int position = i;
+                while (position > 0 && (gains[position - 1] < gain
+                        || gains[position - 1] == gain && coverageSize[options[position - 1]] < coverageSize[option])) {
+                    gains[position] = gains[position - 1];
+                    options[position] = options[position - 1];
+                    position--;
+                }
+                gains[position] = gain;
+                options[position] = option;
+            }
+            return options;
+        }
+    }
+}
@@ -0,0 +1,479 @@
+package com.ocado.basket.logic;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.diagnostics.SearchEvent;
+import com.ocado.basket.dto.BoundedSplitResult;
+import com.ocado.basket.dto.CompactSplitResult;
+import com.ocado.basket.exceptions.InvalidItemException;
+
+import java.util.*;
+
+/**
+ * LowAllocationSplitter class
+ * Splits a basket with the same branch and bound as {@link com.ocado.basket.logic.DeliveryCountMinimizer.BranchAndBoundSolver}
+ * followed by the greedy assignment of {@link ItemsCountMaximizer}, both running on primitive arrays and flat bitsets
+ * of a per-thread {@link Scratch} that is grown once and reused by every later basket. Only the result map and its
+ * lists are allocated, or only the arrays of a {@link CompactSplitResult} with {@link #splitCompact}. The differences to the TWO_STAGE pipeline are:
+ * - the basket is indexed without {@link BasketModel}: duplicates are dropped by an open addressing table of catalog
+ *   product ids and delivery options get local ids through a stamped array over catalog option ids
+ * - ties between options covering as many unassigned items are broken by the order of the cover, not by the
+ *   iteration order of a {@code HashMap}, and items keep the order of the basket
+ * Scratch grown by a basket of more than {@value #MAX_RETAINED_PRODUCTS} distinct products is dropped after the split.
+ *
+ * @version 1.0
+ */
+public class LowAllocationSplitter implements SinglePassSplitter {
+    private static final int DEADLINE_CHECK_INTERVAL = 1 << 8;
+    private static final int MAX_RETAINED_PRODUCTS = 1 << 12;
+
+    private final DeliveryCatalog catalog;
+    private final ThreadLocal<Scratch> scratch;
+
+    public LowAllocationSplitter(DeliveryCatalog catalog) {
+        this.catalog = catalog;
+        this.scratch = ThreadLocal.withInitial(() -> new Scratch(catalog.optionCount()));
+    }
+
+    @Override
+    public Map<String, List<String>> split(List<String> items) {
+        Scratch state = scratch.get();
+        try {
+            state.split(catalog, items, Deadline.none());
+            return state.toMap(catalog);
+        } finally {
+            release(state);
+        }
+    }
+
+    /**
+     * @return same split as {@link #split(List)}, as catalog ids
+     * @throws InvalidItemException if an item has no delivery options
+     */
+    public CompactSplitResult splitCompact(List<String> items) {
+        Scratch state = scratch.get();
+        try {
+            state.split(catalog, items, Deadline.none());
+            return state.toCompact(catalog);
+        } finally {
+            release(state);
+        }
+    }
+
+    @Override
+    public BoundedSplitResult split(List<String> items, Deadline deadline) {
+        Scratch state = scratch.get();
+        try {
+            state.split(catalog, items, deadline);
+            Map<String, List<String>> deliveries = state.toMap(catalog);
+            boolean optimal = !state.expired;
+            return new BoundedSplitResult(deliveries, optimal, optimal ? deliveries.size() : state.rootLowerBound);
+        } finally {
+            release(state);
+        }
+    }
+
+    private void release(Scratch state) {
+        Arrays.fill(state.itemNames, 0, state.productCount, null);
+        if (state.productCount > MAX_RETAINED_PRODUCTS) {
+            scratch.remove();
+        }
+    }
+
+    private static int[] ensure(int[] array, int length) {
+        return array.length >= length ? array : new int[Math.max(length, array.length * 2)];
+    }
+
+    private static long[] ensure(long[] array, int length) {
+        return array.length >= length ? array : new long[Math.max(length, array.length * 2)];
+    }
+
+    /**
+     * Buffers of one thread, sized by the biggest basket split so far.
+     * Bitsets are stored back to back in flat arrays: option o covers {@code coverage[o * words ... (o + 1) * words)}
+     * and the uncovered products at depth d are {@code uncovered[d * words ... (d + 1) * words)}.
+     */
+    private static final class Scratch {
+        private final int[] optionStamps;
+        private final int[] optionLocalIds;
+        private int generation;
+
+        private String[] itemNames = new String[16];
+        private int[] productIds = new int[16];
+        private int[] productSlots = new int[32];
+        private int[] productOptionStarts = new int[17];
+        private int[] productOptions = new int[64];
+        private int[] optionIds = new int[16];
+        private int[] productsByConstraint = new int[16];
+        private int[] constraintCounts = new int[8];
+        private long[] coverage = new long[16];
+        private long[] productOptionMasks = new long[16];
+        private long[] usedOptions = new long[1];
+        private long[] uncovered = new long[16];
+        private int[] chosen = new int[16];
+        private int[] best = new int[16];
+        private int[] branchOptions = new int[64];
+        private int[] gains = new int[8];
+        private boolean[] assigned = new boolean[16];
+        private int[] deliveryOptions = new int[16];
+        private int[] deliveryStarts = new int[17];
+        private int[] deliveryProducts = new int[16];
+
+        private int productCount;
+        private int optionCount;
+        private int maxProductOptions;
+        private int words;
+        private int optionWords;
+        private int bestLength;
+        private int rootLowerBound;
+        private long visitedNodes;
+        private Deadline deadline;
+        private boolean expired;
+
+        Scratch(int catalogOptions) {
+            this.optionStamps = new int[catalogOptions];
+            this.optionLocalIds = new int[catalogOptions];
+        }
+
+        /**
+         * Splits the basket into the delivery buffers, read by {@link #toMap} and {@link #toCompact}
+         */
+        void split(DeliveryCatalog catalog, List<String> items, Deadline deadline) {
+            index(catalog, items);
+            if (productCount == 0) {
+                expired = false;
+                rootLowerBound = 0;
+                bestLength = 0;
+                deliveryStarts[0] = 0;
+                return;
+            }
+            buildBitsets();
+            SearchEvent event = SearchEvent.start(SplitPipeline.LOW_ALLOCATION.name());
+            search(deadline);
+            event.finish(productCount, optionCount, visitedNodes);
+            assign();
+        }
+
+        Map<String, List<String>> toMap(DeliveryCatalog catalog) {
+            Map<String, List<String>> deliveries = new HashMap<>((int) (bestLength / 0.75f) + 1);
+            for (int delivery = 0; delivery < bestLength; delivery++) {
+                List<String> deliveryItems = new ArrayList<>(deliveryStarts[delivery + 1] - deliveryStarts[delivery]);
+                for (int i = deliveryStarts[delivery]; i < deliveryStarts[delivery + 1]; i++) {
+                    deliveryItems.add(itemNames[deliveryProducts[i]]);
+                }
+                deliveries.put(catalog.optionName(deliveryOptions[delivery]), Collections.unmodifiableList(deliveryItems));
+            }
+            return deliveries;
+        }
+
+        CompactSplitResult toCompact(DeliveryCatalog catalog) {
+            int[] products = new int[productCount];
+            for (int i = 0; i < productCount; i++) {
+                products[i] = productIds[deliveryProducts[i]];
+            }
+            return new CompactSplitResult(catalog, Arrays.copyOf(deliveryOptions, bestLength),
+                    Arrays.copyOf(deliveryStarts, bestLength + 1), products);
+        }
+
+        private void index(DeliveryCatalog catalog, List<String> items) {
+            productCount = 0;
+            if (++generation == 0) {
+                Arrays.fill(optionStamps, 0);
+                generation = 1;
+            }
+            int capacity = Integer.highestOneBit(Math.max(2, items.size()) - 1) << 2;
+            productSlots = ensure(productSlots, capacity);
+            Arrays.fill(productSlots, 0, capacity, 0);
+            int mask = capacity - 1;
+            int pairs = 0;
+            for (String item : items) {
+                int product = catalog.productId(item);
+                if (product < 0 || catalog.productOptionCount(product) == 0) {
+                    throw new InvalidItemException("Invalid item: " + item + " not found in delivery options");
+                }
+                int hash = product * 0x9E3779B9;
+                int slot = (hash ^ (hash >>> 16)) & mask;
+                while (productSlots[slot] != 0 && productIds[productSlots[slot] - 1] != product) {
+                    slot = (slot + 1) & mask;
+                }
+                if (productSlots[slot] != 0) {
+                    continue;
+                }
+                if (productCount == productIds.length) {
+                    productIds = Arrays.copyOf(productIds, productCount * 2);
+                    itemNames = Arrays.copyOf(itemNames, productCount * 2);
+                }
+                productSlots[slot] = productCount + 1;
+                productIds[productCount] = product;
+                itemNames[productCount] = item;
+                productCount++;
+                pairs += catalog.productOptionCount(product);
+            }
+
+            optionCount = 0;
+            maxProductOptions = 0;
+            productOptionStarts = ensure(productOptionStarts, productCount + 1);
+            productOptions = ensure(productOptions, pairs);
+            pairs = 0;
+            for (int product = 0; product < productCount; product++) {
+                productOptionStarts[product] = pairs;
+                int count = catalog.productOptionCount(productIds[product]);
+                maxProductOptions = Math.max(maxProductOptions, count);
+                for (int i = 0; i < count; i++) {
+                    int option = catalog.productOption(productIds[product], i);
+                    if (optionStamps[option] != generation) {
+                        optionStamps[option] = generation;
+                        optionIds = ensure(optionIds, optionCount + 1);
+                        optionLocalIds[option] = optionCount;
+                        optionIds[optionCount++] = option;
+                    }
+                    productOptions[pairs++] = optionLocalIds[option];
+                }
+            }
+            productOptionStarts[productCount] = pairs;
+        }
+
+        /**
+         * Coverage bitsets, option masks of the products and the products ordered by their number of options
+         */
+        private void buildBitsets() {
+            words = Math.max(1, (productCount + 63) >>> 6);
+            optionWords = Math.max(1, (optionCount + 63) >>> 6);
+            coverage = ensure(coverage, optionCount * words);
+            Arrays.fill(coverage, 0, optionCount * words, 0);
+            productOptionMasks = ensure(productOptionMasks, productCount * optionWords);
+            Arrays.fill(productOptionMasks, 0, productCount * optionWords, 0);
+            usedOptions = ensure(usedOptions, optionWords);
+            for (int product = 0; product < productCount; product++) {
+                for (int pair = productOptionStarts[product]; pair < productOptionStarts[product + 1]; pair++) {
+                    int option = productOptions[pair];
+                    coverage[option * words + (product >>> 6)] |= 1L << product;
+                    productOptionMasks[product * optionWords + (option >>> 6)] |= 1L << option;
+                }
+            }
+
+            constraintCounts = ensure(constraintCounts, maxProductOptions + 2);
+            Arrays.fill(constraintCounts, 0, maxProductOptions + 2, 0);
+            for (int product = 0; product < productCount; product++) {
+                constraintCounts[optionCountOf(product) + 1]++;
+            }
+            for (int count = 1; count <= maxProductOptions + 1; count++) {
+                constraintCounts[count] += constraintCounts[count - 1];
+            }
+            productsByConstraint = ensure(productsByConstraint, productCount);
+            for (int product = 0; product < productCount; product++) {
+                productsByConstraint[constraintCounts[optionCountOf(product)]++] = product;
+            }
+        }
+
+        private int optionCountOf(int product) {
+            return productOptionStarts[product + 1] - productOptionStarts[product];
+        }
+
+        private void search(Deadline deadline) {
+            this.deadline = deadline;
+            expired = false;
+            visitedNodes = 0;
+            int maxCover = Math.min(productCount, optionCount);
+            uncovered = ensure(uncovered, (maxCover + 1) * words);
+            for (int word = 0; word < words; word++) {
+                uncovered[word] = word < words - 1 || (productCount & 63) == 0 ? -1L : (1L << productCount) - 1;
+            }
+            greedyCover();
+            rootLowerBound = lowerBound(0);
+            chosen = ensure(chosen, bestLength);
+            branchOptions = ensure(branchOptions, bestLength * maxProductOptions);
+            gains = ensure(gains, maxProductOptions);
+            search(0);
+        }
+
+        /**
+         * First incumbent: the option covering the most uncovered products first, built on the level 1 buffer
+         */
+        private void greedyCover() {
+            best = ensure(best, Math.min(productCount, optionCount));
+            bestLength = 0;
+            System.arraycopy(uncovered, 0, uncovered, words, words);
+            while (!isEmpty(1)) {
+                int bestOption = -1;
+                int bestGain = 0;
+                for (int option = 0; option < optionCount; option++) {
+                    int gain = intersectionSize(coverage, option * words, uncovered, words);
+                    if (gain > bestGain) {
+                        bestGain = gain;
+                        bestOption = option;
+                    }
+                }
+                best[bestLength++] = bestOption;
+                andNot(1, bestOption, 1);
+            }
+        }
+
+        private void search(int depth) {
+            if (++visitedNodes % DEADLINE_CHECK_INTERVAL == 0 && deadline.isExpired()) {
+                expired = true;
+            }
+            if (expired) {
+                return;
+            }
+            if (isEmpty(depth)) {
+                if (depth < bestLength) {
+                    System.arraycopy(chosen, 0, best, 0, depth);
+                    bestLength = depth;
+                }
+                return;
+            }
+            if (depth + 1 >= bestLength || depth + lowerBound(depth) >= bestLength) {
+                return;
+            }
+            int branches = orderBranchOptions(depth, mostConstrainedProduct(depth));
+            for (int i = 0; i < branches; i++) {
+                int option = branchOptions[depth * maxProductOptions + i];
+                chosen[depth] = option;
+                andNot(depth, option, depth + 1);
+                search(depth + 1);
+                if (expired || depth + lowerBound(depth) >= bestLength) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Same bound as {@link com.ocado.basket.logic.DeliveryCountMinimizer.BranchAndBoundSolver#lowerBound}
+         * for the uncovered products at the given depth
+         */
+        private int lowerBound(int depth) {
+            int offset = depth * words;
+            int uncoveredCount = 0;
+            for (int word = 0; word < words; word++) {
+                uncoveredCount += Long.bitCount(uncovered[offset + word]);
+            }
+            if (uncoveredCount == 0) {
+                return 0;
+            }
+            int maxGain = 0;
+            for (int option = 0; option < optionCount; option++) {
+                maxGain = Math.max(maxGain, intersectionSize(coverage, option * words, uncovered, offset));
+            }
+            int coverageBound = (uncoveredCount + maxGain - 1) / maxGain;
+
+            Arrays.fill(usedOptions, 0, optionWords, 0);
+            int disjoint = 0;
+            for (int i = 0; i < productCount; i++) {
+                int product = productsByConstraint[i];
+                if (contains(offset, product) && intersectionSize(productOptionMasks, product * optionWords, usedOptions, 0, optionWords) == 0) {
+                    disjoint++;
+                    for (int word = 0; word < optionWords; word++) {
+                        usedOptions[word] |= productOptionMasks[product * optionWords + word];
+                    }
+                }
+            }
+            return Math.max(coverageBound, disjoint);
+        }
+
+        private int mostConstrainedProduct(int depth) {
+            int offset = depth * words;
+            for (int i = 0; i < productCount; i++) {
+                if (contains(offset, productsByConstraint[i])) {
+                    return productsByConstraint[i];
+                }
+            }
+            throw new IllegalStateException("No uncovered product");
+        }
+
+        /**
+         * Options of the product into the branch buffer of the depth, most newly covered products first
+         * @return number of options
+         */
+        private int orderBranchOptions(int depth, int product) {
+            int base = depth * maxProductOptions;
+            int count = optionCountOf(product);
+            for (int i = 0; i < count; i++) {
+                int option = productOptions[productOptionStarts[product] + i];
+                int gain = intersectionSize(coverage, option * words, uncovered, depth * words);
+                int position = i;
+                while (position > 0 && gains[position - 1] < gain) {
+                    gains[position] = gains[position - 1];
+                    branchOptions[base + position] = branchOptions[base + position - 1];
+                    position--;
+                }
+                gains[position] = gain;
+                branchOptions[base + position] = option;
+            }
+            return count;
+        }
+
+        /**
+         * Greedy assignment within the cover, the option covering the most unassigned items first, on the level 0 buffer.
+         * Delivery d gets catalog option {@code deliveryOptions[d]} and the local products
+         * {@code deliveryProducts[deliveryStarts[d] ... deliveryStarts[d + 1])}, in basket order.
+         */
+        private void assign() {
+            if (assigned.length < bestLength) {
+                assigned = new boolean[Math.max(bestLength, assigned.length * 2)];
+            }
+            Arrays.fill(assigned, 0, bestLength, false);
+            deliveryOptions = ensure(deliveryOptions, bestLength);
+            deliveryStarts = ensure(deliveryStarts, bestLength + 1);
+            deliveryProducts = ensure(deliveryProducts, productCount);
+            int next = 0;
+            for (int round = 0; round < bestLength; round++) {
+                int bestIndex = -1;
+                int bestGain = -1;
+                for (int i = 0; i < bestLength; i++) {
+                    int gain = assigned[i] ? -1 : intersectionSize(coverage, best[i] * words, uncovered, 0);
+                    if (gain > bestGain) {
+                        bestGain = gain;
+                        bestIndex = i;
+                    }
+                }
+                assigned[bestIndex] = true;
+                int coverageOffset = best[bestIndex] * words;
+                deliveryOptions[round] = optionIds[best[bestIndex]];
+                deliveryStarts[round] = next;
+                for (int word = 0; word < words; word++) {
+                    long newlyCovered = uncovered[word] & coverage[coverageOffset + word];
+                    uncovered[word] &= ~newlyCovered;
+                    while (newlyCovered != 0) {
+                        deliveryProducts[next++] = (word << 6) + Long.numberOfTrailingZeros(newlyCovered);
+                        newlyCovered &= newlyCovered - 1;
+                    }
+                }
+            }
+            deliveryStarts[bestLength] = next;
+        }
+
+        private boolean isEmpty(int depth) {
+            for (int word = depth * words; word < (depth + 1) * words; word++) {
+                if (uncovered[word] != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean contains(int offset, int product) {
+            return (uncovered[offset + (product >>> 6)] & (1L << product)) != 0;
+        }
+
+        /**
+         * Stores the uncovered products of a depth without the coverage of the option into the target depth
+         */
+        private void andNot(int depth, int option, int target) {
+            for (int word = 0; word < words; word++) {
+                uncovered[target * words + word] = uncovered[depth * words + word] & ~coverage[option * words + word];
+            }
+        }
+
+        private int intersectionSize(long[] first, int firstOffset, long[] second, int secondOffset) {
+            return intersectionSize(first, firstOffset, second, secondOffset, words);
+        }
+
+        private static int intersectionSize(long[] first, int firstOffset, long[] second, int secondOffset, int length) {
+            int count = 0;
+            for (int word = 0; word < length; word++) {
+                count += Long.bitCount(first[firstOffset + word] & second[secondOffset + word]);
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.ocado.basket.logic;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.catalog.SharedCatalogPool;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SharedCatalogLoader class
+ * Reads the config with another loader and builds its catalog in a {@link SharedCatalogPool},
+ * so the catalogs of all splitters loading through the same pool share option names, option lists and product names
+ *
+ * @version 1.0
+ */
+public class SharedCatalogLoader extends ConfigLoader {
+    private final SharedCatalogPool pool;
+    private final ConfigLoader delegate;
+
+    /**
+     * @param delegate loader reading the config files
+     */
+    public SharedCatalogLoader(SharedCatalogPool pool, ConfigLoader delegate) {
+        this.pool = pool;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Map<String, List<String>> loadDeliveryOptions(String absolutePathToConfigFile) {
+        return delegate.loadDeliveryOptions(absolutePathToConfigFile);
+    }
+
+    @Override
+    public DeliveryCatalog loadCatalog(String absolutePathToConfigFile) {
+        return pool.build(delegate.loadDeliveryOptions(absolutePathToConfigFile));
+    }
+}
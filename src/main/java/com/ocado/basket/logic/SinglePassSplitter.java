@@ -0,0 +1,27 @@
+package com.ocado.basket.logic;
+
+import com.ocado.basket.dto.BoundedSplitResult;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SinglePassSplitter interface
+ * Splits a basket without the separate minimizer and {@link ItemsCountMaximizer} stages of the TWO_STAGE pipeline
+ *
+ * @version 1.0
+ */
+public interface SinglePassSplitter {
+
+    /**
+     * @return map of delivery options and items, with the fewest deliveries
+     * @throws com.ocado.basket.exceptions.InvalidItemException if an item has no delivery options
+     */
+    Map<String, List<String>> split(List<String> items);
+
+    /**
+     * @param deadline the search stops when it expires and the best split found so far is returned
+     * @return split with a flag telling whether it is proven best, and a lower bound for the number of deliveries
+     */
+    BoundedSplitResult split(List<String> items, Deadline deadline);
+}
@@ -0,0 +1,19 @@
+package com.ocado.basket.logic;
+
+/**
+ * SplitPipeline enum
+ * Lists the ways a basket can be split
+ * - TWO_STAGE: the configured minimizer picks a minimal set of delivery options, then {@link ItemsCountMaximizer}
+ *   greedily assigns the items to them
+ * - LEXICOGRAPHIC: {@link LexicographicSplitter} searches for the fewest deliveries and, among those, the biggest
+ *   largest delivery in a single pass, the configured minimizer is not used
+ * - LOW_ALLOCATION: {@link LowAllocationSplitter} runs branch and bound and the greedy assignment on reusable
+ *   per-thread scratch arrays and only allocates the result, the configured minimizer is not used
+ *
+ * @version 1.0
+ */
+public enum SplitPipeline {
+    TWO_STAGE,
+    LEXICOGRAPHIC,
+    LOW_ALLOCATION
+}
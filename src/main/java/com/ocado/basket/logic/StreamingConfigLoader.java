@@ -0,0 +1,300 @@
+package com.ocado.basket.logic;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.catalog.StringPool;
+import com.ocado.basket.exceptions.ConfigLoadException;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * StreamingConfigLoader class
+ * Loads the delivery options from a config file token by token through a buffered file channel.
+ * Delivery option names are interned into a shared pool and identical option lists are shared,
+ * so only one copy of each name and list is kept no matter how many products use it.
+ * Peak memory is the resulting structure plus a fixed read buffer.
+ * Option values that are not strings (numbers, booleans, unquoted words) become the same names as with {@link ConfigLoader},
+ * which converts them with the json library; null, nested arrays and objects, which it turns into "null" or a
+ * collection printout, are rejected as invalid JSON.
+ *
+ * @version 1.0
+ */
+public class StreamingConfigLoader extends ConfigLoader {
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    @Override
+    public Map<String, List<String>> loadDeliveryOptions(String absolutePathToConfigFile) {
+        StringPool options = new StringPool();
+        Map<String, List<String>> deliveryOptions = new HashMap<>();
+        Map<List<String>, List<String>> sharedLists = new HashMap<>();
+        parse(absolutePathToConfigFile, options, (product, optionIds) -> {
+            List<String> productOptions = Arrays.stream(optionIds).mapToObj(options::get).toList();
+            if (deliveryOptions.putIfAbsent(product, sharedLists.computeIfAbsent(productOptions, list -> list)) != null) {
+                throw new JSONException("Duplicate key \"" + product + "\"");
+            }
+        });
+        return deliveryOptions;
+    }
+
+    @Override
+    public DeliveryCatalog loadCatalog(String absolutePathToConfigFile) {
+        StringPool options = new StringPool();
+        DeliveryCatalog.Builder builder = new DeliveryCatalog.Builder(options);
+        parse(absolutePathToConfigFile, options, (product, optionIds) -> {
+            try {
+                builder.addProduct(product, optionIds);
+            } catch (IllegalArgumentException e) {
+                throw new JSONException("Duplicate key \"" + product + "\"", e);
+            }
+        });
+        return builder.build();
+    }
+
+    private interface ProductConsumer {
+        void accept(String product, int[] optionIds);
+    }
+
+    private void parse(String absolutePathToConfigFile, StringPool options, ProductConsumer consumer) {
+        try (var channel = FileChannel.open(Path.of(absolutePathToConfigFile), StandardOpenOption.READ)) {
+            new JsonReader(channel, options).readConfig(consumer);
+        } catch (IOException e) {
+            throw new ConfigLoadException("Failed to load config file", e);
+        } catch (JSONException e) {
+            throw new ConfigLoadException("Invalid JSON in config file", e);
+        }
+    }
+
+    /**
+     * Minimal pull parser for the config shape: an object mapping product names to arrays of option names.
+     * UTF-8 is decoded straight into a reusable char buffer.
+     */
+    private static class JsonReader {
+        private final FileChannel channel;
+        private final StringPool options;
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        private char[] chars = new char[256];
+        private int[] optionIds = new int[16];
+        private long position;
+        private boolean endOfInput;
+        private int pushedBack = -1;
+
+        JsonReader(FileChannel channel, StringPool options) {
+            this.channel = channel;
+            this.options = options;
+            buffer.flip();
+        }
+
+        void readConfig(ProductConsumer consumer) throws IOException {
+            expect('{');
+            int next = nextToken();
+            if (next == '}') {
+                expectEnd();
+                return;
+            }
+            while (true) {
+                checkToken(next, '"');
+                String product = new String(chars, 0, readString());
+                expect(':');
+                consumer.accept(product, readOptions());
+                next = nextToken();
+                if (next == '}') {
+                    expectEnd();
+                    return;
+                }
+                checkToken(next, ',');
+                next = nextToken();
+            }
+        }
+
+        private int[] readOptions() throws IOException {
+            expect('[');
+            int count = 0;
+            int next = nextToken();
+            if (next != ']') {
+                while (true) {
+                    if (count == optionIds.length) {
+                        optionIds = Arrays.copyOf(optionIds, count * 2);
+                    }
+                    optionIds[count++] = next == '"' ? options.intern(chars, 0, readString()) : options.intern(readScalar(next));
+                    next = nextToken();
+                    if (next == ']') {
+                        break;
+                    }
+                    checkToken(next, ',');
+                    next = nextToken();
+                }
+            }
+            return Arrays.copyOf(optionIds, count);
+        }
+
+        /**
+         * Reads the rest of a string whose opening quote was consumed into {@link #chars}
+         * @return number of decoded chars
+         */
+        private int readString() throws IOException {
+            int length = 0;
+            while (true) {
+                int b = read();
+                if (b < 0) {
+                    throw error("Unterminated string");
+                }
+                if (length + 2 > chars.length) {
+                    chars = Arrays.copyOf(chars, chars.length * 2);
+                }
+                if (b == '"') {
+                    return length;
+                } else if (b == '\\') {
+                    chars[length++] = readEscape();
+                } else if (b < 0x80) {
+                    chars[length++] = (char) b;
+                } else {
+                    length = readMultiByte(b, length);
+                }
+            }
+        }
+
+        /**
+         * Reads a value that is not a string, the way {@code JSONTokener.nextValue} reads it: up to the next delimiter,
+         * then converted by {@link JSONObject#stringToValue}
+         * @return name of the value as {@link ConfigLoader} gives it
+         */
+        private String readScalar(int first) throws IOException {
+            if (first == '[' || first == '{' || first == '\'') {
+                throw error("Expected a string or a scalar delivery option");
+            }
+            int length = 0;
+            int b = first;
+            while (b >= ' ' && ",:]}/\\\"[{;=#".indexOf(b) < 0) {
+                if (length + 2 > chars.length) {
+                    chars = Arrays.copyOf(chars, chars.length * 2);
+                }
+                if (b < 0x80) {
+                    chars[length++] = (char) b;
+                } else {
+                    length = readMultiByte(b, length);
+                }
+                b = read();
+            }
+            unread(b);
+            String text = new String(chars, 0, length).trim();
+            if (text.isEmpty()) {
+                throw error("Missing value");
+            }
+            Object value = JSONObject.stringToValue(text);
+            if (value == JSONObject.NULL) {
+                throw error("Null delivery option");
+            }
+            return value.toString();
+        }
+
+        private char readEscape() throws IOException {
+            int b = read();
+            return switch (b) {
+                case '"', '\\', '/' -> (char) b;
+                case 'b' -> '\b';
+                case 'f' -> '\f';
+                case 'n' -> '\n';
+                case 'r' -> '\r';
+                case 't' -> '\t';
+                case 'u' -> (char) ((hexDigit() << 12) | (hexDigit() << 8) | (hexDigit() << 4) | hexDigit());
+                default -> throw error("Illegal escape");
+            };
+        }
+
+        private int hexDigit() throws IOException {
+            int digit = Character.digit(read(), 16);
+            if (digit < 0) {
+                throw error("Illegal unicode escape");
+            }
+            return digit;
+        }
+
+        private int readMultiByte(int first, int length) throws IOException {
+            int codePoint;
+            int continuation;
+            if ((first & 0xE0) == 0xC0) {
+                codePoint = first & 0x1F;
+                continuation = 1;
+            } else if ((first & 0xF0) == 0xE0) {
+                codePoint = first & 0x0F;
+                continuation = 2;
+            } else if ((first & 0xF8) == 0xF0) {
+                codePoint = first & 0x07;
+                continuation = 3;
+            } else {
+                throw error("Malformed UTF-8");
+            }
+            for (int i = 0; i < continuation; i++) {
+                int b = read();
+                if ((b & 0xC0) != 0x80) {
+                    throw error("Malformed UTF-8");
+                }
+                codePoint = (codePoint << 6) | (b & 0x3F);
+            }
+            return length + Character.toChars(codePoint, chars, length);
+        }
+
+        private void expect(char token) throws IOException {
+            checkToken(nextToken(), token);
+        }
+
+        private void checkToken(int actual, char expected) {
+            if (actual != expected) {
+                throw error("Expected '" + expected + "'");
+            }
+        }
+
+        private void expectEnd() throws IOException {
+            if (nextToken() >= 0) {
+                throw error("Unexpected content after config object");
+            }
+        }
+
+        private int nextToken() throws IOException {
+            int b = read();
+            while (b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+                b = read();
+            }
+            return b;
+        }
+
+        private void unread(int b) {
+            if (b >= 0) {
+                pushedBack = b;
+                position--;
+            }
+        }
+
+        private int read() throws IOException {
+            if (pushedBack >= 0) {
+                int b = pushedBack;
+                pushedBack = -1;
+                position++;
+                return b;
+            }
+            if (!buffer.hasRemaining()) {
+                if (endOfInput) {
+                    return -1;
+                }
+                buffer.clear();
+                endOfInput = channel.read(buffer) < 0;
+                buffer.flip();
+                if (!buffer.hasRemaining()) {
+                    return -1;
+                }
+            }
+            position++;
+            return buffer.get() & 0xFF;
+        }
+
+        private JSONException error(String message) {
+            return new JSONException(message + " at byte " + position);
+        }
+    }
+}
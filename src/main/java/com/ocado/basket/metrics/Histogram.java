@@ -0,0 +1,59 @@
+package com.ocado.basket.metrics;
+
+import com.ocado.basket.dto.HistogramDto;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram class
+ * Lock-free histogram of non-negative values with power of two buckets: bucket i counts the values
+ * in [2^(i-1), 2^i), bucket 0 counts zeros. Recording is a few {@link LongAdder} increments, so threads
+ * do not contend on a shared counter, and percentiles are the upper bound of their bucket.
+ *
+ * @version 1.0
+ */
+public class Histogram {
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public Histogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    public void record(long value) {
+        long clamped = Math.max(0, value);
+        buckets[Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(clamped))].increment();
+        sum.add(clamped);
+        max.accumulate(clamped);
+    }
+
+    public HistogramDto snapshot() {
+        long[] counts = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+            count += counts[i];
+        }
+        long maxValue = max.get();
+        return new HistogramDto(count, sum.sum(), maxValue,
+                percentile(counts, count, 0.5, maxValue), percentile(counts, count, 0.9, maxValue), percentile(counts, count, 0.99, maxValue));
+    }
+
+    private static long percentile(long[] counts, long count, double quantile, long maxValue) {
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) {
+                return i == 0 ? 0 : Math.min(maxValue, (1L << Math.min(62, i)) - 1);
+            }
+        }
+        return 0;
+    }
+}
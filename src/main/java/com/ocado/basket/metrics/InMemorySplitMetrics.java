@@ -0,0 +1,64 @@
+package com.ocado.basket.metrics;
+
+import com.ocado.basket.dto.SplitMetricsDto;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * InMemorySplitMetrics class
+ * {@link SplitMetrics} keeping every measurement in lock-free {@link Histogram}s and counters,
+ * cheap enough to stay enabled in production. {@link #snapshot()} may be called at any time,
+ * for example by a scraper exporting the values.
+ *
+ * @version 1.0
+ */
+public class InMemorySplitMetrics implements SplitMetrics {
+    private final Histogram basketSize = new Histogram();
+    private final Histogram minimizationNanos = new Histogram();
+    private final Histogram maximizationNanos = new Histogram();
+    private final LongAdder invalidItemBaskets = new LongAdder();
+    private final Histogram dynamicMemoSize = new Histogram();
+    private final Histogram dynamicVisitedStates = new Histogram();
+    private final Histogram linearVariables = new Histogram();
+    private final Histogram linearConstraints = new Histogram();
+    private final Histogram linearSolveNanos = new Histogram();
+
+    @Override
+    public void recordBasketSize(int items) {
+        basketSize.record(items);
+    }
+
+    @Override
+    public void recordMinimization(long nanos) {
+        minimizationNanos.record(nanos);
+    }
+
+    @Override
+    public void recordMaximization(long nanos) {
+        maximizationNanos.record(nanos);
+    }
+
+    @Override
+    public void recordInvalidItems() {
+        invalidItemBaskets.increment();
+    }
+
+    @Override
+    public void recordDynamicSearch(int memoSize, long visitedStates) {
+        dynamicMemoSize.record(memoSize);
+        dynamicVisitedStates.record(visitedStates);
+    }
+
+    @Override
+    public void recordLinearSolve(int variables, int constraints, long nanos) {
+        linearVariables.record(variables);
+        linearConstraints.record(constraints);
+        linearSolveNanos.record(nanos);
+    }
+
+    public SplitMetricsDto snapshot() {
+        return new SplitMetricsDto(basketSize.snapshot(), minimizationNanos.snapshot(), maximizationNanos.snapshot(),
+                invalidItemBaskets.sum(), dynamicMemoSize.snapshot(), dynamicVisitedStates.snapshot(),
+                linearVariables.snapshot(), linearConstraints.snapshot(), linearSolveNanos.snapshot());
+    }
+}
@@ -0,0 +1,38 @@
+package com.ocado.basket.metrics;
+
+/**
+ * NoOpSplitMetrics class
+ * Default {@link SplitMetrics} ignoring every measurement
+ *
+ * @version 1.0
+ */
+public final class NoOpSplitMetrics implements SplitMetrics {
+    static final NoOpSplitMetrics INSTANCE = new NoOpSplitMetrics();
+
+    private NoOpSplitMetrics() {
+    }
+
+    @Override
+    public void recordBasketSize(int items) {
+    }
+
+    @Override
+    public void recordMinimization(long nanos) {
+    }
+
+    @Override
+    public void recordMaximization(long nanos) {
+    }
+
+    @Override
+    public void recordInvalidItems() {
+    }
+
+    @Override
+    public void recordDynamicSearch(int memoSize, long visitedStates) {
+    }
+
+    @Override
+    public void recordLinearSolve(int variables, int constraints, long nanos) {
+    }
+}
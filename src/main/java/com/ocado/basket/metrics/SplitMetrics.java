@@ -0,0 +1,49 @@
+package com.ocado.basket.metrics;
+
+/**
+ * SplitMetrics interface
+ * Receives measurements from the split pipeline, set with {@code BasketSplitterOptions.metrics}.
+ * Methods are called on the splitting threads, so implementations must be thread-safe and cheap:
+ * {@link NoOpSplitMetrics} is the default, {@link InMemorySplitMetrics} keeps lock-free histograms.
+ *
+ * @version 1.0
+ */
+public interface SplitMetrics {
+
+    static SplitMetrics noOp() {
+        return NoOpSplitMetrics.INSTANCE;
+    }
+
+    /**
+     * @param items number of items of a basket passed to split, duplicates included
+     */
+    void recordBasketSize(int items);
+
+    /**
+     * Time spent finding the set of delivery options, for the LEXICOGRAPHIC pipeline the whole single pass search
+     */
+    void recordMinimization(long nanos);
+
+    /**
+     * Time spent assigning the items to the delivery options
+     */
+    void recordMaximization(long nanos);
+
+    /**
+     * A basket was rejected because one of its items has no delivery options
+     */
+    void recordInvalidItems();
+
+    /**
+     * @param memoSize number of item sets stored in the memo of {@code DynamicDeliveryCountMinimizer} for one basket
+     * @param visitedStates number of item sets the recursion visited, memo hits included
+     */
+    void recordDynamicSearch(int memoSize, long visitedStates);
+
+    /**
+     * @param variables number of variables of the model built by {@code LinearDeliveryCountMinimizer}
+     * @param constraints number of constraints of the model
+     * @param nanos time spent in the solver
+     */
+    void recordLinearSolve(int variables, int constraints, long nanos);
+}
@@ -0,0 +1,136 @@
+package com.ocado.basket;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.exceptions.InvalidItemException;
+import com.ocado.basket.logic.DeliveryCountMinimizer.BranchAndBoundDeliveryCountMinimizer;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BasketSessionTest {
+
+    private BasketSplitter basketSplitter;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        var tempFile = tempDir.resolve("config.json");
+        try (var writer = new PrintWriter(tempFile.toFile())) {
+            writer.println("{\"item1\": [\"deliveryOption1\", \"deliveryOption2\"], \"item2\": [\"deliveryOption1\", \"deliveryOption2\"], \"item3\": [\"deliveryOption1\", \"deliveryOption3\"], \"item4\": [\"deliveryOption1\", \"deliveryOption3\"], \"item5\": [\"deliveryOption3\"], \"item6\": [\"deliveryOption2\"]}");
+        }
+        basketSplitter = new BasketSplitter(tempFile.toString());
+    }
+
+    @Test
+    void add_coveredItem_joinsExistingDelivery() {
+        var session = basketSplitter.openSession(List.of("item5", "item6"));
+
+        var actual = session.add("item4");
+
+        assertThat(actual.keySet()).containsExactlyInAnyOrder("deliveryOption2", "deliveryOption3");
+        assertThat(actual.get("deliveryOption3")).containsExactlyInAnyOrder("item4", "item5");
+        assertEquals(0, session.getCoverImprovements());
+    }
+
+    @Test
+    void add_uncoveredItem_addsDelivery() {
+        var session = basketSplitter.openSession(List.of("item1", "item3"));
+
+        var actual = session.add("item5");
+
+        assertEquals(2, actual.size());
+        assertThat(actual.get("deliveryOption3")).contains("item5");
+    }
+
+    @Test
+    void add_uncoveredItem_findsSmallerCoverThanRepair() {
+        var session = basketSplitter.openSession(List.of("item1", "item2"));
+
+        var actual = session.add("item6");
+
+        assertEquals(Set.of("deliveryOption2"), actual.keySet());
+        assertThat(actual.get("deliveryOption2")).containsExactlyInAnyOrder("item1", "item2", "item6");
+        assertEquals(1, session.getCoverImprovements());
+    }
+
+    @Test
+    void remove_item_dropsDeliveryThatIsNoLongerNeeded() {
+        var session = basketSplitter.openSession(List.of("item1", "item3", "item6"));
+
+        var actual = session.remove("item6");
+
+        assertEquals(Set.of("deliveryOption1"), actual.keySet());
+        assertThat(actual.get("deliveryOption1")).containsExactlyInAnyOrder("item1", "item3");
+    }
+
+    @Test
+    void remove_itemAddedTwice_keepsOneOccurrence() {
+        var session = basketSplitter.openSession(List.of("item5"));
+        session.add("item5");
+
+        var actual = session.remove("item5");
+
+        assertEquals(Map.of("deliveryOption3", List.of("item5")), actual);
+        assertEquals(Set.of("item5"), session.getItems());
+    }
+
+    @Test
+    void add_invalidItem_throwsAndKeepsBasket() {
+        var session = basketSplitter.openSession(List.of("item5"));
+
+        assertThrows(InvalidItemException.class, () -> session.add("itemWithoutDeliveryOption"));
+        assertThrows(InvalidItemException.class, () -> session.remove("item6"));
+        assertEquals(Map.of("deliveryOption3", List.of("item5")), session.getDeliveries());
+    }
+
+    @Test
+    void addAndRemove_randomSequence_keepsMinimalValidSplit(@TempDir Path configDir) throws IOException {
+        Random random = new Random(5);
+        Map<String, List<String>> deliveryOptions = new HashMap<>();
+        for (int i = 0; i < 40; i++) {
+            Set<String> options = new LinkedHashSet<>();
+            for (int j = 0; j < 1 + random.nextInt(3); j++) {
+                options.add("deliveryOption" + random.nextInt(12));
+            }
+            deliveryOptions.put("item" + i, new ArrayList<>(options));
+        }
+        var config = configDir.resolve("random.json");
+        try (var writer = new PrintWriter(config.toFile())) {
+            writer.println(new JSONObject(deliveryOptions));
+        }
+        var minimizer = new BranchAndBoundDeliveryCountMinimizer(DeliveryCatalog.of(deliveryOptions));
+        var session = new BasketSplitter(config.toString()).openSession(List.of());
+
+        List<String> basket = new ArrayList<>();
+        for (int step = 0; step < 300; step++) {
+            Map<String, List<String>> actual;
+            if (basket.isEmpty() || random.nextInt(3) > 0) {
+                String item = "item" + random.nextInt(40);
+                basket.add(item);
+                actual = session.add(item);
+            } else {
+                String item = basket.remove(random.nextInt(basket.size()));
+                actual = session.remove(item);
+            }
+
+            assertEquals(minimizer.optimizeBasket(basket).size(), actual.size());
+            List<String> assigned = new ArrayList<>();
+            actual.forEach((delivery, items) -> {
+                items.forEach(item -> assertTrue(deliveryOptions.get(item).contains(delivery)));
+                assigned.addAll(items);
+            });
+            assertThat(assigned).containsExactlyInAnyOrderElementsOf(new HashSet<>(basket));
+        }
+    }
+}
@@ -1,6 +1,11 @@
 package com.ocado.basket;
 
+import com.ocado.basket.exceptions.ConfigLoadException;
 import com.ocado.basket.exceptions.InvalidItemException;
+import com.ocado.basket.logic.CatalogSnapshotLoader;
+import com.ocado.basket.logic.DeliveryCountMinimizer.DeliveryCountMinimizerType;
+import com.ocado.basket.logic.SplitPipeline;
+import com.ocado.basket.metrics.InMemorySplitMetrics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -8,7 +13,10 @@ import org.junit.jupiter.api.io.TempDir;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -54,6 +62,233 @@ class BasketSplitterTest {
         }
     }
 
+    @Test
+    void split_returnsCorrectDeliveryOptions_withBitmaskMinimizer() {
+        var options = BasketSplitterOptions.builder().minimizer(DeliveryCountMinimizerType.BITMASK).build();
+        basketSplitter = new BasketSplitter(tempDir.resolve("config.json").toString(), options);
+        List<String> items = Arrays.asList("item1", "item2", "item3", "item4", "item5", "item6");
+
+        var actual = basketSplitter.split(items);
+
+        assertThat(actual.keySet()).containsExactlyInAnyOrder("deliveryOption2", "deliveryOption3");
+        assertThat(actual.get("deliveryOption2")).containsExactlyInAnyOrder("item1", "item2", "item6");
+        assertThat(actual.get("deliveryOption3")).containsExactlyInAnyOrder("item3", "item4", "item5");
+    }
+
+    @Test
+    void split_returnsCorrectDeliveryOptions_withLexicographicPipeline() {
+        var options = BasketSplitterOptions.builder().pipeline(SplitPipeline.LEXICOGRAPHIC).resultCacheMaxWeight(1000).build();
+        basketSplitter = new BasketSplitter(tempDir.resolve("config.json").toString(), options);
+        List<String> items = Arrays.asList("item1", "item2", "item3", "item4", "item5", "item6");
+
+        var actual = basketSplitter.split(items);
+        var bounded = basketSplitter.split(items, Duration.ofSeconds(10));
+
+        assertThat(actual.keySet()).containsExactlyInAnyOrder("deliveryOption2", "deliveryOption3");
+        assertThat(actual.get("deliveryOption2")).containsExactlyInAnyOrder("item1", "item2", "item6");
+        assertThat(actual.get("deliveryOption3")).containsExactlyInAnyOrder("item3", "item4", "item5");
+        assertSame(actual, bounded.getDeliveries());
+        assertTrue(bounded.isOptimal());
+    }
+
+    @Test
+    void split_returnsCorrectDeliveryOptions_withLowAllocationPipeline() {
+        var options = BasketSplitterOptions.builder().pipeline(SplitPipeline.LOW_ALLOCATION).build();
+        basketSplitter = new BasketSplitter(tempDir.resolve("config.json").toString(), options);
+        List<String> items = Arrays.asList("item1", "item2", "item3", "item4", "item5", "item6");
+
+        var actual = basketSplitter.split(items);
+        var bounded = basketSplitter.split(items, Duration.ofSeconds(10));
+
+        assertEquals(Map.of("deliveryOption2", List.of("item1", "item2", "item6"), "deliveryOption3", List.of("item3", "item4", "item5")), actual);
+        assertEquals(actual, bounded.getDeliveries());
+        assertTrue(bounded.isOptimal());
+    }
+
+    @Test
+    void splitCompact_lowAllocationPipeline_equalsSplit() {
+        var options = BasketSplitterOptions.builder().pipeline(SplitPipeline.LOW_ALLOCATION).build();
+        basketSplitter = new BasketSplitter(tempDir.resolve("config.json").toString(), options);
+        List<String> items = Arrays.asList("item1", "item2", "item3", "item4", "item5", "item6", "item1");
+
+        var actual = basketSplitter.splitCompact(items);
+
+        assertEquals(basketSplitter.split(items), actual.asMap());
+        assertEquals(2, actual.deliveryCount());
+        assertThrows(InvalidItemException.class, () -> basketSplitter.splitCompact(List.of("item1", "unknown")));
+    }
+
+    @Test
+    void splitCompact_defaultPipeline_equalsSplit() {
+        List<String> items = Arrays.asList("item1", "item2", "item3", "item4", "item5", "item6");
+
+        var actual = basketSplitter.splitCompact(items);
+
+        assertEquals(basketSplitter.split(items), actual.asMap());
+        assertThat(actual.asMap().get("deliveryOption3")).containsExactlyInAnyOrder("item3", "item4", "item5");
+    }
+
+    @Test
+    void split_returnsCorrectDeliveryOptions_fromCatalogSnapshot() {
+        var snapshotFile = tempDir.resolve("catalog.snapshot").toString();
+        CatalogSnapshotLoader.writeSnapshot(tempDir.resolve("config.json").toString(), snapshotFile);
+        var options = BasketSplitterOptions.builder().configLoader(new CatalogSnapshotLoader()).build();
+        basketSplitter = new BasketSplitter(snapshotFile, options);
+        List<String> items = Arrays.asList("item1", "item2", "item3", "item4", "item5", "item6");
+
+        var actual = basketSplitter.split(items);
+
+        assertThat(actual.keySet()).containsExactlyInAnyOrder("deliveryOption2", "deliveryOption3");
+        assertThat(actual.get("deliveryOption2")).containsExactlyInAnyOrder("item1", "item2", "item6");
+        assertThat(actual.get("deliveryOption3")).containsExactlyInAnyOrder("item3", "item4", "item5");
+    }
+
+    @Test
+    void reload_publishesNewCatalogVersion() throws Exception {
+        var newConfig = tempDir.resolve("new_config.json");
+        try (var writer = new PrintWriter(newConfig.toFile())) {
+            writer.println("{\"item1\": [\"deliveryOption4\"], \"item7\": [\"deliveryOption4\"]}");
+        }
+
+        long version = basketSplitter.reload(newConfig.toString()).get();
+
+        assertEquals(2, version);
+        assertEquals(2, basketSplitter.getCatalogVersion());
+        assertEquals(Map.of("deliveryOption4", List.of("item7")), basketSplitter.split(List.of("item7")));
+        assertThrows(InvalidItemException.class, () -> basketSplitter.split(List.of("item2")));
+    }
+
+    @Test
+    void close_linearSolver_laterCallsStillSplit() throws Exception {
+        var options = BasketSplitterOptions.builder().minimizer(DeliveryCountMinimizerType.LINEAR_SET_COVER).build();
+        var splitter = new BasketSplitter(tempDir.resolve("config.json").toString(), options);
+        var expected = splitter.split(List.of("item1", "item3", "item5"));
+
+        splitter.close();
+
+        assertEquals(expected, splitter.split(List.of("item1", "item3", "item5")));
+        assertEquals(2, splitter.reload(tempDir.resolve("config.json").toString()).get());
+        assertEquals(expected, splitter.split(List.of("item1", "item3", "item5")));
+    }
+
+    @Test
+    void reload_keepsActiveCatalog_whenConfigCannotBeLoaded() {
+        var future = basketSplitter.reload(tempDir.resolve("missing.json").toString());
+
+        var exception = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(ConfigLoadException.class, exception.getCause());
+        assertEquals(1, basketSplitter.getCatalogVersion());
+        assertEquals(2, basketSplitter.split(List.of("item5", "item6")).size());
+    }
+
+    @Test
+    void splitAll_returnsResultsInInputOrder_withPerBasketErrors() {
+        List<List<String>> baskets = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            baskets.add(List.of("item5", "item6"));
+            baskets.add(List.of("item1", "itemWithoutDeliveryOption"));
+            baskets.add(List.of("item5"));
+        }
+
+        var results = basketSplitter.splitAll(baskets, new ForkJoinPool(4));
+
+        assertEquals(baskets.size(), results.size());
+        for (int i = 0; i < results.size(); i += 3) {
+            assertEquals(2, results.get(i).getDeliveries().size());
+            assertFalse(results.get(i + 1).isSuccess());
+            assertInstanceOf(InvalidItemException.class, results.get(i + 1).getError());
+            assertEquals(Map.of("deliveryOption3", List.of("item5")), results.get(i + 2).getDeliveries());
+        }
+    }
+
+    @Test
+    void split_parallelBranchAndBound_searchesOnBatchPool() throws IOException {
+        var config = tempDir.resolve("large_config.json");
+        List<String> items = new ArrayList<>();
+        try (var writer = new PrintWriter(config.toFile())) {
+            writer.print("{");
+            for (int i = 0; i < 40; i++) {
+                items.add("item" + i);
+                writer.print((i == 0 ? "" : ", ") + "\"item" + i + "\": [\"deliveryOption" + i % 10 + "\", \"deliveryOption" + (i * 3 + 1) % 10 + "\"]");
+            }
+            writer.println("}");
+        }
+        var pool = new ForkJoinPool(2);
+        var options = BasketSplitterOptions.builder().minimizer(DeliveryCountMinimizerType.PARALLEL_BRANCH_AND_BOUND).batchPool(pool).build();
+
+        var actual = new BasketSplitter(config.toString(), options).split(items);
+
+        assertEquals(new BasketSplitter(config.toString()).split(items).size(), actual.size());
+        assertTrue(pool.getPoolSize() > 0);
+        pool.shutdown();
+    }
+
+    @Test
+    void split_returnsCachedResult_forReorderedBasket_untilReload() throws Exception {
+        var options = BasketSplitterOptions.builder().resultCacheMaxWeight(1000).build();
+        basketSplitter = new BasketSplitter(tempDir.resolve("config.json").toString(), options);
+
+        var first = basketSplitter.split(List.of("item5", "item6"));
+        var second = basketSplitter.split(List.of("item6", "item5", "item6"));
+        basketSplitter.reload(tempDir.resolve("config.json").toString()).get();
+        basketSplitter.split(List.of("item5", "item6"));
+
+        assertSame(first, second);
+        assertEquals(1, basketSplitter.getCacheStats().getHitCount());
+        assertEquals(2, basketSplitter.getCacheStats().getMissCount());
+        assertThrows(UnsupportedOperationException.class, () -> first.remove("deliveryOption3"));
+    }
+
+    @Test
+    void split_withBudget_returnsOptimalSplit_whenSearchFinishes() {
+        var result = basketSplitter.split(List.of("item1", "item2", "item3", "item4", "item5", "item6"), Duration.ofSeconds(10));
+
+        assertTrue(result.isOptimal());
+        assertEquals(2, result.getLowerBound());
+        assertThat(result.getDeliveries().keySet()).containsExactlyInAnyOrder("deliveryOption2", "deliveryOption3");
+    }
+
+    @Test
+    void split_withExhaustedBudget_returnsGreedySplitWithLowerBound() {
+        var result = basketSplitter.split(List.of("item1", "item2", "item3", "item4", "item5", "item6"), Duration.ZERO);
+
+        assertFalse(result.isOptimal());
+        assertEquals(2, result.getLowerBound());
+        assertThat(result.getDeliveries().keySet()).containsExactlyInAnyOrder("deliveryOption1", "deliveryOption2", "deliveryOption3");
+        assertThat(result.getDeliveries().get("deliveryOption1")).containsExactlyInAnyOrder("item1", "item2", "item3", "item4");
+    }
+
+    @Test
+    void split_withAdaptiveMinimizer_recordsEngineStats() {
+        var options = BasketSplitterOptions.builder().minimizer(DeliveryCountMinimizerType.ADAPTIVE).build();
+        basketSplitter = new BasketSplitter(tempDir.resolve("config.json").toString(), options);
+
+        var actual = basketSplitter.split(List.of("item1", "item2", "item3", "item4", "item5", "item6"));
+
+        assertThat(actual.keySet()).containsExactlyInAnyOrder("deliveryOption2", "deliveryOption3");
+        assertEquals(Map.of(DeliveryCountMinimizerType.BITMASK, 1L), basketSplitter.getEngineStats());
+    }
+
+    @Test
+    void split_withMetrics_recordsStagesBasketSizesAndInvalidItems() {
+        var metrics = new InMemorySplitMetrics();
+        var options = BasketSplitterOptions.builder().metrics(metrics).build();
+        basketSplitter = new BasketSplitter(tempDir.resolve("config.json").toString(), options);
+
+        basketSplitter.split(List.of("item1", "item2", "item3", "item4", "item5", "item6"));
+        basketSplitter.split(List.of("item5", "item6"), Duration.ofSeconds(10));
+        assertThrows(InvalidItemException.class, () -> basketSplitter.split(List.of("item1", "itemWithoutDeliveryOption")));
+
+        var snapshot = metrics.snapshot();
+        assertEquals(3, snapshot.getBasketSize().getCount());
+        assertEquals(6, snapshot.getBasketSize().getMax());
+        assertEquals(2, snapshot.getMinimizationNanos().getCount());
+        assertEquals(2, snapshot.getMaximizationNanos().getCount());
+        assertEquals(1, snapshot.getInvalidItemBaskets());
+        assertEquals(1.0 / 3, snapshot.getInvalidItemRate(), 1e-9);
+        assertEquals(1, snapshot.getDynamicMemoSize().getCount());
+    }
+
     @Test
     void split_returnsEmptyMap_whenNoItemsProvided() {
         List<String> items = List.of();
@@ -0,0 +1,80 @@
+package com.ocado.basket;
+
+import com.ocado.basket.exceptions.InvalidItemException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogRegistryTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicLong clock = new AtomicLong();
+    private CatalogRegistry registry;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.writeString(tempDir.resolve("north.json"), "{\"item1\": [\"Courier\", \"Express\"], \"item2\": [\"Courier\"], \"item3\": [\"Express\"]}");
+        Files.writeString(tempDir.resolve("south.json"), "{\"item1\": [\"Courier\", \"Express\"], \"item2\": [\"Express\"], \"item4\": [\"Pickup\"]}");
+        registry = new CatalogRegistry(BasketSplitterOptions.defaults(), Duration.ofMinutes(10), clock::get);
+        registry.register("north", tempDir.resolve("north.json").toString());
+        registry.register("south", tempDir.resolve("south.json").toString());
+    }
+
+    @Test
+    void splitter_loadsTenantOnFirstUse() {
+        assertEquals(0, registry.getLoadedCount());
+
+        var north = registry.splitter("north");
+
+        assertSame(north, registry.splitter("north"));
+        assertEquals(1, registry.getLoadedCount());
+        assertEquals(1, registry.getLoads());
+        assertThat(north.split(List.of("item1", "item2"))).containsOnlyKeys("Courier");
+    }
+
+    @Test
+    void splitters_splitWithTheirOwnConfig_andShareThePool() {
+        var north = registry.splitter("north");
+        var south = registry.splitter("south");
+
+        assertThat(south.split(List.of("item1", "item2")).get("Express")).containsExactlyInAnyOrder("item1", "item2");
+        assertEquals(Map.of("Courier", List.of("item2")), north.split(List.of("item2")));
+        assertThrows(InvalidItemException.class, () -> north.split(List.of("item4")));
+        assertEquals(4, registry.getPool().productCount());
+        assertEquals(3, registry.getPool().optionCount());
+    }
+
+    @Test
+    void evictIdle_dropsSplittersNotUsedForTheTimeout() {
+        var north = registry.splitter("north");
+        clock.set(Duration.ofMinutes(6).toNanos());
+        registry.splitter("south");
+        clock.set(Duration.ofMinutes(11).toNanos());
+
+        assertEquals(1, registry.evictIdle());
+
+        assertEquals(1, registry.getLoadedCount());
+        assertEquals(Map.of("Courier", List.of("item2")), north.split(List.of("item2")));
+        assertNotSame(north, registry.splitter("north"));
+        assertEquals(3, registry.getLoads());
+        assertEquals(1, registry.getEvictions());
+    }
+
+    @Test
+    void splitter_throwsForUnknownTenant() {
+        assertThrows(IllegalArgumentException.class, () -> registry.splitter("east"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.ocado.basket.cache;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SplitResultCacheTest {
+
+    private DeliveryCatalog catalog;
+    private CacheCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, List<String>> config = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            config.put("item" + i, List.of("deliveryOption" + (i % 3)));
+        }
+        catalog = DeliveryCatalog.of(config);
+        counters = new CacheCounters();
+    }
+
+    @Test
+    void fingerprint_ignoresOrderAndDuplicates() {
+        var fingerprint = BasketFingerprint.of(catalog, List.of("item1", "item2", "item3"));
+
+        assertEquals(fingerprint, BasketFingerprint.of(catalog, List.of("item3", "item1", "item2", "item1")));
+        assertNotEquals(fingerprint, BasketFingerprint.of(catalog, List.of("item1", "item2")));
+        assertNull(BasketFingerprint.of(catalog, List.of("item1", "unknown")));
+    }
+
+    @Test
+    void get_returnsImmutableCopyOfPutResult() {
+        var cache = new SplitResultCache(1000, counters);
+        var fingerprint = BasketFingerprint.of(catalog, List.of("item1", "item2"));
+        Map<String, List<String>> result = new HashMap<>();
+        result.put("deliveryOption1", new ArrayList<>(List.of("item1", "item2")));
+
+        cache.put(fingerprint, result);
+        result.get("deliveryOption1").clear();
+        var cached = cache.get(fingerprint);
+
+        assertEquals(Map.of("deliveryOption1", List.of("item1", "item2")), cached);
+        assertThrows(UnsupportedOperationException.class, () -> cached.put("deliveryOption2", List.of()));
+        assertThrows(UnsupportedOperationException.class, () -> cached.get("deliveryOption1").add("item3"));
+    }
+
+    @Test
+    void put_evictsLeastRecentlyUsedResults_whenWeightIsExceeded() {
+        var cache = new SplitResultCache(16 * 4, counters);
+        for (int i = 0; i < 100; i++) {
+            var fingerprint = BasketFingerprint.of(catalog, List.of("item" + i, "item" + ((i + 1) % 100)));
+            cache.put(fingerprint, Map.of("deliveryOption0", List.of("item" + i, "item" + ((i + 1) % 100))));
+        }
+
+        assertTrue(cache.weight() <= 16 * 4);
+        assertTrue(counters.snapshot().getEvictionCount() > 0);
+        assertNotNull(cache.get(BasketFingerprint.of(catalog, List.of("item99", "item0"))));
+    }
+
+    @Test
+    void put_smallMaxWeight_stillCachesResults() {
+        var cache = new SplitResultCache(10, counters);
+        var fingerprint = BasketFingerprint.of(catalog, List.of("item1", "item2"));
+
+        cache.put(fingerprint, Map.of("deliveryOption0", List.of("item1", "item2")));
+
+        assertNotNull(cache.get(fingerprint));
+        assertEquals(3, cache.weight());
+        assertThrows(IllegalArgumentException.class, () -> new SplitResultCache(0, counters));
+    }
+
+    @Test
+    void get_countsHitsAndMisses() {
+        var cache = new SplitResultCache(1000, counters);
+        var fingerprint = BasketFingerprint.of(catalog, List.of("item1"));
+
+        cache.get(fingerprint);
+        cache.put(fingerprint, Map.of("deliveryOption1", List.of("item1")));
+        cache.get(fingerprint);
+        cache.get(fingerprint);
+
+        assertEquals(2, counters.snapshot().getHitCount());
+        assertEquals(1, counters.snapshot().getMissCount());
+    }
+}
@@ -0,0 +1,65 @@
+package com.ocado.basket.catalog;
+
+import com.ocado.basket.exceptions.ConfigLoadException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void open_returnsCatalogEqualToWrittenOne() throws IOException {
+        Map<String, List<String>> config = new LinkedHashMap<>();
+        for (int i = 0; i < 200; i++) {
+            config.put("item" + i, List.of("deliveryOption" + (i % 7), "deliveryOption" + (7 + i % 3)));
+        }
+        config.put("\u017Ar\u00F3d\u0142o \uD83D\uDCE6", List.of("Paczkomat"));
+        var expected = DeliveryCatalog.of(config);
+
+        var snapshotFile = tempDir.resolve("catalog.snapshot");
+        CatalogSnapshot.write(expected, snapshotFile);
+        var actual = CatalogSnapshot.open(snapshotFile);
+
+        assertEquals(expected.productCount(), actual.productCount());
+        assertEquals(expected.optionCount(), actual.optionCount());
+        for (int product = 0; product < expected.productCount(); product++) {
+            String name = expected.productName(product);
+            assertEquals(name, actual.productName(product));
+            assertEquals(product, actual.productId(name));
+            assertEquals(expected.productOptionCount(product), actual.productOptionCount(product));
+            for (int i = 0; i < expected.productOptionCount(product); i++) {
+                assertEquals(expected.productOption(product, i), actual.productOption(product, i));
+            }
+            for (int option = 0; option < expected.optionCount(); option++) {
+                assertEquals(expected.covers(option, product), actual.covers(option, product));
+            }
+        }
+        for (int option = 0; option < expected.optionCount(); option++) {
+            assertEquals(expected.optionName(option), actual.optionName(option));
+            assertEquals(option, actual.optionId(expected.optionName(option)));
+            assertEquals(expected.optionProductCount(option), actual.optionProductCount(option));
+        }
+        assertEquals(-1, actual.productId("item200"));
+        assertEquals(-1, actual.productId("\u017Ar\u00F3d\u0142o"));
+    }
+
+    @Test
+    void open_throwsConfigLoadException_whenFileIsNotASnapshot() throws IOException {
+        var file = tempDir.resolve("config.json");
+        Files.writeString(file, "{\"item1\": [\"deliveryOption1\"], \"item2\": [\"deliveryOption2\"]}  ");
+
+        var exception = assertThrows(ConfigLoadException.class, () -> CatalogSnapshot.open(file));
+        assertEquals("Invalid catalog snapshot", exception.getMessage());
+    }
+}
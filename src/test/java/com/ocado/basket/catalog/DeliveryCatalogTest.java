@@ -0,0 +1,62 @@
+package com.ocado.basket.catalog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeliveryCatalogTest {
+
+    private DeliveryCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, List<String>> config = new LinkedHashMap<>();
+        config.put("item1", List.of("deliveryOption1", "deliveryOption2"));
+        config.put("item2", List.of("deliveryOption2"));
+        config.put("item3", List.of("deliveryOption3", "deliveryOption3"));
+        catalog = DeliveryCatalog.of(config);
+    }
+
+    @Test
+    void of_assignsDenseIds() {
+        assertEquals(3, catalog.productCount());
+        assertEquals(3, catalog.optionCount());
+        assertEquals("item2", catalog.productName(catalog.productId("item2")));
+        assertEquals("deliveryOption3", catalog.optionName(catalog.optionId("deliveryOption3")));
+    }
+
+    @Test
+    void productId_returnsMinusOne_forUnknownNames() {
+        assertEquals(-1, catalog.productId("unknown"));
+        assertEquals(-1, catalog.optionId("unknown"));
+    }
+
+    @Test
+    void productOptions_areDeduplicatedInConfigOrder() {
+        int item1 = catalog.productId("item1");
+        assertEquals(2, catalog.productOptionCount(item1));
+        assertEquals(catalog.optionId("deliveryOption1"), catalog.productOption(item1, 0));
+        assertEquals(catalog.optionId("deliveryOption2"), catalog.productOption(item1, 1));
+        assertEquals(1, catalog.productOptionCount(catalog.productId("item3")));
+    }
+
+    @Test
+    void optionProducts_invertsProductOptions() {
+        int option2 = catalog.optionId("deliveryOption2");
+        assertEquals(2, catalog.optionProductCount(option2));
+        assertEquals(catalog.productId("item1"), catalog.optionProduct(option2, 0));
+        assertEquals(catalog.productId("item2"), catalog.optionProduct(option2, 1));
+    }
+
+    @Test
+    void covers_matchesConfig() {
+        assertTrue(catalog.covers(catalog.optionId("deliveryOption2"), catalog.productId("item2")));
+        assertFalse(catalog.covers(catalog.optionId("deliveryOption1"), catalog.productId("item2")));
+        assertFalse(catalog.covers(catalog.optionId("deliveryOption3"), catalog.productId("item1")));
+    }
+}
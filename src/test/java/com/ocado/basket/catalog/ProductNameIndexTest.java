@@ -0,0 +1,83 @@
+package com.ocado.basket.catalog;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductNameIndexTest {
+
+    @Test
+    void add_assignsDenseIdsInInsertionOrder() {
+        var index = new ProductNameIndex();
+
+        assertEquals(0, index.add("item1"));
+        assertEquals(1, index.add("item2"));
+        assertEquals(-1, index.add("item1"));
+
+        assertEquals(2, index.size());
+        assertEquals(1, index.id("item2"));
+        assertEquals("item1", index.name(0));
+        assertEquals(-1, index.id("item3"));
+    }
+
+    @Test
+    void id_findsEveryName_afterGrowingAndTrimming() {
+        var index = new ProductNameIndex();
+        IntStream.range(0, 10_000).forEach(i -> index.add("Product " + i));
+
+        index.trim();
+
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, index.id("Product " + i));
+            assertEquals("Product " + i, index.name(i));
+        }
+        assertEquals(-1, index.id("Product 10000"));
+    }
+
+    @Test
+    void id_comparesUtf8Names() {
+        var index = new ProductNameIndex();
+        String[] names = {"\u017B\u00F3\u0142\u0107", "Caf\u00E9 \u2615", "Emoji \uD83D\uDE00", "", "Caf"};
+        for (String name : names) {
+            index.add(name);
+        }
+
+        for (int i = 0; i < names.length; i++) {
+            assertEquals(i, index.id(names[i]));
+            assertEquals(names[i], index.name(i));
+        }
+        assertEquals(-1, index.id("Caf\u00E9"));
+        assertEquals(-1, index.id("Emoji \uD83D\uDE01"));
+    }
+
+    @Test
+    void id_unpairedSurrogate_matchesQuestionMark() {
+        var index = new ProductNameIndex();
+        index.add("a\uD83Db");
+
+        assertEquals(0, index.id("a\uD83Db"));
+        assertEquals("a?b", index.name(0));
+    }
+
+    @Test
+    void copyName_copiesUtf8BytesInChunks() {
+        var index = new ProductNameIndex();
+        index.add("item1");
+        String name = "Caf\u00E9 \u2615 \uD83D\uDE00".repeat(10);
+        int id = index.add(name);
+        var out = new ByteArrayOutputStream();
+        byte[] chunk = new byte[7];
+
+        int copied;
+        for (int from = 0; (copied = index.copyName(id, from, chunk, 0, chunk.length)) > 0; from += copied) {
+            out.write(chunk, 0, copied);
+        }
+
+        assertEquals(name, out.toString(StandardCharsets.UTF_8));
+        assertEquals(0, index.copyName(id, name.getBytes(StandardCharsets.UTF_8).length, chunk, 0, chunk.length));
+    }
+}
@@ -0,0 +1,117 @@
+package com.ocado.basket.catalog;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SharedCatalogPoolTest {
+
+    private SharedCatalogPool pool;
+    private DeliveryCatalog first;
+    private DeliveryCatalog second;
+
+    @BeforeEach
+    void setUp() {
+        pool = new SharedCatalogPool();
+        Map<String, List<String>> firstConfig = new LinkedHashMap<>();
+        firstConfig.put("item1", List.of("deliveryOption1", "deliveryOption2"));
+        firstConfig.put("item2", List.of("deliveryOption2"));
+        Map<String, List<String>> secondConfig = new LinkedHashMap<>();
+        secondConfig.put("item2", List.of("deliveryOption1", "deliveryOption2"));
+        secondConfig.put("item3", List.of("deliveryOption3", "deliveryOption3"));
+        first = pool.build(firstConfig);
+        second = pool.build(secondConfig);
+    }
+
+    @Test
+    void build_sharesNamesAndOptionLists() {
+        assertEquals(3, pool.productCount());
+        assertEquals(3, pool.optionCount());
+        assertEquals(3, pool.optionListCount());
+        assertSame(first.optionName(first.optionId("deliveryOption2")), second.optionName(second.optionId("deliveryOption2")));
+        assertEquals(first.optionId("deliveryOption1"), second.optionId("deliveryOption1"));
+    }
+
+    @Test
+    void catalogs_useDenseProductIds_andOnlyTheirOwnProducts() {
+        assertEquals(2, first.productCount());
+        assertEquals(0, first.productId("item1"));
+        assertEquals(1, first.productId("item2"));
+        assertEquals(-1, first.productId("item3"));
+        assertEquals(0, second.productId("item2"));
+        assertEquals("item3", second.productName(second.productId("item3")));
+        assertEquals(-1, second.productId("item1"));
+        assertEquals(-1, second.productId("unknown"));
+    }
+
+    @Test
+    void build_numbersProductsInConfigOrder_whateverTheirPoolIds() {
+        Map<String, List<String>> config = new LinkedHashMap<>();
+        config.put("item3", List.of("deliveryOption3"));
+        config.put("item4", List.of("deliveryOption1"));
+        config.put("item1", List.of("deliveryOption1"));
+
+        var third = pool.build(config);
+
+        assertEquals(0, third.productId("item3"));
+        assertEquals(1, third.productId("item4"));
+        assertEquals(2, third.productId("item1"));
+        assertEquals("item4", third.productName(1));
+        assertEquals(third.optionId("deliveryOption3"), third.productOption(0, 0));
+        assertEquals(-1, third.productId("item2"));
+    }
+
+    @Test
+    void catalogs_indexOptionsOfTheirOwnProducts() {
+        var third = pool.build(Map.of("item4", List.of("deliveryOption3")));
+        int option1 = second.optionId("deliveryOption1");
+
+        assertEquals(2, first.optionCount());
+        assertEquals(3, third.optionCount());
+        assertEquals(-1, third.optionId("deliveryOption1"));
+        assertEquals(0, third.optionProductCount(option1));
+        assertFalse(third.covers(option1, third.productId("item4")));
+        assertTrue(third.covers(third.optionId("deliveryOption3"), third.productId("item4")));
+        assertEquals(1, second.productOptionCount(second.productId("item3")));
+        assertEquals(2, first.optionProductCount(first.optionId("deliveryOption2")));
+    }
+
+    @Test
+    void catalogs_ofInterleavedTenants_findOnlyTheirOwnProducts() {
+        List<Map<String, List<String>>> configs = List.of(new LinkedHashMap<>(), new LinkedHashMap<>(), new LinkedHashMap<>());
+        for (int i = 0; i < 3000; i++) {
+            configs.get(i % 3).put("product" + i, List.of("deliveryOption" + i % 7));
+        }
+        Map<String, List<String>> reversed = new LinkedHashMap<>();
+        for (int i = 2999; i >= 0; i -= 2) {
+            reversed.put("product" + i, List.of("deliveryOption" + i % 5));
+        }
+        List<DeliveryCatalog> catalogs = configs.stream().map(pool::build).toList();
+        DeliveryCatalog last = pool.build(reversed);
+
+        for (int i = 0; i < 3000; i++) {
+            for (int tenant = 0; tenant < 3; tenant++) {
+                int productId = catalogs.get(tenant).productId("product" + i);
+                if (tenant == i % 3) {
+                    assertEquals("product" + i, catalogs.get(tenant).productName(productId));
+                } else {
+                    assertEquals(-1, productId);
+                }
+            }
+            int productId = last.productId("product" + i);
+            if (i % 2 == 1) {
+                assertEquals("product" + i, last.productName(productId));
+                assertEquals("deliveryOption" + i % 5, last.optionName(last.productOption(productId, 0)));
+            } else {
+                assertEquals(-1, productId);
+            }
+        }
+        assertEquals(1000, catalogs.get(0).productCount());
+        assertEquals(1500, last.productCount());
+    }
+}
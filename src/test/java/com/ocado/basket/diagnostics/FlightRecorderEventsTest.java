@@ -0,0 +1,105 @@
+package com.ocado.basket.diagnostics;
+
+import com.ocado.basket.BasketSplitter;
+import com.ocado.basket.BasketSplitterOptions;
+import com.ocado.basket.logic.DeliveryCountMinimizer.DeliveryCountMinimizerType;
+import com.ocado.basket.logic.SplitPipeline;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecorderEventsTest {
+    private static final List<String> BASKET = List.of("item1", "item2", "item3", "item4", "item5", "item6");
+
+    @TempDir
+    Path tempDir;
+
+    private Path config;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        config = tempDir.resolve("config.json");
+        try (var writer = new PrintWriter(config.toFile())) {
+            writer.println("{\"item1\": [\"deliveryOption1\", \"deliveryOption2\"], \"item2\": [\"deliveryOption1\", \"deliveryOption2\"], \"item3\": [\"deliveryOption1\", \"deliveryOption3\"], \"item4\": [\"deliveryOption1\", \"deliveryOption3\"], \"item5\": [\"deliveryOption3\"], \"item6\": [\"deliveryOption2\"]}");
+        }
+    }
+
+    @Test
+    void split_duringRecording_emitsSplitMinimizationMaximizationAndSearchEvents() throws IOException {
+        var splitter = new BasketSplitter(config.toString(), BasketSplitterOptions.builder().minimizer(DeliveryCountMinimizerType.BRANCH_AND_BOUND).build());
+
+        List<RecordedEvent> events = record(() -> splitter.split(BASKET));
+
+        RecordedEvent split = single(events, "com.ocado.basket.Split");
+        assertEquals(6, split.getInt("basketSize"));
+        assertEquals(2, split.getInt("deliveries"));
+        assertEquals("TWO_STAGE", split.getString("pipeline"));
+        assertFalse(split.getBoolean("cached"));
+        RecordedEvent minimization = single(events, "com.ocado.basket.Minimization");
+        assertEquals("BRANCH_AND_BOUND", minimization.getString("engine"));
+        assertEquals(2, minimization.getInt("deliveries"));
+        assertEquals(2, single(events, "com.ocado.basket.Maximization").getInt("deliveries"));
+        RecordedEvent search = single(events, "com.ocado.basket.Search");
+        assertEquals("BRANCH_AND_BOUND", search.getString("engine"));
+        assertEquals(6, search.getInt("products"));
+        assertEquals(3, search.getInt("options"));
+        assertTrue(search.getLong("statesExplored") > 0);
+    }
+
+    @Test
+    void split_lexicographicPipeline_reportsItsSearch() throws IOException {
+        var splitter = new BasketSplitter(config.toString(), BasketSplitterOptions.builder().pipeline(SplitPipeline.LEXICOGRAPHIC).build());
+
+        List<RecordedEvent> events = record(() -> splitter.split(BASKET));
+
+        assertEquals("LEXICOGRAPHIC", single(events, "com.ocado.basket.Split").getString("pipeline"));
+        assertEquals("LEXICOGRAPHIC", single(events, "com.ocado.basket.Minimization").getString("engine"));
+        assertEquals("LEXICOGRAPHIC", single(events, "com.ocado.basket.Search").getString("engine"));
+        assertTrue(events.stream().noneMatch(event -> event.getEventType().getName().equals("com.ocado.basket.Maximization")));
+    }
+
+    @Test
+    void split_cachedBasket_emitsCachedSplitWithoutMinimization() throws IOException {
+        var splitter = new BasketSplitter(config.toString(), BasketSplitterOptions.builder().resultCacheMaxWeight(1000).build());
+        splitter.split(BASKET);
+
+        List<RecordedEvent> events = record(() -> splitter.split(BASKET));
+
+        assertTrue(single(events, "com.ocado.basket.Split").getBoolean("cached"));
+        assertTrue(events.stream().noneMatch(event -> event.getEventType().getName().equals("com.ocado.basket.Minimization")));
+    }
+
+    private List<RecordedEvent> record(Runnable action) throws IOException {
+        Path dump = tempDir.resolve("recording.jfr");
+        try (var recording = new Recording()) {
+            recording.enable(SplitEvent.class);
+            recording.enable(MinimizationEvent.class);
+            recording.enable(MaximizationEvent.class);
+            recording.enable(SearchEvent.class);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(dump);
+        }
+        return RecordingFile.readAllEvents(dump).stream()
+                .filter(event -> event.getEventType().getName().startsWith("com.ocado.basket."))
+                .collect(Collectors.toList());
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+}
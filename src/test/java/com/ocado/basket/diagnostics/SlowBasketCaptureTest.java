@@ -0,0 +1,83 @@
+package com.ocado.basket.diagnostics;
+
+import com.ocado.basket.BasketSplitter;
+import com.ocado.basket.BasketSplitterOptions;
+import com.ocado.basket.catalog.DeliveryCatalog;
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowBasketCaptureTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void split_slowerThanThreshold_writesBasketThatReplaysToSameSplit() throws IOException {
+        var config = tempDir.resolve("config.json");
+        try (var writer = new PrintWriter(config.toFile())) {
+            writer.println("{\"item1\": [\"deliveryOption1\", \"deliveryOption2\"], \"item2\": [\"deliveryOption1\", \"deliveryOption2\"], \"item3\": [\"deliveryOption1\", \"deliveryOption3\"], \"item4\": [\"deliveryOption1\", \"deliveryOption3\"], \"item5\": [\"deliveryOption3\"], \"item6\": [\"deliveryOption2\"], \"item7\": [\"deliveryOption4\"]}");
+        }
+        var capture = new SlowBasketCapture(Duration.ZERO, tempDir.resolve("slow"));
+        var splitter = new BasketSplitter(config.toString(), BasketSplitterOptions.builder().slowBasketCapture(capture).build());
+        List<String> items = List.of("item1", "item2", "item3", "item4", "item5", "item6");
+
+        var expected = splitter.split(items);
+
+        assertEquals(1, capture.getCaptured());
+        var basket = tempDir.resolve("slow").resolve("basket-1.basket.json");
+        var capturedConfig = tempDir.resolve("slow").resolve("basket-1.config.json");
+        assertEquals(items, SlowBasketCapture.readItems(basket));
+        var basketJson = new JSONObject(Files.readString(basket));
+        assertEquals(1, basketJson.getLong("catalogVersion"));
+        assertEquals("DYNAMIC", basketJson.getString("engine"));
+        assertFalse(new JSONObject(Files.readString(capturedConfig)).has("item7"));
+        assertEquals(expected, new BasketSplitter(capturedConfig.toString()).split(SlowBasketCapture.readItems(basket)));
+    }
+
+    @Test
+    void captureIfSlow_fasterThanThreshold_writesNothing() {
+        var capture = new SlowBasketCapture(Duration.ofSeconds(1), tempDir);
+
+        capture.captureIfSlow(DeliveryCatalog.of(Map.of("item1", List.of("deliveryOption1"))), 0, "DYNAMIC", List.of("item1"), 1_000);
+
+        assertEquals(0, capture.getCaptured());
+        assertFalse(Files.exists(tempDir.resolve("basket-1.basket.json")));
+    }
+
+    @Test
+    void captureIfSlow_afterMaxCaptures_countsSkippedBaskets() {
+        var capture = new SlowBasketCapture(Duration.ZERO, tempDir, 2);
+        var catalog = DeliveryCatalog.of(Map.of("item1", List.of("deliveryOption1")));
+
+        for (int i = 0; i < 5; i++) {
+            capture.captureIfSlow(catalog, 0, "DYNAMIC", List.of("item1"), 1_000);
+        }
+
+        assertEquals(2, capture.getCaptured());
+        assertEquals(3, capture.getSkipped());
+        assertTrue(Files.exists(tempDir.resolve("basket-2.basket.json")));
+        assertFalse(Files.exists(tempDir.resolve("basket-3.basket.json")));
+    }
+
+    @Test
+    void captureIfSlow_unwritableDirectory_countsFailureWithoutThrowing() throws IOException {
+        Path file = Files.createFile(tempDir.resolve("notADirectory"));
+        var capture = new SlowBasketCapture(Duration.ZERO, file);
+
+        capture.captureIfSlow(DeliveryCatalog.of(Map.of("item1", List.of("deliveryOption1"))), 0, "DYNAMIC", List.of("item1"), 1_000);
+
+        assertEquals(0, capture.getCaptured());
+        assertEquals(1, capture.getWriteFailures());
+    }
+}
@@ -0,0 +1,130 @@
+package com.ocado.basket.json;
+
+import com.ocado.basket.catalog.CatalogSnapshot;
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.catalog.SharedCatalogPool;
+import com.ocado.basket.dto.CompactSplitResult;
+import org.json.JSONObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.*;
+
+class SplitJsonWriterTest {
+    private static final String QUOTED = "say \"hi\" \\ back";
+    private static final String CONTROL = "tab\tnew\nline\u0001";
+    private static final String UNICODE = "\u017C\u00F3\u0142\u0107 \u20AC \uD83D\uDE00";
+
+    private DeliveryCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, List<String>> config = new LinkedHashMap<>();
+        config.put(QUOTED, List.of("Express \"Collection\""));
+        config.put(CONTROL, List.of("Express \"Collection\"", "Courier"));
+        config.put(UNICODE, List.of("Courier"));
+        config.put("plain", List.of("Courier"));
+        catalog = DeliveryCatalog.of(config);
+    }
+
+    @Test
+    void write_compactSplit_parsesToSameMap() throws IOException {
+        var split = CompactSplitResult.of(catalog, Map.of(
+                "Express \"Collection\"", List.of(QUOTED, CONTROL),
+                "Courier", List.of(UNICODE, "plain")));
+        var out = new ByteArrayOutputStream();
+
+        new SplitJsonWriter(out).write(split);
+
+        assertEquals(split.asMap(), parse(out.toByteArray()));
+    }
+
+    @Test
+    void write_compactSplit_longNames_matchesMapOnEveryCatalog(@TempDir Path tempDir) throws IOException {
+        String longQuoted = QUOTED.repeat(40);
+        String longUnicode = UNICODE.repeat(60);
+        Map<String, List<String>> config = new LinkedHashMap<>();
+        config.put(longQuoted, List.of("Courier"));
+        config.put(longUnicode, List.of("Courier"));
+        config.put(CONTROL, List.of("Courier"));
+        Map<String, List<String>> split = Map.of("Courier", List.of(longQuoted, CONTROL, longUnicode));
+        var snapshotFile = tempDir.resolve("catalog.snapshot");
+        CatalogSnapshot.write(DeliveryCatalog.of(config), snapshotFile);
+        var expected = new ByteArrayOutputStream();
+        new SplitJsonWriter(expected).write(split);
+
+        for (DeliveryCatalog each : List.of(DeliveryCatalog.of(config), new SharedCatalogPool().build(config), CatalogSnapshot.open(snapshotFile))) {
+            var out = new ByteArrayOutputStream();
+
+            new SplitJsonWriter(out).write(CompactSplitResult.of(each, split));
+
+            assertEquals(expected.toString(StandardCharsets.UTF_8), out.toString(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void write_map_matchesOrgJson() throws IOException {
+        Map<String, List<String>> split = Map.of("Courier", List.of(QUOTED, CONTROL, UNICODE));
+        var out = new ByteArrayOutputStream();
+
+        new SplitJsonWriter(out).write(split);
+
+        assertEquals(split, parse(out.toByteArray()));
+        assertThat(out.toString(StandardCharsets.UTF_8)).contains("\\\"hi\\\"", "\\\\", "\\t", "\\n", "\\u0001", UNICODE);
+    }
+
+    @Test
+    void write_unpairedSurrogate_writesQuestionMark() throws IOException {
+        var out = new ByteArrayOutputStream();
+
+        new SplitJsonWriter(out).write(Map.of("Courier", List.of("a\uD83Db", "\uDE00")));
+
+        assertEquals("{\"Courier\":[\"a?b\",\"?\"]}", out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void write_toChannel_spanningSeveralBuffers_isComplete() throws IOException {
+        List<String> items = IntStream.range(0, 2000).mapToObj(i -> UNICODE + i).collect(Collectors.toList());
+        var out = new ByteArrayOutputStream();
+        var writer = new SplitJsonWriter(Channels.newChannel(out));
+
+        writer.write(Map.of("Courier", items));
+        writer.write(Map.of());
+
+        String written = out.toString(StandardCharsets.UTF_8);
+        assertTrue(written.endsWith("}{}"));
+        assertEquals(Map.of("Courier", items), parse(written.substring(0, written.length() - 2).getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void asMap_resolvesNamesOnAccess() {
+        var split = CompactSplitResult.of(catalog, Map.of("Courier", List.of("plain", UNICODE)));
+
+        assertEquals(1, split.deliveryCount());
+        assertEquals("Courier", split.optionName(0));
+        assertEquals(List.of("plain", UNICODE), split.asMap().get("Courier"));
+        assertNull(split.asMap().get("Express \"Collection\""));
+        assertThrows(UnsupportedOperationException.class, () -> split.asMap().put("Courier", List.of()));
+        assertThrows(IllegalArgumentException.class, () -> CompactSplitResult.of(catalog, Map.of("Courier", List.of("unknown"))));
+    }
+
+    private static Map<String, List<String>> parse(byte[] json) {
+        JSONObject object = new JSONObject(new String(json, StandardCharsets.UTF_8));
+        Map<String, List<String>> result = new HashMap<>();
+        for (String key : object.keySet()) {
+            result.put(key, object.getJSONArray(key).toList().stream().map(String.class::cast).collect(Collectors.toList()));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,80 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.exceptions.InvalidItemException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+
+class AdaptiveDeliveryCountMinimizerTest {
+
+    private Map<String, List<String>> productToDeliveryOptions;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        productToDeliveryOptions = new HashMap<>();
+    }
+
+    @Test
+    void select_followsThresholds() {
+        var minimizer = new AdaptiveDeliveryCountMinimizer(DeliveryCatalog.of(productToDeliveryOptions));
+        assertEquals(DeliveryCountMinimizerType.BITMASK, minimizer.select(new BasketShape(500, 10, 10, 0.5)));
+        assertEquals(DeliveryCountMinimizerType.BRANCH_AND_BOUND, minimizer.select(new BasketShape(100, 40, 100, 0.1)));
+        assertEquals(DeliveryCountMinimizerType.LINEAR_SET_COVER, minimizer.select(new BasketShape(1000, 60, 900, 0.1)));
+        assertEquals(DeliveryCountMinimizerType.BRANCH_AND_BOUND, minimizer.select(new BasketShape(1000, 600, 900, 0.005)));
+    }
+
+    @Test
+    void optimizeBasket_recordsEngineOfEachCall() {
+        List<String> small = new ArrayList<>();
+        List<String> large = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            productToDeliveryOptions.put("product" + i, List.of("deliveryOption" + i, "deliveryOption" + (i + 1)));
+            (i < 5 ? small : large).add("product" + i);
+        }
+        var counters = new EngineCounters();
+        var minimizer = new AdaptiveDeliveryCountMinimizer(DeliveryCatalog.of(productToDeliveryOptions), AdaptiveThresholds.defaults(), counters);
+
+        assertEquals(3, minimizer.optimizeBasket(small).size());
+        assertEquals(18, minimizer.optimizeBasket(large).size());
+        assertEquals(3, minimizer.optimizeBasket(small).size());
+
+        assertEquals(Map.of(DeliveryCountMinimizerType.BITMASK, 2L, DeliveryCountMinimizerType.BRANCH_AND_BOUND, 1L), counters.snapshot());
+    }
+
+    @Test
+    void optimizeBasket_productNotInDeliveryOptions_throwsInvalidItemException() {
+        productToDeliveryOptions.put("product1", Collections.singletonList("deliveryOption1"));
+        var minimizer = new AdaptiveDeliveryCountMinimizer(DeliveryCatalog.of(productToDeliveryOptions));
+        assertThrows(InvalidItemException.class, () -> minimizer.optimizeBasket(List.of("product1", "product2")));
+    }
+
+    @Test
+    void thresholds_storeAndLoad_roundTrip() throws IOException {
+        var thresholds = AdaptiveThresholds.builder().bitmaskMaxStateBits(14).linearMinSignatures(250).linearMinDensity(0.1).build();
+        Path file = tempDir.resolve("thresholds.properties");
+
+        thresholds.store(file);
+        var loaded = AdaptiveThresholds.load(file);
+
+        assertEquals(14, loaded.getBitmaskMaxStateBits());
+        assertEquals(250, loaded.getLinearMinSignatures());
+        assertEquals(0.1, loaded.getLinearMinDensity());
+    }
+
+    @Test
+    void calibrate_returnsThresholdsWithinMeasuredRange() {
+        var thresholds = new AdaptiveCalibrator(1, 1, Duration.ofMillis(50)).calibrate();
+        assertTrue(thresholds.getBitmaskMaxStateBits() >= 8 && thresholds.getBitmaskMaxStateBits() <= 28);
+        assertTrue(thresholds.getLinearMinSignatures() >= 50);
+    }
+}
@@ -0,0 +1,100 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.exceptions.InvalidItemException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+class BitmaskDeliveryCountMinimizerTest {
+
+    private Map<String, List<String>> productToDeliveryOptions;
+
+    @BeforeEach
+    void setUp() {
+        productToDeliveryOptions = new HashMap<>();
+    }
+
+    @Test
+    void optimizeBasket_emptyBasket_returnsEmptySet() {
+        Set<String> result = minimizer().optimizeBasket(new ArrayList<>());
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void optimizeBasket_multipleProductsDifferentDeliveryOptions_returnsMultipleDeliveryOptions() {
+        productToDeliveryOptions.put("product1", Collections.singletonList("deliveryOption1"));
+        productToDeliveryOptions.put("product2", Collections.singletonList("deliveryOption2"));
+        Set<String> result = minimizer().optimizeBasket(Arrays.asList("product1", "product2"));
+        assertEquals(new HashSet<>(Arrays.asList("deliveryOption1", "deliveryOption2")), result);
+    }
+
+    @Test
+    void optimizeBasket_greedyTrap_returnsTwoDeliveryOptions() {
+        productToDeliveryOptions.put("item1", List.of("deliveryOption1", "deliveryOption2"));
+        productToDeliveryOptions.put("item2", List.of("deliveryOption1", "deliveryOption2"));
+        productToDeliveryOptions.put("item3", List.of("deliveryOption1", "deliveryOption3"));
+        productToDeliveryOptions.put("item4", List.of("deliveryOption1", "deliveryOption3"));
+        productToDeliveryOptions.put("item5", List.of("deliveryOption3"));
+        productToDeliveryOptions.put("item6", List.of("deliveryOption2"));
+        Set<String> result = minimizer().optimizeBasket(List.of("item1", "item2", "item3", "item4", "item5", "item6"));
+        assertEquals(Set.of("deliveryOption2", "deliveryOption3"), result);
+    }
+
+    @Test
+    void optimizeBasket_productNotInDeliveryOptions_throwsInvalidItemException() {
+        productToDeliveryOptions.put("product1", Collections.singletonList("deliveryOption1"));
+        List<String> products = Arrays.asList("product1", "product2");
+        assertThrows(InvalidItemException.class, () -> minimizer().optimizeBasket(products));
+    }
+
+    @Test
+    void optimizeBasket_moreThan64Products_returnsCoveringDeliveryOptions() {
+        List<String> products = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            productToDeliveryOptions.put("product" + i, List.of("deliveryOption" + (i % 3), "deliveryOption" + (3 + i % 5)));
+            products.add("product" + i);
+        }
+        Set<String> result = minimizer().optimizeBasket(products);
+        assertEquals(3, result.size());
+        assertCovers(products, result);
+    }
+
+    @Test
+    void optimizeBasket_randomBaskets_matchesDynamicMinimizerCount() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            productToDeliveryOptions.clear();
+            List<String> products = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                List<String> options = new ArrayList<>();
+                for (int j = 0; j < 6; j++) {
+                    if (random.nextInt(3) == 0) {
+                        options.add("deliveryOption" + j);
+                    }
+                }
+                if (options.isEmpty()) {
+                    options.add("deliveryOption" + random.nextInt(6));
+                }
+                productToDeliveryOptions.put("product" + i, options);
+                products.add("product" + i);
+            }
+            Set<String> result = minimizer().optimizeBasket(products);
+            var dynamicMinimizer = new DynamicDeliveryCountMinimizer(DeliveryCatalog.of(productToDeliveryOptions));
+            assertEquals(dynamicMinimizer.optimizeBasket(products).size(), result.size());
+            assertCovers(products, result);
+        }
+    }
+
+    private void assertCovers(List<String> products, Set<String> deliveryOptions) {
+        for (String product : products) {
+            assertTrue(productToDeliveryOptions.get(product).stream().anyMatch(deliveryOptions::contains), product);
+        }
+    }
+
+    private BitmaskDeliveryCountMinimizer minimizer() {
+        return new BitmaskDeliveryCountMinimizer(DeliveryCatalog.of(productToDeliveryOptions));
+    }
+}
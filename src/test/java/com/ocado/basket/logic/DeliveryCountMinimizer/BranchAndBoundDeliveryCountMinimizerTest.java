@@ -0,0 +1,127 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.dto.DeliveryCover;
+import com.ocado.basket.exceptions.InvalidItemException;
+import com.ocado.basket.logic.BasketModel;
+import com.ocado.basket.logic.Deadline;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+class BranchAndBoundDeliveryCountMinimizerTest {
+
+    private Map<String, List<String>> productToDeliveryOptions;
+
+    @BeforeEach
+    void setUp() {
+        productToDeliveryOptions = new HashMap<>();
+    }
+
+    @Test
+    void optimizeBasket_emptyBasket_returnsEmptySet() {
+        Set<String> result = minimizer().optimizeBasket(new ArrayList<>());
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void optimizeBasket_greedyTrap_returnsTwoDeliveryOptions() {
+        productToDeliveryOptions.put("item1", List.of("deliveryOption1", "deliveryOption2"));
+        productToDeliveryOptions.put("item2", List.of("deliveryOption1", "deliveryOption2"));
+        productToDeliveryOptions.put("item3", List.of("deliveryOption1", "deliveryOption3"));
+        productToDeliveryOptions.put("item4", List.of("deliveryOption1", "deliveryOption3"));
+        productToDeliveryOptions.put("item5", List.of("deliveryOption3"));
+        productToDeliveryOptions.put("item6", List.of("deliveryOption2"));
+        Set<String> result = minimizer().optimizeBasket(List.of("item1", "item2", "item3", "item4", "item5", "item6"));
+        assertEquals(Set.of("deliveryOption2", "deliveryOption3"), result);
+    }
+
+    @Test
+    void optimizeBasket_productNotInDeliveryOptions_throwsInvalidItemException() {
+        productToDeliveryOptions.put("product1", Collections.singletonList("deliveryOption1"));
+        List<String> products = Arrays.asList("product1", "product2");
+        assertThrows(InvalidItemException.class, () -> minimizer().optimizeBasket(products));
+    }
+
+    @Test
+    void optimizeBasket_moreThan64Products_returnsCoveringDeliveryOptions() {
+        List<String> products = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            productToDeliveryOptions.put("product" + i, List.of("deliveryOption" + (i % 3), "deliveryOption" + (3 + i % 5)));
+            products.add("product" + i);
+        }
+        Set<String> result = minimizer().optimizeBasket(products);
+        assertEquals(3, result.size());
+        assertCovers(products, result);
+    }
+
+    @Test
+    void optimizeBasket_randomBaskets_matchesBitmaskMinimizerCount() {
+        Random random = new Random(7);
+        for (int round = 0; round < 60; round++) {
+            productToDeliveryOptions.clear();
+            int productCount = round % 3 == 0 ? 70 : 12;
+            List<String> products = new ArrayList<>();
+            for (int i = 0; i < productCount; i++) {
+                List<String> options = new ArrayList<>();
+                for (int j = 0; j < 10; j++) {
+                    if (random.nextInt(4) == 0) {
+                        options.add("deliveryOption" + j);
+                    }
+                }
+                if (options.isEmpty()) {
+                    options.add("deliveryOption" + random.nextInt(10));
+                }
+                productToDeliveryOptions.put("product" + i, options);
+                products.add("product" + i);
+            }
+            Set<String> result = minimizer().optimizeBasket(products);
+            var bitmaskMinimizer = new BitmaskDeliveryCountMinimizer(DeliveryCatalog.of(productToDeliveryOptions));
+            assertEquals(bitmaskMinimizer.optimizeBasket(products).size(), result.size());
+            assertCovers(products, result);
+        }
+    }
+
+    @Test
+    void lowerBound_disjointProducts_countsEachOfThem() {
+        productToDeliveryOptions.put("product1", List.of("deliveryOption1", "deliveryOption2"));
+        productToDeliveryOptions.put("product2", List.of("deliveryOption3", "deliveryOption4"));
+        productToDeliveryOptions.put("product3", List.of("deliveryOption5"));
+        BasketModel basket = BasketModel.of(DeliveryCatalog.of(productToDeliveryOptions), List.of("product1", "product2", "product3"));
+        assertEquals(3, new BranchAndBoundSolver(basket).lowerBound(basket.allProducts()));
+    }
+
+    @Test
+    void solve_optimalIncumbent_keepsIt() {
+        productToDeliveryOptions.put("product1", List.of("deliveryOption1", "deliveryOption2"));
+        productToDeliveryOptions.put("product2", List.of("deliveryOption1"));
+        BasketModel basket = BasketModel.of(DeliveryCatalog.of(productToDeliveryOptions), List.of("product1", "product2"));
+        BranchAndBoundSolver solver = new BranchAndBoundSolver(basket);
+        int[] incumbent = solver.greedyCover(basket.allProducts());
+        assertArrayEquals(incumbent, solver.solve(incumbent));
+    }
+
+    @Test
+    void optimizeBasket_unboundedDeadline_returnsOptimalCover() {
+        productToDeliveryOptions.put("item1", List.of("deliveryOption1", "deliveryOption2"));
+        productToDeliveryOptions.put("item2", List.of("deliveryOption1", "deliveryOption3"));
+        productToDeliveryOptions.put("item3", List.of("deliveryOption3"));
+        productToDeliveryOptions.put("item4", List.of("deliveryOption2"));
+        DeliveryCover result = minimizer().optimizeBasket(List.of("item1", "item2", "item3", "item4"), Deadline.none());
+        assertTrue(result.isOptimal());
+        assertEquals(2, result.getLowerBound());
+        assertEquals(Set.of("deliveryOption2", "deliveryOption3"), result.getDeliveryOptions());
+    }
+
+    private void assertCovers(List<String> products, Set<String> deliveryOptions) {
+        for (String product : products) {
+            assertTrue(productToDeliveryOptions.get(product).stream().anyMatch(deliveryOptions::contains), product);
+        }
+    }
+
+    private BranchAndBoundDeliveryCountMinimizer minimizer() {
+        return new BranchAndBoundDeliveryCountMinimizer(DeliveryCatalog.of(productToDeliveryOptions));
+    }
+}
@@ -0,0 +1,100 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.dto.DeliveryCover;
+import com.ocado.basket.exceptions.InvalidItemException;
+import com.ocado.basket.logic.Deadline;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ComponentDecomposingDeliveryCountMinimizerTest {
+
+    private Map<String, List<String>> productToDeliveryOptions;
+
+    @BeforeEach
+    void setUp() {
+        productToDeliveryOptions = new HashMap<>();
+        productToDeliveryOptions.put("frozen1", List.of("frozenOption1", "frozenOption2"));
+        productToDeliveryOptions.put("frozen2", List.of("frozenOption2"));
+        productToDeliveryOptions.put("frozen3", List.of("frozenOption3"));
+        productToDeliveryOptions.put("frozen4", List.of("frozenOption3", "frozenOption1"));
+        productToDeliveryOptions.put("marketplace1", List.of("marketplaceOption1"));
+        productToDeliveryOptions.put("marketplace2", List.of("marketplaceOption1", "marketplaceOption2"));
+        productToDeliveryOptions.put("grocery1", List.of("groceryOption1"));
+    }
+
+    @Test
+    void components_groupsProductsSharingDeliveryOptions() {
+        var catalog = DeliveryCatalog.of(productToDeliveryOptions);
+        var minimizer = new ComponentDecomposingDeliveryCountMinimizer(catalog, new BitmaskDeliveryCountMinimizer(catalog));
+
+        var components = minimizer.components(List.of("marketplace1", "frozen1", "grocery1", "frozen3", "marketplace2", "frozen2", "frozen4", "frozen1"));
+
+        assertEquals(List.of(List.of("frozen1", "frozen3", "frozen2", "frozen4", "frozen1"), List.of("marketplace1", "marketplace2"), List.of("grocery1")), components);
+    }
+
+    @Test
+    void optimizeBasket_multipleComponents_returnsUnionOfTheirCovers() {
+        var catalog = DeliveryCatalog.of(productToDeliveryOptions);
+        var minimizer = new ComponentDecomposingDeliveryCountMinimizer(catalog, new DynamicDeliveryCountMinimizer(catalog));
+
+        var result = minimizer.optimizeBasket(List.of("frozen1", "frozen2", "frozen3", "marketplace1", "marketplace2", "grocery1"));
+
+        assertEquals(Set.of("frozenOption2", "frozenOption3", "marketplaceOption1", "groceryOption1"), result);
+    }
+
+    @Test
+    void optimizeBasket_randomComponents_matchesDelegateCount() {
+        Random random = new Random(5);
+        ForkJoinPool pool = new ForkJoinPool(3);
+        try {
+            for (int round = 0; round < 30; round++) {
+                productToDeliveryOptions.clear();
+                List<String> products = new ArrayList<>();
+                for (int i = 0; i < 30; i++) {
+                    int group = random.nextInt(1 + round % 4);
+                    List<String> options = new ArrayList<>();
+                    for (int j = 0; j < 1 + random.nextInt(3); j++) {
+                        options.add("deliveryOption" + group + "_" + random.nextInt(5));
+                    }
+                    productToDeliveryOptions.put("product" + i, options.stream().distinct().toList());
+                    products.add("product" + i);
+                }
+                var catalog = DeliveryCatalog.of(productToDeliveryOptions);
+                var delegate = new BranchAndBoundDeliveryCountMinimizer(catalog);
+                var result = new ComponentDecomposingDeliveryCountMinimizer(catalog, delegate, pool).optimizeBasket(products);
+                assertEquals(delegate.optimizeBasket(products).size(), result.size(), "round " + round);
+                for (String product : products) {
+                    assertTrue(productToDeliveryOptions.get(product).stream().anyMatch(result::contains), product);
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void optimizeBasket_deadline_addsLowerBoundsOfComponents() {
+        var catalog = DeliveryCatalog.of(productToDeliveryOptions);
+        var minimizer = new ComponentDecomposingDeliveryCountMinimizer(catalog, new BranchAndBoundDeliveryCountMinimizer(catalog));
+
+        DeliveryCover result = minimizer.optimizeBasket(List.of("frozen2", "frozen3", "marketplace1", "grocery1"), Deadline.none());
+
+        assertTrue(result.isOptimal());
+        assertEquals(4, result.getLowerBound());
+        assertEquals(Set.of("frozenOption2", "frozenOption3", "marketplaceOption1", "groceryOption1"), result.getDeliveryOptions());
+    }
+
+    @Test
+    void optimizeBasket_productNotInDeliveryOptions_throwsInvalidItemException() {
+        var catalog = DeliveryCatalog.of(productToDeliveryOptions);
+        var minimizer = new ComponentDecomposingDeliveryCountMinimizer(catalog, new DynamicDeliveryCountMinimizer(catalog));
+
+        assertThrows(InvalidItemException.class, () -> minimizer.optimizeBasket(List.of("frozen1", "grocery1", "item7")));
+    }
+}
@@ -1,27 +1,30 @@
 package com.ocado.basket.logic.DeliveryCountMinimizer;
 
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.dto.DeliveryCover;
 import com.ocado.basket.exceptions.InvalidItemException;
+import com.ocado.basket.logic.Deadline;
+import com.ocado.basket.metrics.InMemorySplitMetrics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.Duration;
 import java.util.*;
 
 class DynamicDeliveryCountMinimizerTest {
 
-    private DynamicDeliveryCountMinimizer minimizer;
     private Map<String, List<String>> productToDeliveryOptions;
 
     @BeforeEach
     void setUp() {
         productToDeliveryOptions = new HashMap<>();
-        minimizer = new DynamicDeliveryCountMinimizer(productToDeliveryOptions);
     }
 
     @Test
     void optimizeBasket_emptyBasket_returnsEmptySet() {
         List<String> products = new ArrayList<>();
-        Set<String> result = minimizer.optimizeBasket(products);
+        Set<String> result = minimizer().optimizeBasket(products);
         assertTrue(result.isEmpty());
     }
 
@@ -29,7 +32,7 @@ class DynamicDeliveryCountMinimizerTest {
     void optimizeBasket_singleProductSingleDeliveryOption_returnsSingleDeliveryOption() {
         productToDeliveryOptions.put("product1", Collections.singletonList("deliveryOption1"));
         List<String> products = Collections.singletonList("product1");
-        Set<String> result = minimizer.optimizeBasket(products);
+        Set<String> result = minimizer().optimizeBasket(products);
         assertEquals(Collections.singleton("deliveryOption1"), result);
     }
 
@@ -38,7 +41,7 @@ class DynamicDeliveryCountMinimizerTest {
         productToDeliveryOptions.put("product1", Collections.singletonList("deliveryOption1"));
         productToDeliveryOptions.put("product2", Collections.singletonList("deliveryOption1"));
         List<String> products = Arrays.asList("product1", "product2");
-        Set<String> result = minimizer.optimizeBasket(products);
+        Set<String> result = minimizer().optimizeBasket(products);
         assertEquals(Collections.singleton("deliveryOption1"), result);
     }
 
@@ -47,7 +50,7 @@ class DynamicDeliveryCountMinimizerTest {
         productToDeliveryOptions.put("product1", Collections.singletonList("deliveryOption1"));
         productToDeliveryOptions.put("product2", Collections.singletonList("deliveryOption2"));
         List<String> products = Arrays.asList("product1", "product2");
-        Set<String> result = minimizer.optimizeBasket(products);
+        Set<String> result = minimizer().optimizeBasket(products);
         assertEquals(new HashSet<>(Arrays.asList("deliveryOption1", "deliveryOption2")), result);
     }
 
@@ -55,7 +58,7 @@ class DynamicDeliveryCountMinimizerTest {
     void optimizeBasket_productNotInDeliveryOptions_throwsInvalidItemException() {
         productToDeliveryOptions.put("product1", Collections.singletonList("deliveryOption1"));
         List<String> products = Arrays.asList("product1", "product2");
-        assertThrows(InvalidItemException.class, () -> minimizer.optimizeBasket(products));
+        assertThrows(InvalidItemException.class, () -> minimizer().optimizeBasket(products));
     }
 
     @Test
@@ -67,7 +70,51 @@ class DynamicDeliveryCountMinimizerTest {
         for (int i = 1; i <= 100; i++) {
             products.add("product" + i);
         }
-        Set<String> result = minimizer.optimizeBasket(products);
+        Set<String> result = minimizer().optimizeBasket(products);
         assertTrue(result.size() <= 100);
     }
+
+    @Test
+    void optimizeBasket_expiredDeadline_returnsGreedyCoverWithLowerBound() {
+        putGreedyTrap();
+        DeliveryCover result = minimizer().optimizeBasket(List.of("item1", "item2", "item3", "item4", "item5", "item6"), Deadline.after(Duration.ZERO));
+        assertFalse(result.isOptimal());
+        assertEquals(2, result.getLowerBound());
+        assertEquals(Set.of("deliveryOption1", "deliveryOption2", "deliveryOption3"), result.getDeliveryOptions());
+    }
+
+    @Test
+    void optimizeBasket_unboundedDeadline_returnsOptimalCover() {
+        putGreedyTrap();
+        DeliveryCover result = minimizer().optimizeBasket(List.of("item1", "item2", "item3", "item4", "item5", "item6"), Deadline.none());
+        assertTrue(result.isOptimal());
+        assertEquals(Set.of("deliveryOption2", "deliveryOption3"), result.getDeliveryOptions());
+    }
+
+    @Test
+    void optimizeBasket_withMetrics_recordsMemoSizeAndVisitedStates() {
+        putGreedyTrap();
+        var metrics = new InMemorySplitMetrics();
+
+        new DynamicDeliveryCountMinimizer(DeliveryCatalog.of(productToDeliveryOptions), metrics)
+                .optimizeBasket(List.of("item1", "item2", "item3", "item4", "item5", "item6"));
+
+        var snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.getDynamicMemoSize().getCount());
+        assertTrue(snapshot.getDynamicMemoSize().getMax() > 0);
+        assertTrue(snapshot.getDynamicVisitedStates().getMax() >= snapshot.getDynamicMemoSize().getMax());
+    }
+
+    private void putGreedyTrap() {
+        productToDeliveryOptions.put("item1", List.of("deliveryOption1", "deliveryOption2"));
+        productToDeliveryOptions.put("item2", List.of("deliveryOption1", "deliveryOption2"));
+        productToDeliveryOptions.put("item3", List.of("deliveryOption1", "deliveryOption3"));
+        productToDeliveryOptions.put("item4", List.of("deliveryOption1", "deliveryOption3"));
+        productToDeliveryOptions.put("item5", List.of("deliveryOption3"));
+        productToDeliveryOptions.put("item6", List.of("deliveryOption2"));
+    }
+
+    private DynamicDeliveryCountMinimizer minimizer() {
+        return new DynamicDeliveryCountMinimizer(DeliveryCatalog.of(productToDeliveryOptions));
+    }
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.exceptions.InvalidItemException;
+import com.ocado.basket.logic.Deadline;
+import com.ocado.basket.metrics.InMemorySplitMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+
+class LinearDeliveryCountMinimizerTest {
+
+    private Map<String, List<String>> productToDeliveryOptions;
+
+    @BeforeEach
+    void setUp() {
+        productToDeliveryOptions = new HashMap<>();
+    }
+
+    @Test
+    void optimizeBasket_setCoverEmptyBasket_returnsEmptySet() {
+        Set<String> result = minimizer(LinearDeliveryCountMinimizer.Formulation.SET_COVER).optimizeBasket(new ArrayList<>());
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void optimizeBasket_greedyTrap_returnsTwoDeliveryOptionsWithBothFormulations() {
+        productToDeliveryOptions.put("item1", List.of("deliveryOption1", "deliveryOption2"));
+        productToDeliveryOptions.put("item2", List.of("deliveryOption1", "deliveryOption2"));
+        productToDeliveryOptions.put("item3", List.of("deliveryOption1", "deliveryOption3"));
+        productToDeliveryOptions.put("item4", List.of("deliveryOption1", "deliveryOption3"));
+        productToDeliveryOptions.put("item5", List.of("deliveryOption3"));
+        productToDeliveryOptions.put("item6", List.of("deliveryOption2"));
+        List<String> products = List.of("item1", "item2", "item3", "item4", "item5", "item6");
+        for (var formulation : LinearDeliveryCountMinimizer.Formulation.values()) {
+            assertEquals(Set.of("deliveryOption2", "deliveryOption3"), minimizer(formulation).optimizeBasket(products), formulation.name());
+        }
+    }
+
+    @Test
+    void optimizeBasket_productAssignmentRepeatedProducts_returnsCoverOfDistinctProducts() {
+        productToDeliveryOptions.put("item1", List.of("deliveryOption1", "deliveryOption2"));
+        productToDeliveryOptions.put("item2", List.of("deliveryOption2"));
+        var minimizer = minimizer(LinearDeliveryCountMinimizer.Formulation.PRODUCT_ASSIGNMENT);
+        List<String> products = List.of("item1", "item2", "item1", "item2");
+
+        assertEquals(Set.of("deliveryOption2"), minimizer.optimizeBasket(products));
+        assertEquals(Set.of("deliveryOption2"), minimizer.optimizeBasket(products, Deadline.none()).getDeliveryOptions());
+    }
+
+    @Test
+    void optimizeBasket_setCoverAfterClose_stillReturnsOptimalCover() {
+        productToDeliveryOptions.put("item1", List.of("deliveryOption1", "deliveryOption2"));
+        productToDeliveryOptions.put("item2", List.of("deliveryOption1", "deliveryOption2"));
+        productToDeliveryOptions.put("item3", List.of("deliveryOption1", "deliveryOption3"));
+        productToDeliveryOptions.put("item4", List.of("deliveryOption1", "deliveryOption3"));
+        productToDeliveryOptions.put("item5", List.of("deliveryOption3"));
+        productToDeliveryOptions.put("item6", List.of("deliveryOption2"));
+        List<String> products = List.of("item1", "item2", "item3", "item4", "item5", "item6");
+        var minimizer = minimizer(LinearDeliveryCountMinimizer.Formulation.SET_COVER);
+
+        Set<String> beforeClose = minimizer.optimizeBasket(products);
+        minimizer.close();
+
+        assertEquals(Set.of("deliveryOption2", "deliveryOption3"), beforeClose);
+        assertEquals(beforeClose, minimizer.optimizeBasket(products));
+        minimizer.close();
+    }
+
+    @Test
+    void optimizeBasket_setCoverProductNotInDeliveryOptions_throwsInvalidItemException() {
+        productToDeliveryOptions.put("product1", Collections.singletonList("deliveryOption1"));
+        List<String> products = Arrays.asList("product1", "product2");
+        var minimizer = minimizer(LinearDeliveryCountMinimizer.Formulation.SET_COVER);
+        assertThrows(InvalidItemException.class, () -> minimizer.optimizeBasket(products));
+    }
+
+    @Test
+    void optimizeBasket_setCoverRandomBaskets_matchesBitmaskMinimizerCount() {
+        Random random = new Random(11);
+        for (int round = 0; round < 20; round++) {
+            productToDeliveryOptions.clear();
+            List<String> products = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                List<String> options = new ArrayList<>();
+                for (int j = 0; j < 12; j++) {
+                    if (random.nextInt(5) == 0) {
+                        options.add("deliveryOption" + j);
+                    }
+                }
+                if (options.isEmpty()) {
+                    options.add("deliveryOption" + random.nextInt(12));
+                }
+                productToDeliveryOptions.put("product" + i, options);
+                products.add("product" + i);
+            }
+            Set<String> result = minimizer(LinearDeliveryCountMinimizer.Formulation.SET_COVER).optimizeBasket(products);
+            var bitmaskMinimizer = new BitmaskDeliveryCountMinimizer(DeliveryCatalog.of(productToDeliveryOptions));
+            assertEquals(bitmaskMinimizer.optimizeBasket(products).size(), result.size());
+            for (String product : products) {
+                assertTrue(productToDeliveryOptions.get(product).stream().anyMatch(result::contains), product);
+            }
+        }
+    }
+
+    @Test
+    void optimizeBasket_setCoverWithMetrics_recordsModelSizeAndSolveTime() {
+        productToDeliveryOptions.put("item1", List.of("deliveryOption1", "deliveryOption2"));
+        productToDeliveryOptions.put("item2", List.of("deliveryOption1", "deliveryOption2"));
+        productToDeliveryOptions.put("item3", List.of("deliveryOption1", "deliveryOption3"));
+        productToDeliveryOptions.put("item4", List.of("deliveryOption1", "deliveryOption3"));
+        productToDeliveryOptions.put("item5", List.of("deliveryOption3"));
+        productToDeliveryOptions.put("item6", List.of("deliveryOption2"));
+        var metrics = new InMemorySplitMetrics();
+        var minimizer = new LinearDeliveryCountMinimizer(DeliveryCatalog.of(productToDeliveryOptions), LinearDeliveryCountMinimizer.Formulation.SET_COVER, metrics);
+
+        minimizer.optimizeBasket(List.of("item1", "item2", "item3", "item4", "item5", "item6"));
+
+        var snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.getLinearSolveNanos().getCount());
+        assertEquals(3, snapshot.getLinearVariables().getMax());
+        assertEquals(7, snapshot.getLinearConstraints().getMax());
+    }
+
+    private LinearDeliveryCountMinimizer minimizer(LinearDeliveryCountMinimizer.Formulation formulation) {
+        return new LinearDeliveryCountMinimizer(DeliveryCatalog.of(productToDeliveryOptions), formulation);
+    }
+}
@@ -0,0 +1,118 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.dto.DeliveryCover;
+import com.ocado.basket.exceptions.InvalidItemException;
+import com.ocado.basket.logic.BasketModel;
+import com.ocado.basket.logic.Deadline;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+class ParallelDeliveryCountMinimizerTest {
+
+    private static ForkJoinPool pool;
+    private Map<String, List<String>> productToDeliveryOptions;
+
+    @BeforeAll
+    static void startPool() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterAll
+    static void stopPool() {
+        pool.shutdown();
+    }
+
+    @BeforeEach
+    void setUp() {
+        productToDeliveryOptions = new HashMap<>();
+    }
+
+    @Test
+    void optimizeBasket_emptyBasket_returnsEmptySet() {
+        Set<String> result = minimizer().optimizeBasket(new ArrayList<>());
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void optimizeBasket_greedyTrap_returnsTwoDeliveryOptions() {
+        productToDeliveryOptions.put("item1", List.of("deliveryOption1", "deliveryOption2"));
+        productToDeliveryOptions.put("item2", List.of("deliveryOption1", "deliveryOption2"));
+        productToDeliveryOptions.put("item3", List.of("deliveryOption1", "deliveryOption3"));
+        productToDeliveryOptions.put("item4", List.of("deliveryOption1", "deliveryOption3"));
+        productToDeliveryOptions.put("item5", List.of("deliveryOption3"));
+        productToDeliveryOptions.put("item6", List.of("deliveryOption2"));
+        Set<String> result = minimizer().optimizeBasket(List.of("item1", "item2", "item3", "item4", "item5", "item6"));
+        assertEquals(Set.of("deliveryOption2", "deliveryOption3"), result);
+    }
+
+    @Test
+    void optimizeBasket_productNotInDeliveryOptions_throwsInvalidItemException() {
+        productToDeliveryOptions.put("product1", Collections.singletonList("deliveryOption1"));
+        List<String> products = Arrays.asList("product1", "product2");
+        assertThrows(InvalidItemException.class, () -> minimizer().optimizeBasket(products));
+    }
+
+    @Test
+    void optimizeBasket_randomBaskets_returnsSameCoverAsSequentialBranchAndBound() {
+        Random random = new Random(11);
+        for (int round = 0; round < 60; round++) {
+            productToDeliveryOptions.clear();
+            int productCount = round % 3 == 0 ? 90 : 20;
+            List<String> products = new ArrayList<>();
+            for (int i = 0; i < productCount; i++) {
+                List<String> options = new ArrayList<>();
+                for (int j = 0; j < 14; j++) {
+                    if (random.nextInt(5) == 0) {
+                        options.add("deliveryOption" + j);
+                    }
+                }
+                if (options.isEmpty()) {
+                    options.add("deliveryOption" + random.nextInt(14));
+                }
+                productToDeliveryOptions.put("product" + i, options);
+                products.add("product" + i);
+            }
+            var sequential = new BranchAndBoundDeliveryCountMinimizer(DeliveryCatalog.of(productToDeliveryOptions));
+            assertEquals(sequential.optimizeBasket(products), minimizer().optimizeBasket(products), "round " + round);
+        }
+    }
+
+    @Test
+    void solve_forkingEveryLevel_returnsSameCoverAsSequentialSolver() {
+        Random random = new Random(3);
+        for (int round = 0; round < 20; round++) {
+            productToDeliveryOptions.clear();
+            List<String> products = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                productToDeliveryOptions.put("product" + i, List.of("deliveryOption" + random.nextInt(12), "deliveryOption" + random.nextInt(12)));
+                products.add("product" + i);
+            }
+            BasketModel basket = BasketModel.of(DeliveryCatalog.of(productToDeliveryOptions), products);
+            var parallel = new ParallelBranchAndBoundSolver(basket, pool, Integer.MAX_VALUE, 0);
+            assertArrayEquals(new BranchAndBoundSolver(basket).solve(), parallel.solve(), "round " + round);
+            assertTrue(parallel.isOptimal());
+        }
+    }
+
+    @Test
+    void optimizeBasket_unboundedDeadline_returnsOptimalCover() {
+        productToDeliveryOptions.put("item1", List.of("deliveryOption1", "deliveryOption2"));
+        productToDeliveryOptions.put("item2", List.of("deliveryOption1", "deliveryOption3"));
+        productToDeliveryOptions.put("item3", List.of("deliveryOption3"));
+        productToDeliveryOptions.put("item4", List.of("deliveryOption2"));
+        DeliveryCover result = minimizer().optimizeBasket(List.of("item1", "item2", "item3", "item4"), Deadline.none());
+        assertTrue(result.isOptimal());
+        assertEquals(Set.of("deliveryOption2", "deliveryOption3"), result.getDeliveryOptions());
+    }
+
+    private ParallelDeliveryCountMinimizer minimizer() {
+        return new ParallelDeliveryCountMinimizer(DeliveryCatalog.of(productToDeliveryOptions), pool, 2, 8);
+    }
+}
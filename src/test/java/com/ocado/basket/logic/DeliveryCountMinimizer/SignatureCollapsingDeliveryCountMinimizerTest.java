@@ -0,0 +1,54 @@
+package com.ocado.basket.logic.DeliveryCountMinimizer;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.exceptions.InvalidItemException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SignatureCollapsingDeliveryCountMinimizerTest {
+
+    private Map<String, List<String>> productToDeliveryOptions;
+
+    @BeforeEach
+    void setUp() {
+        productToDeliveryOptions = new HashMap<>();
+        productToDeliveryOptions.put("item1", List.of("deliveryOption1", "deliveryOption2"));
+        productToDeliveryOptions.put("item2", List.of("deliveryOption2", "deliveryOption1"));
+        productToDeliveryOptions.put("item3", List.of("deliveryOption1", "deliveryOption3"));
+        productToDeliveryOptions.put("item4", List.of("deliveryOption1", "deliveryOption3"));
+        productToDeliveryOptions.put("item5", List.of("deliveryOption3"));
+        productToDeliveryOptions.put("item6", List.of("deliveryOption2"));
+    }
+
+    @Test
+    void collapse_keepsOneProductPerSignature() {
+        var catalog = DeliveryCatalog.of(productToDeliveryOptions);
+        var minimizer = new SignatureCollapsingDeliveryCountMinimizer(catalog, new BitmaskDeliveryCountMinimizer(catalog));
+
+        var collapsed = minimizer.collapse(List.of("item1", "item2", "item3", "item4", "item5", "item6"));
+
+        assertEquals(List.of("item1", "item3", "item5", "item6"), collapsed);
+    }
+
+    @Test
+    void optimizeBasket_returnsSameDeliveryOptionsAsDelegate() {
+        var catalog = DeliveryCatalog.of(productToDeliveryOptions);
+        var minimizer = new SignatureCollapsingDeliveryCountMinimizer(catalog, new DynamicDeliveryCountMinimizer(catalog));
+
+        var result = minimizer.optimizeBasket(List.of("item1", "item2", "item3", "item4", "item5", "item6"));
+
+        assertEquals(Set.of("deliveryOption2", "deliveryOption3"), result);
+    }
+
+    @Test
+    void optimizeBasket_productNotInDeliveryOptions_throwsInvalidItemException() {
+        var catalog = DeliveryCatalog.of(productToDeliveryOptions);
+        var minimizer = new SignatureCollapsingDeliveryCountMinimizer(catalog, new DynamicDeliveryCountMinimizer(catalog));
+
+        assertThrows(InvalidItemException.class, () -> minimizer.optimizeBasket(List.of("item1", "item7")));
+    }
+}
@@ -1,29 +1,36 @@
 package com.ocado.basket.logic;
 
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.catalog.SharedCatalogPool;
+import com.ocado.basket.dto.DeliveryInfoDto;
 import com.ocado.basket.exceptions.InvalidItemException;
 import org.junit.jupiter.api.BeforeEach;
+import com.ocado.basket.logic.DeliveryCountMinimizer.BranchAndBoundDeliveryCountMinimizer;
+import org.json.JSONObject;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 import java.util.stream.Collectors;
 
 class ItemsCountMaximizerTest {
 
-    private ItemsCountMaximizer maximizer;
     private Map<String, List<String>> deliveryOptions;
 
     @BeforeEach
     void setUp() {
         deliveryOptions = new HashMap<>();
-        maximizer = new ItemsCountMaximizer(deliveryOptions);
     }
 
     @Test
     void optimizeDeliveryItems_emptyItemSet_returnsEmptyMap() {
         List<String> itemSet = new ArrayList<>();
         Set<String> optimalDeliveries = new HashSet<>();
-        Map<String, List<String>> result = maximizer.optimizeDeliveryItems(itemSet, optimalDeliveries);
+        Map<String, List<String>> result = maximizer().optimizeDeliveryItems(itemSet, optimalDeliveries);
         assertTrue(result.isEmpty());
     }
 
@@ -32,7 +39,7 @@ class ItemsCountMaximizerTest {
         deliveryOptions.put("item1", Collections.singletonList("deliveryOption1"));
         List<String> itemSet = Collections.singletonList("item1");
         Set<String> optimalDeliveries = new HashSet<>(Collections.singletonList("deliveryOption1"));
-        Map<String, List<String>> result = maximizer.optimizeDeliveryItems(itemSet, optimalDeliveries);
+        Map<String, List<String>> result = maximizer().optimizeDeliveryItems(itemSet, optimalDeliveries);
         assertEquals(Collections.singletonMap("deliveryOption1", Collections.singletonList("item1")), result);
     }
 
@@ -42,7 +49,7 @@ void optimizeDeliveryItems_multipleItemsSameDeliveryOption_returnsSingleDelivery
     deliveryOptions.put("item2", Collections.singletonList("deliveryOption1"));
     List<String> itemSet = Arrays.asList("item1", "item2");
     Set<String> optimalDeliveries = new HashSet<>(Collections.singletonList("deliveryOption1"));
-    Map<String, List<String>> result = maximizer.optimizeDeliveryItems(itemSet, optimalDeliveries);
+    Map<String, List<String>> result = maximizer().optimizeDeliveryItems(itemSet, optimalDeliveries);
     Map<String, Set<String>> resultSet = result.entrySet().stream()
             .collect(Collectors.toMap(Map.Entry::getKey, e -> new HashSet<>(e.getValue())));
     Map<String, Set<String>> expectedSet = new HashMap<>();
@@ -56,7 +63,7 @@ void optimizeDeliveryItems_multipleItemsSameDeliveryOption_returnsSingleDelivery
         deliveryOptions.put("item2", Collections.singletonList("deliveryOption2"));
         List<String> itemSet = Arrays.asList("item1", "item2");
         Set<String> optimalDeliveries = new HashSet<>(Arrays.asList("deliveryOption1", "deliveryOption2"));
-        Map<String, List<String>> result = maximizer.optimizeDeliveryItems(itemSet, optimalDeliveries);
+        Map<String, List<String>> result = maximizer().optimizeDeliveryItems(itemSet, optimalDeliveries);
         Map<String, List<String>> expected = new HashMap<>();
         expected.put("deliveryOption1", Collections.singletonList("item1"));
         expected.put("deliveryOption2", Collections.singletonList("item2"));
@@ -68,6 +75,89 @@ void optimizeDeliveryItems_multipleItemsSameDeliveryOption_returnsSingleDelivery
         deliveryOptions.put("item1", Collections.singletonList("deliveryOption1"));
         List<String> itemSet = Arrays.asList("item1", "item2");
         Set<String> optimalDeliveries = new HashSet<>(Collections.singletonList("deliveryOption1"));
-        assertThrows(InvalidItemException.class, () -> maximizer.optimizeDeliveryItems(itemSet, optimalDeliveries));
+        assertThrows(InvalidItemException.class, () -> maximizer().optimizeDeliveryItems(itemSet, optimalDeliveries));
+    }
+
+    @Test
+    void optimizeDeliveryItems_redundantDeliveryOption_keepsItWithNoItems() {
+        deliveryOptions.put("item1", List.of("deliveryOption1", "deliveryOption2"));
+        deliveryOptions.put("item2", List.of("deliveryOption1"));
+        Map<String, List<String>> result = maximizer().optimizeDeliveryItems(List.of("item1", "item2"), Set.of("deliveryOption1", "deliveryOption2"));
+        assertEquals(Set.of("item1", "item2"), new HashSet<>(result.get("deliveryOption1")));
+        assertEquals(List.of(), result.get("deliveryOption2"));
+    }
+
+    @Test
+    void optimizeDeliveryItems_randomConfigs_matchesBaselineIncludingTies(@TempDir Path configDir) throws IOException {
+        Random random = new Random(3);
+        // another tenant loaded first numbers the items in the pool in reverse
+        SharedCatalogPool pool = new SharedCatalogPool();
+        Map<String, List<String>> otherTenant = new LinkedHashMap<>();
+        for (int i = 59; i >= 0; i--) {
+            otherTenant.put("item" + i, List.of("deliveryOption0"));
+        }
+        pool.build(otherTenant);
+        for (int round = 0; round < 300; round++) {
+            deliveryOptions.clear();
+            int optionCount = 1 + random.nextInt(round % 2 == 0 ? 6 : 40);
+            List<String> items = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(round % 3 == 0 ? 12 : 60); i++) {
+                Set<String> options = new LinkedHashSet<>();
+                for (int j = 0; j < 1 + random.nextInt(4); j++) {
+                    options.add("deliveryOption" + random.nextInt(optionCount));
+                }
+                deliveryOptions.put("item" + i, new ArrayList<>(options));
+                if (random.nextInt(4) > 0) {
+                    items.add("item" + i);
+                }
+                if (random.nextInt(10) == 0) {
+                    items.add("item" + i);
+                }
+            }
+            Path config = configDir.resolve("config" + round + ".json");
+            Files.writeString(config, new JSONObject(deliveryOptions).toString());
+            DeliveryCatalog catalog = new ConfigLoader().loadCatalog(config.toString());
+            Set<String> selected = new HashSet<>();
+            if (round % 4 == 0) {
+                selected.addAll(new BranchAndBoundDeliveryCountMinimizer(catalog).optimizeBasket(items));
+            } else {
+                for (int j = 0; j < optionCount; j++) {
+                    selected.add("deliveryOption" + j);
+                }
+            }
+
+            var baseline = new BaselineItemsCountMaximizer(new ConfigLoader().loadDeliveryOptions(config.toString()));
+            var expected = new ArrayList<>(baseline.optimizeDeliveryItems(items, selected).entrySet());
+            var maximizer = new ItemsCountMaximizer(catalog);
+            var streamed = new ItemsCountMaximizer(new StreamingConfigLoader().loadCatalog(config.toString()));
+            var pooled = new ItemsCountMaximizer(new SharedCatalogLoader(pool, new ConfigLoader()).loadCatalog(config.toString()));
+
+            assertEquals(expected, new ArrayList<>(maximizer.optimizeDeliveryItems(items, selected).entrySet()), "round " + round);
+            assertEquals(expected, new ArrayList<>(streamed.optimizeDeliveryItems(items, selected).entrySet()), "round " + round);
+            assertEquals(expected, new ArrayList<>(pooled.optimizeDeliveryItems(items, selected).entrySet()), "round " + round);
+            assertEquals(expected, new ArrayList<>(optimizeDeliveryItemsByRounds(maximizer, items, selected).entrySet()), "round " + round);
+        }
+    }
+
+    /**
+     * Step by step reference of {@link ItemsCountMaximizer#optimizeDeliveryItems} built from its public round methods,
+     * rescanning the remaining items every round
+     */
+    private static Map<String, List<String>> optimizeDeliveryItemsByRounds(ItemsCountMaximizer maximizer, List<String> itemSet, Set<String> optimalDeliveries) {
+        Set<String> remainingItems = new HashSet<>(itemSet);
+        Map<String, List<String>> splitDeliveries = new HashMap<>();
+        Map<String, Long> deliveryCounts = maximizer.countDeliveryOptions(remainingItems, optimalDeliveries);
+        while (!deliveryCounts.isEmpty()) {
+            DeliveryInfoDto maxDeliveryOption = maximizer.computeMaxDeliveryOption(deliveryCounts, remainingItems);
+            splitDeliveries.put(maxDeliveryOption.getDeliveryName(), maxDeliveryOption.getDeliveryItems());
+            maxDeliveryOption.getDeliveryItems().forEach(remainingItems::remove);
+            deliveryCounts = maximizer.updateDeliveryCounts(deliveryCounts, maxDeliveryOption, optimalDeliveries);
+        }
+        assertTrue(remainingItems.isEmpty());
+        return splitDeliveries;
+    }
+
+    private ItemsCountMaximizer maximizer() {
+        return new ItemsCountMaximizer(DeliveryCatalog.of(deliveryOptions));
     }
 }
\ No newline at end of file
@@ -0,0 +1,140 @@
+package com.ocado.basket.logic;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.dto.BoundedSplitResult;
+import com.ocado.basket.exceptions.InvalidItemException;
+import com.ocado.basket.logic.DeliveryCountMinimizer.BranchAndBoundDeliveryCountMinimizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LexicographicSplitterTest {
+
+    private Map<String, List<String>> deliveryOptions;
+
+    @BeforeEach
+    void setUp() {
+        deliveryOptions = new HashMap<>();
+    }
+
+    @Test
+    void split_emptyBasket_returnsEmptyMap() {
+        assertEquals(Map.of(), splitter().split(List.of()));
+    }
+
+    @Test
+    void split_greedyTrap_returnsTwoDeliveries() {
+        deliveryOptions.put("item1", List.of("deliveryOption1", "deliveryOption2"));
+        deliveryOptions.put("item2", List.of("deliveryOption1", "deliveryOption2"));
+        deliveryOptions.put("item3", List.of("deliveryOption1", "deliveryOption3"));
+        deliveryOptions.put("item4", List.of("deliveryOption1", "deliveryOption3"));
+        deliveryOptions.put("item5", List.of("deliveryOption3"));
+        deliveryOptions.put("item6", List.of("deliveryOption2"));
+
+        Map<String, List<String>> result = splitter().split(List.of("item1", "item2", "item3", "item4", "item5", "item6"));
+
+        assertEquals(Set.of("item1", "item2", "item6"), new HashSet<>(result.get("deliveryOption2")));
+        assertEquals(Set.of("item3", "item4", "item5"), new HashSet<>(result.get("deliveryOption3")));
+    }
+
+    @Test
+    void split_severalMinimalCovers_picksTheOneWithLargestDelivery() {
+        deliveryOptions.put("item1", List.of("deliveryOption1", "deliveryOption3"));
+        deliveryOptions.put("item2", List.of("deliveryOption1", "deliveryOption3"));
+        deliveryOptions.put("item3", List.of("deliveryOption2", "deliveryOption3"));
+        deliveryOptions.put("item4", List.of("deliveryOption2", "deliveryOption4"));
+
+        Map<String, List<String>> result = splitter().split(List.of("item1", "item2", "item3", "item4"));
+
+        assertEquals(2, result.size());
+        assertEquals(Set.of("item1", "item2", "item3"), new HashSet<>(result.get("deliveryOption3")));
+    }
+
+    @Test
+    void split_itemWithoutDeliveryOptions_throwsInvalidItemException() {
+        deliveryOptions.put("item1", List.of("deliveryOption1"));
+        assertThrows(InvalidItemException.class, () -> splitter().split(List.of("item1", "item2")));
+    }
+
+    @Test
+    void split_expiredDeadline_returnsCompleteSplitWithLowerBound() {
+        deliveryOptions.put("item1", List.of("deliveryOption1", "deliveryOption2"));
+        deliveryOptions.put("item2", List.of("deliveryOption1", "deliveryOption2"));
+        deliveryOptions.put("item3", List.of("deliveryOption1", "deliveryOption3"));
+        deliveryOptions.put("item4", List.of("deliveryOption1", "deliveryOption3"));
+        deliveryOptions.put("item5", List.of("deliveryOption3"));
+        deliveryOptions.put("item6", List.of("deliveryOption2"));
+        List<String> items = new ArrayList<>();
+        for (int i = 1; i <= 6; i++) {
+            items.add("item" + i);
+        }
+
+        BoundedSplitResult result = splitter().split(items, Deadline.after(Duration.ZERO));
+
+        assertEquals(2, result.getLowerBound());
+        assertTrue(result.getDeliveries().size() >= 2);
+        assertEquals(6, result.getDeliveries().values().stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void split_randomBaskets_matchesExhaustiveLexicographicOptimum() {
+        Random random = new Random(7);
+        for (int round = 0; round < 100; round++) {
+            deliveryOptions.clear();
+            int optionCount = 1 + random.nextInt(10);
+            List<String> items = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(25); i++) {
+                Set<String> options = new LinkedHashSet<>();
+                for (int j = 0; j < 1 + random.nextInt(3); j++) {
+                    options.add("deliveryOption" + random.nextInt(optionCount));
+                }
+                deliveryOptions.put("item" + i, new ArrayList<>(options));
+                items.add("item" + i);
+            }
+
+            Map<String, List<String>> result = splitter().split(items);
+
+            int[] expected = exhaustiveOptimum(items, optionCount);
+            assertEquals(new BranchAndBoundDeliveryCountMinimizer(DeliveryCatalog.of(deliveryOptions)).optimizeBasket(items).size(), result.size());
+            assertEquals(expected[0], result.size());
+            assertEquals(expected[1], result.values().stream().mapToInt(List::size).max().orElse(0));
+            assertEquals(new HashSet<>(items), result.values().stream().flatMap(List::stream).collect(HashSet::new, Set::add, Set::addAll));
+        }
+    }
+
+    /**
+     * @return smallest number of options covering the items, then the most items one option of such a cover covers
+     */
+    private int[] exhaustiveOptimum(List<String> items, int optionCount) {
+        int[] best = {Integer.MAX_VALUE, 0};
+        for (int subset = 1; subset < 1 << optionCount; subset++) {
+            int size = Integer.bitCount(subset);
+            int[] covered = new int[optionCount];
+            boolean cover = true;
+            for (String item : items) {
+                boolean itemCovered = false;
+                for (String option : deliveryOptions.get(item)) {
+                    int id = Integer.parseInt(option.substring("deliveryOption".length()));
+                    if ((subset & 1 << id) != 0) {
+                        covered[id]++;
+                        itemCovered = true;
+                    }
+                }
+                cover &= itemCovered;
+            }
+            int largest = Arrays.stream(covered).max().orElse(0);
+            if (cover && (size < best[0] || size == best[0] && largest > best[1])) {
+                best = new int[]{size, largest};
+            }
+        }
+        return best;
+    }
+
+    private LexicographicSplitter splitter() {
+        return new LexicographicSplitter(DeliveryCatalog.of(deliveryOptions));
+    }
+}
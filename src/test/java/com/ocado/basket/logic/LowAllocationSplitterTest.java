@@ -0,0 +1,110 @@
+package com.ocado.basket.logic;
+
+import com.ocado.basket.catalog.DeliveryCatalog;
+import com.ocado.basket.dto.BoundedSplitResult;
+import com.ocado.basket.exceptions.InvalidItemException;
+import com.ocado.basket.logic.DeliveryCountMinimizer.BranchAndBoundDeliveryCountMinimizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LowAllocationSplitterTest {
+
+    private Map<String, List<String>> deliveryOptions;
+
+    @BeforeEach
+    void setUp() {
+        deliveryOptions = new HashMap<>();
+    }
+
+    @Test
+    void split_emptyBasket_returnsEmptyMap() {
+        assertEquals(Map.of(), splitter().split(List.of()));
+    }
+
+    @Test
+    void split_greedyTrap_returnsTwoDeliveriesInBasketOrder() {
+        greedyTrap();
+
+        Map<String, List<String>> result = splitter().split(List.of("item6", "item1", "item2", "item3", "item4", "item5", "item1"));
+
+        assertEquals(Map.of("deliveryOption2", List.of("item6", "item1", "item2"), "deliveryOption3", List.of("item3", "item4", "item5")), result);
+    }
+
+    @Test
+    void split_itemWithoutDeliveryOptions_throwsAndKeepsWorking() {
+        deliveryOptions.put("item1", List.of("deliveryOption1"));
+        LowAllocationSplitter splitter = splitter();
+
+        assertThrows(InvalidItemException.class, () -> splitter.split(List.of("item1", "item2")));
+        assertEquals(Map.of("deliveryOption1", List.of("item1")), splitter.split(List.of("item1")));
+    }
+
+    @Test
+    void split_expiredDeadline_returnsCompleteSplitWithLowerBound() {
+        greedyTrap();
+
+        BoundedSplitResult result = splitter().split(List.of("item1", "item2", "item3", "item4", "item5", "item6"), Deadline.after(Duration.ZERO));
+
+        assertEquals(2, result.getLowerBound());
+        assertTrue(result.getDeliveries().size() >= 2);
+        assertEquals(6, result.getDeliveries().values().stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void split_randomBasketsOnReusedScratch_matchesBranchAndBoundCoverAndGreedyLargestDelivery() {
+        Random random = new Random(11);
+        for (int round = 0; round < 200; round++) {
+            deliveryOptions.clear();
+            int optionCount = 1 + random.nextInt(12);
+            int productCount = 1 + random.nextInt(150);
+            for (int i = 0; i < productCount; i++) {
+                Set<String> options = new LinkedHashSet<>();
+                for (int j = 0; j < 1 + random.nextInt(4); j++) {
+                    options.add("deliveryOption" + random.nextInt(optionCount));
+                }
+                deliveryOptions.put("item" + i, new ArrayList<>(options));
+            }
+            DeliveryCatalog catalog = DeliveryCatalog.of(deliveryOptions);
+            LowAllocationSplitter splitter = new LowAllocationSplitter(catalog);
+            for (int basket = 0; basket < 5; basket++) {
+                List<String> items = new ArrayList<>();
+                for (int i = 0; i < 1 + random.nextInt(productCount + 5); i++) {
+                    items.add("item" + random.nextInt(productCount));
+                }
+
+                Map<String, List<String>> result = splitter.split(items);
+
+                Set<String> cover = new BranchAndBoundDeliveryCountMinimizer(catalog).optimizeBasket(items);
+                assertEquals(cover, result.keySet());
+                Map<String, List<String>> greedy = new ItemsCountMaximizer(catalog).optimizeDeliveryItems(items, cover);
+                assertEquals(largest(greedy), largest(result));
+                List<String> assigned = result.values().stream().flatMap(List::stream).toList();
+                assertEquals(new HashSet<>(items), new HashSet<>(assigned));
+                assertEquals(assigned.size(), new HashSet<>(assigned).size());
+                result.forEach((delivery, deliveryItems) -> deliveryItems.forEach(item -> assertTrue(deliveryOptions.get(item).contains(delivery))));
+            }
+        }
+    }
+
+    private static int largest(Map<String, List<String>> split) {
+        return split.values().stream().mapToInt(List::size).max().orElse(0);
+    }
+
+    private void greedyTrap() {
+        deliveryOptions.put("item1", List.of("deliveryOption1", "deliveryOption2"));
+        deliveryOptions.put("item2", List.of("deliveryOption1", "deliveryOption2"));
+        deliveryOptions.put("item3", List.of("deliveryOption1", "deliveryOption3"));
+        deliveryOptions.put("item4", List.of("deliveryOption1", "deliveryOption3"));
+        deliveryOptions.put("item5", List.of("deliveryOption3"));
+        deliveryOptions.put("item6", List.of("deliveryOption2"));
+    }
+
+    private LowAllocationSplitter splitter() {
+        return new LowAllocationSplitter(DeliveryCatalog.of(deliveryOptions));
+    }
+}
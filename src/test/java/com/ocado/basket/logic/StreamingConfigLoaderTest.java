@@ -0,0 +1,117 @@
+package com.ocado.basket.logic;
+
+import com.ocado.basket.exceptions.ConfigLoadException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingConfigLoaderTest {
+
+    private StreamingConfigLoader configLoader;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        configLoader = new StreamingConfigLoader();
+    }
+
+    @Test
+    void loadDeliveryOptions_returnsSameMapAsConfigLoader() throws IOException {
+        var tempFile = writeConfig("{\"item1\": [\"Express Collection\", \"Courier\"],\n \"item2\" : [ ], \"item3\":[\"Courier\"]}");
+
+        var expected = new ConfigLoader().loadDeliveryOptions(tempFile);
+        var actual = configLoader.loadDeliveryOptions(tempFile);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void loadDeliveryOptions_decodesEscapesAndUnicode() throws IOException {
+        var tempFile = writeConfig("{\"Sa\u0142ata \\\"lodowa\\\"\": [\"Dostawa \\u017Cab\\n\", \"Paczkomat \uD83D\uDCE6\"]}");
+
+        var actual = configLoader.loadDeliveryOptions(tempFile);
+
+        assertEquals(Map.of("Sa\u0142ata \"lodowa\"", List.of("Dostawa \u017Cab\n", "Paczkomat \uD83D\uDCE6")), actual);
+    }
+
+    @Test
+    void loadDeliveryOptions_nonStringOptions_matchConfigLoader() throws IOException {
+        var tempFile = writeConfig("{\"item1\": [1, 1.50, 1e3, -0, true, 12345678901234567890], \"item2\": [ Courier ,007,\"Courier\"]}");
+
+        var expected = new ConfigLoader().loadDeliveryOptions(tempFile);
+        var actual = configLoader.loadDeliveryOptions(tempFile);
+
+        assertEquals(expected, actual);
+        assertEquals(List.of("Courier", "7", "Courier"), actual.get("item2"));
+    }
+
+    @Test
+    void loadDeliveryOptions_nullOrNestedOptions_throwConfigLoadException() throws IOException {
+        for (String options : List.of("[null]", "[[\"Courier\"]]", "[{\"a\": 1}]")) {
+            var tempFile = writeConfig("{\"item1\": " + options + "}");
+
+            var exception = assertThrows(ConfigLoadException.class, () -> configLoader.loadDeliveryOptions(tempFile), options);
+            assertEquals("Invalid JSON in config file", exception.getMessage());
+        }
+    }
+
+    @Test
+    void loadDeliveryOptions_sharesOptionNamesAndLists() throws IOException {
+        var tempFile = writeConfig("{\"item1\": [\"Express Collection\"], \"item2\": [\"Express Collection\"]}");
+
+        var actual = configLoader.loadDeliveryOptions(tempFile);
+
+        assertSame(actual.get("item1"), actual.get("item2"));
+    }
+
+    @Test
+    void loadCatalog_buildsCatalogWithoutIntermediateMap() throws IOException {
+        var tempFile = writeConfig("{\"item1\": [\"deliveryOption1\", \"deliveryOption2\"], \"item2\": [\"deliveryOption2\"]}");
+
+        var catalog = configLoader.loadCatalog(tempFile);
+
+        assertEquals(2, catalog.productCount());
+        assertEquals(2, catalog.optionCount());
+        assertTrue(catalog.covers(catalog.optionId("deliveryOption2"), catalog.productId("item2")));
+        assertFalse(catalog.covers(catalog.optionId("deliveryOption1"), catalog.productId("item2")));
+    }
+
+    @Test
+    void loadDeliveryOptions_throwsRuntimeException_whenConfigFileDoesNotExist() {
+        var exception = assertThrows(ConfigLoadException.class, () -> configLoader.loadDeliveryOptions("nonexistent.json"));
+        assertEquals("Failed to load config file", exception.getMessage());
+    }
+
+    @Test
+    void loadDeliveryOptions_throwsRuntimeException_whenConfigFileIsInvalid() throws IOException {
+        var tempFile = writeConfig("{\"option1\": \"value1\", \"option2\": \"value2\"}");
+
+        var exception = assertThrows(ConfigLoadException.class, () -> configLoader.loadDeliveryOptions(tempFile));
+        assertEquals("Invalid JSON in config file", exception.getMessage());
+    }
+
+    @Test
+    void loadCatalog_throwsRuntimeException_whenProductIsDuplicated() throws IOException {
+        var tempFile = writeConfig("{\"item1\": [\"deliveryOption1\"], \"item1\": [\"deliveryOption2\"]}");
+
+        var exception = assertThrows(ConfigLoadException.class, () -> configLoader.loadCatalog(tempFile));
+        assertEquals("Invalid JSON in config file", exception.getMessage());
+    }
+
+    private String writeConfig(String json) throws IOException {
+        var tempFile = tempDir.resolve("config.json");
+        Files.writeString(tempFile, json, StandardCharsets.UTF_8);
+        return tempFile.toString();
+    }
+}
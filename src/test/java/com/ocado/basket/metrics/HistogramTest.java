@@ -0,0 +1,59 @@
+package com.ocado.basket.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistogramTest {
+
+    @Test
+    void snapshot_emptyHistogram_returnsZeros() {
+        var snapshot = new Histogram().snapshot();
+
+        assertEquals(0, snapshot.getCount());
+        assertEquals(0, snapshot.getP99());
+        assertEquals(0.0, snapshot.getMean());
+    }
+
+    @Test
+    void snapshot_recordedValues_returnsBucketUpperBoundPercentiles() {
+        var histogram = new Histogram();
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+
+        var snapshot = histogram.snapshot();
+
+        assertEquals(100, snapshot.getCount());
+        assertEquals(5050, snapshot.getSum());
+        assertEquals(100, snapshot.getMax());
+        assertEquals(63, snapshot.getP50());
+        assertEquals(100, snapshot.getP90());
+        assertEquals(50.5, snapshot.getMean());
+    }
+
+    @Test
+    void record_concurrentThreads_keepsEveryValue() throws InterruptedException {
+        var histogram = new Histogram();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int thread = 0; thread < 4; thread++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    histogram.record(i);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        var snapshot = histogram.snapshot();
+
+        assertEquals(40_000, snapshot.getCount());
+        assertEquals(4L * 9_999 * 10_000 / 2, snapshot.getSum());
+        assertEquals(9_999, snapshot.getMax());
+    }
+}